@@ -0,0 +1,18 @@
+#!/bin/bash
+# PAWET-B Benchmark Runner
+# Compiles the main sources plus the benchmark sources into benchmarks/bin
+# and runs one benchmark class, independently of the CLI.
+#
+# Usage: ./bench.sh <BenchmarkClass> [args...]
+# Example: ./bench.sh UpdateBenchmark 100000 5000
+
+cd "$(dirname "$0")"
+
+CP="bin:../sqlite-jdbc-3.45.0.0.jar:../slf4j-api-1.7.36.jar:../slf4j-simple-1.7.36.jar"
+
+mkdir -p bin
+javac -d bin -cp "$CP" $(find ../src src -name "*.java") || exit 1
+
+CLASS="$1"
+shift
+java --enable-native-access=ALL-UNNAMED -cp "$CP" "benchmarks.$CLASS" "$@"
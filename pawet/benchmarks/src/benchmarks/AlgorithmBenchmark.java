@@ -0,0 +1,297 @@
+package benchmarks;
+
+import models.Employee;
+import models.Technician;
+import utils.IntroSort;
+import utils.SearchAlgorithms;
+import utils.SortAlgorithms;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * AlgorithmBenchmark - SortAlgorithms / SearchAlgorithms suite on MicroBenchmark
+ * Every benchmark runs over each size and input distribution:
+ *   sorted, reversed, random, duplicates (16 distinct names and salaries)
+ * List.sort and Arrays.parallelSort are included as baselines. The quickSort
+ * cases run the CLASSIC implementation; introSort cases call IntroSort directly.
+ *
+ * Quadratic cases (bubble sort, and quicksort on sorted input) become
+ * unaffordable at large sizes: before each size the runtime is extrapolated
+ * from the previous sizes and the run is SKIPPED if it would exceed the
+ * budget. A StackOverflowError is recorded as a result, not a crash.
+ *
+ * Results go to results/algorithms.csv and results/algorithms.json
+ * (JMH JSON layout).
+ *
+ * Usage: ./bench.sh AlgorithmBenchmark [--sizes 1000,10000,100000,1000000]
+ *            [--distributions sorted,reversed,random,duplicates]
+ *            [--benchmarks quickSortByName,...] [--budget seconds] [--quick] [--out results/algorithms]
+ */
+public class AlgorithmBenchmark {
+
+    private static final Comparator<Employee> BY_NAME = (a, b) -> a.getName().compareToIgnoreCase(b.getName());
+    private static final Comparator<Employee> BY_ID = (a, b) -> a.getId().compareToIgnoreCase(b.getId());
+    private static final int SEARCH_TARGETS = 1024;
+    // Growth assumed until two sizes have been timed (between n log n and n²)
+    private static final double DEFAULT_EXPONENT = 1.5;
+
+    /**
+     * Builds the operation to time for one dataset
+     */
+    private interface BenchmarkCase {
+        Supplier<?> prepare(List<Employee> data, String[] targets);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int[] sizes = parseSizes(options.getOrDefault("sizes", "1000,10000,100000,1000000"));
+        String[] distributions = options.getOrDefault("distributions", "sorted,reversed,random,duplicates").split(",");
+        double budgetMs = Double.parseDouble(options.getOrDefault("budget", "10")) * 1000;
+        String out = options.getOrDefault("out", "results/algorithms");
+
+        MicroBenchmark harness = options.containsKey("quick")
+                ? new MicroBenchmark(1, 3, 100)
+                : new MicroBenchmark(3, 5, 300);
+
+        Map<String, BenchmarkCase> cases = createCases();
+        if (options.containsKey("benchmarks")) {
+            cases.keySet().retainAll(Arrays.asList(options.get("benchmarks").split(",")));
+        }
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════");
+        System.out.println("ALGORITHM BENCHMARK");
+        System.out.printf("Warmup: %d x %d ms | Measurement: %d x %d ms | Budget: %.0f s per call%n",
+                harness.getWarmupIterations(), harness.getIterationMillis(),
+                harness.getMeasurementIterations(), harness.getIterationMillis(), budgetMs / 1000);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-26s %10s %-11s %14s %12s  %s%n", "Benchmark", "Size", "Input", "ms/op", "± error", "Status");
+
+        List<MicroBenchmark.Result> results = new ArrayList<>();
+        Map<String, double[]> lastTiming = new LinkedHashMap<>(); // case|distribution -> {size, ms}
+        Map<String, Double> exponents = new LinkedHashMap<>();
+
+        for (int size : sizes) {
+            for (String distribution : distributions) {
+                List<Employee> data = generate(size, distribution);
+                String[] targets = pickTargets(data);
+
+                for (Map.Entry<String, BenchmarkCase> entry : cases.entrySet()) {
+                    String key = entry.getKey() + "|" + distribution;
+                    MicroBenchmark.Result result;
+
+                    double[] previous = lastTiming.get(key);
+                    if (previous != null && Double.isNaN(previous[1])) {
+                        result = new MicroBenchmark.Result(entry.getKey(), size, distribution, null, "SKIPPED (failed at smaller size)");
+                    } else if (previous != null && predict(previous, exponents.getOrDefault(key, DEFAULT_EXPONENT), size) > budgetMs) {
+                        result = new MicroBenchmark.Result(entry.getKey(), size, distribution, null, "SKIPPED (over budget)");
+                    } else {
+                        result = run(harness, entry.getKey(), entry.getValue(), data, targets, size, distribution, budgetMs);
+                        double ms = result.isMeasured() ? MicroBenchmark.mean(result.scores) : Double.NaN;
+                        if (previous != null && !Double.isNaN(ms) && previous[1] >= 1.0) {
+                            // Timings under 1 ms are too noisy to extrapolate from
+                            double exponent = Math.log(ms / previous[1]) / Math.log(size / previous[0]);
+                            exponents.put(key, Math.min(2.0, Math.max(1.0, exponent)));
+                        }
+                        lastTiming.put(key, new double[]{size, ms});
+                    }
+
+                    results.add(result);
+                    print(result);
+                }
+                data = null;
+            }
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════\n");
+
+        writeResults(results, harness, out);
+    }
+
+    /**
+     * Benchmarks in the suite (name -> operation)
+     */
+    private static Map<String, BenchmarkCase> createCases() {
+        Map<String, BenchmarkCase> cases = new LinkedHashMap<>();
+        cases.put("bubbleSortByName", (data, targets) -> () -> SortAlgorithms.bubbleSortByName(data));
+        cases.put("quickSortByName", (data, targets) -> {
+            SortAlgorithms.setQuickSortMode(SortAlgorithms.QuickSortMode.CLASSIC);
+            return () -> SortAlgorithms.quickSortByName(data);
+        });
+        cases.put("quickSortBySalary", (data, targets) -> {
+            SortAlgorithms.setQuickSortMode(SortAlgorithms.QuickSortMode.CLASSIC);
+            return () -> SortAlgorithms.quickSortBySalary(data, true);
+        });
+        cases.put("introSortByName", (data, targets) -> () -> IntroSort.sortByName(data));
+        cases.put("introSortById", (data, targets) -> () -> IntroSort.sortById(data));
+        cases.put("introSortBySalary", (data, targets) -> () -> IntroSort.sortBySalary(data, true));
+        cases.put("listSortByName", (data, targets) -> () -> {
+            List<Employee> copy = new ArrayList<>(data);
+            copy.sort(BY_NAME);
+            return copy;
+        });
+        cases.put("arraysParallelSortByName", (data, targets) -> () -> {
+            Employee[] copy = data.toArray(new Employee[0]);
+            Arrays.parallelSort(copy, BY_NAME);
+            return copy;
+        });
+        cases.put("linearSearchById", (data, targets) -> {
+            int[] next = new int[1];
+            return () -> SearchAlgorithms.linearSearchById(data, targets[next[0]++ & (SEARCH_TARGETS - 1)]);
+        });
+        cases.put("binarySearchById", (data, targets) -> {
+            List<Employee> sorted = new ArrayList<>(data);
+            sorted.sort(BY_ID);
+            int[] next = new int[1];
+            return () -> SearchAlgorithms.binarySearchById(sorted, targets[next[0]++ & (SEARCH_TARGETS - 1)]);
+        });
+        return cases;
+    }
+
+    private static MicroBenchmark.Result run(MicroBenchmark harness, String name, BenchmarkCase benchmarkCase,
+                                             List<Employee> data, String[] targets, int size,
+                                             String distribution, double budgetMs) {
+        try {
+            Supplier<?> operation = benchmarkCase.prepare(data, targets);
+            double singleMs = harness.single(operation);
+            if (singleMs * (harness.getWarmupIterations() + harness.getMeasurementIterations()) > budgetMs) {
+                // Too slow for repeated iterations - report the one call we made
+                return new MicroBenchmark.Result(name, size, distribution, new double[]{singleMs}, "SINGLE-SHOT");
+            }
+            return new MicroBenchmark.Result(name, size, distribution, harness.measure(operation), "OK");
+        } catch (StackOverflowError e) {
+            return new MicroBenchmark.Result(name, size, distribution, null, "StackOverflowError");
+        } catch (OutOfMemoryError e) {
+            return new MicroBenchmark.Result(name, size, distribution, null, "OutOfMemoryError");
+        }
+    }
+
+    private static double predict(double[] previous, double exponent, int size) {
+        return previous[1] * Math.pow(size / previous[0], exponent);
+    }
+
+    private static void print(MicroBenchmark.Result result) {
+        if (result.isMeasured()) {
+            double error = MicroBenchmark.error(result.scores);
+            System.out.printf(Locale.ROOT, "  %-26s %,10d %-11s %14.4f %12s  %s%n", result.benchmark, result.size,
+                    result.distribution, MicroBenchmark.mean(result.scores),
+                    Double.isNaN(error) ? "" : String.format(Locale.ROOT, "%.4f", error), result.status);
+        } else {
+            System.out.printf(Locale.ROOT, "  %-26s %,10d %-11s %14s %12s  %s%n", result.benchmark, result.size,
+                    result.distribution, "-", "", result.status);
+        }
+    }
+
+    // ==================== DATASETS ====================
+
+    /**
+     * Employees whose name, id, salary and hire date follow the requested distribution
+     */
+    static List<Employee> generate(int size, String distribution) {
+        Random random = new Random(42);
+        LocalDate hireDate = LocalDate.of(2024, 1, 1);
+        boolean duplicates = "duplicates".equals(distribution);
+
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int key = duplicates ? i % 16 : i;
+            employees.add(new Technician(String.format("T%07d", i), String.format("Employee %07d", key),
+                    "t" + i + "@pawet.org", "", "D001", "Field Technician",
+                    30_000 + key, hireDate.minusDays(key % 3_650), ""));
+        }
+
+        switch (distribution) {
+            case "sorted":
+                break;
+            case "reversed":
+                Collections.reverse(employees);
+                break;
+            case "random":
+            case "duplicates":
+                Collections.shuffle(employees, random);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return employees;
+    }
+
+    /**
+     * Existing IDs to look up, in random order
+     */
+    private static String[] pickTargets(List<Employee> data) {
+        Random random = new Random(7);
+        String[] targets = new String[SEARCH_TARGETS];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = data.get(random.nextInt(data.size())).getId();
+        }
+        return targets;
+    }
+
+    // ==================== OUTPUT ====================
+
+    private static void writeResults(List<MicroBenchmark.Result> results, MicroBenchmark harness,
+                                     String out) throws IOException {
+        File csv = new File(out + ".csv");
+        File json = new File(out + ".json");
+        if (csv.getParentFile() != null) {
+            csv.getParentFile().mkdirs();
+        }
+
+        try (PrintWriter writer = new PrintWriter(csv, "UTF-8")) {
+            writer.println("benchmark,size,distribution,score_ms_per_op,score_error,status");
+            for (MicroBenchmark.Result result : results) {
+                writer.println(result.toCsv());
+            }
+        }
+
+        try (PrintWriter writer = new PrintWriter(json, "UTF-8")) {
+            writer.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                writer.print(results.get(i).toJson(harness));
+                writer.println(i < results.size() - 1 ? "," : "");
+            }
+            writer.println("]");
+        }
+
+        System.out.println("✓ Results written to " + csv.getPath() + " and " + json.getPath());
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if ("quick".equals(name)) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+        return options;
+    }
+
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+        }
+        return sizes;
+    }
+}
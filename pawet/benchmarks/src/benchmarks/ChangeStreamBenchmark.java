@@ -0,0 +1,405 @@
+package benchmarks;
+
+import database.StorageEngines;
+import managers.Organization;
+import models.Equipment;
+import utils.ChangeEvent;
+import utils.ChangeLogWriter;
+import utils.ChangeStream;
+import utils.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ChangeStreamBenchmark - cost of publishing change events, and what consumers see
+ *
+ * 1. Publish throughput: producers append events to a bare ChangeStream
+ *    with 0, 1 and 4 batch consumers reading along. Every consumer must see
+ *    every offset exactly once, in order.
+ * 2. Organization mutations (memory store, equipment maintenance cycles on
+ *    several threads) with no subscriber, a counting consumer and a
+ *    ChangeLogWriter. Each item's events must carry versions 1..n with no
+ *    gap, ending at the item's version.
+ * 3. Backpressure: a slow consumer on a small stream holds producers back;
+ *    a stalled one is detached after maxBlockMillis, fails its next poll and
+ *    can subscribe again from the oldest offset.
+ *
+ * Exits with status 1 if any check fails.
+ *
+ * Usage: ./bench.sh ChangeStreamBenchmark [events] [operations]   (default: 2000000 200000)
+ */
+public class ChangeStreamBenchmark {
+    private static final long SEED = 11;
+    private static final int ITEMS = 1_000;
+    private static final int TECHNICIANS = 50;
+
+    private static boolean failed;
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("PUBLISH THROUGHPUT (%,d events, capacity %,d)%n", events, ChangeStream.DEFAULT_CAPACITY);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-10s %-10s %14s %14s   %s%n", "Producers", "Consumers", "Events/s", "Backpressure",
+                "Order");
+        publish(events / 4, 1, 1);   // warmup (JIT), discarded
+        for (int producers : new int[] {1, threads}) {
+            for (int consumers : new int[] {0, 1, 4}) {
+                publish(events, producers, consumers).print(producers, consumers);
+            }
+        }
+
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("ORGANIZATION MUTATIONS (%,d equipment transitions on %d threads, memory store)%n",
+                operations, threads);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-22s %14s %12s   %s%n", "Subscribers", "Ops/s", "Events", "Versions");
+        mutate(operations, threads, Mode.NONE, false);   // warmup (JIT), discarded
+        for (Mode mode : Mode.values()) {
+            mutate(operations, threads, mode, true);
+        }
+
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println("BACKPRESSURE (capacity 1,024, maxBlock 200 ms)");
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        backpressure();
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println(failed ? "❌ Some checks failed\n" : "✓ All checks passed\n");
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    // ==================== PUBLISH THROUGHPUT ====================
+
+    /**
+     * Result of one publish run
+     */
+    private static final class PublishRun {
+        double eventsPerSecond;
+        long backpressure;
+        boolean ordered;
+
+        void print(int producers, int consumers) {
+            System.out.printf("  %-10d %-10d %,14.0f %,14d   %s%n", producers, consumers, eventsPerSecond,
+                    backpressure, consumers == 0 ? "-" : ordered ? "✓ gap-free" : "❌ gaps or reordering");
+        }
+    }
+
+    private static PublishRun publish(int events, int producers, int consumers) throws InterruptedException {
+        ChangeStream stream = new ChangeStream(ChangeStream.DEFAULT_CAPACITY, ChangeStream.DEFAULT_MAX_BLOCK_MILLIS);
+        Metrics.shared().reset();
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        List<Thread> readers = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            ChangeStream.Subscription subscription = stream.subscribe("consumer-" + c, 0);
+            Thread reader = new Thread(() -> {
+                long[] expected = {0};
+                try {
+                    while (expected[0] < events) {
+                        subscription.poll(1_000, 10, TimeUnit.MILLISECONDS, event -> {
+                            if (event.getOffset() != expected[0]++) {
+                                ordered.set(false);
+                            }
+                        });
+                    }
+                } catch (IllegalStateException e) {
+                    ordered.set(false);
+                } finally {
+                    subscription.close();
+                }
+            }, "consumer-" + c);
+            readers.add(reader);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int share = events / producers + (p < events % producers ? 1 : 0);
+            String entityId = "E" + p;
+            Thread writer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < share; i++) {
+                    stream.publish(ChangeEvent.Type.EQUIPMENT_STATUS_CHANGED, entityId, "T001", "IN_USE", 0, i + 1);
+                }
+            }, "producer-" + p);
+            writers.add(writer);
+            writer.start();
+        }
+        readers.forEach(Thread::start);
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        PublishRun run = new PublishRun();
+        run.eventsPerSecond = events / ((System.nanoTime() - started) / 1_000_000_000.0);
+        run.backpressure = Metrics.shared().getCounter("cdc.backpressure");
+        run.ordered = ordered.get() && stream.getNextOffset() == events;
+        failed |= consumers > 0 && !run.ordered;
+        return run;
+    }
+
+    // ==================== ORGANIZATION MUTATIONS ====================
+
+    private enum Mode {
+        NONE("none"),
+        CONSUMER("batch consumer"),
+        LOG("change log file");
+
+        final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+    }
+
+    private static void mutate(int operations, int threads, Mode mode, boolean report) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(discard());
+        Organization organization;
+        List<ChangeEvent> seen = new ArrayList<>();
+        Thread reader = null;
+        ChangeLogWriter changeLog = null;
+        File logFile = null;
+        AtomicBoolean done = new AtomicBoolean();
+        double opsPerSecond;
+        try {
+            organization = new Organization(StorageEngines.open("memory:"), false, Organization.DEFAULT_CACHE_SIZE);
+            organization.addDepartment("D001", "Field Operations", "Coast", 1_000_000, null);
+            LocalDate date = LocalDate.of(2022, 3, 1);
+            for (int t = 0; t < TECHNICIANS; t++) {
+                organization.addTechnician(technicianId(t), "Technician " + t, "t" + t + "@pawet.org", "555-0100",
+                        "D001", "Field Technician", 50_000, date, "Drones");
+            }
+            for (int i = 0; i < ITEMS; i++) {
+                organization.addEquipment(equipmentId(i), "Field Camera " + i, "Camera", "SN-" + i, "D001", date);
+                organization.assignEquipment(equipmentId(i), technicianId(i % TECHNICIANS));
+            }
+
+            ChangeStream stream = organization.getChangeStream();
+            if (mode == Mode.CONSUMER) {
+                ChangeStream.Subscription subscription = stream.subscribe("bench", 0);
+                reader = new Thread(() -> {
+                    try {
+                        while (!done.get() || subscription.getLag() > 0) {
+                            subscription.poll(1_000, 10, TimeUnit.MILLISECONDS, seen::add);
+                        }
+                    } finally {
+                        subscription.close();
+                    }
+                }, "bench-consumer");
+                reader.start();
+            } else if (mode == Mode.LOG) {
+                logFile = File.createTempFile("pawet-cdc", ".jsonl");
+                changeLog = new ChangeLogWriter(stream, 0, logFile.getPath());
+            }
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> workers = new ArrayList<>();
+            for (int w = 0; w < threads; w++) {
+                int share = operations / threads;
+                Random random = new Random(SEED + w);
+                Thread worker = new Thread(() -> {
+                    awaitQuietly(start);
+                    for (int i = 0; i < share; i++) {
+                        String id = equipmentId(random.nextInt(ITEMS));
+                        // Losing a race (or finding the item mid-cycle) fails the call; that is fine here
+                        if (!organization.sendEquipmentToMaintenance(id)) {
+                            organization.returnEquipmentFromMaintenance(id);
+                        }
+                    }
+                }, "worker-" + w);
+                workers.add(worker);
+                worker.start();
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            opsPerSecond = (operations / threads * threads) / ((System.nanoTime() - started) / 1_000_000_000.0);
+            done.set(true);
+            if (reader != null) {
+                reader.join();
+            }
+            if (changeLog != null) {
+                changeLog.close();
+                logFile.delete();
+            }
+            organization.closeDatabase();
+        } finally {
+            System.setOut(out);
+        }
+
+        if (!report) {
+            return;
+        }
+        String verdict = "-";
+        if (mode == Mode.CONSUMER) {
+            boolean ok = versionsGapFree(organization, seen);
+            failed |= !ok;
+            verdict = ok ? "✓ 1..n per item" : "❌ missing or duplicate versions";
+        }
+        System.out.printf("  %-22s %,14.0f %,12d   %s%n", mode.label, opsPerSecond,
+                organization.getChangeStream().getNextOffset(), verdict);
+    }
+
+    /**
+     * Each item's equipment events, sorted by version, must be 1..version with no gap
+     */
+    private static boolean versionsGapFree(Organization organization, List<ChangeEvent> events) {
+        Map<String, List<Long>> versions = new HashMap<>();
+        for (ChangeEvent event : events) {
+            if (event.getType() == ChangeEvent.Type.EQUIPMENT_ASSIGNED
+                    || event.getType() == ChangeEvent.Type.EQUIPMENT_STATUS_CHANGED) {
+                versions.computeIfAbsent(event.getEntityId(), id -> new ArrayList<>()).add(event.getVersion());
+            }
+        }
+        for (Equipment equipment : organization.getAllEquipment()) {
+            List<Long> item = versions.getOrDefault(equipment.getId(), new ArrayList<>());
+            long[] sorted = item.stream().mapToLong(Long::longValue).sorted().toArray();
+            for (int v = 0; v < sorted.length; v++) {
+                if (sorted[v] != v + 1) {
+                    return false;
+                }
+            }
+            if (sorted.length != equipment.getVersion()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== BACKPRESSURE ====================
+
+    private static void backpressure() throws InterruptedException {
+        PrintStream err = System.err;
+        System.setErr(discard());
+        Metrics metrics = Metrics.shared();
+        try {
+            // Slow consumer: 10 events per millisecond, producer has to wait for it
+            metrics.reset();
+            ChangeStream stream = new ChangeStream(1_024, 200);
+            ChangeStream.Subscription slow = stream.subscribe("slow", 0);
+            int events = 20_000;
+            Thread reader = new Thread(() -> {
+                long[] expected = {0};
+                while (expected[0] < events) {
+                    slow.poll(10, event -> {
+                        if (event.getOffset() != expected[0]++) {
+                            failed = true;
+                        }
+                    });
+                    sleepQuietly(1);
+                }
+            }, "slow-consumer");
+            reader.start();
+            long started = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                stream.publish(ChangeEvent.Type.BUDGET_ALLOCATED, "D001", null, null, 1);
+            }
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            reader.join();
+            boolean kept = !slow.isOverrun() && slow.getOffset() == events;
+            slow.close();
+            check(String.format("slow consumer kept up (%,.0f events/s, %,d producer waits)", events / seconds,
+                    metrics.getCounter("cdc.backpressure")), kept && metrics.getCounter("cdc.backpressure") > 0);
+
+            // Stalled consumer: detached after maxBlock, the producer goes on
+            metrics.reset();
+            ChangeStream.Subscription stalled = stream.subscribe("stalled", stream.getNextOffset());
+            started = System.nanoTime();
+            for (int i = 0; i < 5_000; i++) {
+                stream.publish(ChangeEvent.Type.BUDGET_ALLOCATED, "D001", null, null, 1);
+            }
+            long blockedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            check(String.format("stalled consumer detached (producer blocked %d ms, %d overrun)", blockedMillis,
+                    metrics.getCounter("cdc.overruns")), stalled.isOverrun() && blockedMillis < 1_000
+                    && metrics.getCounter("cdc.overruns") == 1);
+            boolean pollFailed = false;
+            try {
+                stalled.poll(10);
+            } catch (IllegalStateException e) {
+                pollFailed = true;
+            }
+            check("poll after overrun fails", pollFailed);
+
+            ChangeStream.Subscription again = stream.subscribe("stalled", stream.getOldestOffset());
+            List<ChangeEvent> batch = again.poll(2_000);
+            check("resubscribe from oldest offset reads the last " + stream.getCapacity() + " events",
+                    batch.size() == stream.getCapacity()
+                            && batch.get(0).getOffset() == stream.getOldestOffset()
+                            && batch.get(batch.size() - 1).getOffset() == stream.getNextOffset() - 1);
+            again.close();
+
+            boolean rejected = false;
+            try {
+                stream.subscribe("too-old", 0);
+            } catch (IllegalArgumentException e) {
+                rejected = true;
+            }
+            check("subscribe from an offset no longer kept is rejected", rejected);
+        } finally {
+            System.setErr(err);
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        System.out.println("  " + (ok ? "✓ " : "❌ ") + name);
+        failed |= !ok;
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String equipmentId(int i) {
+        return String.format("E%05d", i);
+    }
+
+    private static String technicianId(int t) {
+        return String.format("T%03d", t);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static PrintStream discard() {
+        return new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package benchmarks;
+
+import models.Employee;
+import utils.EmployeeColumns;
+import utils.SyntheticDataGenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ColumnarBenchmark - analytics over List<Employee> vs. the EmployeeColumns snapshot
+ * Compares heap and scan time for total payroll, payroll per department,
+ * payroll per department and role, and a hire-date range count.
+ *
+ * Usage: ./bench.sh ColumnarBenchmark [employees]   (default: 1000000)
+ */
+public class ColumnarBenchmark {
+    private static final int DEPARTMENTS = 50;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedHeap();
+        List<Employee> employees = generate(size);
+        long objectHeap = usedHeap() - baseline;
+
+        long start = System.nanoTime();
+        EmployeeColumns columns = EmployeeColumns.of(employees);
+        double buildMs = (System.nanoTime() - start) / 1_000_000.0;
+        long columnHeap = usedHeap() - baseline - objectHeap;
+
+        LocalDate from = LocalDate.of(2015, 1, 1);
+        LocalDate to = LocalDate.of(2018, 12, 31);
+        MicroBenchmark harness = new MicroBenchmark(3, 5, 1_000);
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("COLUMNAR SNAPSHOT (%,d employees, %d departments)%n", size, DEPARTMENTS);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  Heap: List<Employee> %.1f MB, columns %.1f MB measured (%.1f MB estimated), %.0fx smaller%n",
+                mb(objectHeap), mb(columnHeap), mb(columns.estimatedBytes()), (double) objectHeap / columnHeap);
+        System.out.printf("  Snapshot build from the list: %.0f ms%n", buildMs);
+        System.out.printf("  %-32s %14s %14s %9s%n", "Operation", "Objects (ms)", "Columns (ms)", "Speedup");
+
+        compare(harness, "Total payroll",
+                () -> {
+                    double total = 0;
+                    for (Employee employee : employees) {
+                        total += employee.getSalary();
+                    }
+                    return total;
+                },
+                columns::totalPayroll);
+        compare(harness, "Payroll by department",
+                () -> {
+                    Map<String, Double> payroll = new HashMap<>();
+                    for (Employee employee : employees) {
+                        payroll.merge(employee.getDepartmentId(), employee.getSalary(), Double::sum);
+                    }
+                    return payroll;
+                },
+                columns::payrollByDepartment);
+        compare(harness, "Payroll by department and role",
+                () -> {
+                    Map<String, Double> payroll = new HashMap<>();
+                    for (Employee employee : employees) {
+                        payroll.merge(employee.getDepartmentId() + "|" + employee.getRoleType(),
+                                employee.getSalary(), Double::sum);
+                    }
+                    return payroll;
+                },
+                columns::payrollByDepartmentAndRoleType);
+        compare(harness, "Count hired 2015-2018",
+                () -> {
+                    int count = 0;
+                    for (Employee employee : employees) {
+                        LocalDate hired = employee.getHireDate();
+                        if (!hired.isBefore(from) && !hired.isAfter(to)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                },
+                () -> columns.countHiredBetween(from, to));
+        System.out.println("═══════════════════════════════════════════════════════════════════\n");
+    }
+
+    private static void compare(MicroBenchmark harness, String name,
+                                Supplier<?> objects, Supplier<?> columnar) {
+        double objectMs = MicroBenchmark.mean(harness.measure(objects));
+        double columnMs = MicroBenchmark.mean(harness.measure(columnar));
+        System.out.printf("  %-32s %14.3f %14.3f %8.1fx%n", name, objectMs, columnMs, objectMs / columnMs);
+    }
+
+    /**
+     * SyntheticDataGenerator employees spread over DEPARTMENTS departments (fixed seed)
+     */
+    private static List<Employee> generate(int size) {
+        List<String> departmentIds = new ArrayList<>(DEPARTMENTS);
+        for (int i = 1; i <= DEPARTMENTS; i++) {
+            departmentIds.add(String.format("D%03d", i));
+        }
+        return new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, 1)
+                .generateEmployees(departmentIds, 1, size);
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,359 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import database.SyntheticDataWriter;
+import managers.Organization;
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Technician;
+import utils.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConcurrencyBenchmark - multi-threaded stress test of one shared Organization
+ * 1. Search throughput on 1..N threads (ID lookups, department filters,
+ *    salary and ID ranges, percentiles), lock-free as shipped vs. the same
+ *    mix behind one global lock (what a synchronized Organization would do).
+ * 2. Contention: every thread races to assign the same available equipment
+ *    and adds technicians to the same few departments; afterwards each item
+ *    must be assigned exactly once, every department headcount (in memory and
+ *    in the database) must match the number of adds, and the incremental
+ *    statistics must match a full recompute.
+ *
+ * Usage: ./bench.sh ConcurrencyBenchmark [scaleFactor] [secondsPerRun]   (default: 1 3)
+ */
+public class ConcurrencyBenchmark {
+    private static final int ADDS_PER_THREAD = 50;
+    private static final int HOT_DEPARTMENTS = 3;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        double scale = args.length > 0 ? Double.parseDouble(args[0]) : 1;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>(new TreeSet<>(Arrays.asList(1, 2, 4, cores, 2 * cores)));
+
+        File dbFile = File.createTempFile("pawet-concurrency-bench", ".db");
+        dbFile.deleteOnExit();
+        String dbUrl = "jdbc:sqlite:" + dbFile.getPath();
+        DatabaseManager writerDb = new DatabaseManager(dbUrl);
+        new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, scale).generate(new SyntheticDataWriter(writerDb));
+        writerDb.close();
+
+        DatabaseManager dbManager = new DatabaseManager(dbUrl);
+        Organization organization = new Organization(dbManager, false, Organization.DEFAULT_CACHE_SIZE);
+        Workload workload = new Workload(organization);
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("SEARCH THROUGHPUT (%,d employees, %d s per run, %d processors)%n",
+                workload.ids.length, seconds, cores);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-8s %18s %10s %18s %10s%n", "Threads", "Lock-free (ops/s)", "Scaling",
+                "Global lock (ops/s)", "Scaling");
+        searchThroughput(workload, cores, seconds, null);   // warmup (JIT), discarded
+        double lockFreeBase = 0;
+        double globalBase = 0;
+        for (int threads : threadCounts) {
+            double lockFree = searchThroughput(workload, threads, seconds, null);
+            double global = searchThroughput(workload, threads, seconds, new Object());
+            if (threads == 1) {
+                lockFreeBase = lockFree;
+                globalBase = global;
+            }
+            System.out.printf("  %-8d %,18.0f %9.2fx %,18.0f %9.2fx%n", threads,
+                    lockFree, lockFree / lockFreeBase, global, global / globalBase);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+
+        int threads = Math.max(4, cores);
+        boolean passed = contention(organization, dbManager, workload, threads);
+        organization.closeDatabase();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Random read-only inputs drawn from the loaded data
+     */
+    private static final class Workload {
+        final Organization organization;
+        final String[] ids;
+        final String[] departments;
+
+        Workload(Organization organization) {
+            this.organization = organization;
+            List<Employee> employees = organization.getAllEmployees();
+            ids = new String[employees.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = employees.get(i).getId();
+            }
+            List<Department> all = organization.getAllDepartments();
+            departments = new String[all.size()];
+            for (int i = 0; i < departments.length; i++) {
+                departments[i] = all.get(i).getId();
+            }
+        }
+
+        /**
+         * One search from the mix; returns something derived from the result
+         */
+        int search(Random random) {
+            int pick = random.nextInt(100);
+            if (pick < 40) {
+                Employee employee = organization.searchEmployeeById(ids[random.nextInt(ids.length)]);
+                return employee != null ? 1 : 0;
+            }
+            if (pick < 60) {
+                return organization.searchEmployeesByDepartment(departments[random.nextInt(departments.length)]).size();
+            }
+            if (pick < 75) {
+                double min = 30_000 + random.nextInt(100_000);
+                return organization.searchEmployeesBySalaryRange(min, min + 1_000).size();
+            }
+            if (pick < 90) {
+                int from = random.nextInt(ids.length);
+                return organization.searchEmployeesByIdRange(ids[from], ids[Math.min(ids.length - 1, from + 20)]).size();
+            }
+            return (int) organization.getSalaryPercentile(random.nextInt(101));
+        }
+    }
+
+    /**
+     * Searches per second over all threads (every search inside lock if it is not null)
+     */
+    private static double searchThroughput(Workload workload, int threads, int seconds, Object lock)
+            throws InterruptedException {
+        AtomicLong operations = new AtomicLong();
+        AtomicInteger sink = new AtomicInteger();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        PrintStream out = muteStdout();
+        try {
+            long start = System.nanoTime();
+            runThreads(threads, thread -> {
+                Random random = new Random(thread);
+                long done = 0;
+                int folded = 0;
+                while ((done & 63) != 0 || System.nanoTime() < deadline) {
+                    if (lock == null) {
+                        folded += workload.search(random);
+                    } else {
+                        synchronized (lock) {
+                            folded += workload.search(random);
+                        }
+                    }
+                    done++;
+                }
+                operations.addAndGet(done);
+                sink.addAndGet(folded);
+            });
+            return operations.get() / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    // ==================== CONTENTION ====================
+
+    /**
+     * Race threads on the same equipment and departments, then check the invariants
+     *
+     * @return true if every invariant held
+     */
+    private static boolean contention(Organization organization, DatabaseManager dbManager, Workload workload,
+                                      int threads) throws InterruptedException {
+        List<String> available = new ArrayList<>();
+        for (Equipment equipment : organization.getAllEquipment()) {
+            if (equipment.isAvailable()) {
+                available.add(equipment.getId());
+            }
+        }
+        List<Employee> technicians = new ArrayList<>();
+        for (Employee employee : organization.getAllEmployees()) {
+            if (employee instanceof Technician) {
+                technicians.add(employee);
+            }
+        }
+        int handledBefore = equipmentHandled(technicians);
+        String[] hot = Arrays.copyOf(workload.departments, Math.min(HOT_DEPARTMENTS, workload.departments.length));
+        int[] countsBefore = new int[hot.length];
+        for (int i = 0; i < hot.length; i++) {
+            countsBefore[i] = organization.searchDepartmentById(hot[i]).getEmployeeCount();
+        }
+
+        AtomicInteger assigned = new AtomicInteger();
+        PrintStream out = muteStdout();
+        long start = System.nanoTime();
+        try {
+            runThreads(threads, thread -> {
+                Random random = new Random(1_000 + thread);
+                List<String> order = new ArrayList<>(available);
+                Collections.shuffle(order, random);
+                for (int i = 0; i < order.size(); i++) {
+                    Employee technician = technicians.get(random.nextInt(technicians.size()));
+                    if (organization.assignEquipment(order.get(i), technician.getId())) {
+                        assigned.incrementAndGet();
+                    }
+                    if (i < ADDS_PER_THREAD) {
+                        organization.addTechnician(String.format("T%02d%06d", thread + 90, i), "Stress Tech " + i,
+                                "stress" + thread + "." + i + "@pawet.org", "555-0100", hot[i % hot.length],
+                                "Field Technician", 40_000, LocalDate.of(2025, 1, 1), "Stress");
+                    }
+                }
+            });
+        } finally {
+            System.setOut(out);
+        }
+        double elapsed = (System.nanoTime() - start) / 1_000_000_000.0;
+        int attempts = available.size() * threads + Math.min(ADDS_PER_THREAD, available.size()) * threads;
+
+        System.out.printf("%nCONTENTION (%d threads, %,d available items, %d hot departments): %,.0f ops/s%n",
+                threads, available.size(), hot.length, attempts / elapsed);
+        boolean passed = check("each available item assigned exactly once",
+                assigned.get() == available.size(), assigned.get() + " of " + available.size());
+        Map<String, Equipment> equipmentById = new HashMap<>();
+        for (Equipment equipment : organization.getAllEquipment()) {
+            equipmentById.put(equipment.getId(), equipment);
+        }
+        int inUse = 0;
+        for (String id : available) {
+            Equipment equipment = equipmentById.get(id);
+            if ("IN_USE".equals(equipment.getStatus()) && equipment.getAssignedToId() != null) {
+                inUse++;
+            }
+        }
+        passed &= check("every raced item is IN_USE with a technician", inUse == available.size(),
+                inUse + " of " + available.size());
+        int handled = equipmentHandled(technicians) - handledBefore;
+        passed &= check("technician equipment lists gained one entry per assignment", handled == assigned.get(),
+                handled + " entries");
+
+        int adds = Math.min(ADDS_PER_THREAD, available.size());
+        for (int i = 0; i < hot.length; i++) {
+            int expected = countsBefore[i];
+            for (int add = 0; add < adds; add++) {
+                if (add % hot.length == i) {
+                    expected += threads;
+                }
+            }
+            int inMemory = organization.searchDepartmentById(hot[i]).getEmployeeCount();
+            int stored = dbManager.loadDepartmentById(hot[i]).getEmployeeCount();
+            passed &= check(hot[i] + " headcount (memory / database)", inMemory == expected && stored == expected,
+                    inMemory + " / " + stored + ", expected " + expected);
+        }
+
+        out = muteStdout();
+        boolean statistics;
+        try {
+            statistics = organization.verifyStatistics();
+        } finally {
+            System.setOut(out);
+        }
+        passed &= check("incremental statistics match a full recompute", statistics, "");
+        System.out.println(passed ? "✓ All invariants held\n" : "❌ Invariant violated\n");
+        return passed;
+    }
+
+    private static int equipmentHandled(List<Employee> technicians) {
+        int total = 0;
+        for (Employee employee : technicians) {
+            total += ((Technician) employee).getEquipmentCount();
+        }
+        return total;
+    }
+
+    private static boolean check(String label, boolean ok, String detail) {
+        System.out.printf("  %s %-58s %s%n", ok ? "✓" : "❌", label, detail);
+        return ok;
+    }
+
+    // ==================== HELPERS ====================
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    /**
+     * Start all threads together and wait for them (a worker's exception fails the run)
+     */
+    private static void runThreads(int threads, Worker worker) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread runner = new Thread(() -> {
+                try {
+                    ready.await();
+                    worker.run(thread);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "stress-" + t);
+            workers.add(runner);
+            runner.start();
+        }
+        ready.countDown();
+        for (Thread runner : workers) {
+            runner.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Worker failed", failures.get(0));
+        }
+    }
+
+    /**
+     * Swallow Organization's per-call progress lines without the PrintStream
+     * lock, which would otherwise serialize every thread on System.out
+     */
+    private static PrintStream muteStdout() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }) {
+            @Override
+            public void print(String s) {
+            }
+
+            @Override
+            public void println(String s) {
+            }
+
+            @Override
+            public void println() {
+            }
+
+            @Override
+            public PrintStream printf(String format, Object... args) {
+                return this;
+            }
+
+            @Override
+            public PrintStream printf(Locale locale, String format, Object... args) {
+                return this;
+            }
+        });
+        return out;
+    }
+}
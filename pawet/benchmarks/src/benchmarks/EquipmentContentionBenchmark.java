@@ -0,0 +1,284 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import database.SyntheticDataWriter;
+import managers.Organization;
+import models.Employee;
+import models.Equipment;
+import models.Technician;
+import utils.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * EquipmentContentionBenchmark - versioned compare-and-set equipment transitions under contention
+ * 1. Threads drive a few hot items round AVAILABLE -> IN_USE -> MAINTENANCE
+ *    -> AVAILABLE, each step an UPDATE ... WHERE version = ? followed by
+ *    Equipment.tryTransition(). Optimistic (losers retry on a fresh read) vs.
+ *    pessimistic (every step inside one global lock, so nobody ever loses).
+ *    After each run every item's version must have grown by exactly its
+ *    number of successful steps, in memory and in the database (no lost or
+ *    doubled updates), and both must agree on the status.
+ * 2. All threads race to retire the hot items through Organization: each item
+ *    is retired exactly once and refuses any later transition.
+ *
+ * Usage: ./bench.sh EquipmentContentionBenchmark [hotItems] [secondsPerRun]   (default: 4 2)
+ */
+public class EquipmentContentionBenchmark {
+    private static final double SCALE = 0.2;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int hotItems = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>(new TreeSet<>(Arrays.asList(1, 2, 4, cores, 2 * cores)));
+
+        File dbFile = File.createTempFile("pawet-equipment-bench", ".db");
+        dbFile.deleteOnExit();
+        String dbUrl = "jdbc:sqlite:" + dbFile.getPath();
+        DatabaseManager writerDb = new DatabaseManager(dbUrl);
+        new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, SCALE).generate(new SyntheticDataWriter(writerDb));
+        writerDb.close();
+
+        DatabaseManager dbManager = new DatabaseManager(dbUrl);
+        Organization organization = new Organization(dbManager, false, Organization.DEFAULT_CACHE_SIZE);
+        List<Equipment> hot = new ArrayList<>();
+        for (Equipment equipment : organization.getAllEquipment()) {
+            if (equipment.isAvailable() && hot.size() < hotItems) {
+                hot.add(equipment);
+            }
+        }
+        List<String> technicians = new ArrayList<>();
+        for (Employee employee : organization.getAllEmployees()) {
+            if (employee instanceof Technician) {
+                technicians.add(employee.getId());
+            }
+        }
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════");
+        System.out.printf("EQUIPMENT TRANSITIONS (%d hot items, %d s per run, %d processors)%n",
+                hot.size(), seconds, cores);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-8s %-12s %14s %14s %10s %10s%n", "Threads", "Mode", "Attempts/s", "Changes/s",
+                "Conflicts", "Lost");
+        transitions(dbManager, hot, technicians, cores, seconds, null);   // warmup (JIT), discarded
+        boolean passed = true;
+        for (int threads : threadCounts) {
+            passed &= transitions(dbManager, hot, technicians, threads, seconds, null).print(threads, "optimistic");
+            passed &= transitions(dbManager, hot, technicians, threads, seconds, new Object()).print(threads, "global lock");
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════");
+
+        passed &= retireRace(organization, dbManager, hot, Math.max(4, cores));
+        organization.closeDatabase();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Counts of one run, plus the number of items whose version drifted from their successful steps
+     */
+    private static final class Run {
+        long attempts;
+        long changes;
+        double seconds;
+        int lost;
+
+        boolean print(int threads, String mode) {
+            System.out.printf("  %-8d %-12s %,14.0f %,14.0f %9.1f%% %10d%n", threads, mode, attempts / seconds,
+                    changes / seconds, attempts > 0 ? 100.0 * (attempts - changes) / attempts : 0, lost);
+            return lost == 0;
+        }
+    }
+
+    // ==================== TRANSITIONS ====================
+
+    /**
+     * Cycle the hot items on all threads (every step inside lock if it is not null)
+     */
+    private static Run transitions(DatabaseManager dbManager, List<Equipment> hot, List<String> technicians,
+                                   int threads, int seconds, Object lock) throws InterruptedException {
+        long[] versionsBefore = new long[hot.size()];
+        for (int i = 0; i < hot.size(); i++) {
+            versionsBefore[i] = hot.get(i).getVersion();
+        }
+        AtomicLongArray changes = new AtomicLongArray(hot.size());
+        AtomicLong attempts = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long start = System.nanoTime();
+        runThreads(threads, thread -> {
+            Random random = new Random(thread);
+            long done = 0;
+            while (System.nanoTime() < deadline) {
+                int item = random.nextInt(hot.size());
+                String technicianId = technicians.get(random.nextInt(technicians.size()));
+                boolean changed;
+                if (lock == null) {
+                    changed = step(dbManager, hot.get(item), technicianId);
+                } else {
+                    synchronized (lock) {
+                        changed = step(dbManager, hot.get(item), technicianId);
+                    }
+                }
+                if (changed) {
+                    changes.incrementAndGet(item);
+                }
+                done++;
+            }
+            attempts.addAndGet(done);
+        });
+
+        Run run = new Run();
+        run.seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        run.attempts = attempts.get();
+        for (int i = 0; i < hot.size(); i++) {
+            Equipment equipment = hot.get(i);
+            Equipment stored = dbManager.loadEquipmentById(equipment.getId());
+            long expected = versionsBefore[i] + changes.get(i);
+            run.changes += changes.get(i);
+            if (equipment.getVersion() != expected || stored.getVersion() != expected
+                    || !stored.getStatus().equals(equipment.getStatus())) {
+                run.lost++;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * One optimistic step to the next lifecycle state, the way Organization does it:
+     * the row decides, memory follows, a loser catches up with the row
+     *
+     * @return true if this call made the change
+     */
+    private static boolean step(DatabaseManager dbManager, Equipment equipment, String technicianId) {
+        long version = equipment.getVersion();
+        String status;
+        String assignedToId;
+        if (equipment.isAvailable()) {
+            status = "IN_USE";
+            assignedToId = technicianId;
+        } else if (equipment.isInUse()) {
+            status = "MAINTENANCE";
+            assignedToId = equipment.getAssignedToId();
+        } else {
+            status = "AVAILABLE";
+            assignedToId = null;
+        }
+        if (!dbManager.compareAndSetEquipmentState(equipment.getId(), version, status, assignedToId)) {
+            Equipment stored = dbManager.loadEquipmentById(equipment.getId());
+            equipment.reload(stored.getStatus(), stored.getAssignedToId(), stored.getVersion());
+            return false;
+        }
+        if (!equipment.tryTransition(version, status, assignedToId)) {
+            Equipment stored = dbManager.loadEquipmentById(equipment.getId());
+            equipment.reload(stored.getStatus(), stored.getAssignedToId(), stored.getVersion());
+        }
+        return true;
+    }
+
+    // ==================== RETIRE RACE ====================
+
+    /**
+     * Every thread tries to retire every hot item; check each went exactly once
+     *
+     * @return true if every invariant held
+     */
+    private static boolean retireRace(Organization organization, DatabaseManager dbManager, List<Equipment> hot,
+                                      int threads) throws InterruptedException {
+        Map<String, AtomicInteger> retired = new HashMap<>();
+        for (Equipment equipment : hot) {
+            retired.put(equipment.getId(), new AtomicInteger());
+        }
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        try {
+            runThreads(threads, thread -> {
+                List<Equipment> order = new ArrayList<>(hot);
+                Collections.shuffle(order, new Random(1_000 + thread));
+                for (Equipment equipment : order) {
+                    if (organization.retireEquipment(equipment.getId())) {
+                        retired.get(equipment.getId()).incrementAndGet();
+                    }
+                }
+            });
+        } finally {
+            System.setOut(out);
+        }
+
+        System.out.printf("%nRETIRE RACE (%d threads, %d items)%n", threads, hot.size());
+        boolean passed = true;
+        for (Equipment equipment : hot) {
+            int wins = retired.get(equipment.getId()).get();
+            Equipment stored = dbManager.loadEquipmentById(equipment.getId());
+            boolean ok = wins == 1 && "RETIRED".equals(equipment.getStatus()) && "RETIRED".equals(stored.getStatus())
+                    && stored.getVersion() == equipment.getVersion()
+                    && !equipment.tryTransition(equipment.getVersion(), "AVAILABLE", null);
+            passed &= check(equipment.getId() + " retired once, stays retired", ok,
+                    wins + " win(s), version " + equipment.getVersion() + " / " + stored.getVersion());
+        }
+        System.out.println(passed ? "✓ All invariants held\n" : "❌ Invariant violated\n");
+        return passed;
+    }
+
+    private static boolean check(String label, boolean ok, String detail) {
+        System.out.printf("  %s %-40s %s%n", ok ? "✓" : "❌", label, detail);
+        return ok;
+    }
+
+    // ==================== HELPERS ====================
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    /**
+     * Start all threads together and wait for them (a worker's exception fails the run)
+     */
+    private static void runThreads(int threads, Worker worker) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread runner = new Thread(() -> {
+                try {
+                    ready.await();
+                    worker.run(thread);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "contention-" + t);
+            workers.add(runner);
+            runner.start();
+        }
+        ready.countDown();
+        for (Thread runner : workers) {
+            runner.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Worker failed", failures.get(0));
+        }
+    }
+}
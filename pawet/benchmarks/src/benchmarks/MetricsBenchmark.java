@@ -0,0 +1,64 @@
+package benchmarks;
+
+import utils.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * MetricsBenchmark - cost of one Metrics.record() call
+ * Each thread records the same operation name in a tight loop (the worst
+ * case for contention), with metrics enabled and disabled.
+ *
+ * Usage: ./bench.sh MetricsBenchmark [recordsPerThread]   (default: 5000000)
+ */
+public class MetricsBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("METRICS RECORD COST (%,d records per thread)%n", records);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-10s %20s %20s%n", "Threads", "Enabled (ns/record)", "Disabled (ns/record)");
+        for (int threads : new TreeSet<>(Arrays.asList(1, Math.min(4, cores), cores))) {
+            double enabled = measure(new Metrics(true), threads, records);
+            double disabled = measure(new Metrics(false), threads, records);
+            System.out.printf("  %-10d %20.1f %20.1f%n", threads, enabled, disabled);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.println("ns/record is wall time per record per thread (includes the two clock reads)\n");
+    }
+
+    /**
+     * Best of three runs after one warmup run
+     */
+    private static double measure(Metrics metrics, int threads, int records) throws InterruptedException {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < 4; run++) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(new Thread(() -> {
+                    for (int i = 0; i < records; i++) {
+                        metrics.record("org.searchEmployeeById", metrics.start());
+                    }
+                }));
+            }
+            long start = System.nanoTime();
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            double nanos = (double) (System.nanoTime() - start) / records;
+            if (run > 0) {
+                best = Math.min(best, nanos);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,209 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * MicroBenchmark - small JMH-style measurement harness (average time mode)
+ * Each benchmark runs warmup iterations first so the JIT has compiled the code
+ * under test, then measurement iterations. An iteration keeps invoking the
+ * operation until iterationMillis has passed, so fast operations are timed
+ * over many calls instead of one System.nanoTime() pair.
+ *
+ * Results of each call are folded into a volatile sink so the JIT cannot
+ * remove the work. Standard output is muted while the code runs, because the
+ * SortAlgorithms/SearchAlgorithms methods print progress on every call.
+ */
+public class MicroBenchmark {
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+
+    private static volatile int sink;
+
+    /**
+     * Constructor for MicroBenchmark
+     *
+     * @param warmupIterations iterations run and discarded before measuring
+     * @param measurementIterations iterations that make up the score
+     * @param iterationMillis minimum wall time per iteration
+     */
+    public MicroBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public int getMeasurementIterations() {
+        return measurementIterations;
+    }
+
+    public long getIterationMillis() {
+        return iterationMillis;
+    }
+
+    /**
+     * Time one invocation of the operation (used to decide whether a size is affordable)
+     *
+     * @return milliseconds taken
+     */
+    public double single(Supplier<?> operation) {
+        PrintStream out = muteStdout();
+        try {
+            long start = System.nanoTime();
+            consume(operation.get());
+            return (System.nanoTime() - start) / 1_000_000.0;
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Run warmup and measurement iterations
+     *
+     * @return milliseconds per operation for each measurement iteration
+     */
+    public double[] measure(Supplier<?> operation) {
+        PrintStream out = muteStdout();
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                runIteration(operation);
+            }
+            double[] scores = new double[measurementIterations];
+            for (int i = 0; i < measurementIterations; i++) {
+                scores[i] = runIteration(operation);
+            }
+            return scores;
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private double runIteration(Supplier<?> operation) {
+        long deadline = iterationMillis * 1_000_000L;
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            consume(operation.get());
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < deadline);
+        return elapsed / 1_000_000.0 / operations;
+    }
+
+    private static void consume(Object result) {
+        sink ^= System.identityHashCode(result);
+    }
+
+    private static PrintStream muteStdout() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        return out;
+    }
+
+    // ==================== STATISTICS ====================
+
+    public static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Half-width of the 99.9% confidence interval (as JMH reports "Error")
+     * Uses the normal quantile, so it is approximate for few iterations.
+     */
+    public static double error(double[] values) {
+        if (values.length < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(values);
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double stdDev = Math.sqrt(squares / (values.length - 1));
+        return 3.29 * stdDev / Math.sqrt(values.length);
+    }
+
+    /**
+     * One benchmark result row
+     */
+    public static class Result {
+        final String benchmark;
+        final int size;
+        final String distribution;
+        final double[] scores;
+        final String status;
+
+        Result(String benchmark, int size, String distribution, double[] scores, String status) {
+            this.benchmark = benchmark;
+            this.size = size;
+            this.distribution = distribution;
+            this.scores = scores;
+            this.status = status;
+        }
+
+        boolean isMeasured() {
+            return scores != null && scores.length > 0;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%s,%s,%s,%s", benchmark, size, distribution,
+                    isMeasured() ? String.format(Locale.ROOT, "%.6f", mean(scores)) : "",
+                    isMeasured() && scores.length > 1 ? String.format(Locale.ROOT, "%.6f", error(scores)) : "",
+                    status);
+        }
+
+        /**
+         * JSON object in the layout JMH uses for -rf json, so the same tools can read it
+         */
+        String toJson(MicroBenchmark harness) {
+            StringBuilder json = new StringBuilder();
+            json.append("  {\n");
+            json.append("    \"benchmark\": \"").append(benchmark).append("\",\n");
+            json.append("    \"mode\": \"avgt\",\n");
+            json.append("    \"warmupIterations\": ").append(harness.warmupIterations).append(",\n");
+            json.append("    \"measurementIterations\": ").append(harness.measurementIterations).append(",\n");
+            json.append("    \"params\": {\"size\": \"").append(size)
+                    .append("\", \"distribution\": \"").append(distribution).append("\"},\n");
+            json.append("    \"status\": \"").append(status).append("\",\n");
+            json.append("    \"primaryMetric\": {");
+            if (isMeasured()) {
+                List<String> raw = new ArrayList<>();
+                for (double score : scores) {
+                    raw.add(String.format(Locale.ROOT, "%.6f", score));
+                }
+                double error = error(scores);
+                json.append("\"score\": ").append(String.format(Locale.ROOT, "%.6f", mean(scores)))
+                        .append(", \"scoreError\": ").append(Double.isNaN(error) ? "\"NaN\"" : String.format(Locale.ROOT, "%.6f", error))
+                        .append(", \"scoreUnit\": \"ms/op\"")
+                        .append(", \"rawData\": [[").append(String.join(", ", raw)).append("]]");
+            } else {
+                json.append("\"scoreUnit\": \"ms/op\"");
+            }
+            json.append("}\n");
+            json.append("  }");
+            return json.toString();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package benchmarks;
+
+import models.Employee;
+import utils.IntroSort;
+import utils.ParallelSort;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * ParallelSortBenchmark - fork/join sort scaling over thread counts
+ * Every sort key is timed with 1, 2, 4 and N (available processors) worker
+ * threads and compared to the single-threaded IntroSort. Speedup is relative
+ * to ParallelSort with 1 thread, so it shows scaling rather than the
+ * algorithm change (merge + IntroSort leaves vs. IntroSort alone).
+ *
+ * Usage: ./bench.sh ParallelSortBenchmark [size] [cutoff] [distribution]
+ *        (default: 1000000 8192 random)
+ */
+public class ParallelSortBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int cutoff = args.length > 1 ? Integer.parseInt(args[1]) : ParallelSort.DEFAULT_SEQUENTIAL_CUTOFF;
+        String distribution = args.length > 2 ? args[2] : "random";
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        Set<Integer> levels = new LinkedHashSet<>();
+        levels.add(1);
+        levels.add(2);
+        levels.add(4);
+        levels.add(processors);
+
+        List<Employee> employees = AlgorithmBenchmark.generate(size, distribution);
+        MicroBenchmark harness = new MicroBenchmark(3, 5, 1_000);
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("PARALLEL SORT SCALING (%,d %s employees, cutoff %,d, %d processor(s))%n",
+                size, distribution, cutoff, processors);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-12s %-16s %14s %10s %9s%n", "Sort", "Implementation", "ms/op", "± error", "Speedup");
+
+        run(harness, "name", IntroSort::sortByName, employees, levels, cutoff, ParallelSort::sortByName,
+                (a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+        run(harness, "id", IntroSort::sortById, employees, levels, cutoff, ParallelSort::sortById,
+                (a, b) -> a.getId().compareToIgnoreCase(b.getId()));
+        run(harness, "salary", list -> IntroSort.sortBySalary(list, true), employees, levels, cutoff,
+                (sorter, list) -> sorter.sortBySalary(list, true), Comparator.comparingDouble(Employee::getSalary));
+        run(harness, "hireDate", null, employees, levels, cutoff,
+                (sorter, list) -> sorter.sortByHireDate(list, true), Comparator.comparing(Employee::getHireDate));
+
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        if (processors < 4) {
+            System.out.println("Note: only " + processors + " processor(s) available - thread counts above that"
+                    + " measure fork/join overhead, not scaling.");
+        }
+        System.out.println();
+    }
+
+    private interface ParallelCase {
+        List<Employee> sort(ParallelSort sorter, List<Employee> employees);
+    }
+
+    private static void run(MicroBenchmark harness, String key, Function<List<Employee>, List<Employee>> sequential,
+                            List<Employee> employees, Set<Integer> levels, int cutoff, ParallelCase parallel,
+                            Comparator<Employee> order) {
+        if (sequential != null) {
+            print(key, "IntroSort", harness.measure(() -> sequential.apply(employees)), Double.NaN);
+        }
+
+        double baseline = Double.NaN;
+        for (int threads : levels) {
+            ParallelSort sorter = new ParallelSort(threads, cutoff);
+            try {
+                if (!isSorted(parallel.sort(sorter, employees), employees.size(), order)) {
+                    System.out.printf("  %-12s %-16s %14s%n", key, "Parallel x" + threads, "WRONG ORDER");
+                    continue;
+                }
+                double[] scores = harness.measure(() -> parallel.sort(sorter, employees));
+                if (threads == 1) {
+                    baseline = MicroBenchmark.mean(scores);
+                }
+                print(key, "Parallel x" + threads, scores, baseline);
+            } finally {
+                sorter.shutdown();
+            }
+        }
+    }
+
+    private static void print(String key, String implementation, double[] scores, double baseline) {
+        double mean = MicroBenchmark.mean(scores);
+        String speedup = Double.isNaN(baseline) ? "" : String.format("%.2fx", baseline / mean);
+        System.out.printf("  %-12s %-16s %14.3f %10.3f %9s%n", key, implementation, mean,
+                MicroBenchmark.error(scores), speedup);
+    }
+
+    /**
+     * Same length as the input and ordered by the comparator (equal keys may be in any order)
+     */
+    private static boolean isSorted(List<Employee> sorted, int size, Comparator<Employee> order) {
+        if (sorted.size() != size) {
+            return false;
+        }
+        for (int i = 1; i < sorted.size(); i++) {
+            if (order.compare(sorted.get(i - 1), sorted.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import models.Department;
+import models.Employee;
+import models.Technician;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PoolBenchmark - read throughput while a writer is running bulk transactions
+ * Compares a pool with no reader connections (every read queues behind the
+ * writer lock, like the old single connection) against a WAL pool with readers.
+ *
+ * Usage: ./bench.sh PoolBenchmark [readerThreads] [seconds]
+ */
+public class PoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int readerThreads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        long singleConnectionReads = run(0, readerThreads, seconds);
+        long pooledReads = run(readerThreads, readerThreads, seconds);
+
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("CONNECTION POOL BENCHMARK");
+        System.out.println("Reader threads: " + readerThreads + " | Duration: " + seconds + " s per run");
+        System.out.println("═══════════════════════════════════════════");
+        System.out.printf("  Writer connection only: %,10d reads (%,.0f reads/sec)%n",
+                singleConnectionReads, singleConnectionReads / (double) seconds);
+        System.out.printf("  WAL pool (%d readers):   %,10d reads (%,.0f reads/sec)%n",
+                readerThreads, pooledReads, pooledReads / (double) seconds);
+        System.out.printf("  Speed Improvement: %.1fx%n", pooledReads / (double) Math.max(1, singleConnectionReads));
+        System.out.println("═══════════════════════════════════════════\n");
+    }
+
+    /**
+     * Run reader threads against a writer doing continuous batch inserts
+     *
+     * @return total number of completed reads
+     */
+    private static long run(int readerConnections, int readerThreads, int seconds) throws Exception {
+        File dbFile = File.createTempFile("pawet-pool-bench", ".db");
+        dbFile.deleteOnExit();
+        final DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + dbFile.getPath(), readerConnections);
+        dbManager.setBatchSize(50_000);
+
+        List<Department> departments = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            departments.add(new Department(String.format("D%03d", i), "Department " + i, "Region", 100000, null, 0));
+        }
+        dbManager.saveDepartments(departments);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong reads = new AtomicLong();
+
+        Thread writer = new Thread(() -> {
+            int nextId = 1;
+            while (running.get()) {
+                List<Employee> batch = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) {
+                    batch.add(new Technician(String.format("T%08d", nextId++), "Tech", "t@pawet.org", "",
+                            "D001", "Field Technician", 45000, LocalDate.of(2024, 1, 1), ""));
+                }
+                dbManager.saveEmployees(batch);
+            }
+        });
+
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < readerThreads; t++) {
+            readers.add(new Thread(() -> {
+                while (running.get()) {
+                    dbManager.loadDepartments();
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        writer.join();
+
+        dbManager.displayPoolStatistics();
+        dbManager.close();
+        return reads.get();
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import models.Department;
+import models.Employee;
+import models.Technician;
+import utils.SearchAlgorithms;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QueryBenchmark - filtering employees in Java vs. indexed SQL
+ *   load + filter: loadEmployees() then SearchAlgorithms (what Organization does)
+ *   indexed query: DatabaseManager.queryEmployeesBy... (only matching rows leave SQLite)
+ *
+ * Usage: ./bench.sh QueryBenchmark [rows]
+ */
+public class QueryBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        File dbFile = File.createTempFile("pawet-query-bench", ".db");
+        dbFile.deleteOnExit();
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + dbFile.getPath());
+        dbManager.setBatchSize(50_000);
+
+        List<Department> departments = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            departments.add(new Department(String.format("D%03d", i), "Department " + i, "Region", 100000, null, 0));
+        }
+        dbManager.saveDepartments(departments);
+
+        List<Employee> employees = new ArrayList<>(rows);
+        LocalDate hireDate = LocalDate.of(2024, 1, 1);
+        for (int i = 1; i <= rows; i++) {
+            employees.add(new Technician(String.format("T%07d", i), "Technician " + i, "tech" + i + "@pawet.org",
+                    "", String.format("D%03d", 1 + i % 100), "Field Technician", 30000 + (i % 70000), hireDate, ""));
+        }
+        dbManager.saveEmployees(employees);
+        employees = null;
+
+        long start = System.nanoTime();
+        List<Employee> loaded = dbManager.loadEmployees();
+        List<Employee> javaDept = SearchAlgorithms.searchByDepartment(loaded, "D042");
+        List<Employee> javaSalary = SearchAlgorithms.searchBySalaryRange(loaded, 50000, 50100);
+        double javaMs = (System.nanoTime() - start) / 1_000_000.0;
+        loaded = null;
+
+        start = System.nanoTime();
+        List<Employee> sqlDept = dbManager.queryEmployeesByDepartment("d042");
+        List<Employee> sqlSalary = dbManager.queryEmployeesBySalaryRange(50000, 50100);
+        double sqlMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("QUERY BENCHMARK (department + salary range)");
+        System.out.printf("Table size: %,d rows%n", rows);
+        System.out.println("═══════════════════════════════════════════");
+        System.out.printf("  Load + filter in Java: %10.2f ms (%,d + %,d matches)%n",
+                javaMs, javaDept.size(), javaSalary.size());
+        System.out.printf("  Indexed SQL queries:   %10.2f ms (%,d + %,d matches)%n",
+                sqlMs, sqlDept.size(), sqlSalary.size());
+        System.out.printf("  Speed Improvement: %.1fx faster%n", javaMs / sqlMs);
+        System.out.println("═══════════════════════════════════════════\n");
+
+        dbManager.close();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import models.Employee;
+import models.Scientist;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * RelationshipBenchmark - "which scientists are on project P?"
+ *   column scan: loadEmployees() and parse every project_list (the old way)
+ *   join table:  DatabaseManager.queryScientistsOnProject (index lookup)
+ *
+ * Usage: ./bench.sh RelationshipBenchmark [scientists] [projects] [lookups]
+ */
+public class RelationshipBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int scientists = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int projects = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        File dbFile = File.createTempFile("pawet-relationship-bench", ".db");
+        dbFile.deleteOnExit();
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + dbFile.getPath());
+        dbManager.setBatchSize(50_000);
+
+        Random random = new Random(42);
+        List<Employee> batch = new ArrayList<>(scientists);
+        for (int i = 1; i <= scientists; i++) {
+            List<String> projectList = new ArrayList<>();
+            for (int p = 0; p < 3; p++) {
+                projectList.add(String.format("P%04d", 1 + random.nextInt(projects)));
+            }
+            batch.add(new Scientist(String.format("S%07d", i), "Scientist " + i, "s" + i + "@pawet.org", "",
+                    "D001", "Researcher", 60000, LocalDate.of(2024, 1, 1), "Ecology", projectList));
+        }
+        dbManager.saveEmployees(batch);
+        batch = null;
+
+        String[] targets = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            targets[i] = String.format("P%04d", 1 + random.nextInt(projects));
+        }
+
+        long start = System.nanoTime();
+        int scanMatches = 0;
+        for (String projectId : targets) {
+            for (Employee employee : dbManager.loadEmployees()) {
+                if (employee instanceof Scientist && ((Scientist) employee).getProjectList().contains(projectId)) {
+                    scanMatches++;
+                }
+            }
+        }
+        double scanMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        start = System.nanoTime();
+        int joinMatches = 0;
+        for (String projectId : targets) {
+            joinMatches += dbManager.queryScientistsOnProject(projectId).size();
+        }
+        double joinMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("RELATIONSHIP QUERY BENCHMARK (scientists on project)");
+        System.out.printf("Scientists: %,d | Projects: %,d | Lookups: %,d%n", scientists, projects, lookups);
+        System.out.println("═══════════════════════════════════════════");
+        System.out.printf("  Column scan + parse: %10.2f ms/lookup (%,d matches)%n", scanMs / lookups, scanMatches);
+        System.out.printf("  Join table index:    %10.3f ms/lookup (%,d matches)%n", joinMs / lookups, joinMatches);
+        System.out.printf("  Speed Improvement: %.0fx faster%n", scanMs / joinMs);
+        System.out.println("═══════════════════════════════════════════\n");
+
+        dbManager.close();
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import models.Employee;
+import utils.EmployeeIndex;
+import utils.SalaryIndex;
+import utils.SearchAlgorithms;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SalaryIndexBenchmark - dashboard-style salary queries, index vs. scan
+ * Runs a fixed set of random narrow salary ranges (about 0.1% of employees
+ * each) through SearchAlgorithms.searchBySalaryRange and the SalaryIndex,
+ * plus count-in-range and percentile queries that only the index answers
+ * without visiting employees.
+ *
+ * Usage: ./bench.sh SalaryIndexBenchmark [employees]   (default: 1000000)
+ */
+public class SalaryIndexBenchmark {
+    private static final int QUERIES = 1_024;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Employee> employees = AlgorithmBenchmark.generate(size, "random");
+
+        long start = System.nanoTime();
+        EmployeeIndex index = new EmployeeIndex();
+        index.rebuild(employees);
+        double buildMs = (System.nanoTime() - start) / 1_000_000.0;
+        SalaryIndex salaries = index.getSalaryIndex();
+
+        // Salaries are 30,000 + 0..size-1, so a width of size/1000 selects ~0.1%
+        Random random = new Random(42);
+        double[] low = new double[QUERIES];
+        double[] high = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            low[i] = 30_000 + random.nextInt(size);
+            high[i] = low[i] + Math.max(1, size / 1_000);
+        }
+
+        MicroBenchmark harness = new MicroBenchmark(3, 5, 1_000);
+        int[] next = {0};
+        double scan = MicroBenchmark.mean(harness.measure(() -> {
+            int i = next[0]++ & (QUERIES - 1);
+            return SearchAlgorithms.searchBySalaryRange(employees, low[i], high[i]);
+        }));
+        double range = MicroBenchmark.mean(harness.measure(() -> {
+            int i = next[0]++ & (QUERIES - 1);
+            return salaries.range(low[i], high[i]);
+        }));
+        double count = MicroBenchmark.mean(harness.measure(() -> {
+            int i = next[0]++ & (QUERIES - 1);
+            return salaries.countInRange(low[i], high[i]);
+        }));
+        double percentile = MicroBenchmark.mean(harness.measure(() -> salaries.percentile(next[0]++ % 100)));
+        double histogram = MicroBenchmark.mean(harness.measure(() -> salaries.histogram(salaries.equalWidthBoundaries(20))));
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("SALARY QUERIES (%,d employees, index built in %.0f ms with all EmployeeIndex indexes)%n",
+                size, buildMs);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-36s %14s %14s%n", "Query", "µs/op", "Queries/min");
+        print("Range, linear scan", scan);
+        print("Range, salary index", range);
+        print("Count in range, salary index", count);
+        print("Percentile, salary index", percentile);
+        print("Histogram (20 buckets), salary index", histogram);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("Range speedup: %.0fx%n%n", scan / range);
+    }
+
+    private static void print(String name, double msPerOp) {
+        System.out.printf("  %-36s %14.3f %,14.0f%n", name, msPerOp * 1_000, 60_000 / msPerOp);
+    }
+}
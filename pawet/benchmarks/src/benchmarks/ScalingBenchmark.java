@@ -0,0 +1,87 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import database.SyntheticDataWriter;
+import managers.Organization;
+import utils.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ScalingBenchmark - bulk write and startup cost as the organization grows
+ * Each scale factor is generated with SyntheticDataGenerator (fixed seed, so
+ * every run sees the same rows), written through the batch API into a fresh
+ * database, then opened eagerly and lazily.
+ *
+ * Usage: ./bench.sh ScalingBenchmark [scaleFactors...] [--seed n]   (default: 1 10 100)
+ */
+public class ScalingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long seed = SyntheticDataGenerator.DEFAULT_SEED;
+        List<Double> scales = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--seed".equals(args[i])) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                scales.add(Double.parseDouble(args[i]));
+            }
+        }
+        if (scales.isEmpty()) {
+            scales.add(1.0);
+            scales.add(10.0);
+            scales.add(100.0);
+        }
+
+        List<String> results = new ArrayList<>();
+        for (double scale : scales) {
+            File dbFile = File.createTempFile("pawet-scaling-bench", ".db");
+            dbFile.deleteOnExit();
+            String dbUrl = "jdbc:sqlite:" + dbFile.getPath();
+
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(seed, scale);
+            DatabaseManager dbManager = new DatabaseManager(dbUrl);
+            SyntheticDataWriter writer = new SyntheticDataWriter(dbManager);
+            long start = System.nanoTime();
+            generator.generate(writer);
+            double writeSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            dbManager.close();
+
+            double eagerMs = startup(dbUrl, false);
+            double lazyMs = startup(dbUrl, true);
+            results.add(String.format("  %-6s %,12d %,12d %10.1f %,12.0f %,12.0f %,10.0f",
+                    trim(scale), generator.getEmployeeCount(), writer.getRowsWritten(),
+                    dbFile.length() / (1024.0 * 1024.0), writer.getRowsWritten() / writeSeconds, eagerMs, lazyMs));
+            new File(dbFile.getPath() + "-wal").delete();
+            new File(dbFile.getPath() + "-shm").delete();
+        }
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("SCALING (SyntheticDataGenerator, seed %d)%n", seed);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-6s %12s %12s %10s %12s %12s %10s%n", "Scale", "Employees", "Rows",
+                "DB (MB)", "Write rows/s", "Eager (ms)", "Lazy (ms)");
+        for (String line : results) {
+            System.out.println(line);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════════\n");
+    }
+
+    /**
+     * Organization constructor time (time to first menu)
+     */
+    private static double startup(String dbUrl, boolean lazy) {
+        long start = System.nanoTime();
+        Organization organization = new Organization(new DatabaseManager(dbUrl), lazy, Organization.DEFAULT_CACHE_SIZE);
+        double ms = (System.nanoTime() - start) / 1_000_000.0;
+        organization.closeDatabase();
+        return ms;
+    }
+
+    private static String trim(double scale) {
+        return scale == Math.rint(scale) ? String.valueOf((long) scale) : String.valueOf(scale);
+    }
+}
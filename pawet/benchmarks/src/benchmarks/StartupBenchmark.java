@@ -0,0 +1,120 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import managers.Organization;
+import models.*;
+import utils.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StartupBenchmark - time-to-first-menu for eager vs. lazy Organization
+ * Time-to-first-menu is the Organization constructor: everything Main does
+ * before it prints the main menu. Heap is measured after a GC with the
+ * Organization still reachable.
+ *
+ * Usage: ./bench.sh StartupBenchmark [rows...]   (default: 10000 100000 1000000)
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        List<String> results = new ArrayList<>();
+        for (int rows : sizes) {
+            File dbFile = File.createTempFile("pawet-startup-bench", ".db");
+            dbFile.deleteOnExit();
+            String dbUrl = "jdbc:sqlite:" + dbFile.getPath();
+            String lookupId = populate(dbUrl, rows);
+
+            results.add(measure(dbUrl, rows, false, lookupId));
+            results.add(measure(dbUrl, rows, true, lookupId));
+            new File(dbFile.getPath() + "-wal").delete();
+            new File(dbFile.getPath() + "-shm").delete();
+        }
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.println("TIME TO FIRST MENU (Organization startup)");
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-10s %-6s %14s %14s %16s%n", "Employees", "Mode", "Startup (ms)", "Heap (MB)", "First lookup (ms)");
+        for (String line : results) {
+            System.out.println(line);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════\n");
+    }
+
+    /**
+     * Start an Organization on the database and report startup time and heap
+     */
+    private static String measure(String dbUrl, int rows, boolean lazy, String lookupId) {
+        long baseline = usedHeap();
+
+        long start = System.nanoTime();
+        Organization organization = new Organization(new DatabaseManager(dbUrl), lazy, Organization.DEFAULT_CACHE_SIZE);
+        double startupMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        long heap = usedHeap() - baseline;
+
+        start = System.nanoTime();
+        organization.searchEmployeeById(lookupId);
+        double lookupMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        organization.closeDatabase();
+        return String.format("  %,-10d %-6s %14.1f %14.1f %16.3f",
+                rows, lazy ? "lazy" : "eager", startupMs, heap / (1024.0 * 1024.0), lookupMs);
+    }
+
+    /**
+     * Fill the database with departments, SyntheticDataGenerator employees and
+     * one equipment item per ten employees
+     *
+     * @return ID of the employee in the middle, for the first lookup
+     */
+    static String populate(String dbUrl, int rows) {
+        DatabaseManager dbManager = new DatabaseManager(dbUrl);
+        dbManager.setBatchSize(50_000);
+        LocalDate purchaseDate = LocalDate.of(2020, 1, 1);
+
+        List<Department> departments = new ArrayList<>();
+        List<String> departmentIds = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            departments.add(new Department(String.format("D%03d", i), "Department " + i, "Region", 1_000_000, null, 0));
+            departmentIds.add(departments.get(i - 1).getId());
+        }
+        dbManager.saveDepartments(departments);
+
+        List<Employee> employees = new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, 1)
+                .generateEmployees(departmentIds, 1, rows);
+        for (int from = 0; from < employees.size(); from += 100_000) {
+            dbManager.saveEmployees(employees.subList(from, Math.min(from + 100_000, employees.size())));
+        }
+        String lookupId = employees.get(rows / 2).getId();
+
+        List<Equipment> equipment = new ArrayList<>();
+        for (int i = 1; i <= rows / 10; i++) {
+            equipment.add(new Equipment(String.format("E%07d", i), "Equipment " + i, "GPS Tracker",
+                    "SN" + i, departments.get(i % departments.size()).getId(), null, purchaseDate, "AVAILABLE"));
+        }
+        dbManager.saveEquipmentBatch(equipment);
+        dbManager.close();
+        return lookupId;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Project;
+import utils.StatisticsEngine;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatisticsBenchmark - statistics screen cost, full recompute vs. incremental aggregates
+ * Times the scan the statistics screen used to do on every call (now
+ * StatisticsEngine.rebuild) against reading the maintained aggregates, and
+ * the per-change cost of keeping them up to date.
+ *
+ * Usage: ./bench.sh StatisticsBenchmark [employees]   (default: 1000000)
+ */
+public class StatisticsBenchmark {
+    private static final int DEPARTMENTS = 50;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Employee> employees = AlgorithmBenchmark.generate(size, "random");
+        LocalDate today = LocalDate.of(2024, 1, 1);
+
+        List<Department> departments = new ArrayList<>();
+        for (int i = 1; i <= DEPARTMENTS; i++) {
+            departments.add(new Department(String.format("D%03d", i), "Department " + i, "East", 1_000_000, null, 0));
+        }
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < size / 100; i++) {
+            projects.add(new Project(String.format("P%06d", i), "Project " + i, "", "D001", null,
+                    50_000, today, today.plusYears(1), "ACTIVE"));
+        }
+        List<Equipment> equipmentList = new ArrayList<>();
+        for (int i = 0; i < size / 10; i++) {
+            equipmentList.add(new Equipment(String.format("E%06d", i), "Item " + i, "Vehicle", "SN" + i,
+                    "D001", null, today, "AVAILABLE"));
+        }
+
+        StatisticsEngine statistics = new StatisticsEngine();
+        statistics.rebuild(employees, departments, projects, equipmentList);
+        for (Equipment equipment : equipmentList) {
+            equipment.setChangeListener(statistics);
+        }
+
+        MicroBenchmark harness = new MicroBenchmark(3, 5, 1_000);
+        double recompute = MicroBenchmark.mean(harness.measure(() ->
+                fullRecompute(employees, departments, projects, equipmentList).getEmployeeCount()));
+        double read = MicroBenchmark.mean(harness.measure(() ->
+                statistics.getEmployeeCount("MANAGER") + statistics.getEmployeeCount("SCIENTIST")
+                        + statistics.getEmployeeCount("TECHNICIAN") + (long) statistics.getTotalPayroll()
+                        + (long) statistics.getTotalBudget() + statistics.getProjectCount("ACTIVE")
+                        + statistics.getEquipmentCount("AVAILABLE") + statistics.getEquipmentCount("IN_USE")));
+        int[] next = {0};
+        double employeeChange = MicroBenchmark.mean(harness.measure(() -> {
+            Employee employee = employees.get(next[0]++ % size);
+            statistics.employeeRemoved(employee);
+            statistics.employeeAdded(employee);
+            return statistics.getEmployeeCount();
+        }));
+        double statusChange = MicroBenchmark.mean(harness.measure(() -> {
+            Equipment equipment = equipmentList.get(next[0]++ % equipmentList.size());
+            equipment.assign("T0000001");
+            equipment.unassign();
+            return statistics.getEquipmentCount();
+        }));
+
+        List<String> differences = statistics.differences(fullRecompute(employees, departments, projects, equipmentList));
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("SYSTEM STATISTICS (%,d employees, %,d projects, %,d equipment)%n",
+                size, projects.size(), equipmentList.size());
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-40s %14s%n", "Operation", "µs/op");
+        print("Full recompute (old statistics screen)", recompute);
+        print("Read incremental aggregates", read);
+        print("Employee remove + add", employeeChange);
+        print("Equipment assign + unassign (listener)", statusChange);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("Statistics screen speedup: %,.0fx; aggregates %s after %,d changes%n%n",
+                recompute / read, differences.isEmpty() ? "match a full recompute" : "DIFFER: " + differences,
+                next[0]);
+    }
+
+    private static StatisticsEngine fullRecompute(List<Employee> employees, List<Department> departments,
+                                                  List<Project> projects, List<Equipment> equipmentList) {
+        StatisticsEngine full = new StatisticsEngine();
+        full.rebuild(employees, departments, projects, equipmentList);
+        return full;
+    }
+
+    private static void print(String name, double msPerOp) {
+        System.out.printf("  %-40s %14.3f%n", name, msPerOp * 1_000);
+    }
+}
@@ -0,0 +1,212 @@
+package benchmarks;
+
+import database.Repository;
+import database.StorageEngines;
+import models.Department;
+import models.Equipment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * StatusUpdateBenchmark - high-frequency equipment status changes and budget updates per storage engine
+ *
+ * Each run cycles random equipment items through IN_USE -> MAINTENANCE ->
+ * IN_USE -> AVAILABLE with compareAndSetEquipmentState (the call behind
+ * assign / sendToMaintenance / returnFromMaintenance / unassign), and every
+ * fourth operation sets a department budget with updateDepartmentBudget
+ * (Organization.allocateDepartmentBudget). The engines:
+ *
+ *   jdbc:sqlite  UPDATE ... WHERE id = ? AND version = ?
+ *   memory:      heap rows, decoded and re-encoded per change (no I/O)
+ *   wal:         heap rows + write-ahead log (fsync policy from -Dpawet.wal.fsync, default INTERVAL)
+ *   mmap:        fixed-width records, fields written in place
+ *
+ * Afterwards the store is closed and reopened, and every item must have
+ * the version and status the run left it with; the benchmark exits with
+ * status 1 otherwise.
+ *
+ * Usage: ./bench.sh StatusUpdateBenchmark [secondsPerRun] [items]   (default: 3 s, 1000 items)
+ */
+public class StatusUpdateBenchmark {
+    private static final long SEED = 42;
+    private static final int DEPARTMENTS = 10;
+    private static final int MAX_SAMPLES = 1_000_000;
+    private static final String[] CYCLE = {"IN_USE", "MAINTENANCE", "IN_USE", "AVAILABLE"};
+
+    private static boolean failed;
+
+    public static void main(String[] args) throws IOException {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 3;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Path root = Files.createTempDirectory("pawet-status");
+        String[] urls = {
+                "jdbc:sqlite:" + root.resolve("status.db"),
+                "memory:",
+                "wal:" + root.resolve("wal"),
+                "mmap:" + root.resolve("mmap")
+        };
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("STATUS UPDATES (%,d items, %d departments, %.0f s per engine)%n", items, DEPARTMENTS, seconds);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-8s %12s %12s %10s %10s %10s   %s%n", "Engine", "Changes/s", "Changes", "p50 (us)",
+                "p99 (us)", "max (us)", "After reopen");
+        for (String url : urls) {
+            run(url, items, seconds);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════\n");
+
+        deleteRecursively(root);
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static void run(String url, int items, double seconds) {
+        Repository repository = quietly(() -> StorageEngines.open(url));
+        LocalDate purchased = LocalDate.of(2022, 3, 1);
+        quietly(() -> repository.runInTransaction(() -> {
+            for (int d = 0; d < DEPARTMENTS; d++) {
+                repository.saveDepartment(new Department(departmentId(d), "Department " + d, "Coast",
+                        1_000_000, null, 0));
+            }
+            for (int i = 0; i < items; i++) {
+                repository.saveEquipment(new Equipment(equipmentId(i), "Field Camera " + i, "Camera",
+                        "SN-" + i, departmentId(i % DEPARTMENTS), null, purchased, "AVAILABLE"));
+            }
+        }));
+
+        // IDs made up front, so the loop times the store and not String.format
+        String[] equipmentIds = new String[items];
+        for (int i = 0; i < items; i++) {
+            equipmentIds[i] = equipmentId(i);
+        }
+        String[] departmentIds = new String[DEPARTMENTS];
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            departmentIds[d] = departmentId(d);
+        }
+        Random random = new Random(SEED);
+        long[] versions = new long[items];
+        double[] budgets = new double[DEPARTMENTS];
+        Arrays.fill(budgets, 1_000_000);
+        long[] latencies = new long[MAX_SAMPLES];
+        int samples = 0;
+        long changes = 0;
+        long deadline = System.nanoTime() + (long) (seconds * 1_000_000_000L);
+        PrintStream err = System.err;
+        System.setErr(discard());
+        long started = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (int batch = 0; batch < 100; batch++) {
+                long operationStarted = System.nanoTime();
+                if (changes % 4 == 3) {
+                    int department = random.nextInt(DEPARTMENTS);
+                    budgets[department] -= 1;
+                    repository.updateDepartmentBudget(departmentIds[department], budgets[department]);
+                } else {
+                    int item = random.nextInt(items);
+                    String status = CYCLE[(int) (versions[item] % CYCLE.length)];
+                    if (repository.compareAndSetEquipmentState(equipmentIds[item], versions[item], status,
+                            "AVAILABLE".equals(status) ? null : "T" + (item % 100))) {
+                        versions[item]++;
+                    } else {
+                        failed = true;
+                    }
+                }
+                if (samples < MAX_SAMPLES) {
+                    latencies[samples++] = System.nanoTime() - operationStarted;
+                }
+                changes++;
+            }
+        }
+        double elapsed = (System.nanoTime() - started) / 1_000_000_000.0;
+        System.setErr(err);
+
+        String verdict = "-";
+        quietly(() -> {
+            repository.close();
+            return null;
+        });
+        if (!url.startsWith("memory:")) {
+            Repository reopened = quietly(() -> StorageEngines.open(url));
+            verdict = verify(reopened, versions, budgets) ? "✓ all states kept" : "❌ states lost";
+            quietly(() -> {
+                reopened.close();
+                return null;
+            });
+        }
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        System.out.printf("  %-8s %,12.0f %,12d %,10.1f %,10.1f %,10.0f   %s%n", url.substring(0, url.indexOf(':')),
+                changes / elapsed, changes, percentile(sorted, 50) / 1000.0, percentile(sorted, 99) / 1000.0,
+                sorted[sorted.length - 1] / 1000.0, verdict);
+    }
+
+    private static boolean verify(Repository repository, long[] versions, double[] budgets) {
+        boolean ok = true;
+        for (int i = 0; i < versions.length; i++) {
+            Equipment item = repository.loadEquipmentById(equipmentId(i));
+            String expected = versions[i] == 0 ? "AVAILABLE" : CYCLE[(int) ((versions[i] - 1) % CYCLE.length)];
+            ok &= item != null && item.getVersion() == versions[i] && expected.equals(item.getStatus());
+        }
+        for (int d = 0; d < budgets.length; d++) {
+            Department department = repository.loadDepartmentById(departmentId(d));
+            ok &= department != null && department.getBudget() == budgets[d];
+        }
+        failed |= !ok;
+        return ok;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100 * sorted.length) - 1)];
+    }
+
+    private static String equipmentId(int i) {
+        return String.format("E%05d", i);
+    }
+
+    private static String departmentId(int d) {
+        return String.format("D%03d", d);
+    }
+
+    /**
+     * Run with System.out and System.err discarded (store messages)
+     */
+    private static <T> T quietly(Supplier<T> action) {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        System.setOut(discard());
+        System.setErr(discard());
+        try {
+            return action.get();
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+
+    private static PrintStream discard() {
+        return new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        });
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
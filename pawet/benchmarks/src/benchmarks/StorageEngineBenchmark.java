@@ -0,0 +1,386 @@
+package benchmarks;
+
+import database.Repository;
+import database.StorageEngines;
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Manager;
+import models.Project;
+import models.Scientist;
+import models.Technician;
+import utils.StatisticsEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * StorageEngineBenchmark - one conformance suite and one workload for every storage engine
+ *
+ * Conformance: each engine (jdbc:sqlite, memory, wal, mmap - see
+ * StorageEngines) gets the same sequence of Repository calls, and the
+ * results must match what DatabaseManager's SQL defines: ID lookups that
+ * also try the upper-case ID, case-insensitive department / role / link
+ * matches, salary results in salary order, inclusive ID ranges, keyset
+ * paging, equipment compare-and-set, nested transactions, aggregates, and
+ * (for the persistent engines) the same rows after close and reopen.
+ *
+ * Workload: bulk insert, random point reads, a filtered full scan, updates
+ * and equipment compare-and-set transitions, with the same seed everywhere.
+ *
+ * Usage: ./bench.sh StorageEngineBenchmark [employees]   (default: 20000)
+ */
+public class StorageEngineBenchmark {
+    private static final long SEED = 42;
+    private static final LocalDate HIRED = LocalDate.of(2020, 1, 15);
+
+    private static int checks;
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path root = Files.createTempDirectory("pawet-engines");
+        String[] urls = {
+                "jdbc:sqlite:" + root.resolve("engine.db"),
+                "memory:",
+                "wal:" + root.resolve("wal"),
+                "mmap:" + root.resolve("mmap")
+        };
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println("CONFORMANCE");
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        for (String url : urls) {
+            conformance(url);
+        }
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("WORKLOAD (%,d employees, operations per second)%n", employees);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-12s %12s %12s %12s %12s %12s %10s%n", "Engine", "Insert", "Point read",
+                "Scan", "Update", "CAS", "Reopen ms");
+        for (String url : urls) {
+            workload(url.startsWith("jdbc") ? url.replace("engine.db", "workload.db") : url + "-workload", employees);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+
+        deleteRecursively(root);
+        System.out.println(failures == 0
+                ? "✓ All " + checks + " conformance checks passed on " + urls.length + " engines\n"
+                : "❌ " + failures + " of " + checks + " conformance checks failed\n");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // ==================== CONFORMANCE ====================
+
+    private static void conformance(String url) {
+        System.out.println("  " + url.replaceFirst(":.*[/\\\\]", ":.../"));
+        Repository repository = quietly(() -> StorageEngines.open(url));
+        try {
+            runChecks(repository);
+            if (!url.startsWith("memory:")) {
+                quietly(() -> {
+                    repository.close();
+                    return null;
+                });
+                Repository reopened = quietly(() -> StorageEngines.open(url));
+                checkReopened(reopened);
+                quietly(() -> {
+                    reopened.close();
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            check("no exception (" + e + ")", false);
+        }
+    }
+
+    private static void runChecks(Repository repository) {
+        Manager manager = new Manager("M001", "Ada Manager", "ada@pawet.org", "555-0001", "D001", "Director",
+                120_000, HIRED, Arrays.asList("S001", "T001"), 500_000);
+        Scientist scientist = new Scientist("S001", "Bea Scientist", "bea@pawet.org", "555-0002", "d001",
+                "Ecologist", 90_000, HIRED, "Marine Biology", Arrays.asList("P001", "P002"));
+        Technician technician = new Technician("T001", "Cy Technician", "cy@pawet.org", "555-0003", "D002",
+                "Field Technician", 60_000, HIRED, Arrays.asList("E001"), "Diving");
+        Technician second = new Technician("T002", "Di Technician", "di@pawet.org", null, "D002",
+                "Field Technician", 75_000, HIRED, new ArrayList<>(), null);
+        quietly(() -> {
+            repository.saveEmployee(manager);
+            repository.saveEmployee(scientist);
+            repository.saveEmployee(technician);
+            repository.saveEmployee(second);
+            return null;
+        });
+        check("saveEmployee / countEmployees", repository.countEmployees() == 4);
+
+        quietly(() -> {
+            repository.saveEmployee(new Technician("T001", "Duplicate", "x", "x", "D009", "x", 1, HIRED, "x"));
+            return null;
+        });
+        Employee loaded = repository.loadEmployeeById("T001");
+        check("saveEmployee rejects an existing ID", repository.countEmployees() == 4
+                && loaded != null && loaded.getName().equals("Cy Technician"));
+
+        Employee byLowerCase = repository.loadEmployeeById("m001");
+        check("loadEmployeeById tries the upper-case ID", byLowerCase instanceof Manager
+                && ((Manager) byLowerCase).getTeamList().equals(Arrays.asList("S001", "T001"))
+                && ((Manager) byLowerCase).getBudgetAuthority() == 500_000
+                && HIRED.equals(byLowerCase.getHireDate()));
+        Employee nulls = repository.loadEmployeeById("T002");
+        check("null fields round-trip", nulls != null && nulls.getPhone() == null
+                && ((Technician) nulls).getCertifications() == null);
+        check("loadEmployeeById of a missing ID is null", repository.loadEmployeeById("X999") == null);
+        check("returned entities are copies", repository.loadEmployeeById("S001") != repository.loadEmployeeById("S001"));
+
+        check("queryEmployeesByDepartment ignores case", ids(repository.queryEmployeesByDepartment("D001"))
+                .equals(Arrays.asList("M001", "S001")));
+        check("queryEmployeesByRoleType ignores case", ids(repository.queryEmployeesByRoleType("technician"))
+                .equals(Arrays.asList("T001", "T002")));
+        check("queryEmployeesBySalaryRange is inclusive, in salary order",
+                ids(repository.queryEmployeesBySalaryRange(60_000, 90_000)).equals(Arrays.asList("T001", "T002", "S001")));
+        int[] visited = new int[1];
+        check("queryEmployeesBySalaryRange(consumer) counts rows",
+                repository.queryEmployeesBySalaryRange(0, 1e9, employee -> visited[0]++) == 4 && visited[0] == 4);
+        check("queryEmployeesByIdRange is inclusive and upper-cases bounds",
+                ids(repository.queryEmployeesByIdRange("s001", "t001")).equals(Arrays.asList("S001", "T001")));
+        check("queryManagersOfEmployee", ids(repository.queryManagersOfEmployee("t001")).equals(Arrays.asList("M001")));
+        check("queryScientistsOnProject", ids(repository.queryScientistsOnProject("P002")).equals(Arrays.asList("S001")));
+        check("queryTechniciansWithEquipment", ids(repository.queryTechniciansWithEquipment("e001"))
+                .equals(Arrays.asList("T001")));
+        check("getMaxEmployeeNumber", repository.getMaxEmployeeNumber('T') == 2
+                && repository.getMaxEmployeeNumber('Q') == 0);
+
+        List<String> paged = new ArrayList<>();
+        long rows = repository.streamEmployees(3).forEachPage(page -> page.forEach(e -> paged.add(e.getId())));
+        check("streamEmployees pages in ID order", rows == 4 && paged.equals(Arrays.asList("M001", "S001", "T001", "T002")));
+        check("loadSortedSalaries", Arrays.equals(repository.loadSortedSalaries(),
+                new double[] {60_000, 75_000, 90_000, 120_000}));
+        check("loadEmployeeColumns", repository.loadEmployeeColumns().totalPayroll() == 345_000);
+
+        scientist.setSalary(95_000);
+        quietly(() -> {
+            repository.updateEmployee(scientist);
+            return null;
+        });
+        check("updateEmployee", repository.loadEmployeeById("S001").getSalary() == 95_000);
+        Scientist replaced = new Scientist("T002", "Di Scientist", "di@pawet.org", null, "D003", "Chemist",
+                80_000, HIRED, "Chemistry", Arrays.asList("P003"));
+        quietly(() -> {
+            repository.upsertEmployee(replaced);
+            return null;
+        });
+        check("upsertEmployee replaces the row and its links", repository.loadEmployeeById("T002") instanceof Scientist
+                && ids(repository.queryScientistsOnProject("P003")).equals(Arrays.asList("T002")));
+        quietly(() -> {
+            repository.deleteEmployee("T001");
+            return null;
+        });
+        check("deleteEmployee removes the row and its links", repository.loadEmployeeById("T001") == null
+                && repository.queryTechniciansWithEquipment("E001").isEmpty() && repository.countEmployees() == 3);
+
+        Department department = new Department("D001", "Marine", "Coast", 1_000_000, "M001", 2);
+        quietly(() -> {
+            repository.saveDepartment(department);
+            repository.saveDepartment(new Department("D002", "Field", "North", 250_000, null, 1));
+            department.setBudget(1_500_000);
+            repository.saveDepartment(department);
+            repository.saveProject(new Project("P001", "Reef Survey", "Coral census", "D001", "S001", 80_000,
+                    HIRED, HIRED.plusYears(2), "ACTIVE"));
+            repository.saveEquipment(new Equipment("E001", "Boat", "Vessel", "SN-1", "D001", null, HIRED,
+                    "AVAILABLE"));
+            return null;
+        });
+        Department storedDepartment = repository.loadDepartmentById("d001");
+        check("saveDepartment replaces", repository.countDepartments() == 2 && storedDepartment != null
+                && storedDepartment.getBudget() == 1_500_000 && storedDepartment.getEmployeeCount() == 2);
+        quietly(() -> {
+            repository.updateDepartmentBudget("D002", 200_000);
+            repository.updateDepartmentBudget("D999", 1);
+            return null;
+        });
+        Department updated = repository.loadDepartmentById("D002");
+        check("updateDepartmentBudget changes only the budget", updated != null && updated.getBudget() == 200_000
+                && "Field".equals(updated.getName()) && updated.getEmployeeCount() == 1
+                && repository.loadDepartmentById("D999") == null);
+        check("saveProject / loadProjects", repository.countProjects() == 1
+                && HIRED.plusYears(2).equals(repository.loadProjects().get(0).getEndDate()));
+
+        boolean claimed = quietly(() -> repository.compareAndSetEquipmentState("E001", 0, "IN_USE", "T002"));
+        boolean stale = quietly(() -> repository.compareAndSetEquipmentState("E001", 0, "MAINTENANCE", null));
+        Equipment item = repository.loadEquipmentById("e001");
+        check("compareAndSetEquipmentState applies once per version", claimed && !stale && item != null
+                && item.getVersion() == 1 && "IN_USE".equals(item.getStatus()) && "T002".equals(item.getAssignedToId()));
+        check("compareAndSetEquipmentState of a missing item fails",
+                !quietly(() -> repository.compareAndSetEquipmentState("E999", 0, "IN_USE", null)));
+
+        boolean committed = quietly(() -> repository.runInTransaction(() -> {
+            repository.saveDepartment(new Department("D003", "Labs", "South", 10, null, 0));
+            repository.runInTransaction(() -> repository.saveDepartment(new Department("D004", "Air", "West", 20, null, 0)));
+        }));
+        check("runInTransaction (nested)", committed && repository.countDepartments() == 4);
+
+        StatisticsEngine statistics = new StatisticsEngine();
+        repository.loadStatistics(statistics);
+        check("loadStatistics", statistics.isLoaded() && statistics.getEmployeeCount() == 3
+                && statistics.getTotalPayroll() == 120_000 + 95_000 + 80_000 && statistics.getDepartmentCount() == 4);
+    }
+
+    private static void checkReopened(Repository repository) {
+        Equipment item = repository.loadEquipmentById("E001");
+        check("close and reopen keeps every row", repository.countEmployees() == 3 && repository.countDepartments() == 4
+                && repository.countProjects() == 1 && repository.countEquipment() == 1
+                && repository.loadEmployeeById("T001") == null && repository.loadEmployeeById("S001").getSalary() == 95_000
+                && repository.loadDepartmentById("D002").getBudget() == 200_000
+                && item != null && item.getVersion() == 1 && "IN_USE".equals(item.getStatus()));
+    }
+
+    private static void check(String name, boolean passed) {
+        checks++;
+        if (!passed) {
+            failures++;
+        }
+        System.out.println("    " + (passed ? "✓ " : "❌ ") + name);
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    // ==================== WORKLOAD ====================
+
+    private static void workload(String url, int count) {
+        Repository repository = quietly(() -> StorageEngines.open(url));
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String department = String.format("D%03d", random.nextInt(50));
+            employees.add(i % 2 == 0
+                    ? new Technician(String.format("T%07d", i), "Tech " + i, "t" + i + "@pawet.org", "555-0100",
+                            department, "Field Technician", 40_000 + random.nextInt(40_000), HIRED,
+                            Arrays.asList(String.format("E%05d", i % 1000)), "Diving")
+                    : new Scientist(String.format("S%07d", i), "Sci " + i, "s" + i + "@pawet.org", "555-0200",
+                            department, "Researcher", 60_000 + random.nextInt(60_000), HIRED, "Ecology",
+                            Arrays.asList(String.format("P%03d", i % 100))));
+        }
+
+        double insert = timed(count, () -> {
+            for (int from = 0; from < count; from += 1000) {
+                List<Employee> batch = employees.subList(from, Math.min(count, from + 1000));
+                repository.runInTransaction(() -> batch.forEach(repository::saveEmployee));
+            }
+        });
+        int reads = Math.min(count, 20_000);
+        double pointRead = timed(reads, () -> {
+            for (int i = 0; i < reads; i++) {
+                repository.loadEmployeeById(employees.get(random.nextInt(count)).getId());
+            }
+        });
+        int scans = 20;
+        double scan = timed(scans, () -> {
+            for (int i = 0; i < scans; i++) {
+                repository.queryEmployeesByDepartment(String.format("D%03d", i));
+            }
+        });
+        int updates = Math.min(count, 5_000);
+        double update = timed(updates, () -> {
+            for (int i = 0; i < updates; i++) {
+                Employee employee = employees.get(random.nextInt(count));
+                employee.setSalary(employee.getSalary() + 1);
+                repository.updateEmployee(employee);
+            }
+        });
+
+        quietly(() -> repository.runInTransaction(() -> {
+            for (int i = 0; i < 100; i++) {
+                repository.saveEquipment(new Equipment(String.format("E%05d", i), "Item " + i, "Camera", "SN" + i,
+                        "D001", null, HIRED, "AVAILABLE"));
+            }
+        }));
+        long[] versions = new long[100];
+        String[] cycle = {"IN_USE", "MAINTENANCE", "AVAILABLE"};
+        int transitions = 5_000;
+        double cas = timed(transitions, () -> {
+            for (int i = 0; i < transitions; i++) {
+                int item = random.nextInt(versions.length);
+                if (repository.compareAndSetEquipmentState(String.format("E%05d", item), versions[item],
+                        cycle[(int) (versions[item] % 3)], null)) {
+                    versions[item]++;
+                }
+            }
+        });
+
+        long reopenStarted = System.nanoTime();
+        String reopenMillis = "-";
+        quietly(() -> {
+            repository.close();
+            return null;
+        });
+        if (!url.startsWith("memory:")) {
+            Repository reopened = quietly(() -> StorageEngines.open(url));
+            reopenMillis = String.format("%,.0f", (System.nanoTime() - reopenStarted) / 1_000_000.0);
+            if (reopened.countEmployees() != count) {
+                check(url + " keeps every row after reopen", false);
+            }
+            quietly(() -> {
+                reopened.close();
+                return null;
+            });
+        }
+        System.out.printf("  %-12s %,12.0f %,12.0f %,12.1f %,12.0f %,12.0f %10s%n",
+                url.substring(0, url.indexOf(':')), insert, pointRead, scan, update, cas, reopenMillis);
+    }
+
+    /**
+     * Operations per second of a block
+     */
+    private static double timed(int operations, Runnable block) {
+        long started = System.nanoTime();
+        quietly(() -> {
+            block.run();
+            return null;
+        });
+        return operations / Math.max((System.nanoTime() - started) / 1_000_000_000.0, 1e-9);
+    }
+
+    /**
+     * Run with System.out and System.err discarded (store messages, expected errors)
+     */
+    private static <T> T quietly(Supplier<T> action) {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        PrintStream discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        });
+        System.setOut(discard);
+        System.setErr(discard);
+        try {
+            return action.get();
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
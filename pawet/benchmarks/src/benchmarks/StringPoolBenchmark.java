@@ -0,0 +1,107 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import models.Employee;
+import utils.SearchAlgorithms;
+import utils.StringPool;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.List;
+
+/**
+ * StringPoolBenchmark - heap and search cost of loaded employees, pooled vs. not
+ * Seeds a database (same layout as StartupBenchmark), then loads every
+ * employee with DatabaseManager.loadEmployees in two child JVMs, one with
+ * -Dpawet.strings.pool=false, and reports retained heap and the linear
+ * department/role type searches in each.
+ *
+ * Usage: ./bench.sh StringPoolBenchmark [employees]   (default: 1000000)
+ */
+public class StringPoolBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && "--measure".equals(args[0])) {
+            measure(args[1]);
+            return;
+        }
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        File dbFile = File.createTempFile("pawet-pool-bench", ".db");
+        dbFile.deleteOnExit();
+        String dbUrl = "jdbc:sqlite:" + dbFile.getPath();
+        StartupBenchmark.populate(dbUrl, rows);
+
+        String[] pooled = runChild(dbUrl, true);
+        String[] plain = runChild(dbUrl, false);
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+
+        double pooledMb = Long.parseLong(pooled[0]) / (1024.0 * 1024.0);
+        double plainMb = Long.parseLong(plain[0]) / (1024.0 * 1024.0);
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("STRING POOL (%,d employees loaded with loadEmployees)%n", rows);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-10s %12s %12s %18s %18s%n", "Pool", "Heap (MB)", "Load (ms)",
+                "Dept search (ms)", "Role search (ms)");
+        System.out.printf("  %-10s %12.1f %12s %18s %18s%n", "off", plainMb, plain[1], plain[2], plain[3]);
+        System.out.printf("  %-10s %12.1f %12s %18s %18s%n", "on", pooledMb, pooled[1], pooled[2], pooled[3]);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("Heap saved: %.1f MB (%.0f%%), %s distinct pooled values%n%n",
+                plainMb - pooledMb, 100 * (plainMb - pooledMb) / plainMb, pooled[4]);
+    }
+
+    /**
+     * Run this class with --measure in a fresh JVM and parse its RESULT line
+     */
+    private static String[] runChild(String dbUrl, boolean pool) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xmx3g", "-Dpawet.strings.pool=" + pool,
+                "-cp", System.getProperty("java.class.path"), StringPoolBenchmark.class.getName(), "--measure", dbUrl);
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        String[] result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("RESULT ")) {
+                    result = line.substring(7).split(" ");
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Measurement JVM failed (pool=" + pool + ")");
+        }
+        return result;
+    }
+
+    /**
+     * Child JVM: load, measure retained heap, time the searches, print one RESULT line
+     */
+    private static void measure(String dbUrl) {
+        DatabaseManager dbManager = new DatabaseManager(dbUrl);
+        long baseline = usedHeap();
+        long start = System.nanoTime();
+        List<Employee> employees = dbManager.loadEmployees();
+        double loadMs = (System.nanoTime() - start) / 1_000_000.0;
+        long heap = usedHeap() - baseline;
+
+        MicroBenchmark harness = new MicroBenchmark(3, 5, 1_000);
+        double department = MicroBenchmark.mean(harness.measure(() -> SearchAlgorithms.searchByDepartment(employees, "d042")));
+        double role = MicroBenchmark.mean(harness.measure(() -> SearchAlgorithms.searchByRoleType(employees, "Scientist")));
+        dbManager.close();
+
+        System.out.printf("RESULT %d %.0f %.2f %.2f %d%n", heap, loadMs, department, role,
+                StringPool.shared().size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import models.Employee;
+import models.Technician;
+import utils.EmployeeIndex;
+import utils.SearchAlgorithms;
+import utils.SyntheticDataGenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TextSearchBenchmark - inverted text index vs. linear name scan
+ * Builds SyntheticDataGenerator employees (names, roles, specializations and
+ * certifications), then times index build, heap and queries against
+ * SearchAlgorithms.linearSearchByName.
+ *
+ * Usage: ./bench.sh TextSearchBenchmark [employees]   (default: 1000000)
+ */
+public class TextSearchBenchmark {
+    private static final String[] QUERIES = {
+            "mbeki", "alice mbeki", "ndl", "marine", "drone pilot", "tesfaye abebe", "phiri firearms", "employee000123"};
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Employee> employees = generate(size);
+
+        long baseline = usedHeap();
+        EmployeeIndex index = new EmployeeIndex();
+        index.rebuild(employees);
+        long withoutText = usedHeap();
+
+        // The text index is built by the first text search
+        long start = System.nanoTime();
+        index.searchText("pawet", 1);
+        double buildMs = (System.nanoTime() - start) / 1_000_000.0;
+        long textHeap = usedHeap() - withoutText;
+        long otherHeap = withoutText - baseline;
+
+        MicroBenchmark harness = new MicroBenchmark(3, 5, 500);
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════");
+        System.out.printf("TEXT SEARCH (%,d employees)%n", size);
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.printf("  Text index build: %.0f ms, %.1f MB heap (other EmployeeIndex indexes: %.1f MB)%n",
+                buildMs, textHeap / (1024.0 * 1024.0), otherHeap / (1024.0 * 1024.0));
+        System.out.printf("  %-16s %8s %12s %12s %12s %9s%n",
+                "Query", "Matches", "Index (ms)", "Top 20 (ms)", "Linear (ms)", "Speedup");
+        for (String query : QUERIES) {
+            int matches = index.searchText(query, 0).size();
+            double indexed = MicroBenchmark.mean(harness.measure(() -> index.searchText(query, 0)));
+            double top = MicroBenchmark.mean(harness.measure(() -> index.searchText(query, 20)));
+            double linear = MicroBenchmark.mean(harness.measure(() -> SearchAlgorithms.linearSearchByName(employees, query)));
+            System.out.printf("  %-16s %,8d %12.4f %12.4f %12.3f %8.0fx%n",
+                    query, matches, indexed, top, linear, linear / indexed);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════");
+        System.out.println("Linear search matches the name only (substring of the whole name);");
+        System.out.println("the index matches every word against name, email, role and skills.\n");
+    }
+
+    /**
+     * SyntheticDataGenerator employees (fixed seed) in one department
+     */
+    private static List<Employee> generate(int size) {
+        List<Employee> employees = new ArrayList<>(new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, 1)
+                .generateEmployees(Collections.singletonList("D001"), 1, size));
+        // One employee with a unique token, for the single-hit query
+        employees.add(new Technician("T9999999", "Employee000123 Test", "test@pawet.org", "", "D001",
+                "Field Technician", 40_000, LocalDate.of(2020, 1, 1), ""));
+        return employees;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
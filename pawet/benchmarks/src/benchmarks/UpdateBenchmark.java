@@ -0,0 +1,108 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import models.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * UpdateBenchmark - compares the two employee update paths in DatabaseManager
+ *   replaceEmployee: DELETE + INSERT (original updateEmployee implementation)
+ *   updateEmployee:  single UPDATE of the dirty columns only
+ *
+ * Each run changes one field (salary, or the technician equipment list, which
+ * is what Organization.assignEquipment does) on random employees.
+ *
+ * Usage: ./bench.sh UpdateBenchmark [rows] [updates]
+ */
+public class UpdateBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+
+        File dbFile = File.createTempFile("pawet-update-bench", ".db");
+        dbFile.deleteOnExit();
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + dbFile.getPath());
+
+        List<Technician> technicians = createTechnicians(rows);
+        dbManager.setBatchSize(10_000);
+        dbManager.saveEmployees(technicians);
+
+        Random random = new Random(7);
+
+        // Warm up both paths so the JIT has compiled them before measuring
+        runReplace(dbManager, technicians, random, Math.min(500, updates));
+        runUpdate(dbManager, technicians, random, Math.min(500, updates));
+
+        double replaceMs = runReplace(dbManager, technicians, random, updates);
+        double updateMs = runUpdate(dbManager, technicians, random, updates);
+        double equipmentMs = runEquipmentUpdate(dbManager, technicians, random, updates);
+
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("EMPLOYEE UPDATE BENCHMARK");
+        System.out.printf("Table size: %,d rows | Updates per path: %,d%n", rows, updates);
+        System.out.println("═══════════════════════════════════════════");
+        printResult("DELETE + INSERT (salary)", replaceMs, updates);
+        printResult("UPDATE dirty columns (salary)", updateMs, updates);
+        printResult("UPDATE dirty columns (equipment)", equipmentMs, updates);
+        System.out.printf("  Speed Improvement: %.1fx faster%n", replaceMs / updateMs);
+        System.out.println("═══════════════════════════════════════════\n");
+
+        dbManager.close();
+    }
+
+    private static double runReplace(DatabaseManager dbManager, List<Technician> technicians,
+                                     Random random, int updates) {
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            Technician technician = technicians.get(random.nextInt(technicians.size()));
+            technician.setSalary(technician.getSalary() + 1);
+            dbManager.replaceEmployee(technician);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private static double runUpdate(DatabaseManager dbManager, List<Technician> technicians,
+                                    Random random, int updates) {
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            Technician technician = technicians.get(random.nextInt(technicians.size()));
+            technician.setSalary(technician.getSalary() + 1);
+            dbManager.updateEmployee(technician);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private static double runEquipmentUpdate(DatabaseManager dbManager, List<Technician> technicians,
+                                             Random random, int updates) {
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            Technician technician = technicians.get(random.nextInt(technicians.size()));
+            technician.addEquipment("E" + i);
+            dbManager.updateEmployee(technician);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private static void printResult(String label, double totalMs, int updates) {
+        System.out.printf("  %-34s %10.2f ms total | %8.1f µs/update | %,10.0f updates/sec%n",
+                label, totalMs, totalMs * 1000 / updates, updates / (totalMs / 1000));
+    }
+
+    private static List<Technician> createTechnicians(int count) {
+        List<Technician> technicians = new ArrayList<>(count);
+        LocalDate hireDate = LocalDate.of(2024, 1, 1);
+        for (int i = 1; i <= count; i++) {
+            technicians.add(new Technician(String.format("T%06d", i), "Technician " + i,
+                    "tech" + i + "@pawet.org", "+254-700-000000", "D00" + (1 + i % 5),
+                    "Field Technician", 45000.0, hireDate, "First Aid"));
+        }
+        return technicians;
+    }
+}
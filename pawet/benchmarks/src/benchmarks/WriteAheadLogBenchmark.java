@@ -0,0 +1,244 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import database.MemoryRepository;
+import database.Repository;
+import database.WriteAheadLog;
+import models.Department;
+import utils.Metrics;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * WriteAheadLogBenchmark - memory store with a write-ahead log vs. SQLite, plus crash recovery
+ *
+ * Throughput: each thread saves its own departments with a new budget per
+ * call for a fixed time, against SQLite write-through and the memory store
+ * under each fsync policy. Commits per write shows how many commits shared
+ * one log write (group commit).
+ *
+ * Crash test: a child JVM saves departments and prints the number of each
+ * write once the call returns; it is killed (SIGKILL) mid-stream. The store
+ * is then recovered and every acknowledged write must be there. Run with
+ * fsync INTERVAL: a killed process loses nothing the OS already has.
+ *
+ * Usage: ./bench.sh WriteAheadLogBenchmark [secondsPerRun] [threads]   (default: 2 4)
+ */
+public class WriteAheadLogBenchmark {
+    private static final int DEPARTMENTS = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runChild(new File(args[1]));
+            return;
+        }
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("WRITE THROUGHPUT (saveDepartment, %.0f s per run)%n", seconds);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-24s %8s %14s %12s %12s %10s%n", "Store", "Threads", "Writes/s", "p99 (us)",
+                "Commits/write", "Fsyncs");
+        for (int threadCount : new int[] {1, threads}) {
+            run("SQLite (write-through)", null, threadCount, seconds);
+            for (WriteAheadLog.FsyncPolicy policy : WriteAheadLog.FsyncPolicy.values()) {
+                run("memory, fsync " + policy, policy, threadCount, seconds);
+            }
+        }
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println("CRASH RECOVERY (child JVM killed with SIGKILL)");
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        boolean passed = true;
+        for (long killAfterMillis : new long[] {300, 1_000, 3_000}) {
+            passed &= crashTest(killAfterMillis);
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println(passed ? "✓ Every acknowledged write survived the crash\n"
+                : "❌ Acknowledged writes were lost\n");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // ==================== THROUGHPUT ====================
+
+    /**
+     * Save departments from threadCount threads for a fixed time (policy null = SQLite)
+     */
+    private static void run(String name, WriteAheadLog.FsyncPolicy policy, int threadCount, double seconds)
+            throws Exception {
+        File directory = Files.createTempDirectory("pawet-wal-bench").toFile();
+        PrintStream out = silenceOutput();
+        Repository repository;
+        try {
+            repository = policy == null
+                    ? new DatabaseManager("jdbc:sqlite:" + new File(directory, "bench.db").getPath())
+                    : new MemoryRepository(directory, policy, MemoryRepository.DEFAULT_FSYNC_INTERVAL_MILLIS,
+                            MemoryRepository.DEFAULT_SNAPSHOT_BYTES);
+        } finally {
+            System.setOut(out);
+        }
+
+        Metrics metrics = Metrics.shared();
+        metrics.reset();
+        AtomicLong writes = new AtomicLong();
+        long deadline = System.nanoTime() + (long) (seconds * 1_000_000_000L);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            new Thread(() -> {
+                Department department = new Department(String.format("D%02d%03d", thread, 0), "Bench", "North",
+                        0, null, 0);
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    department.setBudget(count++);
+                    long started = metrics.start();
+                    repository.saveDepartment(department);
+                    metrics.record("bench.write", started);
+                }
+                writes.addAndGet(count);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        long commits = metrics.operation("wal.commit").getCalls();
+        long logWrites = metrics.operation("wal.write").getCalls();
+        long fsyncs = metrics.operation("wal.fsync").getCalls();
+        System.out.printf("  %-24s %8d %,14.0f %,12.0f %12s %,10d%n", name, threadCount, writes.get() / seconds,
+                metrics.operation("bench.write").getLatency().getPercentile(99) / 1_000.0,
+                policy != null && logWrites > 0 ? String.format("%.1f", (double) commits / logWrites) : "-",
+                fsyncs);
+
+        silenceOutput();
+        try {
+            repository.close();
+        } finally {
+            System.setOut(out);
+        }
+        deleteRecursively(directory);
+    }
+
+    // ==================== CRASH TEST ====================
+
+    /**
+     * Start a writing child, kill it, recover, and check the acknowledged writes
+     */
+    private static boolean crashTest(long killAfterMillis) throws Exception {
+        File directory = Files.createTempDirectory("pawet-wal-crash").toFile();
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "-Dpawet.wal.snapshotMb=1", WriteAheadLogBenchmark.class.getName(), "--child", directory.getPath())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        AtomicLong acknowledged = new AtomicLong(-1);
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isEmpty() && Character.isDigit(line.charAt(0))) {
+                        acknowledged.set(Long.parseLong(line.trim()));
+                    }
+                }
+            } catch (IOException e) {
+                // Child killed
+            }
+        });
+        reader.start();
+        Thread.sleep(killAfterMillis);
+        child.destroyForcibly().waitFor();
+        reader.join();
+
+        long lastAcknowledged = acknowledged.get();
+        long started = System.nanoTime();
+        PrintStream out = silenceOutput();
+        MemoryRepository recovered;
+        try {
+            recovered = new MemoryRepository(directory, WriteAheadLog.FsyncPolicy.NEVER, 0,
+                    MemoryRepository.DEFAULT_SNAPSHOT_BYTES);
+        } finally {
+            System.setOut(out);
+        }
+        double recoveryMillis = (System.nanoTime() - started) / 1_000_000.0;
+
+        // Write i sets department i % DEPARTMENTS to budget i: each department must hold
+        // its last acknowledged write or a later one
+        boolean intact = true;
+        long recoveredWrites = 0;
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            Department department = recovered.loadDepartmentById(String.format("D%03d", d));
+            long lastForDepartment = lastAcknowledged - Math.floorMod(lastAcknowledged - d, DEPARTMENTS);
+            long budget = department != null ? (long) department.getBudget() : -1;
+            if (budget < lastForDepartment || (budget >= 0 && budget % DEPARTMENTS != d)) {
+                intact = false;
+            }
+            recoveredWrites = Math.max(recoveredWrites, budget + 1);
+        }
+        System.out.printf("  killed after %,5d ms: %,9d writes acknowledged, %,9d recovered in %,6.1f ms  %s%n",
+                killAfterMillis, lastAcknowledged + 1, recoveredWrites, recoveryMillis, intact ? "✓" : "❌");
+        silenceOutput();
+        try {
+            recovered.close();
+        } finally {
+            System.setOut(out);
+        }
+        deleteRecursively(directory);
+        return intact;
+    }
+
+    /**
+     * Child JVM: save departments until killed, printing each acknowledged write number
+     */
+    private static void runChild(File directory) {
+        MemoryRepository repository = new MemoryRepository(directory, WriteAheadLog.FsyncPolicy.INTERVAL,
+                MemoryRepository.DEFAULT_FSYNC_INTERVAL_MILLIS, Long.getLong("pawet.wal.snapshotMb", 64) << 20);
+        Department[] departments = new Department[DEPARTMENTS];
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            departments[d] = new Department(String.format("D%03d", d), "Crash " + d, "North", 0, null, 0);
+        }
+        PrintStream out = new PrintStream(System.out, true);
+        for (long i = 0; ; i++) {
+            Department department = departments[(int) (i % DEPARTMENTS)];
+            department.setBudget(i);
+            repository.saveDepartment(department);
+            out.println(i);
+        }
+    }
+
+    /**
+     * Discard System.out (store start-up and close messages)
+     *
+     * @return the stream to restore
+     */
+    private static PrintStream silenceOutput() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        return out;
+    }
+
+    private static void deleteRecursively(File directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package benchmarks;
+
+import database.DatabaseManager;
+import database.SyntheticDataWriter;
+import managers.Organization;
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Technician;
+import utils.Metrics;
+import utils.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * WriteBehindBenchmark - Organization mutations, write-through vs. write-behind
+ * The same seeded mix runs against a fresh copy of one database in each mode:
+ * 40% addTechnician (employee insert + department headcount), 40% equipment
+ * transitions (assign, maintenance, return), 20% removeEmployee of a
+ * technician added earlier. Reported are the caller's operations per second,
+ * the total including the final flush, and how many row writes the queue
+ * coalesced away. Afterwards the database is reopened and every department,
+ * equipment item and technician must match the in-memory state.
+ *
+ * Usage: ./bench.sh WriteBehindBenchmark [operations] [scaleFactor]   (default: 20000 0.5)
+ */
+public class WriteBehindBenchmark {
+    private static final long SEED = 7;
+
+    public static void main(String[] args) throws IOException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        double scale = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+
+        File template = File.createTempFile("pawet-write-behind-bench", ".db");
+        template.deleteOnExit();
+        DatabaseManager writerDb = new DatabaseManager("jdbc:sqlite:" + template.getPath());
+        new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, scale).generate(new SyntheticDataWriter(writerDb));
+        writerDb.close();
+
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("MUTATION THROUGHPUT (%,d operations, scale %.1f)%n", operations, scale);
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("  %-30s %14s %14s %10s %10s %8s%n", "Mode", "Caller ops/s", "Incl. flush", "Flushes",
+                "Coalesced", "Speedup");
+        run(template, operations, 0, 0);   // warmup (JIT), discarded
+        double baseline = run(template, operations, 0, 0).print("write-through", 0);
+        boolean passed = true;
+        int[][] configs = {{1_000, 200}, {100, 20}, {10_000, 1_000}};
+        for (int[] config : configs) {
+            Run run = run(template, operations, config[0], config[1]);
+            run.print("write-behind " + config[0] + " rows/" + config[1] + " ms", baseline);
+            passed &= run.consistent;
+        }
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println(passed ? "✓ Database matches memory after every write-behind run\n"
+                : "❌ Database does not match memory\n");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Timings and counts of one run
+     */
+    private static final class Run {
+        int operations;
+        double callerSeconds;
+        double totalSeconds;
+        long flushes;
+        long coalesced;
+        boolean consistent;
+
+        double print(String mode, double baseline) {
+            double total = operations / totalSeconds;
+            System.out.printf("  %-30s %,14.0f %,14.0f %,10d %,10d %8s%n", mode, operations / callerSeconds, total,
+                    flushes, coalesced, baseline > 0 ? String.format("%.1fx", total / baseline) : "");
+            return total;
+        }
+    }
+
+    /**
+     * Run the mix on a fresh copy of the template (maxPending 0 = write-through)
+     */
+    private static Run run(File template, int operations, int maxPending, long flushIntervalMillis)
+            throws IOException {
+        File dbFile = File.createTempFile("pawet-write-behind-run", ".db");
+        Files.copy(template.toPath(), dbFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        String dbUrl = "jdbc:sqlite:" + dbFile.getPath();
+        Metrics metrics = Metrics.shared();
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        Run run = new Run();
+        Organization organization;
+        try {
+            organization = new Organization(new DatabaseManager(dbUrl), false, Organization.DEFAULT_CACHE_SIZE);
+            if (maxPending > 0) {
+                organization.startWriteBehind(maxPending, flushIntervalMillis);
+            }
+            metrics.reset();
+            Workload workload = new Workload(organization);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                workload.next(i);
+            }
+            run.callerSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            organization.flushWrites();
+            run.totalSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            run.operations = operations;
+            run.flushes = metrics.operation("db.writeBehind.flush").getCalls();
+            run.coalesced = metrics.getCounter("db.writeBehind.coalesced");
+            organization.closeDatabase();
+            run.consistent = matchesDatabase(organization, dbUrl);
+        } finally {
+            System.setOut(out);
+        }
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            new File(dbFile.getPath() + suffix).delete();
+        }
+        return run;
+    }
+
+    /**
+     * Seeded mutation mix over the loaded data
+     */
+    private static final class Workload {
+        final Organization organization;
+        final Random random = new Random(SEED);
+        final List<Equipment> equipment;
+        final List<String> technicianIds = new ArrayList<>();
+        final List<String> departmentIds = new ArrayList<>();
+        final List<String> added = new ArrayList<>();
+
+        Workload(Organization organization) {
+            this.organization = organization;
+            equipment = organization.getAllEquipment();
+            for (Employee employee : organization.getAllEmployees()) {
+                if (employee instanceof Technician) {
+                    technicianIds.add(employee.getId());
+                }
+            }
+            for (Department department : organization.getAllDepartments()) {
+                departmentIds.add(department.getId());
+            }
+        }
+
+        void next(int i) {
+            int pick = random.nextInt(100);
+            if (pick < 40 || added.isEmpty()) {
+                String id = String.format("T%02d%06d", 99, i);
+                organization.addTechnician(id, "Write Tech " + i, "write" + i + "@pawet.org", "555-0199",
+                        departmentIds.get(random.nextInt(departmentIds.size())), "Field Technician", 40_000,
+                        LocalDate.of(2025, 1, 1), "Bench");
+                added.add(id);
+            } else if (pick < 80) {
+                Equipment item = equipment.get(random.nextInt(equipment.size()));
+                if (item.isAvailable()) {
+                    organization.assignEquipment(item.getId(), technicianIds.get(random.nextInt(technicianIds.size())));
+                } else if (item.isInUse()) {
+                    organization.sendEquipmentToMaintenance(item.getId());
+                } else {
+                    organization.returnEquipmentFromMaintenance(item.getId());
+                }
+            } else {
+                organization.removeEmployee(added.remove(random.nextInt(added.size())));
+            }
+        }
+    }
+
+    /**
+     * Reopen the database and compare it with what the Organization held in memory
+     */
+    private static boolean matchesDatabase(Organization organization, String dbUrl) {
+        DatabaseManager reopened = new DatabaseManager(dbUrl);
+        try {
+            Map<String, Department> departments = new HashMap<>();
+            for (Department department : reopened.loadDepartments()) {
+                departments.put(department.getId(), department);
+            }
+            for (Department department : organization.getAllDepartments()) {
+                Department stored = departments.get(department.getId());
+                if (stored == null || stored.getEmployeeCount() != department.getEmployeeCount()) {
+                    return false;
+                }
+            }
+            Map<String, Equipment> equipment = new HashMap<>();
+            for (Equipment item : reopened.loadEquipment()) {
+                equipment.put(item.getId(), item);
+            }
+            for (Equipment item : organization.getAllEquipment()) {
+                Equipment stored = equipment.get(item.getId());
+                if (stored == null || stored.getVersion() != item.getVersion()
+                        || !stored.getStatus().equals(item.getStatus())) {
+                    return false;
+                }
+            }
+            Map<String, Employee> employees = new HashMap<>();
+            for (Employee employee : reopened.loadEmployees()) {
+                employees.put(employee.getId(), employee);
+            }
+            List<Employee> inMemory = organization.getAllEmployees();
+            if (employees.size() != inMemory.size()) {
+                return false;
+            }
+            for (Employee employee : inMemory) {
+                Employee stored = employees.get(employee.getId());
+                if (stored == null || (employee instanceof Technician
+                        && !((Technician) stored).getEquipmentHandled().equals(((Technician) employee).getEquipmentHandled()))) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import database.DatabaseManager;
+import models.*;
+import utils.SyntheticDataGenerator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BulkImport - Loads large numbers of synthetic employees through the batch API
+ * Used to test PAWET-B behaviour at production scale
+ *
+ * Usage: java BulkImport [employeeCount] [batchSize] [databaseFile]
+ * Defaults: 1,000,000 employees, batches of 10,000, data/pawet_bulk.db
+ */
+public class BulkImport {
+    public static void main(String[] args) {
+        int employeeCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        String databaseFile = args.length > 2 ? args[2] : "data/pawet_bulk.db";
+
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("   PAWET-B BULK IMPORT");
+        System.out.printf("   %,d employees → %s%n", employeeCount, databaseFile);
+        System.out.println("════════════════════════════════════════════════════════\n");
+
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + databaseFile);
+        dbManager.setBatchSize(batchSize);
+
+        List<Department> departments = dbManager.loadDepartments();
+        if (departments.isEmpty()) {
+            departments = defaultDepartments();
+            dbManager.saveDepartments(departments);
+        }
+
+        long startTime = System.nanoTime();
+        List<Employee> employees = generateEmployees(dbManager, departments, employeeCount);
+        double generateSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf("→ Generated %,d employees in %.2f s%n", employees.size(), generateSeconds);
+
+        int written = dbManager.saveEmployees(employees);
+
+        // Keep department employee counts consistent with the imported rows
+        Map<String, Integer> addedPerDepartment = new HashMap<>();
+        for (Employee employee : employees) {
+            addedPerDepartment.merge(employee.getDepartmentId(), 1, Integer::sum);
+        }
+        for (Department dept : departments) {
+            Integer added = addedPerDepartment.get(dept.getId());
+            if (added != null) {
+                dept.setEmployeeCount(dept.getEmployeeCount() + added);
+            }
+        }
+        dbManager.saveDepartments(departments);
+
+        double totalSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        dbManager.close();
+
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.printf("   ✓ Imported %,d employees in %.2f s (%,.0f rows/sec overall)%n",
+                written, totalSeconds, written / Math.max(totalSeconds, 1e-9));
+        System.out.println("════════════════════════════════════════════════════════\n");
+    }
+
+    /**
+     * Generate synthetic employees with SyntheticDataGenerator's role mix and salaries
+     * IDs continue after the highest existing employee number
+     */
+    private static List<Employee> generateEmployees(DatabaseManager dbManager,
+                                                    List<Department> departments, int count) {
+        int firstNumber = Math.max(dbManager.getMaxEmployeeNumber('M'),
+                Math.max(dbManager.getMaxEmployeeNumber('S'), dbManager.getMaxEmployeeNumber('T'))) + 1;
+        List<String> departmentIds = new ArrayList<>(departments.size());
+        for (Department department : departments) {
+            departmentIds.add(department.getId());
+        }
+        return new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, 1)
+                .generateEmployees(departmentIds, firstNumber, count);
+    }
+
+    private static List<Department> defaultDepartments() {
+        List<Department> departments = new ArrayList<>();
+        departments.add(new Department("D001", "Marine Conservation", "Coastal Region", 1000000.0, null, 0));
+        departments.add(new Department("D002", "Wildlife Research", "Savannah Region", 1500000.0, null, 0));
+        departments.add(new Department("D003", "Forestry Management", "Forest Region", 1200000.0, null, 0));
+        departments.add(new Department("D004", "Tourism Development", "Central HQ", 800000.0, null, 0));
+        departments.add(new Department("D005", "Data Analytics", "Central HQ", 600000.0, null, 0));
+        return departments;
+    }
+}
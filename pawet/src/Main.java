@@ -1,10 +1,20 @@
+import database.DatabaseManager;
+import database.MemoryRepository;
+import database.Repository;
+import database.StorageEngines;
+import database.WriteBehindQueue;
 import managers.Organization;
 import models.*;
+import utils.ChangeLogWriter;
+import utils.Metrics;
 import utils.SearchAlgorithms;
 import utils.SortAlgorithms;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
@@ -17,8 +27,24 @@ public class Main {
     private static Scanner scanner;
 
     public static void main(String[] args) {
+        // --lazy: load data on demand instead of all at startup (large databases)
+        // --write-behind: queue database writes for a background thread (eager mode)
+        // --store=<url>: storage engine and location, e.g. mmap:data/pawet-mmap (see StorageEngines)
+        // --memory: in-memory store with a write-ahead log (--store=wal:<pawet.memory.dir>)
+        // --cdc-log=<file>: append every change event to a file as JSON lines
+        List<String> options = Arrays.asList(args);
+        boolean lazyLoading = options.contains("--lazy");
+
         scanner = new Scanner(System.in);
-        organization = new Organization();
+        startMetricsDumpFromProperties();
+        Repository repository = openStore(options);
+        organization = new Organization(repository, lazyLoading, Organization.DEFAULT_CACHE_SIZE);
+        if (options.contains("--write-behind")) {
+            organization.startWriteBehind(
+                    Integer.getInteger("pawet.writeBehind.batch", WriteBehindQueue.DEFAULT_MAX_PENDING),
+                    Long.getLong("pawet.writeBehind.intervalMs", WriteBehindQueue.DEFAULT_FLUSH_INTERVAL_MILLIS));
+        }
+        ChangeLogWriter changeLog = startChangeLog(options);
 
         boolean running = true;
 
@@ -48,6 +74,9 @@ public class Main {
                 case 7:
                     reportsMenu();
                     break;
+                case 8:
+                    metricsMenu();
+                    break;
                 case 0:
                     running = false;
                     break;
@@ -57,7 +86,11 @@ public class Main {
         }
 
         // Cleanup
+        if (changeLog != null) {
+            changeLog.close();
+        }
         organization.closeDatabase();
+        Metrics.shared().stopDump();
         scanner.close();
         System.out.println("\n✓ System shutdown complete. Thank you for using PAWET-B!\n");
     }
@@ -75,6 +108,7 @@ public class Main {
         System.out.println("5. Search Operations");
         System.out.println("6. Sort Operations");
         System.out.println("7. Reports & Statistics");
+        System.out.println("8. Metrics");
         System.out.println("0. Exit System");
         System.out.println("════════════════════════════════════════════════════════");
     }
@@ -225,6 +259,7 @@ public class Main {
             System.out.println("2. View Department Details");
             System.out.println("3. View All Departments");
             System.out.println("4. View Department Employees");
+            System.out.println("5. Allocate Budget");
             System.out.println("0. Back to Main Menu");
             System.out.println("──────────────────────────────────────────");
 
@@ -243,6 +278,9 @@ public class Main {
                 case 4:
                     viewDepartmentEmployees();
                     break;
+                case 5:
+                    allocateDepartmentBudget();
+                    break;
                 case 0:
                     return;
                 default:
@@ -284,6 +322,13 @@ public class Main {
         SearchAlgorithms.displaySearchResults(employees, "Department " + departmentId);
     }
 
+    private static void allocateDepartmentBudget() {
+        System.out.println("\n--- Allocate Department Budget ---");
+        String departmentId = getStringInput("Department ID: ");
+        double amount = getDoubleInput("Amount: $");
+        organization.allocateDepartmentBudget(departmentId, amount);
+    }
+
     // ==================== PROJECT MANAGEMENT ====================
 
     private static void projectManagementMenu() {
@@ -294,6 +339,7 @@ public class Main {
             System.out.println("1. Add Project");
             System.out.println("2. View All Projects");
             System.out.println("3. View Active Projects");
+            System.out.println("4. Change Project Status");
             System.out.println("0. Back to Main Menu");
             System.out.println("──────────────────────────────────────────");
 
@@ -309,6 +355,9 @@ public class Main {
                 case 3:
                     viewActiveProjects();
                     break;
+                case 4:
+                    changeProjectStatus();
+                    break;
                 case 0:
                     return;
                 default:
@@ -365,6 +414,13 @@ public class Main {
         }
     }
 
+    private static void changeProjectStatus() {
+        System.out.println("\n--- Change Project Status ---");
+        String projectId = getStringInput("Project ID: ");
+        String status = getStringInput("New status (ACTIVE, COMPLETED, SUSPENDED): ");
+        organization.changeProjectStatus(projectId, status);
+    }
+
     // ==================== EQUIPMENT MANAGEMENT ====================
 
     private static void equipmentManagementMenu() {
@@ -376,6 +432,9 @@ public class Main {
             System.out.println("2. Assign Equipment to Technician");
             System.out.println("3. View All Equipment");
             System.out.println("4. View Available Equipment");
+            System.out.println("5. Send Equipment to Maintenance");
+            System.out.println("6. Return Equipment from Maintenance");
+            System.out.println("7. Retire Equipment");
             System.out.println("0. Back to Main Menu");
             System.out.println("──────────────────────────────────────────");
 
@@ -394,6 +453,15 @@ public class Main {
                 case 4:
                     viewAvailableEquipment();
                     break;
+                case 5:
+                    sendEquipmentToMaintenance();
+                    break;
+                case 6:
+                    returnEquipmentFromMaintenance();
+                    break;
+                case 7:
+                    retireEquipment();
+                    break;
                 case 0:
                     return;
                 default:
@@ -436,6 +504,24 @@ public class Main {
         organization.assignEquipment(equipmentId, technicianId);
     }
 
+    private static void sendEquipmentToMaintenance() {
+        System.out.println("\n--- Send Equipment to Maintenance ---");
+        String equipmentId = getStringInput("Equipment ID: ");
+        organization.sendEquipmentToMaintenance(equipmentId);
+    }
+
+    private static void returnEquipmentFromMaintenance() {
+        System.out.println("\n--- Return Equipment from Maintenance ---");
+        String equipmentId = getStringInput("Equipment ID: ");
+        organization.returnEquipmentFromMaintenance(equipmentId);
+    }
+
+    private static void retireEquipment() {
+        System.out.println("\n--- Retire Equipment ---");
+        String equipmentId = getStringInput("Equipment ID: ");
+        organization.retireEquipment(equipmentId);
+    }
+
     private static void viewAvailableEquipment() {
         System.out.println("\n--- Available Equipment ---");
         List<Equipment> allEquipment = organization.getAllEquipment();
@@ -469,6 +555,11 @@ public class Main {
             System.out.println("4. Search by Department");
             System.out.println("5. Search by Role Type");
             System.out.println("6. Search by Salary Range");
+            System.out.println("7. Search Employee by ID (Hash Index)");
+            System.out.println("8. Find Managers of Employee");
+            System.out.println("9. Find Scientists on Project");
+            System.out.println("10. Find Technicians with Equipment");
+            System.out.println("11. Search Employees by ID Range");
             System.out.println("0. Back to Main Menu");
             System.out.println("──────────────────────────────────────────");
 
@@ -493,6 +584,21 @@ public class Main {
                 case 6:
                     searchBySalaryRange();
                     break;
+                case 7:
+                    searchByIdIndexed();
+                    break;
+                case 8:
+                    findManagersOfEmployee();
+                    break;
+                case 9:
+                    findScientistsOnProject();
+                    break;
+                case 10:
+                    findTechniciansWithEquipment();
+                    break;
+                case 11:
+                    searchByIdRange();
+                    break;
                 case 0:
                     return;
                 default:
@@ -504,13 +610,20 @@ public class Main {
     private static void searchByIdLinear() {
         System.out.println("\n--- Linear Search by ID ---");
         String employeeId = getStringInput("Enter Employee ID: ");
+        Employee employee = organization.linearSearchEmployeeById(employeeId);
+        SearchAlgorithms.displaySingleResult(employee, employeeId);
+    }
+
+    private static void searchByIdIndexed() {
+        System.out.println("\n--- Hash Index Search by ID ---");
+        String employeeId = getStringInput("Enter Employee ID: ");
         Employee employee = organization.searchEmployeeById(employeeId);
         SearchAlgorithms.displaySingleResult(employee, employeeId);
     }
 
     private static void searchByIdBinary() {
         System.out.println("\n--- Binary Search by ID ---");
-        System.out.println("(Note: This requires the list to be sorted first)");
+        System.out.println("(Uses the ID-sorted index - no sorting needed)");
         String employeeId = getStringInput("Enter Employee ID: ");
         Employee employee = organization.binarySearchEmployeeById(employeeId);
         SearchAlgorithms.displaySingleResult(employee, employeeId);
@@ -518,7 +631,7 @@ public class Main {
 
     private static void searchByName() {
         System.out.println("\n--- Search by Name ---");
-        String name = getStringInput("Enter name (or partial name): ");
+        String name = getStringInput("Enter name, email, role or skill (partial words OK): ");
         List<Employee> results = organization.searchEmployeesByName(name);
         SearchAlgorithms.displaySearchResults(results, name);
     }
@@ -546,6 +659,35 @@ public class Main {
         SearchAlgorithms.displaySearchResults(results, "Salary range");
     }
 
+    private static void findManagersOfEmployee() {
+        System.out.println("\n--- Find Managers of Employee ---");
+        String employeeId = getStringInput("Enter Employee ID: ");
+        List<Employee> results = organization.findManagersOfEmployee(employeeId);
+        SearchAlgorithms.displaySearchResults(results, "Managers of " + employeeId);
+    }
+
+    private static void findScientistsOnProject() {
+        System.out.println("\n--- Find Scientists on Project ---");
+        String projectId = getStringInput("Enter Project ID: ");
+        List<Employee> results = organization.findScientistsOnProject(projectId);
+        SearchAlgorithms.displaySearchResults(results, "Project " + projectId);
+    }
+
+    private static void findTechniciansWithEquipment() {
+        System.out.println("\n--- Find Technicians with Equipment ---");
+        String equipmentId = getStringInput("Enter Equipment ID: ");
+        List<Employee> results = organization.findTechniciansWithEquipment(equipmentId);
+        SearchAlgorithms.displaySearchResults(results, "Equipment " + equipmentId);
+    }
+
+    private static void searchByIdRange() {
+        System.out.println("\n--- Search by ID Range ---");
+        String fromId = getStringInput("From Employee ID: ");
+        String toId = getStringInput("To Employee ID: ");
+        List<Employee> results = organization.searchEmployeesByIdRange(fromId, toId);
+        SearchAlgorithms.displaySearchResults(results, "IDs " + fromId + " - " + toId);
+    }
+
     // ==================== SORT OPERATIONS ====================
 
     private static void sortOperationsMenu() {
@@ -558,6 +700,7 @@ public class Main {
             System.out.println("3. Sort by Salary (Ascending)");
             System.out.println("4. Sort by Salary (Descending)");
             System.out.println("5. Compare Algorithm Performance");
+            System.out.println("6. Toggle Quick Sort Mode (current: " + SortAlgorithms.getQuickSortMode() + ")");
             System.out.println("0. Back to Main Menu");
             System.out.println("──────────────────────────────────────────");
 
@@ -579,6 +722,9 @@ public class Main {
                 case 5:
                     compareAlgorithms();
                     break;
+                case 6:
+                    toggleQuickSortMode();
+                    break;
                 case 0:
                     return;
                 default:
@@ -611,6 +757,14 @@ public class Main {
         SortAlgorithms.compareAlgorithms(organization.getAllEmployees());
     }
 
+    private static void toggleQuickSortMode() {
+        SortAlgorithms.QuickSortMode mode = SortAlgorithms.getQuickSortMode() == SortAlgorithms.QuickSortMode.INTROSORT
+                ? SortAlgorithms.QuickSortMode.CLASSIC
+                : SortAlgorithms.QuickSortMode.INTROSORT;
+        SortAlgorithms.setQuickSortMode(mode);
+        System.out.println("\n✓ Quick sort mode: " + mode);
+    }
+
     // ==================== REPORTS ====================
 
     private static void reportsMenu() {
@@ -622,6 +776,11 @@ public class Main {
             System.out.println("2. Employee Summary");
             System.out.println("3. Department Summary");
             System.out.println("4. Project Summary");
+            System.out.println("5. Database Pool Statistics");
+            System.out.println("6. Salary Distribution");
+            System.out.println("7. Verify Statistics (full recompute)");
+            System.out.println("8. Payroll by Department and Role");
+            System.out.println("9. Recent Change Events");
             System.out.println("0. Back to Main Menu");
             System.out.println("──────────────────────────────────────────");
 
@@ -640,6 +799,149 @@ public class Main {
                 case 4:
                     organization.displayAllProjects();
                     break;
+                case 5:
+                    organization.displayDatabaseStatistics();
+                    break;
+                case 6:
+                    organization.displaySalaryDistribution(10);
+                    break;
+                case 7:
+                    organization.verifyStatistics();
+                    break;
+                case 8:
+                    organization.displayPayrollByDepartmentAndRole();
+                    break;
+                case 9:
+                    organization.displayRecentChanges(20);
+                    break;
+                case 0:
+                    return;
+                default:
+                    System.out.println("\n❌ Invalid choice.");
+            }
+        }
+    }
+
+    // ==================== METRICS ====================
+
+    /**
+     * -Dpawet.metrics.dump=file [-Dpawet.metrics.interval=seconds] dumps metrics periodically
+     */
+    private static void startMetricsDumpFromProperties() {
+        String file = System.getProperty("pawet.metrics.dump");
+        if (file != null && !file.isEmpty()) {
+            long interval = Long.getLong("pawet.metrics.interval", 60);
+            Metrics.shared().startDump(file, interval);
+            System.out.println("✓ Writing metrics to " + file + " every " + interval + " s");
+        }
+    }
+
+    /**
+     * Open the store chosen with --store=<url> or --memory (null = the default store)
+     * A new store of another engine starts as a copy of data/pawet.db, if there is one.
+     */
+    private static Repository openStore(List<String> options) {
+        String url = null;
+        for (String option : options) {
+            if (option.startsWith("--store=")) {
+                url = option.substring("--store=".length());
+            }
+        }
+        if (url == null && options.contains("--memory")) {
+            url = "wal:" + System.getProperty("pawet.memory.dir", MemoryRepository.DEFAULT_DIRECTORY);
+        }
+        if (url == null) {
+            return null;
+        }
+
+        Repository store;
+        try {
+            store = StorageEngines.open(url);
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage() + " - using " + StorageEngines.getDefaultUrl());
+            return null;
+        }
+        if (!url.equals(StorageEngines.DEFAULT_URL) && StorageEngines.isEmpty(store)
+                && new File("data/pawet.db").exists()) {
+            DatabaseManager source = new DatabaseManager(StorageEngines.DEFAULT_URL);
+            int rows = StorageEngines.copy(source, store);
+            source.close();
+            System.out.println("✓ Imported " + rows + " rows from data/pawet.db into " + url);
+        }
+        return store;
+    }
+
+    /**
+     * Start the change log chosen with --cdc-log=<file> (null = none)
+     */
+    private static ChangeLogWriter startChangeLog(List<String> options) {
+        for (String option : options) {
+            if (option.startsWith("--cdc-log=")) {
+                String file = option.substring("--cdc-log=".length());
+                try {
+                    ChangeLogWriter writer = new ChangeLogWriter(organization.getChangeStream(),
+                            organization.getChangeStream().getNextOffset(), file);
+                    System.out.println("✓ Writing change events to " + file);
+                    return writer;
+                } catch (IOException e) {
+                    System.err.println("ERROR: Cannot open change log " + file);
+                    e.printStackTrace();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void metricsMenu() {
+        Metrics metrics = Metrics.shared();
+        while (true) {
+            System.out.println("\n──────────────────────────────────────────");
+            System.out.println("       METRICS");
+            System.out.println("──────────────────────────────────────────");
+            System.out.println("1. Show Metrics (by total time)");
+            System.out.println("2. Show Metrics as JSON");
+            System.out.println("3. Reset Metrics");
+            String dumpFile = metrics.getDumpFile();
+            System.out.println("4. Start Periodic Dump" + (dumpFile != null ? " (current: " + dumpFile + ")" : ""));
+            System.out.println("5. Stop Periodic Dump");
+            System.out.println("0. Back to Main Menu");
+            System.out.println("──────────────────────────────────────────");
+
+            int choice = getIntInput("Enter your choice: ");
+
+            switch (choice) {
+                case 1:
+                    if (!metrics.isEnabled()) {
+                        System.out.println("\n→ Metrics are disabled (-Dpawet.metrics=false)");
+                    }
+                    System.out.println();
+                    System.out.print(metrics.toText());
+                    break;
+                case 2:
+                    System.out.println("\n" + metrics.toJson());
+                    break;
+                case 3:
+                    metrics.reset();
+                    System.out.println("\n✓ Metrics reset");
+                    break;
+                case 4:
+                    String file = getStringInput("Dump file (.json for JSON lines): ");
+                    int interval = getIntInput("Interval (seconds): ");
+                    if (file.isEmpty() || interval <= 0) {
+                        System.out.println("\n❌ A file name and a positive interval are required.");
+                        break;
+                    }
+                    metrics.startDump(file, interval);
+                    System.out.println("\n✓ Writing metrics to " + file + " every " + interval + " s");
+                    break;
+                case 5:
+                    if (metrics.getDumpFile() == null) {
+                        System.out.println("\n❌ No periodic dump is running.");
+                    } else {
+                        metrics.stopDump();
+                        System.out.println("\n✓ Periodic dump stopped (final report written)");
+                    }
+                    break;
                 case 0:
                     return;
                 default:
@@ -1,14 +1,28 @@
+import database.DatabaseManager;
+import database.SyntheticDataWriter;
 import managers.Organization;
+import utils.SyntheticDataGenerator;
+
 import java.time.LocalDate;
 
 /**
  * SeedData - Populates database with sample data for testing and demonstration
  * Run this once to populate the system with realistic African wildlife organization data
+ *
+ * Usage: java SeedData                                      (sample data, data/pawet.db)
+ *        java SeedData --scale <factor> [--seed n] [--db file]
+ * The --scale mode writes SyntheticDataGenerator output through the batch
+ * API (scale 1 = 10,000 employees, 100 = 1,000,000), default data/pawet_synthetic.db
  */
 public class SeedData {
     private static Organization org;
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--scale".equals(args[0])) {
+            seedSynthetic(args);
+            return;
+        }
+
         System.out.println("\n════════════════════════════════════════════════════════");
         System.out.println("   PAWET-B DATABASE SEEDING");
         System.out.println("   Populating with Sample Data...");
@@ -212,4 +226,54 @@ public class SeedData {
 
         System.out.println("  ✓ 12 equipment items added\n");
     }
+
+    // ==================== SYNTHETIC DATA ====================
+
+    private static void seedSynthetic(String[] args) {
+        double scaleFactor;
+        long seed = SyntheticDataGenerator.DEFAULT_SEED;
+        String databaseFile = "data/pawet_synthetic.db";
+        try {
+            scaleFactor = Double.parseDouble(args[1]);
+            for (int i = 2; i < args.length; i += 2) {
+                if ("--seed".equals(args[i])) {
+                    seed = Long.parseLong(args[i + 1]);
+                } else if ("--db".equals(args[i])) {
+                    databaseFile = args[i + 1];
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Usage: java SeedData --scale <factor> [--seed n] [--db file]");
+            return;
+        }
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(seed, scaleFactor);
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("   PAWET-B SYNTHETIC DATA");
+        System.out.printf("   Scale %s, seed %d → %s%n", args[1], seed, databaseFile);
+        System.out.printf("   %,d employees, %,d departments, %,d projects, %,d equipment%n",
+                generator.getEmployeeCount(), generator.getDepartmentCount(),
+                generator.getProjectCount(), generator.getEquipmentCount());
+        System.out.println("════════════════════════════════════════════════════════\n");
+
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + databaseFile);
+        if (dbManager.countEmployees() > 0) {
+            System.out.println("❌ " + databaseFile + " already has employees; use an empty database file");
+            dbManager.close();
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        SyntheticDataWriter writer = new SyntheticDataWriter(dbManager);
+        generator.generate(writer);
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        dbManager.close();
+
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.printf("   ✓ Wrote %,d rows in %.2f s (%,.0f rows/sec)%n",
+                writer.getRowsWritten(), seconds, writer.getRowsWritten() / Math.max(seconds, 1e-9));
+        System.out.println("════════════════════════════════════════════════════════\n");
+    }
 }
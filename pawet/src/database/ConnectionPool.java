@@ -0,0 +1,212 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool - small built-in pool of SQLite connections
+ * One writer connection (SQLite allows a single writer) guarded by a lock,
+ * plus N read-only reader connections.
+ *
+ * The database runs in WAL (write-ahead log) mode, so readers see the last
+ * committed data and never block behind the writer, and the writer never
+ * waits for readers to finish.
+ *
+ * In-memory databases cannot be shared between connections, so for
+ * ":memory:" URLs all reads go through the writer connection.
+ */
+public class ConnectionPool {
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final PooledConnection writer;
+    private final ReentrantLock writerLock;
+    private final List<PooledConnection> readers;
+    private final BlockingQueue<PooledConnection> idleReaders;
+
+    // Statistics
+    private final AtomicLong writerAcquires = new AtomicLong();
+    private final AtomicLong writerWaits = new AtomicLong();
+    private final AtomicLong readerAcquires = new AtomicLong();
+    private final AtomicLong readerWaits = new AtomicLong();
+
+    /**
+     * Constructor - opens the writer and reader connections
+     *
+     * @param dbUrl JDBC URL of the SQLite database
+     * @param readerCount number of reader connections (0 = reads use the writer)
+     * @param statementCacheSize prepared statements cached per connection
+     */
+    public ConnectionPool(String dbUrl, int readerCount, int statementCacheSize) throws SQLException {
+        boolean inMemory = dbUrl.contains(":memory:");
+        if (inMemory) {
+            readerCount = 0;
+        }
+
+        Connection writerConnection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = writerConnection.createStatement()) {
+            if (!inMemory) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                // NORMAL is durable against application crashes in WAL mode;
+                // only an OS crash/power loss can lose the last transactions
+                stmt.execute("PRAGMA synchronous=NORMAL");
+            }
+            stmt.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+        }
+        writer = new PooledConnection(writerConnection, statementCacheSize, true);
+        writerLock = new ReentrantLock();
+
+        readers = new ArrayList<>();
+        idleReaders = new ArrayBlockingQueue<>(Math.max(1, readerCount));
+        for (int i = 0; i < readerCount; i++) {
+            Connection readerConnection = DriverManager.getConnection(dbUrl);
+            try (Statement stmt = readerConnection.createStatement()) {
+                stmt.execute("PRAGMA query_only=true");
+                stmt.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+            }
+            PooledConnection reader = new PooledConnection(readerConnection, statementCacheSize, false);
+            readers.add(reader);
+            idleReaders.add(reader);
+        }
+    }
+
+    /**
+     * Acquire the writer connection (exclusive)
+     * Must be paired with releaseWriter() in a finally block.
+     */
+    public PooledConnection acquireWriter() {
+        if (!writerLock.tryLock()) {
+            writerWaits.incrementAndGet();
+            writerLock.lock();
+        }
+        writerAcquires.incrementAndGet();
+        return writer;
+    }
+
+    public void releaseWriter() {
+        writerLock.unlock();
+    }
+
+    /**
+     * Acquire a reader connection
+     * A thread that already holds the writer (e.g. inside a batch transaction)
+     * reads through the writer so it sees its own uncommitted changes.
+     * Must be paired with releaseReader() in a finally block.
+     */
+    public PooledConnection acquireReader() {
+        if (readers.isEmpty() || writerLock.isHeldByCurrentThread()) {
+            return acquireWriter();
+        }
+
+        readerAcquires.incrementAndGet();
+        PooledConnection reader = idleReaders.poll();
+        if (reader == null) {
+            readerWaits.incrementAndGet();
+            try {
+                reader = idleReaders.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a reader connection", e);
+            }
+        }
+        return reader;
+    }
+
+    public void releaseReader(PooledConnection connection) {
+        if (connection.isWriter()) {
+            releaseWriter();
+        } else {
+            idleReaders.add(connection);
+        }
+    }
+
+    /**
+     * Close all connections
+     */
+    public void close() throws SQLException {
+        for (PooledConnection reader : readers) {
+            reader.close();
+        }
+        writer.close();
+    }
+
+    // ==================== STATISTICS ====================
+
+    public int getReaderCount() {
+        return readers.size();
+    }
+
+    public int getIdleReaderCount() {
+        return idleReaders.size();
+    }
+
+    public long getWriterAcquires() {
+        return writerAcquires.get();
+    }
+
+    public long getWriterWaits() {
+        return writerWaits.get();
+    }
+
+    public long getReaderAcquires() {
+        return readerAcquires.get();
+    }
+
+    public long getReaderWaits() {
+        return readerWaits.get();
+    }
+
+    public long getCacheHits() {
+        long total = writer.getStatementCache().getHits();
+        for (PooledConnection reader : readers) {
+            total += reader.getStatementCache().getHits();
+        }
+        return total;
+    }
+
+    public long getCacheMisses() {
+        long total = writer.getStatementCache().getMisses();
+        for (PooledConnection reader : readers) {
+            total += reader.getStatementCache().getMisses();
+        }
+        return total;
+    }
+
+    public long getCacheEvictions() {
+        long total = writer.getStatementCache().getEvictions();
+        for (PooledConnection reader : readers) {
+            total += reader.getStatementCache().getEvictions();
+        }
+        return total;
+    }
+
+    /**
+     * Display pool and statement cache statistics
+     */
+    public void displayStatistics() {
+        long hits = getCacheHits();
+        long misses = getCacheMisses();
+        long lookups = hits + misses;
+
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("DATABASE CONNECTION POOL");
+        System.out.println("═══════════════════════════════════════════");
+        System.out.println("  Writer connections: 1");
+        System.out.println("  Reader connections: " + readers.size() + " (" + idleReaders.size() + " idle)");
+        System.out.printf("  Writer acquires: %,d (waited %,d)%n", getWriterAcquires(), getWriterWaits());
+        System.out.printf("  Reader acquires: %,d (waited %,d)%n", getReaderAcquires(), getReaderWaits());
+        System.out.println("\nSTATEMENT CACHE:");
+        System.out.printf("  Hits: %,d | Misses: %,d | Evictions: %,d%n", hits, misses, getCacheEvictions());
+        if (lookups > 0) {
+            System.out.printf("  Hit Rate: %.1f%%%n", hits * 100.0 / lookups);
+        }
+        System.out.println("═══════════════════════════════════════════");
+    }
+}
@@ -1,29 +1,137 @@
 package database;
 
 import models.*;
+import utils.EmployeeColumns;
+import utils.Metrics;
+import utils.StatisticsEngine;
+
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * DatabaseManager handles all SQL database operations for PAWET-B
  * Uses SQLite for data persistence
  * Demonstrates database integration and CRUD operations
  */
-public class DatabaseManager {
+public class DatabaseManager implements Repository {
     private static final String DB_URL = "jdbc:sqlite:data/pawet.db";
-    private Connection connection;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_READER_CONNECTIONS = 4;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private static final String INSERT_EMPLOYEE_SQL = "INSERT INTO employees (id, name, email, phone, department_id, role, " +
+            "salary, hire_date, role_type, specialization, team_list, budget_authority, " +
+            "project_list, equipment_list, certifications) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Whole-row write that also works when the row exists (write-behind flushes)
+    private static final String UPSERT_EMPLOYEE_SQL = INSERT_EMPLOYEE_SQL.replaceFirst("INSERT", "INSERT OR REPLACE");
+    private static final String SAVE_DEPARTMENT_SQL = "INSERT OR REPLACE INTO departments (id, name, region, budget, manager_id, employee_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_DEPARTMENT_BUDGET_SQL = "UPDATE departments SET budget = ? WHERE id = ?";
+    private static final String SAVE_PROJECT_SQL = "INSERT OR REPLACE INTO projects (id, name, description, department_id, " +
+            "lead_scientist_id, budget, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SAVE_EQUIPMENT_SQL = "INSERT OR REPLACE INTO equipment (id, name, type, serial_number, " +
+            "department_id, assigned_to_id, purchase_date, status, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Optimistic state change: only applies if nobody changed the row since expectedVersion was read
+    private static final String CAS_EQUIPMENT_SQL = "UPDATE equipment SET status = ?, assigned_to_id = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
+
+    // One writer + N reader connections, each with its own prepared statement cache
+    private ConnectionPool pool;
+    private int batchSize;
+    // Every SQL call records latency, rows and estimated bytes as "db.<operation>"
+    private final Metrics metrics = Metrics.shared();
+
+    /**
+     * Binds one entity to the parameters of a prepared statement
+     * Used by the batch helpers so every entity type shares one batching loop
+     */
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    /**
+     * Writes with the writer connection already held
+     */
+    private interface WriteAction {
+        void run(PooledConnection writer) throws SQLException;
+    }
+
+    /**
+     * One relationship join table: owner employee -> linked ID
+     */
+    private static final class JoinTable {
+        final String name;
+        final String ownerColumn;
+        final String targetColumn;
+        final String insertSql;
+        final String deleteSql;
+
+        JoinTable(String name, String ownerColumn, String targetColumn) {
+            this.name = name;
+            this.ownerColumn = ownerColumn;
+            this.targetColumn = targetColumn;
+            this.insertSql = "INSERT OR IGNORE INTO " + name + " (" + ownerColumn + ", " + targetColumn + ") VALUES (?, ?)";
+            this.deleteSql = "DELETE FROM " + name + " WHERE " + ownerColumn + " = ?";
+        }
+    }
+
+    private static final JoinTable MANAGER_TEAM = new JoinTable("manager_team", "manager_id", "employee_id");
+    private static final JoinTable SCIENTIST_PROJECTS = new JoinTable("scientist_projects", "scientist_id", "project_id");
+    private static final JoinTable TECHNICIAN_EQUIPMENT = new JoinTable("technician_equipment", "technician_id", "equipment_id");
+    private static final JoinTable[] JOIN_TABLES = {MANAGER_TEAM, SCIENTIST_PROJECTS, TECHNICIAN_EQUIPMENT};
+
+    // PRAGMA user_version: 1 = relationship join tables populated, 2 = equipment.version column
+    private static final int SCHEMA_VERSION = 2;
+
+    /**
+     * Builds one entity from the current ResultSet row
+     */
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Sets the parameters of a query before it runs
+     */
+    private interface ParameterBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
 
     /**
      * Constructor - establishes database connection
      */
     public DatabaseManager() {
+        this(DB_URL);
+    }
+
+    /**
+     * Constructor - establishes connection to a specific database
+     * (e.g. "jdbc:sqlite:data/pawet_bulk.db" for bulk imports and benchmarks)
+     */
+    public DatabaseManager(String dbUrl) {
+        this(dbUrl, DEFAULT_READER_CONNECTIONS);
+    }
+
+    /**
+     * Constructor - opens a connection pool with the given number of reader connections
+     */
+    public DatabaseManager(String dbUrl, int readerConnections) {
+        batchSize = DEFAULT_BATCH_SIZE;
         try {
             // Load SQLite JDBC driver
             Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(DB_URL);
-            System.out.println("✓ Database connection established");
+            pool = new ConnectionPool(dbUrl, readerConnections, STATEMENT_CACHE_SIZE);
+            System.out.println("✓ Database connection established (" + pool.getReaderCount() + " readers, WAL mode)");
+            registerGauges();
             initializeTables();
         } catch (ClassNotFoundException e) {
             System.err.println("ERROR: SQLite JDBC driver not found");
@@ -39,8 +147,10 @@ public class DatabaseManager {
      * Initialize database tables if they don't exist
      */
     private void initializeTables() {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
         try {
-            Statement stmt = connection.createStatement();
+            Statement stmt = writer.getConnection().createStatement();
 
             // Create employees table
             String createEmployees = "CREATE TABLE IF NOT EXISTS employees (" +
@@ -98,15 +208,154 @@ public class DatabaseManager {
                     "assigned_to_id TEXT, " +
                     "purchase_date TEXT, " +
                     "status TEXT, " +
+                    "version INTEGER NOT NULL DEFAULT 0, " +
                     "FOREIGN KEY (department_id) REFERENCES departments(id), " +
                     "FOREIGN KEY (assigned_to_id) REFERENCES employees(id))";
             stmt.execute(createEquipment);
 
+            // Indexes for the filter queries (NOCASE matches the equalsIgnoreCase searches)
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_department " +
+                    "ON employees(department_id COLLATE NOCASE)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_role_type " +
+                    "ON employees(role_type COLLATE NOCASE)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_salary ON employees(salary)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_projects_status ON projects(status COLLATE NOCASE)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_equipment_status ON equipment(status COLLATE NOCASE)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_equipment_type ON equipment(type COLLATE NOCASE)");
+
+            // Relationship join tables (normalized form of team_list / project_list / equipment_list).
+            // The primary key answers "who is in this team", the second index "whose team is this".
+            for (JoinTable table : JOIN_TABLES) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + table.name + " (" +
+                        table.ownerColumn + " TEXT NOT NULL, " +
+                        table.targetColumn + " TEXT NOT NULL, " +
+                        "PRIMARY KEY (" + table.ownerColumn + ", " + table.targetColumn + "))");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table.name + "_" + table.targetColumn +
+                        " ON " + table.name + "(" + table.targetColumn + " COLLATE NOCASE)");
+            }
+
             stmt.close();
+            migrateSchema(writer);
+            metrics.record("db.initializeTables", started);
             System.out.println("✓ Database tables initialized");
         } catch (SQLException e) {
+            metrics.recordError("db.initializeTables", started);
             System.err.println("ERROR: Failed to initialize tables");
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Bring databases created by older versions up to SCHEMA_VERSION
+     * Version 1: copy the comma-joined list columns into the join tables.
+     * Version 2: add equipment.version for compare-and-set state changes.
+     */
+    private void migrateSchema(PooledConnection writer) throws SQLException {
+        int version;
+        try (Statement stmt = writer.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (version >= SCHEMA_VERSION) {
+            return;
+        }
+
+        inTransaction(writer, w -> {
+            int links = 0;
+            if (version < 1) {
+                try (Statement stmt = w.getConnection().createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT id, role_type, team_list, project_list, equipment_list " +
+                             "FROM employees WHERE role_type IN ('MANAGER', 'SCIENTIST', 'TECHNICIAN')")) {
+                    while (rs.next()) {
+                        String id = rs.getString("id");
+                        String roleType = rs.getString("role_type");
+                        if ("MANAGER".equals(roleType)) {
+                            links += insertLinks(w, MANAGER_TEAM, id, Manager.parseTeamList(rs.getString("team_list")));
+                        } else if ("SCIENTIST".equals(roleType)) {
+                            links += insertLinks(w, SCIENTIST_PROJECTS, id, Scientist.parseProjectList(rs.getString("project_list")));
+                        } else {
+                            links += insertLinks(w, TECHNICIAN_EQUIPMENT, id, Technician.parseEquipmentList(rs.getString("equipment_list")));
+                        }
+                    }
+                }
+            }
+            // Tables created by this version already have the column
+            boolean addVersion = version < 2 && !hasColumn(w, "equipment", "version");
+            try (Statement stmt = w.getConnection().createStatement()) {
+                if (addVersion) {
+                    stmt.execute("ALTER TABLE equipment ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+                }
+                stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+            }
+            if (links > 0) {
+                System.out.println("✓ Migrated " + links + " relationship(s) to join tables");
+            }
+            if (addVersion) {
+                System.out.println("✓ Added version column to equipment");
+            }
+        });
+    }
+
+    private static boolean hasColumn(PooledConnection writer, String table, String column) throws SQLException {
+        try (Statement stmt = writer.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run writes as one transaction (joins the caller's transaction if one is open)
+     */
+    private void inTransaction(PooledConnection writer, WriteAction action) throws SQLException {
+        Connection connection = writer.getConnection();
+        if (!connection.getAutoCommit()) {
+            action.run(writer);
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        try {
+            action.run(writer);
+            connection.commit();
+            metrics.increment("db.commits", 1);
+        } catch (SQLException | RuntimeException e) {
+            // Turning autocommit back on would commit the partial writes: roll back first
+            connection.rollback();
+            metrics.increment("db.rollbacks", 1);
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Run several writes (saveEmployee, saveEquipment, ...) as one transaction
+     * Each write joins it, so they share one commit instead of one each.
+     * A write that fails logs its error as usual and the others still commit.
+     *
+     * @return false if the transaction itself could not be committed
+     */
+    public boolean runInTransaction(Runnable writes) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            inTransaction(writer, w -> writes.run());
+            metrics.record("db.transaction", started);
+            return true;
+        } catch (SQLException e) {
+            metrics.recordError("db.transaction", started);
+            System.err.println("ERROR: Failed to commit transaction");
+            e.printStackTrace();
+            return false;
+        } finally {
+            pool.releaseWriter();
         }
     }
 
@@ -116,52 +365,89 @@ public class DatabaseManager {
      * Save employee to database (INSERT)
      */
     public void saveEmployee(Employee employee) {
-        String sql = "INSERT INTO employees (id, name, email, phone, department_id, role, " +
-                "salary, hire_date, role_type, specialization, team_list, budget_authority, " +
-                "project_list, equipment_list, certifications) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, employee.getId());
-            pstmt.setString(2, employee.getName());
-            pstmt.setString(3, employee.getEmail());
-            pstmt.setString(4, employee.getPhone());
-            pstmt.setString(5, employee.getDepartmentId());
-            pstmt.setString(6, employee.getRole());
-            pstmt.setDouble(7, employee.getSalary());
-            pstmt.setString(8, employee.getHireDate().toString());
-            pstmt.setString(9, employee.getRoleType());
-
-            // Type-specific fields
-            if (employee instanceof Scientist) {
-                Scientist scientist = (Scientist) employee;
-                pstmt.setString(10, scientist.getSpecialization());
-                pstmt.setString(11, null);
-                pstmt.setDouble(12, 0);
-                pstmt.setString(13, scientist.getProjectListAsString());
-                pstmt.setString(14, null);
-                pstmt.setString(15, null);
-            } else if (employee instanceof Manager) {
-                Manager manager = (Manager) employee;
-                pstmt.setString(10, null);
-                pstmt.setString(11, manager.getTeamListAsString());
-                pstmt.setDouble(12, manager.getBudgetAuthority());
-                pstmt.setString(13, null);
-                pstmt.setString(14, null);
-                pstmt.setString(15, null);
-            } else if (employee instanceof Technician) {
-                Technician technician = (Technician) employee;
-                pstmt.setString(10, null);
-                pstmt.setString(11, null);
-                pstmt.setDouble(12, 0);
-                pstmt.setString(13, null);
-                pstmt.setString(14, technician.getEquipmentListAsString());
-                pstmt.setString(15, technician.getCertifications());
-            }
-
-            pstmt.executeUpdate();
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            inTransaction(writer, w -> {
+                PreparedStatement pstmt = w.prepare(INSERT_EMPLOYEE_SQL);
+                bindEmployee(pstmt, employee);
+                pstmt.executeUpdate();
+                JoinTable table = joinTableFor(employee);
+                if (table != null) {
+                    insertLinks(w, table, employee.getId(), linksOf(employee));
+                }
+            });
+            employee.clearDirtyFields();
+            metrics.record("db.saveEmployee", started, 1, payloadBytes(employee));
         } catch (SQLException e) {
+            metrics.recordError("db.saveEmployee", started);
             System.err.println("ERROR: Failed to save employee " + employee.getId());
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Save many employees in batched transactions (bulk INSERT)
+     * Rows are committed in chunks of batchSize instead of one commit per row
+     *
+     * @return number of rows written
+     */
+    public int saveEmployees(Collection<? extends Employee> employees) {
+        try {
+            int written = executeBatch("employees", employees, INSERT_EMPLOYEE_SQL, this::bindEmployee);
+            saveLinks(employees);
+            for (Employee employee : employees) {
+                employee.clearDirtyFields();
+            }
+            return written;
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to bulk save employees");
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Bind employee fields to the INSERT statement parameters
+     */
+    private void bindEmployee(PreparedStatement pstmt, Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getId());
+        pstmt.setString(2, employee.getName());
+        pstmt.setString(3, employee.getEmail());
+        pstmt.setString(4, employee.getPhone());
+        pstmt.setString(5, employee.getDepartmentId());
+        pstmt.setString(6, employee.getRole());
+        pstmt.setDouble(7, employee.getSalary());
+        pstmt.setString(8, employee.getHireDate().toString());
+        pstmt.setString(9, employee.getRoleType());
+
+        // Type-specific fields
+        if (employee instanceof Scientist) {
+            Scientist scientist = (Scientist) employee;
+            pstmt.setString(10, scientist.getSpecialization());
+            pstmt.setString(11, null);
+            pstmt.setDouble(12, 0);
+            pstmt.setString(13, scientist.getProjectListAsString());
+            pstmt.setString(14, null);
+            pstmt.setString(15, null);
+        } else if (employee instanceof Manager) {
+            Manager manager = (Manager) employee;
+            pstmt.setString(10, null);
+            pstmt.setString(11, manager.getTeamListAsString());
+            pstmt.setDouble(12, manager.getBudgetAuthority());
+            pstmt.setString(13, null);
+            pstmt.setString(14, null);
+            pstmt.setString(15, null);
+        } else if (employee instanceof Technician) {
+            Technician technician = (Technician) employee;
+            pstmt.setString(10, null);
+            pstmt.setString(11, null);
+            pstmt.setDouble(12, 0);
+            pstmt.setString(13, null);
+            pstmt.setString(14, technician.getEquipmentListAsString());
+            pstmt.setString(15, technician.getCertifications());
         }
     }
 
@@ -172,71 +458,244 @@ public class DatabaseManager {
         List<Employee> employees = new ArrayList<>();
         String sql = "SELECT * FROM employees";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        long started = metrics.start();
+        long bytes = 0;
+        PooledConnection reader = pool.acquireReader();
+        try (ResultSet rs = reader.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                String id = rs.getString("id");
-                String name = rs.getString("name");
-                String email = rs.getString("email");
-                String phone = rs.getString("phone");
-                String departmentId = rs.getString("department_id");
-                String role = rs.getString("role");
-                double salary = rs.getDouble("salary");
-                LocalDate hireDate = LocalDate.parse(rs.getString("hire_date"));
-                String roleType = rs.getString("role_type");
-
-                Employee employee = null;
-
-                if ("MANAGER".equals(roleType)) {
-                    String teamList = rs.getString("team_list");
-                    double budgetAuthority = rs.getDouble("budget_authority");
-                    employee = new Manager(id, name, email, phone, departmentId, role,
-                            salary, hireDate, Manager.parseTeamList(teamList), budgetAuthority);
-                } else if ("SCIENTIST".equals(roleType)) {
-                    String specialization = rs.getString("specialization");
-                    String projectList = rs.getString("project_list");
-                    employee = new Scientist(id, name, email, phone, departmentId, role,
-                            salary, hireDate, specialization, Scientist.parseProjectList(projectList));
-                } else if ("TECHNICIAN".equals(roleType)) {
-                    String equipmentList = rs.getString("equipment_list");
-                    String certifications = rs.getString("certifications");
-                    employee = new Technician(id, name, email, phone, departmentId, role,
-                            salary, hireDate, Technician.parseEquipmentList(equipmentList), certifications);
-                }
-
+                Employee employee = mapEmployee(rs);
                 if (employee != null) {
+                    bytes += payloadBytes(employee);
                     employees.add(employee);
                 }
             }
+            metrics.record("db.loadEmployees", started, employees.size(), bytes);
         } catch (SQLException e) {
+            metrics.recordError("db.loadEmployees", started);
             System.err.println("ERROR: Failed to load employees");
             e.printStackTrace();
+        } finally {
+            pool.releaseReader(reader);
         }
 
         return employees;
     }
 
+    /**
+     * Build the right Employee subclass from the current row
+     * Department ID and role are replaced by their StringPool instances in the
+     * Employee constructor, so repeated values are held once however many rows load.
+     *
+     * @return employee, or null for an unknown role type
+     */
+    private Employee mapEmployee(ResultSet rs) throws SQLException {
+        String id = rs.getString("id");
+        String name = rs.getString("name");
+        String email = rs.getString("email");
+        String phone = rs.getString("phone");
+        String departmentId = rs.getString("department_id");
+        String role = rs.getString("role");
+        double salary = rs.getDouble("salary");
+        LocalDate hireDate = LocalDate.parse(rs.getString("hire_date"));
+        String roleType = rs.getString("role_type");
+
+        if ("MANAGER".equals(roleType)) {
+            String teamList = rs.getString("team_list");
+            double budgetAuthority = rs.getDouble("budget_authority");
+            return new Manager(id, name, email, phone, departmentId, role,
+                    salary, hireDate, Manager.parseTeamList(teamList), budgetAuthority);
+        } else if ("SCIENTIST".equals(roleType)) {
+            String specialization = rs.getString("specialization");
+            String projectList = rs.getString("project_list");
+            return new Scientist(id, name, email, phone, departmentId, role,
+                    salary, hireDate, specialization, Scientist.parseProjectList(projectList));
+        } else if ("TECHNICIAN".equals(roleType)) {
+            String equipmentList = rs.getString("equipment_list");
+            String certifications = rs.getString("certifications");
+            return new Technician(id, name, email, phone, departmentId, role,
+                    salary, hireDate, Technician.parseEquipmentList(equipmentList), certifications);
+        }
+        return null;
+    }
+
     /**
      * Update employee in database (UPDATE)
+     * Writes only the columns changed since the last save, in a single
+     * UPDATE ... WHERE id = ? statement. Falls back to INSERT if the row
+     * does not exist yet, so it behaves like an upsert.
      */
     public void updateEmployee(Employee employee) {
+        Set<Employee.Field> dirtyFields = employee.getDirtyFields();
+        if (dirtyFields.isEmpty()) {
+            return; // Nothing changed since last save
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE employees SET ");
+        boolean first = true;
+        for (Employee.Field field : dirtyFields) {
+            if (!first) {
+                sql.append(", ");
+            }
+            sql.append(columnFor(field)).append(" = ?");
+            first = false;
+        }
+        sql.append(" WHERE id = ?");
+
+        // The statement cache is keyed by SQL text, so each dirty-column combination is prepared once
+        boolean linksChanged = dirtyFields.contains(Employee.Field.TEAM_LIST)
+                || dirtyFields.contains(Employee.Field.PROJECT_LIST)
+                || dirtyFields.contains(Employee.Field.EQUIPMENT_LIST);
+
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            boolean[] updated = new boolean[1];
+            inTransaction(writer, w -> {
+                PreparedStatement pstmt = w.prepare(sql.toString());
+                int index = 1;
+                for (Employee.Field field : dirtyFields) {
+                    bindField(pstmt, index++, employee, field);
+                }
+                pstmt.setString(index, employee.getId());
+
+                updated[0] = pstmt.executeUpdate() > 0;
+                if (updated[0] && linksChanged) {
+                    replaceLinks(w, employee);
+                }
+            });
+
+            if (updated[0]) {
+                employee.clearDirtyFields();
+                metrics.record("db.updateEmployee", started, 1, 0);
+            } else {
+                saveEmployee(employee);
+            }
+        } catch (SQLException e) {
+            metrics.recordError("db.updateEmployee", started);
+            System.err.println("ERROR: Failed to update employee " + employee.getId());
+            e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Write the whole employee row and its links, inserting or replacing it
+     * For callers that coalesce changes (WriteBehindQueue), where the dirty
+     * field set no longer describes what the database is missing.
+     */
+    public void upsertEmployee(Employee employee) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            inTransaction(writer, w -> {
+                PreparedStatement pstmt = w.prepare(UPSERT_EMPLOYEE_SQL);
+                bindEmployee(pstmt, employee);
+                pstmt.executeUpdate();
+                // Links of every type: the ID may have been removed and re-added as another role
+                for (JoinTable table : JOIN_TABLES) {
+                    PreparedStatement deleteLinks = w.prepare(table.deleteSql);
+                    deleteLinks.setString(1, employee.getId());
+                    deleteLinks.executeUpdate();
+                }
+                JoinTable table = joinTableFor(employee);
+                if (table != null) {
+                    insertLinks(w, table, employee.getId(), linksOf(employee));
+                }
+            });
+            employee.clearDirtyFields();
+            metrics.record("db.upsertEmployee", started, 1, payloadBytes(employee));
+        } catch (SQLException e) {
+            metrics.recordError("db.upsertEmployee", started);
+            System.err.println("ERROR: Failed to save employee " + employee.getId());
+            e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Update employee by deleting and re-inserting the whole row
+     * (original implementation - kept for benchmark comparison only)
+     */
+    public void replaceEmployee(Employee employee) {
         deleteEmployee(employee.getId());
         saveEmployee(employee);
     }
 
+    /**
+     * Map a dirty field to its employees table column
+     */
+    private static String columnFor(Employee.Field field) {
+        switch (field) {
+            case NAME: return "name";
+            case EMAIL: return "email";
+            case PHONE: return "phone";
+            case DEPARTMENT_ID: return "department_id";
+            case ROLE: return "role";
+            case SALARY: return "salary";
+            case HIRE_DATE: return "hire_date";
+            case SPECIALIZATION: return "specialization";
+            case PROJECT_LIST: return "project_list";
+            case TEAM_LIST: return "team_list";
+            case BUDGET_AUTHORITY: return "budget_authority";
+            case EQUIPMENT_LIST: return "equipment_list";
+            case CERTIFICATIONS: return "certifications";
+            default: throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    /**
+     * Bind the current value of one field to a statement parameter
+     */
+    private static void bindField(PreparedStatement pstmt, int index, Employee employee,
+                                  Employee.Field field) throws SQLException {
+        switch (field) {
+            case NAME: pstmt.setString(index, employee.getName()); break;
+            case EMAIL: pstmt.setString(index, employee.getEmail()); break;
+            case PHONE: pstmt.setString(index, employee.getPhone()); break;
+            case DEPARTMENT_ID: pstmt.setString(index, employee.getDepartmentId()); break;
+            case ROLE: pstmt.setString(index, employee.getRole()); break;
+            case SALARY: pstmt.setDouble(index, employee.getSalary()); break;
+            case HIRE_DATE: pstmt.setString(index, employee.getHireDate().toString()); break;
+            case SPECIALIZATION: pstmt.setString(index, ((Scientist) employee).getSpecialization()); break;
+            case PROJECT_LIST: pstmt.setString(index, ((Scientist) employee).getProjectListAsString()); break;
+            case TEAM_LIST: pstmt.setString(index, ((Manager) employee).getTeamListAsString()); break;
+            case BUDGET_AUTHORITY: pstmt.setDouble(index, ((Manager) employee).getBudgetAuthority()); break;
+            case EQUIPMENT_LIST: pstmt.setString(index, ((Technician) employee).getEquipmentListAsString()); break;
+            case CERTIFICATIONS: pstmt.setString(index, ((Technician) employee).getCertifications()); break;
+            default: throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
     /**
      * Delete employee from database (DELETE)
      */
     public void deleteEmployee(String employeeId) {
         String sql = "DELETE FROM employees WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, employeeId);
-            pstmt.executeUpdate();
+        long started = metrics.start();
+        int[] deleted = new int[1];
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            inTransaction(writer, w -> {
+                PreparedStatement pstmt = w.prepare(sql);
+                pstmt.setString(1, employeeId);
+                deleted[0] = pstmt.executeUpdate();
+                for (JoinTable table : JOIN_TABLES) {
+                    PreparedStatement deleteLinks = w.prepare(table.deleteSql);
+                    deleteLinks.setString(1, employeeId);
+                    deleteLinks.executeUpdate();
+                }
+            });
+            metrics.record("db.deleteEmployee", started, deleted[0], 0);
         } catch (SQLException e) {
+            metrics.recordError("db.deleteEmployee", started);
             System.err.println("ERROR: Failed to delete employee " + employeeId);
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
         }
     }
 
@@ -246,23 +705,70 @@ public class DatabaseManager {
      * Save department to database
      */
     public void saveDepartment(Department department) {
-        String sql = "INSERT OR REPLACE INTO departments (id, name, region, budget, manager_id, employee_count) " +
-                "VALUES (?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, department.getId());
-            pstmt.setString(2, department.getName());
-            pstmt.setString(3, department.getRegion());
-            pstmt.setDouble(4, department.getBudget());
-            pstmt.setString(5, department.getManagerId());
-            pstmt.setInt(6, department.getEmployeeCount());
-            pstmt.executeUpdate();
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(SAVE_DEPARTMENT_SQL);
+            bindDepartment(pstmt, department);
+            int rows = pstmt.executeUpdate();
+            metrics.record("db.saveDepartment", started, rows, payloadBytes(department));
         } catch (SQLException e) {
+            metrics.recordError("db.saveDepartment", started);
             System.err.println("ERROR: Failed to save department " + department.getId());
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
         }
     }
 
+    /**
+     * Update only the budget column of a department
+     */
+    public void updateDepartmentBudget(String departmentId, double budget) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(UPDATE_DEPARTMENT_BUDGET_SQL);
+            pstmt.setDouble(1, budget);
+            pstmt.setString(2, departmentId);
+            int rows = pstmt.executeUpdate();
+            metrics.record("db.updateDepartmentBudget", started, rows, 8);
+        } catch (SQLException e) {
+            metrics.recordError("db.updateDepartmentBudget", started);
+            System.err.println("ERROR: Failed to update budget of department " + departmentId);
+            e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Save many departments in batched transactions
+     *
+     * @return number of rows written
+     */
+    public int saveDepartments(Collection<Department> departments) {
+        try {
+            return executeBatch("departments", departments, SAVE_DEPARTMENT_SQL, this::bindDepartment);
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to bulk save departments");
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Bind department fields to the INSERT statement parameters
+     */
+    private void bindDepartment(PreparedStatement pstmt, Department department) throws SQLException {
+        pstmt.setString(1, department.getId());
+        pstmt.setString(2, department.getName());
+        pstmt.setString(3, department.getRegion());
+        pstmt.setDouble(4, department.getBudget());
+        pstmt.setString(5, department.getManagerId());
+        pstmt.setInt(6, department.getEmployeeCount());
+    }
+
     /**
      * Load all departments from database
      */
@@ -270,40 +776,60 @@ public class DatabaseManager {
         List<Department> departments = new ArrayList<>();
         String sql = "SELECT * FROM departments";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        long started = metrics.start();
+        long bytes = 0;
+        PooledConnection reader = pool.acquireReader();
+        try (ResultSet rs = reader.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                Department dept = new Department(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("region"),
-                        rs.getDouble("budget"),
-                        rs.getString("manager_id"),
-                        rs.getInt("employee_count")
-                );
-                departments.add(dept);
+                Department row = mapDepartment(rs);
+                bytes += payloadBytes(row);
+                departments.add(row);
             }
+            metrics.record("db.loadDepartments", started, departments.size(), bytes);
         } catch (SQLException e) {
+            metrics.recordError("db.loadDepartments", started);
             System.err.println("ERROR: Failed to load departments");
             e.printStackTrace();
+        } finally {
+            pool.releaseReader(reader);
         }
 
         return departments;
     }
 
+    /**
+     * Build a Department from the current row
+     */
+    private Department mapDepartment(ResultSet rs) throws SQLException {
+        return new Department(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getString("region"),
+                rs.getDouble("budget"),
+                rs.getString("manager_id"),
+                rs.getInt("employee_count")
+        );
+    }
+
     /**
      * Delete department from database
      */
     public void deleteDepartment(String departmentId) {
         String sql = "DELETE FROM departments WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(sql);
             pstmt.setString(1, departmentId);
-            pstmt.executeUpdate();
+            metrics.record("db.deleteDepartment", started, pstmt.executeUpdate(), 0);
         } catch (SQLException e) {
+            metrics.recordError("db.deleteDepartment", started);
             System.err.println("ERROR: Failed to delete department " + departmentId);
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
         }
     }
 
@@ -313,26 +839,52 @@ public class DatabaseManager {
      * Save project to database
      */
     public void saveProject(Project project) {
-        String sql = "INSERT OR REPLACE INTO projects (id, name, description, department_id, " +
-                "lead_scientist_id, budget, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, project.getId());
-            pstmt.setString(2, project.getName());
-            pstmt.setString(3, project.getDescription());
-            pstmt.setString(4, project.getDepartmentId());
-            pstmt.setString(5, project.getLeadScientistId());
-            pstmt.setDouble(6, project.getBudget());
-            pstmt.setString(7, project.getStartDate().toString());
-            pstmt.setString(8, project.getEndDate().toString());
-            pstmt.setString(9, project.getStatus());
-            pstmt.executeUpdate();
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(SAVE_PROJECT_SQL);
+            bindProject(pstmt, project);
+            int rows = pstmt.executeUpdate();
+            metrics.record("db.saveProject", started, rows, payloadBytes(project));
         } catch (SQLException e) {
+            metrics.recordError("db.saveProject", started);
             System.err.println("ERROR: Failed to save project " + project.getId());
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Save many projects in batched transactions
+     *
+     * @return number of rows written
+     */
+    public int saveProjects(Collection<Project> projects) {
+        try {
+            return executeBatch("projects", projects, SAVE_PROJECT_SQL, this::bindProject);
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to bulk save projects");
+            e.printStackTrace();
+            return 0;
         }
     }
 
+    /**
+     * Bind project fields to the INSERT statement parameters
+     */
+    private void bindProject(PreparedStatement pstmt, Project project) throws SQLException {
+        pstmt.setString(1, project.getId());
+        pstmt.setString(2, project.getName());
+        pstmt.setString(3, project.getDescription());
+        pstmt.setString(4, project.getDepartmentId());
+        pstmt.setString(5, project.getLeadScientistId());
+        pstmt.setDouble(6, project.getBudget());
+        pstmt.setString(7, project.getStartDate().toString());
+        pstmt.setString(8, project.getEndDate().toString());
+        pstmt.setString(9, project.getStatus());
+    }
+
     /**
      * Load all projects from database
      */
@@ -340,43 +892,63 @@ public class DatabaseManager {
         List<Project> projects = new ArrayList<>();
         String sql = "SELECT * FROM projects";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        long started = metrics.start();
+        long bytes = 0;
+        PooledConnection reader = pool.acquireReader();
+        try (ResultSet rs = reader.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                Project project = new Project(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getString("department_id"),
-                        rs.getString("lead_scientist_id"),
-                        rs.getDouble("budget"),
-                        LocalDate.parse(rs.getString("start_date")),
-                        LocalDate.parse(rs.getString("end_date")),
-                        rs.getString("status")
-                );
-                projects.add(project);
+                Project row = mapProject(rs);
+                bytes += payloadBytes(row);
+                projects.add(row);
             }
+            metrics.record("db.loadProjects", started, projects.size(), bytes);
         } catch (SQLException e) {
+            metrics.recordError("db.loadProjects", started);
             System.err.println("ERROR: Failed to load projects");
             e.printStackTrace();
+        } finally {
+            pool.releaseReader(reader);
         }
 
         return projects;
     }
 
+    /**
+     * Build a Project from the current row
+     */
+    private Project mapProject(ResultSet rs) throws SQLException {
+        return new Project(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getString("department_id"),
+                rs.getString("lead_scientist_id"),
+                rs.getDouble("budget"),
+                LocalDate.parse(rs.getString("start_date")),
+                LocalDate.parse(rs.getString("end_date")),
+                rs.getString("status")
+        );
+    }
+
     /**
      * Delete project from database
      */
     public void deleteProject(String projectId) {
         String sql = "DELETE FROM projects WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(sql);
             pstmt.setString(1, projectId);
-            pstmt.executeUpdate();
+            metrics.record("db.deleteProject", started, pstmt.executeUpdate(), 0);
         } catch (SQLException e) {
+            metrics.recordError("db.deleteProject", started);
             System.err.println("ERROR: Failed to delete project " + projectId);
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
         }
     }
 
@@ -386,25 +958,84 @@ public class DatabaseManager {
      * Save equipment to database
      */
     public void saveEquipment(Equipment equipment) {
-        String sql = "INSERT OR REPLACE INTO equipment (id, name, type, serial_number, " +
-                "department_id, assigned_to_id, purchase_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, equipment.getId());
-            pstmt.setString(2, equipment.getName());
-            pstmt.setString(3, equipment.getType());
-            pstmt.setString(4, equipment.getSerialNumber());
-            pstmt.setString(5, equipment.getDepartmentId());
-            pstmt.setString(6, equipment.getAssignedToId());
-            pstmt.setString(7, equipment.getPurchaseDate().toString());
-            pstmt.setString(8, equipment.getStatus());
-            pstmt.executeUpdate();
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(SAVE_EQUIPMENT_SQL);
+            bindEquipment(pstmt, equipment);
+            int rows = pstmt.executeUpdate();
+            metrics.record("db.saveEquipment", started, rows, payloadBytes(equipment));
         } catch (SQLException e) {
+            metrics.recordError("db.saveEquipment", started);
             System.err.println("ERROR: Failed to save equipment " + equipment.getId());
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    /**
+     * Change status and assignee only if the stored version is still expectedVersion
+     * (UPDATE ... WHERE version = ?); the stored version becomes expectedVersion + 1
+     *
+     * @return true if the row was updated, false if it changed meanwhile (or is gone)
+     */
+    public boolean compareAndSetEquipmentState(String equipmentId, long expectedVersion,
+                                               String status, String assignedToId) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(CAS_EQUIPMENT_SQL);
+            pstmt.setString(1, status);
+            pstmt.setString(2, assignedToId);
+            pstmt.setString(3, equipmentId);
+            pstmt.setLong(4, expectedVersion);
+            int rows = pstmt.executeUpdate();
+            metrics.record("db.casEquipment", started, rows, 0);
+            if (rows == 0) {
+                metrics.increment("db.casEquipment.conflicts", 1);
+            }
+            return rows == 1;
+        } catch (SQLException e) {
+            metrics.recordError("db.casEquipment", started);
+            System.err.println("ERROR: Failed to update equipment " + equipmentId);
+            e.printStackTrace();
+            return false;
+        } finally {
+            pool.releaseWriter();
         }
     }
 
+    /**
+     * Save many equipment items in batched transactions
+     *
+     * @return number of rows written
+     */
+    public int saveEquipmentBatch(Collection<Equipment> equipmentList) {
+        try {
+            return executeBatch("equipment", equipmentList, SAVE_EQUIPMENT_SQL, this::bindEquipment);
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to bulk save equipment");
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Bind equipment fields to the INSERT statement parameters
+     */
+    private void bindEquipment(PreparedStatement pstmt, Equipment equipment) throws SQLException {
+        pstmt.setString(1, equipment.getId());
+        pstmt.setString(2, equipment.getName());
+        pstmt.setString(3, equipment.getType());
+        pstmt.setString(4, equipment.getSerialNumber());
+        pstmt.setString(5, equipment.getDepartmentId());
+        pstmt.setString(6, equipment.getAssignedToId());
+        pstmt.setString(7, equipment.getPurchaseDate().toString());
+        pstmt.setString(8, equipment.getStatus());
+        pstmt.setLong(9, equipment.getVersion());
+    }
+
     /**
      * Load all equipment from database
      */
@@ -412,52 +1043,791 @@ public class DatabaseManager {
         List<Equipment> equipmentList = new ArrayList<>();
         String sql = "SELECT * FROM equipment";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        long started = metrics.start();
+        long bytes = 0;
+        PooledConnection reader = pool.acquireReader();
+        try (ResultSet rs = reader.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                Equipment equipment = new Equipment(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("type"),
-                        rs.getString("serial_number"),
-                        rs.getString("department_id"),
-                        rs.getString("assigned_to_id"),
-                        LocalDate.parse(rs.getString("purchase_date")),
-                        rs.getString("status")
-                );
-                equipmentList.add(equipment);
+                Equipment row = mapEquipment(rs);
+                bytes += payloadBytes(row);
+                equipmentList.add(row);
             }
+            metrics.record("db.loadEquipment", started, equipmentList.size(), bytes);
         } catch (SQLException e) {
+            metrics.recordError("db.loadEquipment", started);
             System.err.println("ERROR: Failed to load equipment");
             e.printStackTrace();
+        } finally {
+            pool.releaseReader(reader);
         }
 
         return equipmentList;
     }
 
+    /**
+     * Build an Equipment item from the current row
+     */
+    private Equipment mapEquipment(ResultSet rs) throws SQLException {
+        return new Equipment(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getString("type"),
+                rs.getString("serial_number"),
+                rs.getString("department_id"),
+                rs.getString("assigned_to_id"),
+                LocalDate.parse(rs.getString("purchase_date")),
+                rs.getString("status"),
+                rs.getLong("version")
+        );
+    }
+
     /**
      * Delete equipment from database
      */
     public void deleteEquipment(String equipmentId) {
         String sql = "DELETE FROM equipment WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
+        try {
+            PreparedStatement pstmt = writer.prepare(sql);
             pstmt.setString(1, equipmentId);
-            pstmt.executeUpdate();
+            metrics.record("db.deleteEquipment", started, pstmt.executeUpdate(), 0);
         } catch (SQLException e) {
+            metrics.recordError("db.deleteEquipment", started);
             System.err.println("ERROR: Failed to delete equipment " + equipmentId);
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
+    // ==================== RELATIONSHIPS ====================
+    // manager_team, scientist_projects and technician_equipment hold one row per
+    // link and are written in the same transaction as the employee row. The old
+    // list columns are still written so loadEmployees can build an employee from
+    // a single row; relationship queries use the join tables and their indexes.
+
+    /**
+     * Join table and linked IDs for an employee (null for other employee types)
+     */
+    private static JoinTable joinTableFor(Employee employee) {
+        if (employee instanceof Manager) {
+            return MANAGER_TEAM;
+        } else if (employee instanceof Scientist) {
+            return SCIENTIST_PROJECTS;
+        } else if (employee instanceof Technician) {
+            return TECHNICIAN_EQUIPMENT;
+        }
+        return null;
+    }
+
+    private static List<String> linksOf(Employee employee) {
+        if (employee instanceof Manager) {
+            return ((Manager) employee).getTeamList();
+        } else if (employee instanceof Scientist) {
+            return ((Scientist) employee).getProjectList();
+        } else if (employee instanceof Technician) {
+            return ((Technician) employee).getEquipmentHandled();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Replace an employee's join table rows with its current list
+     */
+    private void replaceLinks(PooledConnection writer, Employee employee) throws SQLException {
+        JoinTable table = joinTableFor(employee);
+        if (table == null) {
+            return;
+        }
+        PreparedStatement delete = writer.prepare(table.deleteSql);
+        delete.setString(1, employee.getId());
+        delete.executeUpdate();
+        insertLinks(writer, table, employee.getId(), linksOf(employee));
+    }
+
+    /**
+     * Insert owner -> target rows
+     *
+     * @return number of rows added
+     */
+    private int insertLinks(PooledConnection writer, JoinTable table, String ownerId,
+                            List<String> targetIds) throws SQLException {
+        if (targetIds.isEmpty()) {
+            return 0;
+        }
+        PreparedStatement pstmt = writer.prepare(table.insertSql);
+        for (String targetId : targetIds) {
+            pstmt.setString(1, ownerId);
+            pstmt.setString(2, targetId);
+            pstmt.addBatch();
+        }
+        int added = 0;
+        for (int count : pstmt.executeBatch()) {
+            added += Math.max(count, 0);
+        }
+        return added;
+    }
+
+    /**
+     * Write join table rows for newly inserted employees as JDBC batches,
+     * committing every batchSize employees. New rows have no existing links
+     * (deleteEmployee removes them), so nothing needs deleting first.
+     */
+    private void saveLinks(Collection<? extends Employee> employees) throws SQLException {
+        long started = metrics.start();
+        long written = 0;
+        PooledConnection writer = pool.acquireWriter();
+        Connection connection = writer.getConnection();
+        Map<JoinTable, PreparedStatement> inserts = new HashMap<>();
+        boolean autoCommitChanged = false;
+        try {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                autoCommitChanged = true;
+            }
+            for (JoinTable table : JOIN_TABLES) {
+                inserts.put(table, writer.prepare(table.insertSql));
+            }
+
+            int pending = 0;
+            for (Employee employee : employees) {
+                JoinTable table = joinTableFor(employee);
+                if (table == null) {
+                    continue;
+                }
+                PreparedStatement insert = inserts.get(table);
+                for (String targetId : linksOf(employee)) {
+                    insert.setString(1, employee.getId());
+                    insert.setString(2, targetId);
+                    insert.addBatch();
+                    pending++;
+                }
+                if (pending >= batchSize) {
+                    for (PreparedStatement pstmt : inserts.values()) {
+                        pstmt.executeBatch();
+                    }
+                    connection.commit();
+                    metrics.increment("db.commits", 1);
+                    written += pending;
+                    pending = 0;
+                }
+            }
+            for (PreparedStatement pstmt : inserts.values()) {
+                pstmt.executeBatch();
+            }
+            connection.commit();
+            metrics.increment("db.commits", 1);
+            written += pending;
+            metrics.record("db.batch.links", started, written, 0);
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordError("db.batch.links", started);
+            rollbackBatch(connection, inserts.values());
+            throw e;
+        } finally {
+            restoreAutoCommitAndRelease(connection, autoCommitChanged);
+        }
+    }
+
+    /**
+     * Managers whose team includes the employee (uses idx_manager_team_employee_id)
+     */
+    public List<Employee> queryManagersOfEmployee(String employeeId) {
+        return queryOwners(MANAGER_TEAM, employeeId);
+    }
+
+    /**
+     * Scientists working on a project (uses idx_scientist_projects_project_id)
+     */
+    public List<Employee> queryScientistsOnProject(String projectId) {
+        return queryOwners(SCIENTIST_PROJECTS, projectId);
+    }
+
+    /**
+     * Technicians handling an equipment item (uses idx_technician_equipment_equipment_id)
+     */
+    public List<Employee> queryTechniciansWithEquipment(String equipmentId) {
+        return queryOwners(TECHNICIAN_EQUIPMENT, equipmentId);
+    }
+
+    private List<Employee> queryOwners(JoinTable table, String targetId) {
+        List<Employee> results = new ArrayList<>();
+        runQuery("SELECT e.* FROM " + table.name + " j JOIN employees e ON e.id = j." + table.ownerColumn +
+                        " WHERE j." + table.targetColumn + " = ? COLLATE NOCASE ORDER BY e.id",
+                pstmt -> pstmt.setString(1, targetId), this::mapEmployee, results::add, table.name);
+        return results;
+    }
+
+    // ==================== PAGED ACCESS ====================
+    // Keyset pagination over the primary key, for callers that must not load a
+    // whole table at once (see Organization lazy mode). IDs are matched exactly
+    // here; by-ID lookups also try the upper-case form, since the primary key
+    // index is case-sensitive and all generated IDs are upper case.
+
+    /**
+     * Employees with id > afterId in id order, at most limit rows
+     */
+    public List<Employee> loadEmployeesPage(String afterId, int limit) {
+        return loadPage("employees", afterId, limit, this::mapEmployee);
+    }
+
+    public List<Department> loadDepartmentsPage(String afterId, int limit) {
+        return loadPage("departments", afterId, limit, this::mapDepartment);
+    }
+
+    public List<Project> loadProjectsPage(String afterId, int limit) {
+        return loadPage("projects", afterId, limit, this::mapProject);
+    }
+
+    public List<Equipment> loadEquipmentPage(String afterId, int limit) {
+        return loadPage("equipment", afterId, limit, this::mapEquipment);
+    }
+
+    /**
+     * Cursor over all employees, pageSize rows in memory at a time
+     */
+    public KeysetCursor<Employee> streamEmployees(int pageSize) {
+        return new KeysetCursor<>(this::loadEmployeesPage, Employee::getId, pageSize);
+    }
+
+    public KeysetCursor<Department> streamDepartments(int pageSize) {
+        return new KeysetCursor<>(this::loadDepartmentsPage, Department::getId, pageSize);
+    }
+
+    public KeysetCursor<Project> streamProjects(int pageSize) {
+        return new KeysetCursor<>(this::loadProjectsPage, Project::getId, pageSize);
+    }
+
+    public KeysetCursor<Equipment> streamEquipment(int pageSize) {
+        return new KeysetCursor<>(this::loadEquipmentPage, Equipment::getId, pageSize);
+    }
+
+    /**
+     * Load a single employee by ID (primary key lookup)
+     *
+     * @return employee, or null if not found
+     */
+    public Employee loadEmployeeById(String id) {
+        return loadById("employees", id, this::mapEmployee);
+    }
+
+    public Department loadDepartmentById(String id) {
+        return loadById("departments", id, this::mapDepartment);
+    }
+
+    public Project loadProjectById(String id) {
+        return loadById("projects", id, this::mapProject);
+    }
+
+    public Equipment loadEquipmentById(String id) {
+        return loadById("equipment", id, this::mapEquipment);
+    }
+
+    public int countEmployees() {
+        return countRows("employees");
+    }
+
+    public int countDepartments() {
+        return countRows("departments");
+    }
+
+    public int countProjects() {
+        return countRows("projects");
+    }
+
+    public int countEquipment() {
+        return countRows("equipment");
+    }
+
+    private <T> List<T> loadPage(String table, String afterId, int limit, RowMapper<T> mapper) {
+        List<T> page = new ArrayList<>(Math.min(limit, 10_000));
+        runQuery("SELECT * FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?",
+                pstmt -> {
+                    pstmt.setString(1, afterId == null ? "" : afterId);
+                    pstmt.setInt(2, limit);
+                }, mapper, page::add, table + " page");
+        return page;
+    }
+
+    private <T> T loadById(String table, String id, RowMapper<T> mapper) {
+        if (id == null) {
+            return null;
+        }
+        List<T> rows = new ArrayList<>(1);
+        runQuery("SELECT * FROM " + table + " WHERE id IN (?, ?) LIMIT 1",
+                pstmt -> {
+                    pstmt.setString(1, id);
+                    pstmt.setString(2, id.toUpperCase());
+                }, mapper, rows::add, table + " by id");
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private int countRows(String table) {
+        int[] count = new int[1];
+        runQuery("SELECT COUNT(*) FROM " + table, pstmt -> { }, rs -> rs.getInt(1),
+                value -> count[0] = value, table + " count");
+        return count[0];
+    }
+
+    // ==================== QUERY OPERATIONS ====================
+    // Filters run as parameterized SQL against the indexes created in initializeTables,
+    // so callers can search tables larger than the heap without loading them first.
+    // The Consumer variants stream rows one at a time instead of building a list.
+
+    /**
+     * Employees in a department (uses idx_employees_department)
+     */
+    public List<Employee> queryEmployeesByDepartment(String departmentId) {
+        List<Employee> results = new ArrayList<>();
+        queryEmployeesByDepartment(departmentId, results::add);
+        return results;
+    }
+
+    /**
+     * Stream employees in a department to a consumer
+     *
+     * @return number of rows visited
+     */
+    public int queryEmployeesByDepartment(String departmentId, Consumer<Employee> consumer) {
+        return runQuery("SELECT * FROM employees WHERE department_id = ? COLLATE NOCASE",
+                pstmt -> pstmt.setString(1, departmentId), this::mapEmployee, consumer, "employees by department");
+    }
+
+    /**
+     * Employees with a role type (uses idx_employees_role_type)
+     */
+    public List<Employee> queryEmployeesByRoleType(String roleType) {
+        List<Employee> results = new ArrayList<>();
+        queryEmployeesByRoleType(roleType, results::add);
+        return results;
+    }
+
+    /**
+     * Stream employees with a role type to a consumer
+     *
+     * @return number of rows visited
+     */
+    public int queryEmployeesByRoleType(String roleType, Consumer<Employee> consumer) {
+        return runQuery("SELECT * FROM employees WHERE role_type = ? COLLATE NOCASE",
+                pstmt -> pstmt.setString(1, roleType), this::mapEmployee, consumer, "employees by role type");
+    }
+
+    /**
+     * Employees with minSalary <= salary <= maxSalary, ordered by salary (uses idx_employees_salary)
+     */
+    public List<Employee> queryEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        List<Employee> results = new ArrayList<>();
+        queryEmployeesBySalaryRange(minSalary, maxSalary, results::add);
+        return results;
+    }
+
+    /**
+     * Stream employees within a salary range to a consumer
+     *
+     * @return number of rows visited
+     */
+    public int queryEmployeesBySalaryRange(double minSalary, double maxSalary, Consumer<Employee> consumer) {
+        return runQuery("SELECT * FROM employees WHERE salary BETWEEN ? AND ? ORDER BY salary",
+                pstmt -> {
+                    pstmt.setDouble(1, minSalary);
+                    pstmt.setDouble(2, maxSalary);
+                }, this::mapEmployee, consumer, "employees by salary range");
+    }
+
+    /**
+     * Count employees within a salary range without loading them (uses idx_employees_salary)
+     */
+    public int countEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        int[] count = new int[1];
+        runQuery("SELECT COUNT(*) FROM employees WHERE salary BETWEEN ? AND ?",
+                pstmt -> {
+                    pstmt.setDouble(1, minSalary);
+                    pstmt.setDouble(2, maxSalary);
+                }, rs -> rs.getInt(1), value -> count[0] = value, "employee count by salary range");
+        return count[0];
+    }
+
+    /**
+     * All salaries in ascending order, read straight from idx_employees_salary
+     * into a double[] (no Employee objects are built, no salary is boxed)
+     */
+    public double[] loadSortedSalaries() {
+        double[] salaries = new double[Math.max(16, countEmployees())];
+        int rows = 0;
+        long started = metrics.start();
+        PooledConnection reader = pool.acquireReader();
+        try {
+            PreparedStatement pstmt = reader.prepare("SELECT salary FROM employees ORDER BY salary");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rows == salaries.length) {
+                        salaries = Arrays.copyOf(salaries, rows * 2);
+                    }
+                    salaries[rows++] = rs.getDouble(1);
+                }
+            }
+            metrics.record(queryMetric("sorted salaries"), started, rows, (long) rows * Double.BYTES);
+        } catch (SQLException e) {
+            metrics.recordError(queryMetric("sorted salaries"), started);
+            System.err.println("ERROR: Failed to query sorted salaries");
+            e.printStackTrace();
+        } finally {
+            pool.releaseReader(reader);
+        }
+        return Arrays.copyOf(salaries, rows);
+    }
+
+    /**
+     * Columnar snapshot of salary, department, role type and hire date for
+     * every employee, read without building Employee objects
+     */
+    public EmployeeColumns loadEmployeeColumns() {
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder(countEmployees());
+        runQuery("SELECT salary, department_id, role_type, hire_date FROM employees",
+                pstmt -> { }, rs -> {
+                    String hireDate = rs.getString(4);
+                    builder.add(rs.getDouble(1), rs.getString(2), rs.getString(3),
+                            hireDate != null ? LocalDate.parse(hireDate) : null);
+                    return null;
+                }, row -> { }, "employee columns");
+        return builder.build();
+    }
+
+    /**
+     * Fill a statistics engine from GROUP BY aggregates (no entity objects are built)
+     * Money is summed as whole cents, matching StatisticsEngine.cents().
+     */
+    public void loadStatistics(StatisticsEngine statistics) {
+        statistics.clear();
+        runQuery("SELECT role_type, UPPER(department_id), COUNT(*), " +
+                        "SUM(CAST(ROUND(salary * 100) AS INTEGER)) FROM employees GROUP BY 1, 2",
+                pstmt -> { }, rs -> {
+                    statistics.countEmployees(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getLong(4));
+                    return null;
+                }, row -> { }, "employee statistics");
+        runQuery("SELECT id, CAST(ROUND(budget * 100) AS INTEGER) FROM departments",
+                pstmt -> { }, rs -> {
+                    statistics.countDepartment(rs.getString(1), 1, rs.getLong(2));
+                    return null;
+                }, row -> { }, "department statistics");
+        runQuery("SELECT UPPER(status), COUNT(*), SUM(CAST(ROUND(budget * 100) AS INTEGER)) " +
+                        "FROM projects GROUP BY 1",
+                pstmt -> { }, rs -> {
+                    statistics.countProjects(rs.getString(1), rs.getInt(2), rs.getLong(3));
+                    return null;
+                }, row -> { }, "project statistics");
+        runQuery("SELECT UPPER(status), COUNT(*) FROM equipment GROUP BY 1",
+                pstmt -> { }, rs -> {
+                    statistics.countEquipment(rs.getString(1), rs.getInt(2));
+                    return null;
+                }, row -> { }, "equipment statistics");
+        statistics.markLoaded();
+    }
+
+    /**
+     * Employees with fromId <= id <= toId in id order (primary key range scan)
+     * Bounds are upper-cased to match generated IDs, as in the by-ID lookups.
+     */
+    public List<Employee> queryEmployeesByIdRange(String fromId, String toId) {
+        List<Employee> results = new ArrayList<>();
+        runQuery("SELECT * FROM employees WHERE id BETWEEN ? AND ? ORDER BY id",
+                pstmt -> {
+                    pstmt.setString(1, fromId.toUpperCase());
+                    pstmt.setString(2, toId.toUpperCase());
+                }, this::mapEmployee, results::add, "employees by id range");
+        return results;
+    }
+
+    /**
+     * Projects with a status (uses idx_projects_status)
+     */
+    public List<Project> queryProjectsByStatus(String status) {
+        List<Project> results = new ArrayList<>();
+        runQuery("SELECT * FROM projects WHERE status = ? COLLATE NOCASE",
+                pstmt -> pstmt.setString(1, status), this::mapProject, results::add, "projects by status");
+        return results;
+    }
+
+    /**
+     * Equipment with a status (uses idx_equipment_status)
+     */
+    public List<Equipment> queryEquipmentByStatus(String status) {
+        List<Equipment> results = new ArrayList<>();
+        runQuery("SELECT * FROM equipment WHERE status = ? COLLATE NOCASE",
+                pstmt -> pstmt.setString(1, status), this::mapEquipment, results::add, "equipment by status");
+        return results;
+    }
+
+    /**
+     * Equipment of an exact type, case-insensitive (uses idx_equipment_type)
+     * Note: unlike SearchAlgorithms.searchEquipmentByType this is not a substring
+     * match - a leading-wildcard LIKE cannot use the index.
+     */
+    public List<Equipment> queryEquipmentByType(String type) {
+        List<Equipment> results = new ArrayList<>();
+        runQuery("SELECT * FROM equipment WHERE type = ? COLLATE NOCASE",
+                pstmt -> pstmt.setString(1, type), this::mapEquipment, results::add, "equipment by type");
+        return results;
+    }
+
+    /**
+     * Count employees in a department without loading them
+     */
+    public int countEmployeesByDepartment(String departmentId) {
+        int[] count = new int[1];
+        runQuery("SELECT COUNT(*) FROM employees WHERE department_id = ? COLLATE NOCASE",
+                pstmt -> pstmt.setString(1, departmentId), rs -> rs.getInt(1),
+                value -> count[0] = value, "employee count");
+        return count[0];
+    }
+
+    /**
+     * Shared query loop: bind parameters, map each row, hand it to the consumer
+     *
+     * @return number of rows visited
+     */
+    private <T> int runQuery(String sql, ParameterBinder binder, RowMapper<T> mapper,
+                             Consumer<? super T> consumer, String description) {
+        long started = metrics.start();
+        long bytes = 0;
+        int rows = 0;
+        PooledConnection reader = pool.acquireReader();
+        try {
+            PreparedStatement pstmt = reader.prepare(sql);
+            binder.bind(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    T row = mapper.map(rs);
+                    if (row != null) {
+                        bytes += payloadBytes(row);
+                        consumer.accept(row);
+                    }
+                    rows++;
+                }
+            }
+            if (metrics.isEnabled()) {
+                metrics.record(queryMetric(description), started, rows, bytes);
+            }
+        } catch (SQLException e) {
+            metrics.recordError(queryMetric(description), started);
+            System.err.println("ERROR: Failed to query " + description);
+            e.printStackTrace();
+        } finally {
+            pool.releaseReader(reader);
+        }
+        return rows;
+    }
+
+    // ==================== METRICS ====================
+
+    /**
+     * Metric name for a runQuery description ("employees by department" -> "db.query.employees_by_department")
+     */
+    private static String queryMetric(String description) {
+        return "db.query." + description.replace(' ', '_');
+    }
+
+    /**
+     * Estimated payload of one row for the metrics: characters of its text
+     * columns plus 8 bytes per number or date (0 when metrics are off)
+     */
+    private long payloadBytes(Object row) {
+        if (!metrics.isEnabled()) {
+            return 0;
+        }
+        if (row instanceof Employee) {
+            Employee employee = (Employee) row;
+            long bytes = length(employee.getId()) + length(employee.getName()) + length(employee.getEmail())
+                    + length(employee.getPhone()) + length(employee.getDepartmentId()) + length(employee.getRole())
+                    + length(employee.getRoleType()) + 16;
+            for (String link : linksOf(employee)) {
+                bytes += link.length() + 1;
+            }
+            if (employee instanceof Scientist) {
+                bytes += length(((Scientist) employee).getSpecialization());
+            } else if (employee instanceof Technician) {
+                bytes += length(((Technician) employee).getCertifications());
+            } else {
+                bytes += 8;
+            }
+            return bytes;
+        } else if (row instanceof Department) {
+            Department department = (Department) row;
+            return length(department.getId()) + length(department.getName()) + length(department.getRegion())
+                    + length(department.getManagerId()) + 12;
+        } else if (row instanceof Project) {
+            Project project = (Project) row;
+            return length(project.getId()) + length(project.getName()) + length(project.getDescription())
+                    + length(project.getDepartmentId()) + length(project.getLeadScientistId())
+                    + length(project.getStatus()) + 24;
+        } else if (row instanceof Equipment) {
+            Equipment equipment = (Equipment) row;
+            return length(equipment.getId()) + length(equipment.getName()) + length(equipment.getType())
+                    + length(equipment.getSerialNumber()) + length(equipment.getDepartmentId())
+                    + length(equipment.getAssignedToId()) + length(equipment.getStatus()) + 8;
+        } else if (row instanceof String) {
+            return ((String) row).length();
+        }
+        return row instanceof Number ? 8 : 0;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * Connection pool and statement cache gauges (the latest DatabaseManager wins)
+     */
+    private void registerGauges() {
+        metrics.gauge("db.pool.idle_readers", () -> pool != null ? pool.getIdleReaderCount() : 0);
+        metrics.gauge("db.pool.writer_waits", () -> pool != null ? pool.getWriterWaits() : 0);
+        metrics.gauge("db.pool.reader_waits", () -> pool != null ? pool.getReaderWaits() : 0);
+        metrics.gauge("db.statement_cache.hit_rate", () -> {
+            if (pool == null) {
+                return 0;
+            }
+            long lookups = pool.getCacheHits() + pool.getCacheMisses();
+            return lookups > 0 ? 100.0 * pool.getCacheHits() / lookups : 0;
+        });
+    }
+
+    // ==================== BATCH SUPPORT ====================
+
+    /**
+     * Shared batching loop for all bulk saves
+     * Runs inside an explicit transaction and commits every batchSize rows,
+     * so SQLite syncs once per chunk instead of once per row.
+     * On failure the current chunk is rolled back (earlier chunks stay committed).
+     *
+     * @return number of rows written
+     */
+    private <T> int executeBatch(String table, Collection<? extends T> rows, String sql,
+                                 RowBinder<T> binder) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        long startTime = System.nanoTime();
+        long bytes = 0;
+        int written = 0;
+        int pending = 0;
+
+        PooledConnection writer = pool.acquireWriter();
+        Connection connection = writer.getConnection();
+        PreparedStatement pstmt = null;
+        boolean autoCommitChanged = false;
+        try {
+            pstmt = writer.prepare(sql);
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                autoCommitChanged = true;
+            }
+            for (T row : rows) {
+                binder.bind(pstmt, row);
+                pstmt.addBatch();
+                bytes += payloadBytes(row);
+                pending++;
+
+                if (pending == batchSize) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                    metrics.increment("db.commits", 1);
+                    written += pending;
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                pstmt.executeBatch();
+                connection.commit();
+                metrics.increment("db.commits", 1);
+                written += pending;
+            }
+            metrics.record("db.batch." + table, startTime, written, bytes);
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordError("db.batch." + table, startTime);
+            rollbackBatch(connection, pstmt == null
+                    ? Collections.<PreparedStatement>emptyList() : Collections.singletonList(pstmt));
+            throw e;
+        } finally {
+            restoreAutoCommitAndRelease(connection, autoCommitChanged);
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf("→ Batch saved %,d %s in %.2f s (%,.0f rows/sec, batch size %d)\n",
+                written, table, seconds, written / Math.max(seconds, 1e-9), batchSize);
+        return written;
+    }
+
+    /**
+     * Set number of rows per batch/commit for bulk saves
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize > 0) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Highest numeric suffix of employee IDs with the given prefix (e.g. 'S' -> 42 for S042)
+     * Used by bulk imports to continue numbering after existing rows
+     */
+    public int getMaxEmployeeNumber(char prefix) {
+        String sql = "SELECT MAX(CAST(SUBSTR(id, 2) AS INTEGER)) FROM employees WHERE id LIKE ?";
+
+        long started = metrics.start();
+        PooledConnection reader = pool.acquireReader();
+        try {
+            PreparedStatement pstmt = reader.prepare(sql);
+            pstmt.setString(1, prefix + "%");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int max = rs.next() ? rs.getInt(1) : 0;
+                metrics.record("db.maxEmployeeNumber", started, 1, 4);
+                return max;
+            }
+        } catch (SQLException e) {
+            metrics.recordError("db.maxEmployeeNumber", started);
+            System.err.println("ERROR: Failed to read employee IDs");
+            e.printStackTrace();
+            return 0;
+        } finally {
+            pool.releaseReader(reader);
         }
     }
 
+    /**
+     * Get connection pool (statistics, tuning)
+     */
+    public ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    /**
+     * Display connection pool and statement cache statistics
+     */
+    public void displayPoolStatistics() {
+        pool.displayStatistics();
+    }
+
+    @Override
+    public void displayStorageStatistics() {
+        displayPoolStatistics();
+    }
+
     /**
      * Close database connection
      */
     public void close() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+            if (pool != null) {
+                pool.close();
+                pool = null;
                 System.out.println("✓ Database connection closed");
             }
         } catch (SQLException e) {
@@ -466,21 +1836,63 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Drop the batched statements and roll back the current chunk after a failed batch
+     * A failure here is logged, so the caller still sees the original error.
+     */
+    private void rollbackBatch(Connection connection, Collection<PreparedStatement> statements) {
+        try {
+            for (PreparedStatement pstmt : statements) {
+                pstmt.clearBatch();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                metrics.increment("db.rollbacks", 1);
+            }
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to roll back batch");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Turn autocommit back on if the batch turned it off, then release the writer
+     * The writer is released even if restoring autocommit fails.
+     */
+    private void restoreAutoCommitAndRelease(Connection connection, boolean autoCommitChanged) throws SQLException {
+        try {
+            if (autoCommitChanged) {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            pool.releaseWriter();
+        }
+    }
+
     /**
      * Clear all data (for testing)
      */
     public void clearAllData() {
+        long started = metrics.start();
+        PooledConnection writer = pool.acquireWriter();
         try {
-            Statement stmt = connection.createStatement();
+            Statement stmt = writer.getConnection().createStatement();
+            for (JoinTable table : JOIN_TABLES) {
+                stmt.execute("DELETE FROM " + table.name);
+            }
             stmt.execute("DELETE FROM equipment");
             stmt.execute("DELETE FROM projects");
             stmt.execute("DELETE FROM employees");
             stmt.execute("DELETE FROM departments");
             stmt.close();
+            metrics.record("db.clearAllData", started);
             System.out.println("✓ All data cleared");
         } catch (SQLException e) {
+            metrics.recordError("db.clearAllData", started);
             System.err.println("ERROR: Failed to clear data");
             e.printStackTrace();
+        } finally {
+            pool.releaseWriter();
         }
     }
 }
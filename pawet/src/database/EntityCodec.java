@@ -0,0 +1,233 @@
+package database;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Manager;
+import models.Project;
+import models.Scientist;
+import models.Technician;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EntityCodec - compact binary form of the four entity types
+ * One record per entity, the same fields as the SQLite columns (list columns
+ * as string lists), written with DataOutputStream. Used by MemoryRepository
+ * for its tables, write-ahead log records and snapshots, so an entity is
+ * encoded once per change and a stored row can never be changed in place.
+ *
+ * Strings and dates may be null (a presence flag precedes them).
+ */
+public final class EntityCodec {
+    private static final byte MANAGER = 'M';
+    private static final byte SCIENTIST = 'S';
+    private static final byte TECHNICIAN = 'T';
+
+    private EntityCodec() {
+    }
+
+    /**
+     * Writes the fields of one entity
+     */
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads the fields of one entity
+     */
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    // ==================== EMPLOYEES ====================
+
+    public static byte[] encodeEmployee(Employee employee) {
+        return encode(out -> {
+            if (employee instanceof Manager) {
+                out.writeByte(MANAGER);
+            } else if (employee instanceof Scientist) {
+                out.writeByte(SCIENTIST);
+            } else if (employee instanceof Technician) {
+                out.writeByte(TECHNICIAN);
+            } else {
+                throw new IllegalArgumentException("Unknown employee type: " + employee.getClass().getName());
+            }
+            writeString(out, employee.getId());
+            writeString(out, employee.getName());
+            writeString(out, employee.getEmail());
+            writeString(out, employee.getPhone());
+            writeString(out, employee.getDepartmentId());
+            writeString(out, employee.getRole());
+            out.writeDouble(employee.getSalary());
+            writeDate(out, employee.getHireDate());
+
+            if (employee instanceof Manager) {
+                Manager manager = (Manager) employee;
+                writeList(out, manager.getTeamList());
+                out.writeDouble(manager.getBudgetAuthority());
+            } else if (employee instanceof Scientist) {
+                Scientist scientist = (Scientist) employee;
+                writeString(out, scientist.getSpecialization());
+                writeList(out, scientist.getProjectList());
+            } else {
+                Technician technician = (Technician) employee;
+                writeList(out, technician.getEquipmentHandled());
+                writeString(out, technician.getCertifications());
+            }
+        });
+    }
+
+    public static Employee decodeEmployee(byte[] bytes) {
+        return decode(bytes, in -> {
+            byte type = in.readByte();
+            String id = readString(in);
+            String name = readString(in);
+            String email = readString(in);
+            String phone = readString(in);
+            String departmentId = readString(in);
+            String role = readString(in);
+            double salary = in.readDouble();
+            LocalDate hireDate = readDate(in);
+
+            if (type == MANAGER) {
+                List<String> teamList = readList(in);
+                return new Manager(id, name, email, phone, departmentId, role, salary, hireDate,
+                        teamList, in.readDouble());
+            } else if (type == SCIENTIST) {
+                String specialization = readString(in);
+                return new Scientist(id, name, email, phone, departmentId, role, salary, hireDate,
+                        specialization, readList(in));
+            } else if (type == TECHNICIAN) {
+                List<String> equipmentList = readList(in);
+                return new Technician(id, name, email, phone, departmentId, role, salary, hireDate,
+                        equipmentList, readString(in));
+            }
+            throw new IOException("Unknown employee type: " + type);
+        });
+    }
+
+    // ==================== DEPARTMENTS, PROJECTS, EQUIPMENT ====================
+
+    public static byte[] encodeDepartment(Department department) {
+        return encode(out -> {
+            writeString(out, department.getId());
+            writeString(out, department.getName());
+            writeString(out, department.getRegion());
+            out.writeDouble(department.getBudget());
+            writeString(out, department.getManagerId());
+            out.writeInt(department.getEmployeeCount());
+        });
+    }
+
+    public static Department decodeDepartment(byte[] bytes) {
+        return decode(bytes, in -> new Department(readString(in), readString(in), readString(in),
+                in.readDouble(), readString(in), in.readInt()));
+    }
+
+    public static byte[] encodeProject(Project project) {
+        return encode(out -> {
+            writeString(out, project.getId());
+            writeString(out, project.getName());
+            writeString(out, project.getDescription());
+            writeString(out, project.getDepartmentId());
+            writeString(out, project.getLeadScientistId());
+            out.writeDouble(project.getBudget());
+            writeDate(out, project.getStartDate());
+            writeDate(out, project.getEndDate());
+            writeString(out, project.getStatus());
+        });
+    }
+
+    public static Project decodeProject(byte[] bytes) {
+        return decode(bytes, in -> new Project(readString(in), readString(in), readString(in), readString(in),
+                readString(in), in.readDouble(), readDate(in), readDate(in), readString(in)));
+    }
+
+    public static byte[] encodeEquipment(Equipment equipment) {
+        return encode(out -> {
+            writeString(out, equipment.getId());
+            writeString(out, equipment.getName());
+            writeString(out, equipment.getType());
+            writeString(out, equipment.getSerialNumber());
+            writeString(out, equipment.getDepartmentId());
+            writeString(out, equipment.getAssignedToId());
+            writeDate(out, equipment.getPurchaseDate());
+            writeString(out, equipment.getStatus());
+            out.writeLong(equipment.getVersion());
+        });
+    }
+
+    public static Equipment decodeEquipment(byte[] bytes) {
+        return decode(bytes, in -> new Equipment(readString(in), readString(in), readString(in), readString(in),
+                readString(in), readString(in), readDate(in), readString(in), in.readLong()));
+    }
+
+    // ==================== FIELDS ====================
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            // Only the entity itself can fail here (in-memory stream)
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T decode(byte[] bytes, Reader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt entity record", e);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+}
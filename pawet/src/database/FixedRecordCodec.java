@@ -0,0 +1,171 @@
+package database;
+
+import models.Department;
+import models.Equipment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * FixedRecordCodec - fixed-width binary records for departments and equipment
+ * Every field sits at a fixed offset, so a FixedRecordTable can change the
+ * budget of a department or the status / assignee / version of an equipment
+ * item where it is stored, without decoding or re-encoding the record.
+ *
+ * Strings take [short UTF-8 length, -1 = null][bytes] in a field of fixed
+ * width; a value that does not fit is rejected with IllegalArgumentException
+ * (never truncated). Dates are epoch days, Long.MIN_VALUE = null.
+ *
+ *   Department (224 bytes): id 32 | name 96 | region 48 | budget 8 | manager id 32 | employee count 4
+ *   Equipment  (320 bytes): id 32 | name 96 | type 48 | serial number 48 | department id 32 |
+ *                           assigned to 32 | purchase date 8 | status 16 | version 8
+ */
+final class FixedRecordCodec {
+    private static final int ID_FIELD = 32;
+    private static final int NAME_FIELD = 96;
+    private static final int TEXT_FIELD = 48;
+    private static final int STATUS_FIELD = 16;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    // Offsets of the department fields
+    private static final int DEPARTMENT_ID = 0;
+    private static final int DEPARTMENT_NAME = DEPARTMENT_ID + ID_FIELD;
+    private static final int DEPARTMENT_REGION = DEPARTMENT_NAME + NAME_FIELD;
+    private static final int DEPARTMENT_BUDGET = DEPARTMENT_REGION + TEXT_FIELD;
+    private static final int DEPARTMENT_MANAGER = DEPARTMENT_BUDGET + 8;
+    private static final int DEPARTMENT_EMPLOYEES = DEPARTMENT_MANAGER + ID_FIELD;
+    static final int DEPARTMENT_BYTES = DEPARTMENT_EMPLOYEES + 8;
+
+    // Offsets of the equipment fields
+    private static final int EQUIPMENT_ID = 0;
+    private static final int EQUIPMENT_NAME = EQUIPMENT_ID + ID_FIELD;
+    private static final int EQUIPMENT_TYPE = EQUIPMENT_NAME + NAME_FIELD;
+    private static final int EQUIPMENT_SERIAL = EQUIPMENT_TYPE + TEXT_FIELD;
+    private static final int EQUIPMENT_DEPARTMENT = EQUIPMENT_SERIAL + TEXT_FIELD;
+    private static final int EQUIPMENT_ASSIGNEE = EQUIPMENT_DEPARTMENT + ID_FIELD;
+    private static final int EQUIPMENT_PURCHASED = EQUIPMENT_ASSIGNEE + ID_FIELD;
+    private static final int EQUIPMENT_STATUS = EQUIPMENT_PURCHASED + 8;
+    private static final int EQUIPMENT_VERSION = EQUIPMENT_STATUS + STATUS_FIELD;
+    static final int EQUIPMENT_BYTES = EQUIPMENT_VERSION + 8;
+
+    private FixedRecordCodec() {
+    }
+
+    /**
+     * The ID of a record (the first field of both layouts)
+     */
+    static String readId(ByteBuffer buffer, int offset) {
+        return readString(buffer, offset);
+    }
+
+    // ==================== DEPARTMENTS ====================
+
+    static byte[] encodeDepartment(Department department) {
+        ByteBuffer record = ByteBuffer.allocate(DEPARTMENT_BYTES);
+        writeString(record, DEPARTMENT_ID, ID_FIELD, department.getId(), "Department ID");
+        writeString(record, DEPARTMENT_NAME, NAME_FIELD, department.getName(), "Department name");
+        writeString(record, DEPARTMENT_REGION, TEXT_FIELD, department.getRegion(), "Region");
+        record.putDouble(DEPARTMENT_BUDGET, department.getBudget());
+        writeString(record, DEPARTMENT_MANAGER, ID_FIELD, department.getManagerId(), "Manager ID");
+        record.putInt(DEPARTMENT_EMPLOYEES, department.getEmployeeCount());
+        return record.array();
+    }
+
+    static Department decodeDepartment(byte[] bytes) {
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        return new Department(readString(record, DEPARTMENT_ID), readString(record, DEPARTMENT_NAME),
+                readString(record, DEPARTMENT_REGION), record.getDouble(DEPARTMENT_BUDGET),
+                readString(record, DEPARTMENT_MANAGER), record.getInt(DEPARTMENT_EMPLOYEES));
+    }
+
+    /**
+     * Set the budget of the department record at an offset
+     */
+    static void setDepartmentBudget(ByteBuffer buffer, int offset, double budget) {
+        buffer.putDouble(offset + DEPARTMENT_BUDGET, budget);
+    }
+
+    // ==================== EQUIPMENT ====================
+
+    static byte[] encodeEquipment(Equipment item) {
+        ByteBuffer record = ByteBuffer.allocate(EQUIPMENT_BYTES);
+        writeString(record, EQUIPMENT_ID, ID_FIELD, item.getId(), "Equipment ID");
+        writeString(record, EQUIPMENT_NAME, NAME_FIELD, item.getName(), "Equipment name");
+        writeString(record, EQUIPMENT_TYPE, TEXT_FIELD, item.getType(), "Equipment type");
+        writeString(record, EQUIPMENT_SERIAL, TEXT_FIELD, item.getSerialNumber(), "Serial number");
+        writeString(record, EQUIPMENT_DEPARTMENT, ID_FIELD, item.getDepartmentId(), "Department ID");
+        writeString(record, EQUIPMENT_ASSIGNEE, ID_FIELD, item.getAssignedToId(), "Assignee ID");
+        LocalDate purchased = item.getPurchaseDate();
+        record.putLong(EQUIPMENT_PURCHASED, purchased != null ? purchased.toEpochDay() : NO_DATE);
+        writeString(record, EQUIPMENT_STATUS, STATUS_FIELD, item.getStatus(), "Status");
+        record.putLong(EQUIPMENT_VERSION, item.getVersion());
+        return record.array();
+    }
+
+    static Equipment decodeEquipment(byte[] bytes) {
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        long purchased = record.getLong(EQUIPMENT_PURCHASED);
+        return new Equipment(readString(record, EQUIPMENT_ID), readString(record, EQUIPMENT_NAME),
+                readString(record, EQUIPMENT_TYPE), readString(record, EQUIPMENT_SERIAL),
+                readString(record, EQUIPMENT_DEPARTMENT), readString(record, EQUIPMENT_ASSIGNEE),
+                purchased != NO_DATE ? LocalDate.ofEpochDay(purchased) : null,
+                readString(record, EQUIPMENT_STATUS), record.getLong(EQUIPMENT_VERSION));
+    }
+
+    /**
+     * Compare-and-set the state of the equipment record at an offset
+     * Status and assignee are checked to fit before anything is written.
+     *
+     * @return false (nothing written) if the stored version is not expectedVersion
+     */
+    static boolean compareAndSetEquipmentState(ByteBuffer buffer, int offset, long expectedVersion,
+                                               String status, String assignedToId) {
+        checkFits(status, STATUS_FIELD, "Status");
+        checkFits(assignedToId, ID_FIELD, "Assignee ID");
+        if (buffer.getLong(offset + EQUIPMENT_VERSION) != expectedVersion) {
+            return false;
+        }
+        writeString(buffer, offset + EQUIPMENT_STATUS, STATUS_FIELD, status, "Status");
+        writeString(buffer, offset + EQUIPMENT_ASSIGNEE, ID_FIELD, assignedToId, "Assignee ID");
+        buffer.putLong(offset + EQUIPMENT_VERSION, expectedVersion + 1);
+        return true;
+    }
+
+    // ==================== FIELDS ====================
+
+    private static void writeString(ByteBuffer buffer, int offset, int width, String value, String field) {
+        if (value == null) {
+            buffer.putShort(offset, (short) -1);
+            return;
+        }
+        byte[] bytes = checkFits(value, width, field);
+        buffer.putShort(offset, (short) bytes.length);
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 2);
+        view.put(bytes);
+    }
+
+    private static byte[] checkFits(String value, int width, String field) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > width - 2) {
+            throw new IllegalArgumentException(field + " '" + value + "' is longer than " + (width - 2) + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String readString(ByteBuffer buffer, int offset) {
+        short length = buffer.getShort(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
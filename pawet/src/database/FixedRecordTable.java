@@ -0,0 +1,182 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+
+/**
+ * FixedRecordTable - a RowTable of fixed-width records in one memory-mapped file
+ * File: [int magic][int format version][int record bytes][int unused] then slots
+ *   [byte state: 0 = end, 1 = used, 2 = free][7 bytes unused][record]
+ * Rows are FixedRecordCodec records, whose first field is the ID. A slot
+ * never moves: a changed row overwrites its slot, a deleted one frees it for
+ * the next insert, so the file only grows by one slot per live row.
+ *
+ * update() hands a writer the record's offset in the mapping, so single
+ * fields (a budget, an equipment state) change in place without copying
+ * the record in or out. Durability is MappedTable's: a change survives a
+ * crash of the process at once and a power loss after the next force().
+ */
+class FixedRecordTable extends MappedFileTable {
+    private static final int MAGIC = 0x50524543;   // "PREC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_HEADER_BYTES = 8;
+    private static final byte END = 0;
+    private static final byte USED = 1;
+    private static final byte FREE = 2;
+
+    /**
+     * A change to one record, made in place (write lock held)
+     */
+    interface RecordUpdate {
+        /**
+         * @param offset where the record starts in buffer
+         * @return whether the record was changed
+         */
+        boolean apply(ByteBuffer buffer, int offset);
+    }
+
+    private final int recordBytes;
+    private final int slotBytes;
+
+    // Guarded by rwLock
+    private int end;
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    FixedRecordTable(int tag, String name, File file, int recordBytes) throws IOException {
+        super(tag, name, file, MAGIC, FORMAT_VERSION);
+        this.recordBytes = recordBytes;
+        this.slotBytes = SLOT_HEADER_BYTES + recordBytes;
+        if (created) {
+            buffer.putInt(8, recordBytes);
+        } else if (buffer.getInt(8) != recordBytes) {
+            close();
+            throw new IOException(file + " holds " + buffer.getInt(8) + "-byte records, expected " + recordBytes);
+        }
+        rebuildIndex();
+    }
+
+    /**
+     * Walk the slots up to the first never-used one and index the used ones
+     */
+    private void rebuildIndex() {
+        int position = HEADER_BYTES;
+        while (position + slotBytes <= buffer.capacity()) {
+            byte state = buffer.get(position);
+            if (state == END) {
+                break;
+            }
+            if (state == USED) {
+                index.put(FixedRecordCodec.readId(buffer, position + SLOT_HEADER_BYTES), position);
+                size++;
+            } else {
+                freeSlots.add(position);
+            }
+            position += slotBytes;
+        }
+        end = position;
+    }
+
+    @Override
+    public void put(String id, byte[] row) {
+        if (row.length != recordBytes) {
+            throw new IllegalArgumentException(getName() + " records are " + recordBytes + " bytes, not " + row.length);
+        }
+        rwLock.writeLock().lock();
+        try {
+            Integer position = index.get(id);
+            if (position == null) {
+                position = allocate();
+                index.put(id, position);
+                size++;
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + SLOT_HEADER_BYTES);
+            view.put(row);
+            // Marked used only once the record is complete
+            buffer.put(position, USED);
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change a stored record in place
+     *
+     * @return false if there is no row with the ID or the update made no change
+     */
+    boolean update(String id, RecordUpdate update) {
+        rwLock.writeLock().lock();
+        try {
+            Integer position = index.get(id);
+            return position != null && update.apply(buffer, position + SLOT_HEADER_BYTES);
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(String id) {
+        rwLock.writeLock().lock();
+        try {
+            Integer position = index.remove(id);
+            if (position == null) {
+                return false;
+            }
+            buffer.put(position, FREE);
+            freeSlots.add(position);
+            size--;
+            return true;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        rwLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                buffer.put(entry.getValue(), FREE);
+                freeSlots.add(entry.getValue());
+            }
+            index.clear();
+            size = 0;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected byte[] readRow(int position) {
+        byte[] row = new byte[recordBytes];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + SLOT_HEADER_BYTES);
+        view.get(row);
+        return row;
+    }
+
+    /**
+     * A free slot, else a new one at the end
+     */
+    private int allocate() {
+        Integer free = freeSlots.poll();
+        if (free != null) {
+            return free;
+        }
+        ensureCapacity((long) end + slotBytes);
+        int position = end;
+        end += slotBytes;
+        return position;
+    }
+
+    // ==================== FILE ====================
+
+    @Override
+    long getUsedBytes() {
+        return (long) size * slotBytes;
+    }
+}
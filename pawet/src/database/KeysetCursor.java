@@ -0,0 +1,110 @@
+package database;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * KeysetCursor - walks a table in primary key order one page at a time
+ * Each page is fetched with "WHERE id > lastId ORDER BY id LIMIT pageSize",
+ * so every page is a short index range scan no matter how deep the cursor is
+ * (unlike OFFSET paging, which re-reads all skipped rows).
+ *
+ * Only the current page is held in memory. The cursor can be iterated more
+ * than once; each iteration starts again from the first key.
+ */
+public class KeysetCursor<T> implements Iterable<T> {
+
+    /**
+     * Loads up to limit rows with key greater than afterKey, in key order
+     */
+    public interface PageLoader<T> {
+        List<T> loadPage(String afterKey, int limit);
+    }
+
+    private final PageLoader<T> loader;
+    private final Function<T, String> keyOf;
+    private final int pageSize;
+
+    /**
+     * Constructor for KeysetCursor
+     *
+     * @param loader fetches one page after a key ("" = from the start)
+     * @param keyOf extracts the key of a row (used to position the next page)
+     * @param pageSize rows per page
+     */
+    public KeysetCursor(PageLoader<T> loader, Function<T, String> keyOf, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.loader = loader;
+        this.keyOf = keyOf;
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Hand each page to the consumer in key order
+     *
+     * @return total number of rows visited
+     */
+    public long forEachPage(Consumer<List<T>> consumer) {
+        long rows = 0;
+        String afterKey = "";
+        while (true) {
+            List<T> page = loader.loadPage(afterKey, pageSize);
+            if (page.isEmpty()) {
+                return rows;
+            }
+            consumer.accept(page);
+            rows += page.size();
+            if (page.size() < pageSize) {
+                return rows;
+            }
+            afterKey = keyOf.apply(page.get(page.size() - 1));
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private List<T> page = Collections.emptyList();
+            private int position = 0;
+            private String afterKey = "";
+            private boolean exhausted = false;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = loader.loadPage(afterKey, pageSize);
+                position = 0;
+                if (page.size() < pageSize) {
+                    exhausted = true;
+                }
+                if (!page.isEmpty()) {
+                    afterKey = keyOf.apply(page.get(page.size() - 1));
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MappedFileTable - a RowTable kept in one memory-mapped file, whatever its record layout
+ * Owns the file and its mapping, the heap ID -> offset index and the lock;
+ * subclasses (MappedTable: variable-size slots, FixedRecordTable: fixed-width
+ * records) lay out the records, rebuild the index on open and make changes.
+ *
+ * A file starts with [int magic][int format version]. Readers hold the read
+ * lock while they copy a record out, writers the write lock, so a reader
+ * never sees half of a change.
+ */
+abstract class MappedFileTable implements RowTable {
+    private static final int INITIAL_FILE_BYTES = 1 << 20;
+
+    private final byte tag;
+    private final String name;
+    protected final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+
+    protected final ConcurrentSkipListMap<String, Integer> index = new ConcurrentSkipListMap<>();
+    // Kept alongside the index (its size() is O(n)); changed under the write lock
+    protected volatile int size;
+    // Guards the mapping and record contents: writers exclusive, readers shared
+    protected final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+    // Guarded by rwLock
+    protected MappedByteBuffer buffer;
+    // True if the file was created by this open
+    protected final boolean created;
+
+    /**
+     * Open (or create) the file and map it
+     *
+     * @throws IOException if an existing file does not start with magic and formatVersion
+     */
+    protected MappedFileTable(int tag, String name, File file, int magic, int formatVersion) throws IOException {
+        this.tag = (byte) tag;
+        this.name = name;
+        this.file = file;
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        created = raf.length() < 8;
+        if (created) {
+            raf.setLength(INITIAL_FILE_BYTES);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        if (created) {
+            buffer.putInt(0, magic);
+            buffer.putInt(4, formatVersion);
+        } else if (buffer.getInt(0) != magic || buffer.getInt(4) != formatVersion) {
+            raf.close();
+            throw new IOException("Not a " + getClass().getSimpleName() + " file: " + file);
+        }
+    }
+
+    /**
+     * Copy the row stored at an offset out of the mapping (read lock held)
+     */
+    protected abstract byte[] readRow(int position);
+
+    @Override
+    public byte getTag() {
+        return tag;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte[] get(String id) {
+        rwLock.readLock().lock();
+        try {
+            Integer position = index.get(id);
+            return position != null ? readRow(position) : null;
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<byte[]> rows(String fromId, boolean fromInclusive, String toId) {
+        NavigableMap<String, Integer> view = index;
+        if (fromId != null) {
+            view = view.tailMap(fromId, fromInclusive);
+        }
+        if (toId != null) {
+            view = view.headMap(toId, true);
+        }
+        Iterator<String> ids = view.keySet().iterator();
+        return new Iterator<byte[]>() {
+            private byte[] next = advance();
+
+            private byte[] advance() {
+                // A row removed after its ID was listed is skipped
+                while (ids.hasNext()) {
+                    byte[] row = get(ids.next());
+                    if (row != null) {
+                        return row;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public byte[] next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                byte[] row = next;
+                next = advance();
+                return row;
+            }
+        };
+    }
+
+    @Override
+    public Iterable<String> ids() {
+        return index.keySet();
+    }
+
+    /**
+     * Grow the file (doubling, in zeroed space) and map it again
+     * Write lock held, so no reader uses the old mapping meanwhile.
+     */
+    protected void ensureCapacity(long needed) {
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        long newSize = buffer.capacity();
+        while (newSize < needed) {
+            newSize *= 2;
+        }
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Mapped table " + name + " is full (2 GB)");
+        }
+        try {
+            raf.setLength(newSize);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot grow " + file, e);
+        }
+    }
+
+    // ==================== FILE ====================
+
+    /**
+     * Write changed pages of the mapping to disk
+     * Runs without the lock, so writers are not held up by the disk; a mapping
+     * replaced meanwhile by a larger one shares its pages with the new one.
+     */
+    void force() {
+        MappedByteBuffer mapping;
+        rwLock.readLock().lock();
+        try {
+            mapping = buffer;
+        } finally {
+            rwLock.readLock().unlock();
+        }
+        mapping.force();
+    }
+
+    long getFileBytes() {
+        rwLock.readLock().lock();
+        try {
+            return buffer.capacity();
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes taken by live rows and their headers
+     */
+    abstract long getUsedBytes();
+
+    void close() throws IOException {
+        force();
+        raf.close();
+    }
+}
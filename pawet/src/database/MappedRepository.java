@@ -0,0 +1,274 @@
+package database;
+
+import models.Department;
+import models.Equipment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MappedRepository - storage engine "mmap:<directory>": one memory-mapped file per table
+ * Rows live off the heap; only the ID -> offset indexes are on the heap.
+ * Employees and projects (variable length: lists, descriptions) are
+ * MappedTable slots in employees.dat and projects.dat. Departments and
+ * equipment are FixedRecordTable records in departments.rec and
+ * equipment.rec, so an equipment state change or a budget update writes
+ * its fields in place, without decoding or re-encoding the row. Opening
+ * the store scans the files to rebuild the indexes - there is no log to
+ * replay. Queries are RowStoreRepository's.
+ *
+ * A write is visible and survives a crash of the process as soon as it
+ * returns (it is in the OS page cache). Changed pages are forced to disk every
+ * pawet.mmap.syncIntervalMs (default 1000) and on close, so a power loss
+ * can lose up to one interval. runInTransaction keeps other writers out but
+ * is not atomic across a power loss.
+ */
+public class MappedRepository extends RowStoreRepository {
+    public static final String DEFAULT_DIRECTORY = "data/pawet-mmap";
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private final File directory;
+    private final MappedFileTable[] mappedTables;
+    private final FixedRecordTable departmentRecords;
+    private final FixedRecordTable equipmentRecords;
+    private final ScheduledExecutorService syncer;
+    private boolean closed;
+
+    /**
+     * Constructor - opens (or creates) the store in a directory
+     */
+    public MappedRepository(File directory) {
+        this(directory, openTables(directory));
+    }
+
+    private MappedRepository(File directory, MappedFileTable[] tables) {
+        super("mmap", tables);
+        this.directory = directory;
+        this.mappedTables = tables;
+        this.departmentRecords = (FixedRecordTable) tables[1];
+        this.equipmentRecords = (FixedRecordTable) tables[3];
+        long interval = Long.getLong("pawet.mmap.syncIntervalMs", DEFAULT_SYNC_INTERVAL_MILLIS);
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mmap-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::force, interval, interval, TimeUnit.MILLISECONDS);
+        int rows = employees.size() + departments.size() + projects.size() + equipment.size();
+        if (rows > 0) {
+            System.out.printf("✓ Opened mapped store %s (%,d rows)%n", directory.getPath(), rows);
+        }
+    }
+
+    private static MappedFileTable[] openTables(File directory) {
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            return new MappedFileTable[] {
+                    new MappedTable(0, "employees", new File(directory, "employees.dat")),
+                    openRecords(directory, 1, "departments", FixedRecordCodec.DEPARTMENT_BYTES),
+                    new MappedTable(2, "projects", new File(directory, "projects.dat")),
+                    openRecords(directory, 3, "equipment", FixedRecordCodec.EQUIPMENT_BYTES)
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open mapped store in " + directory, e);
+        }
+    }
+
+    /**
+     * Open a fixed-width table, converting a variable-slot <name>.dat of an older store first
+     */
+    private static FixedRecordTable openRecords(File directory, int tag, String name, int recordBytes)
+            throws IOException {
+        File file = new File(directory, name + ".rec");
+        File old = new File(directory, name + ".dat");
+        if (file.exists() || !old.exists()) {
+            return new FixedRecordTable(tag, name, file, recordBytes);
+        }
+        // Built under a temporary name, so a conversion cut short is simply redone
+        File converted = new File(directory, name + ".rec.tmp");
+        if (converted.exists() && !converted.delete()) {
+            throw new IOException("Cannot delete " + converted);
+        }
+        MappedTable source = new MappedTable(tag, name, old);
+        FixedRecordTable target = new FixedRecordTable(tag, name, converted, recordBytes);
+        Iterator<byte[]> rows = source.rows(null, true, null);
+        while (rows.hasNext()) {
+            byte[] row = rows.next();
+            if (tag == 1) {
+                Department department = EntityCodec.decodeDepartment(row);
+                target.put(department.getId(), FixedRecordCodec.encodeDepartment(department));
+            } else {
+                Equipment item = EntityCodec.decodeEquipment(row);
+                target.put(item.getId(), FixedRecordCodec.encodeEquipment(item));
+            }
+        }
+        target.close();
+        source.close();
+        if (!converted.renameTo(file) || !old.delete()) {
+            throw new IOException("Cannot replace " + old + " with " + file);
+        }
+        System.out.println("✓ Converted " + old.getPath() + " to fixed-width records");
+        return new FixedRecordTable(tag, name, file, recordBytes);
+    }
+
+    // ==================== ROW FORMAT ====================
+
+    @Override
+    protected byte[] encodeDepartment(Department department) {
+        return FixedRecordCodec.encodeDepartment(department);
+    }
+
+    @Override
+    protected Department decodeDepartment(byte[] row) {
+        return FixedRecordCodec.decodeDepartment(row);
+    }
+
+    @Override
+    protected byte[] encodeEquipment(Equipment item) {
+        return FixedRecordCodec.encodeEquipment(item);
+    }
+
+    @Override
+    protected Equipment decodeEquipment(byte[] row) {
+        return FixedRecordCodec.decodeEquipment(row);
+    }
+
+    // ==================== IN-PLACE UPDATES ====================
+
+    /**
+     * Compare-and-set status, assignee and version where the record is stored
+     */
+    @Override
+    public boolean compareAndSetEquipmentState(String equipmentId, long expectedVersion,
+                                               String status, String assignedToId) {
+        long started = metrics.start();
+        boolean changed;
+        lock.lock();
+        try {
+            checkOpen();
+            changed = equipmentRecords.update(equipmentId, (buffer, offset) -> FixedRecordCodec
+                    .compareAndSetEquipmentState(buffer, offset, expectedVersion, status, assignedToId));
+        } catch (IllegalArgumentException e) {
+            metrics.recordError("mmap.casEquipment", started);
+            System.err.println("ERROR: Failed to update equipment " + equipmentId + " (" + e.getMessage() + ")");
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        metrics.record("mmap.casEquipment", started, changed ? 1 : 0, 0);
+        if (!changed) {
+            metrics.increment("mmap.casEquipment.conflicts", 1);
+        }
+        return changed;
+    }
+
+    /**
+     * Write the budget field where the record is stored
+     */
+    @Override
+    public void updateDepartmentBudget(String departmentId, double budget) {
+        long started = metrics.start();
+        boolean changed;
+        lock.lock();
+        try {
+            checkOpen();
+            changed = departmentRecords.update(departmentId, (buffer, offset) -> {
+                FixedRecordCodec.setDepartmentBudget(buffer, offset, budget);
+                return true;
+            });
+        } finally {
+            lock.unlock();
+        }
+        metrics.record("mmap.updateDepartmentBudget", started, changed ? 1 : 0, 8);
+    }
+
+    // ==================== DURABILITY ====================
+    // The table write itself is the durable copy: nothing to log or wait for
+
+    @Override
+    protected long logChange(RowTable table, String id, byte[] row) {
+        checkOpen();
+        return 0;
+    }
+
+    @Override
+    protected long endTransaction() {
+        return 0;
+    }
+
+    @Override
+    protected void abortTransaction() {
+    }
+
+    @Override
+    protected void awaitDurable(long token) {
+    }
+
+    /**
+     * Write every table's changed pages to disk
+     */
+    public void force() {
+        long started = metrics.start();
+        for (MappedFileTable table : mappedTables) {
+            table.force();
+        }
+        metrics.record("mmap.force", started);
+    }
+
+    /**
+     * Lock held
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Mapped store is closed");
+        }
+    }
+
+    // ==================== STORE ====================
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void displayStorageStatistics() {
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("MAPPED STORE");
+        System.out.println("═══════════════════════════════════════════");
+        System.out.println("  Directory: " + directory.getPath());
+        for (MappedFileTable table : mappedTables) {
+            System.out.printf("  %-12s %,9d rows | %,12d bytes mapped | %,12d used%n", table.getName() + ":",
+                    table.size(), table.getFileBytes(), table.getUsedBytes());
+        }
+        System.out.printf("  Forced to disk: %,d times%n", metrics.operation("mmap.force").getCalls());
+        System.out.println("═══════════════════════════════════════════");
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            syncer.shutdown();
+            for (MappedFileTable table : mappedTables) {
+                table.close();
+            }
+            System.out.println("✓ Mapped store closed");
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to close mapped store");
+            e.printStackTrace();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * MappedTable - a RowTable kept in one memory-mapped file of variable-size slots
+ * File: [int magic][int format version] then slots
+ *   [int capacity][int used, -1 = free][short id length][id UTF-8][row bytes][spare]
+ * up to the first slot of capacity 0 (the file grows in zeroed chunks).
+ *
+ * The ID -> slot offset index (MappedFileTable) is rebuilt by one scan of
+ * the file on open. A changed row is written in place when it fits its
+ * slot (slots get 25% spare room), otherwise into a free slot or a new one
+ * at the end, and its old slot becomes free.
+ *
+ * Durability: a change is in the OS page cache as soon as put() returns, so
+ * it survives a crash of the process; force() (MappedRepository calls it
+ * periodically and on close) makes it survive a power loss. A slot being
+ * written when the machine loses power can be torn.
+ */
+class MappedTable extends MappedFileTable {
+    private static final int MAGIC = 0x504D4150;   // "PMAP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int SLOT_HEADER_BYTES = 8;
+    private static final int FREE = -1;
+
+    // Guarded by rwLock
+    private int end;
+    private long freeBytes;
+    // Free slots by capacity
+    private final TreeMap<Integer, ArrayDeque<Integer>> freeSlots = new TreeMap<>();
+
+    MappedTable(int tag, String name, File file) throws IOException {
+        super(tag, name, file, MAGIC, FORMAT_VERSION);
+        rebuildIndex();
+    }
+
+    /**
+     * Walk the slots and index the used ones
+     */
+    private void rebuildIndex() {
+        int position = HEADER_BYTES;
+        while (position + SLOT_HEADER_BYTES <= buffer.capacity()) {
+            int capacity = buffer.getInt(position);
+            if (capacity <= 0 || position + SLOT_HEADER_BYTES + capacity > buffer.capacity()) {
+                break;
+            }
+            int used = buffer.getInt(position + 4);
+            if (used == FREE) {
+                addFree(position, capacity);
+            } else {
+                index.put(readId(position), position);
+                size++;
+            }
+            position += SLOT_HEADER_BYTES + capacity;
+        }
+        end = position;
+    }
+
+    @Override
+    public void put(String id, byte[] row) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int used = 2 + idBytes.length + row.length;
+        rwLock.writeLock().lock();
+        try {
+            Integer position = index.get(id);
+            if (position != null && buffer.getInt(position) >= used) {
+                writeSlot(position, idBytes, row);
+                return;
+            }
+            int slot = allocate(used);
+            writeSlot(slot, idBytes, row);
+            index.put(id, slot);
+            if (position != null) {
+                release(position);
+            } else {
+                size++;
+            }
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(String id) {
+        rwLock.writeLock().lock();
+        try {
+            Integer position = index.remove(id);
+            if (position == null) {
+                return false;
+            }
+            release(position);
+            size--;
+            return true;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        rwLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                release(entry.getValue());
+            }
+            index.clear();
+            size = 0;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    // ==================== SLOTS ====================
+
+    /**
+     * A free slot that fits (and wastes at most half of itself), else a new one at the end
+     */
+    private int allocate(int used) {
+        Map.Entry<Integer, ArrayDeque<Integer>> free = freeSlots.ceilingEntry(used);
+        if (free != null && free.getKey() <= used * 2) {
+            int position = free.getValue().poll();
+            if (free.getValue().isEmpty()) {
+                freeSlots.remove(free.getKey());
+            }
+            freeBytes -= free.getKey();
+            return position;
+        }
+        int capacity = (used + used / 4 + 7) & ~7;
+        ensureCapacity(end + SLOT_HEADER_BYTES + capacity);
+        int position = end;
+        buffer.putInt(position, capacity);
+        buffer.putInt(position + 4, FREE);
+        end += SLOT_HEADER_BYTES + capacity;
+        return position;
+    }
+
+    private void release(int position) {
+        buffer.putInt(position + 4, FREE);
+        addFree(position, buffer.getInt(position));
+    }
+
+    private void addFree(int position, int capacity) {
+        freeSlots.computeIfAbsent(capacity, key -> new ArrayDeque<>()).add(position);
+        freeBytes += capacity;
+    }
+
+    /**
+     * Row and ID first, then the used length: the slot only counts once it is complete
+     */
+    private void writeSlot(int position, byte[] idBytes, byte[] row) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + SLOT_HEADER_BYTES);
+        view.putShort((short) idBytes.length);
+        view.put(idBytes);
+        view.put(row);
+        buffer.putInt(position + 4, 2 + idBytes.length + row.length);
+    }
+
+    @Override
+    protected byte[] readRow(int position) {
+        int used = buffer.getInt(position + 4);
+        int idLength = buffer.getShort(position + SLOT_HEADER_BYTES);
+        byte[] row = new byte[used - 2 - idLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + SLOT_HEADER_BYTES + 2 + idLength);
+        view.get(row);
+        return row;
+    }
+
+    private String readId(int position) {
+        byte[] idBytes = new byte[buffer.getShort(position + SLOT_HEADER_BYTES)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + SLOT_HEADER_BYTES + 2);
+        view.get(idBytes);
+        return new String(idBytes, StandardCharsets.UTF_8);
+    }
+
+    // ==================== FILE ====================
+
+    @Override
+    long getUsedBytes() {
+        rwLock.readLock().lock();
+        try {
+            return end - freeBytes;
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+}
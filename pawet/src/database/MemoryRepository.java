@@ -0,0 +1,575 @@
+package database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * MemoryRepository - in-memory tables, optionally made durable by a write-ahead log and snapshots
+ * Storage engines "memory:" (no directory: nothing survives close) and
+ * "wal:<directory>" (see StorageEngines). Each table is a sorted map from ID
+ * to the EntityCodec bytes of the row; queries are RowStoreRepository's.
+ *
+ * Writes: the change is applied to the map and appended to the log under one
+ * lock (so the log order is the apply order), then the caller waits outside
+ * the lock for the log to commit it - concurrent writers share one write and
+ * fsync (group commit, see WriteAheadLog). runInTransaction logs all of its
+ * writes as one frame, which recovery applies entirely or not at all.
+ *
+ * Snapshots: once the current log segment passes the snapshot threshold (and
+ * on close) the tables are copied under the lock and the log moves on to a
+ * new segment; the copy is written to snapshot-G.bin in the background, after
+ * which the snapshots and segments before the previous snapshot are deleted:
+ * the previous snapshot and the segments after it stay as a fallback.
+ *
+ * Recovery: load the newest snapshot that passes its checksum (else the one
+ * before it), then replay the log segments from its generation on. A frame
+ * torn by a crash is cut off. If no snapshot can be read and the log no
+ * longer reaches back far enough, opening the store fails.
+ *
+ * Log record: [byte table][UTF id][int length, -1 = deleted][row bytes]
+ */
+public class MemoryRepository extends RowStoreRepository {
+    public static final String DEFAULT_DIRECTORY = "data/pawet-memory";
+    public static final long DEFAULT_FSYNC_INTERVAL_MILLIS = 100;
+    public static final long DEFAULT_SNAPSHOT_BYTES = 64L * 1024 * 1024;
+
+    private static final int SNAPSHOT_MAGIC = 0x50534E50;   // "PSNP"
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int DELETED = -1;
+
+    // Null for a store without a log
+    private final File directory;
+    private final long snapshotThresholdBytes;
+    private final HeapTable[] heapTables;
+
+    // One snapshot at a time
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ExecutorService snapshotter;
+
+    // Guarded by lock
+    private final WriteAheadLog log;
+    private final ByteArrayOutputStream transaction = new ByteArrayOutputStream();
+    private boolean closed;
+
+    /**
+     * One table: ID -> encoded row, with its size kept alongside (map size() is O(n))
+     * Rows are replaced, never changed in place, so readers need no lock.
+     */
+    private static final class HeapTable implements RowTable {
+        final byte tag;
+        final String name;
+        final ConcurrentSkipListMap<String, byte[]> rows = new ConcurrentSkipListMap<>();
+        volatile int size;
+
+        HeapTable(int tag, String name) {
+            this.tag = (byte) tag;
+            this.name = name;
+        }
+
+        @Override
+        public byte getTag() {
+            return tag;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public byte[] get(String id) {
+            return rows.get(id);
+        }
+
+        // Writes happen under the repository lock, so size needs no atomic update
+        @Override
+        public void put(String id, byte[] row) {
+            if (rows.put(id, row) == null) {
+                size++;
+            }
+        }
+
+        @Override
+        public boolean remove(String id) {
+            if (rows.remove(id) != null) {
+                size--;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<byte[]> rows(String fromId, boolean fromInclusive, String toId) {
+            NavigableMap<String, byte[]> view = rows;
+            if (fromId != null) {
+                view = view.tailMap(fromId, fromInclusive);
+            }
+            if (toId != null) {
+                view = view.headMap(toId, true);
+            }
+            return view.values().iterator();
+        }
+
+        @Override
+        public Iterable<String> ids() {
+            return rows.keySet();
+        }
+
+        @Override
+        public void clear() {
+            rows.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * Constructor - a store without a log (engine "memory:"): nothing survives close
+     */
+    public MemoryRepository() {
+        super("memory", newTables());
+        heapTables = (HeapTable[]) tables;
+        directory = null;
+        snapshotThresholdBytes = Long.MAX_VALUE;
+        log = null;
+        snapshotter = null;
+    }
+
+    /**
+     * Constructor - opens (or recovers) the store in a directory
+     * Fsync policy from pawet.wal.fsync (ALWAYS, INTERVAL, NEVER) and
+     * pawet.wal.fsyncIntervalMs, snapshot threshold from pawet.wal.snapshotMb.
+     */
+    public MemoryRepository(File directory) {
+        this(directory,
+                WriteAheadLog.FsyncPolicy.valueOf(System.getProperty("pawet.wal.fsync", "INTERVAL").toUpperCase()),
+                Long.getLong("pawet.wal.fsyncIntervalMs", DEFAULT_FSYNC_INTERVAL_MILLIS),
+                Long.getLong("pawet.wal.snapshotMb", DEFAULT_SNAPSHOT_BYTES >> 20) << 20);
+    }
+
+    /**
+     * Constructor - opens (or recovers) the store in a directory
+     *
+     * @param fsyncIntervalMillis fsync period for the INTERVAL policy
+     * @param snapshotThresholdBytes log segment size that starts a snapshot
+     */
+    public MemoryRepository(File directory, WriteAheadLog.FsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+                            long snapshotThresholdBytes) {
+        super("memory", newTables());
+        heapTables = (HeapTable[]) tables;
+        this.directory = directory;
+        this.snapshotThresholdBytes = snapshotThresholdBytes;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            long generation = recover();
+            log = new WriteAheadLog(directory, generation, fsyncPolicy, fsyncIntervalMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open memory store in " + directory, e);
+        }
+        snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.gauge("memory.log.bytes", () -> log.getSegmentBytes());
+    }
+
+    private static HeapTable[] newTables() {
+        return new HeapTable[] {new HeapTable(0, "employees"), new HeapTable(1, "departments"),
+                new HeapTable(2, "projects"), new HeapTable(3, "equipment")};
+    }
+
+    // ==================== WRITE-AHEAD LOG ====================
+
+    @Override
+    protected long logChange(RowTable table, String id, byte[] row) {
+        if (log == null) {
+            return 0;
+        }
+        if (closed) {
+            throw new IllegalStateException("Memory store is closed");
+        }
+        byte[] record = record(table, id, row);
+        if (isInTransaction()) {
+            transaction.write(record, 0, record.length);
+            return 0;
+        }
+        return log.append(record);
+    }
+
+    /**
+     * The transaction's records go to the log as one frame
+     */
+    @Override
+    protected long endTransaction() {
+        if (log == null || transaction.size() == 0) {
+            return 0;
+        }
+        byte[] frame = transaction.toByteArray();
+        transaction.reset();
+        return log.append(frame);
+    }
+
+    /**
+     * The failed transaction's records never reach the log
+     */
+    @Override
+    protected void abortTransaction() {
+        transaction.reset();
+    }
+
+    /**
+     * Wait for the log to commit the frame, then start a snapshot if the segment is full
+     */
+    @Override
+    protected void awaitDurable(long lsn) throws IOException {
+        log.commit(lsn);
+        if (log.getSegmentBytes() >= snapshotThresholdBytes && snapshotScheduled.compareAndSet(false, true)) {
+            snapshotter.execute(() -> {
+                try {
+                    snapshot();
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private static byte[] record(RowTable table, String id, byte[] row) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + (row != null ? row.length : 0));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(table.getTag());
+            out.writeUTF(id);
+            out.writeInt(row != null ? row.length : DELETED);
+            if (row != null) {
+                out.write(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ==================== SNAPSHOTS ====================
+
+    /**
+     * Write a snapshot of every table and drop the log segments it covers
+     * Writers only wait while the tables are copied, not while the file is written.
+     *
+     * @return false if the snapshot could not be written (the log still has everything)
+     */
+    public boolean snapshot() {
+        if (log == null) {
+            return false;
+        }
+        long started = metrics.start();
+        snapshotLock.lock();
+        try {
+            List<Map<String, byte[]>> copies = new ArrayList<>(tables.length);
+            long generation;
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                for (HeapTable table : heapTables) {
+                    copies.add(table.rows.clone());
+                }
+                generation = log.getGeneration() + 1;
+                log.rotate(generation);
+            } finally {
+                lock.unlock();
+            }
+
+            File file = snapshotFile(generation);
+            File temp = new File(directory, file.getName() + ".tmp");
+            long bytes = writeSnapshot(temp, generation, copies);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+
+            // Keep the previous snapshot and the segments after it, in case this one turns out damaged
+            SortedMap<Long, File> older = listFiles("snapshot-", ".bin").headMap(generation);
+            if (!older.isEmpty()) {
+                long previous = older.lastKey();
+                for (Map.Entry<Long, File> old : older.headMap(previous).entrySet()) {
+                    Files.deleteIfExists(old.getValue().toPath());
+                }
+                for (Map.Entry<Long, File> old : listFiles("wal-", ".log").headMap(previous).entrySet()) {
+                    Files.deleteIfExists(old.getValue().toPath());
+                }
+            }
+            metrics.record("memory.snapshot", started, 0, bytes);
+            return true;
+        } catch (IOException e) {
+            metrics.recordError("memory.snapshot", started);
+            System.err.println("ERROR: Failed to write snapshot");
+            e.printStackTrace();
+            return false;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * [magic][format version][generation] then per table [count]([UTF id][length][row])*,
+     * followed by the CRC32 of everything before it; fsynced before it is renamed into place
+     */
+    private static long writeSnapshot(File file, long generation, List<Map<String, byte[]>> copies) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(fileOut, 1 << 16);
+            CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT_VERSION);
+            out.writeLong(generation);
+            for (Map<String, byte[]> rows : copies) {
+                out.writeInt(rows.size());
+                for (Map.Entry<String, byte[]> row : rows.entrySet()) {
+                    out.writeUTF(row.getKey());
+                    out.writeInt(row.getValue().length);
+                    out.write(row.getValue());
+                }
+            }
+            out.flush();
+            new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+            buffered.flush();
+            fileOut.getFD().sync();
+            return fileOut.getChannel().size();
+        }
+    }
+
+    /**
+     * Load a snapshot into the tables
+     *
+     * @return false (tables left empty) if the file is damaged
+     */
+    private boolean readSnapshot(File file) {
+        try (FileInputStream fileIn = new FileInputStream(file)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileIn, 1 << 16), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT_VERSION) {
+                throw new IOException("Not a snapshot");
+            }
+            in.readLong();
+            for (RowTable table : tables) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    String id = in.readUTF();
+                    byte[] row = new byte[in.readInt()];
+                    in.readFully(row);
+                    table.put(id, row);
+                }
+            }
+            long expected = checked.getChecksum().getValue();
+            if (new DataInputStream(checked).readLong() != expected) {
+                throw new IOException("Checksum mismatch");
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("ERROR: Skipping damaged snapshot " + file.getName() + " (" + e.getMessage() + ")");
+            for (RowTable table : tables) {
+                table.clear();
+            }
+            return false;
+        }
+    }
+
+    private File snapshotFile(long generation) {
+        return new File(directory, String.format("snapshot-%08d.bin", generation));
+    }
+
+    /**
+     * Files named prefix + generation + suffix, by generation
+     */
+    private TreeMap<Long, File> listFiles(String prefix, String suffix) {
+        TreeMap<Long, File> files = new TreeMap<>();
+        File[] listed = directory.listFiles();
+        for (File file : listed != null ? listed : new File[0]) {
+            String name = file.getName();
+            if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Make the rename durable (a no-op where directories cannot be opened)
+     */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on this platform
+        }
+    }
+
+    // ==================== RECOVERY ====================
+
+    /**
+     * Newest valid snapshot + replay of the later log segments
+     *
+     * @return generation of the segment to continue appending to
+     */
+    private long recover() throws IOException {
+        long started = metrics.start();
+        for (File temp : listFiles("snapshot-", ".bin.tmp").values()) {
+            Files.deleteIfExists(temp.toPath());
+        }
+
+        long snapshotGeneration = -1;
+        List<Map.Entry<Long, File>> snapshots = new ArrayList<>(listFiles("snapshot-", ".bin").entrySet());
+        Collections.reverse(snapshots);
+        for (Map.Entry<Long, File> snapshot : snapshots) {
+            if (readSnapshot(snapshot.getValue())) {
+                snapshotGeneration = snapshot.getKey();
+                break;
+            }
+        }
+
+        long generation = Math.max(snapshotGeneration, 0);
+        TreeMap<Long, File> segments = listFiles("wal-", ".log");
+        // A damaged newest snapshot is only safe to skip if the log goes back to where we start from
+        if (!snapshots.isEmpty() && snapshots.get(0).getKey() > generation && !segments.containsKey(generation)) {
+            throw new IOException("No readable snapshot, and the log before snapshot "
+                    + snapshots.get(0).getKey() + " is gone - refusing to start with missing data");
+        }
+        long frames = 0;
+        for (Map.Entry<Long, File> segment : segments.tailMap(generation).entrySet()) {
+            frames += WriteAheadLog.replay(segment.getValue(), this::replayFrame);
+            generation = segment.getKey();
+        }
+
+        int rows = employees.size() + departments.size() + projects.size() + equipment.size();
+        if (snapshotGeneration >= 0 || frames > 0) {
+            System.out.printf("✓ Recovered %,d rows (snapshot %s + %,d log records) in %d ms%n", rows,
+                    snapshotGeneration >= 0 ? String.valueOf(snapshotGeneration) : "none", frames,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        metrics.record("memory.recover", started, frames, 0);
+        return generation;
+    }
+
+    private void replayFrame(byte[] frame) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame))) {
+            while (in.available() > 0) {
+                RowTable table = tables[in.readByte()];
+                String id = in.readUTF();
+                int length = in.readInt();
+                if (length == DELETED) {
+                    table.remove(id);
+                } else {
+                    byte[] row = new byte[length];
+                    in.readFully(row);
+                    table.put(id, row);
+                }
+            }
+        } catch (IOException e) {
+            // The frame passed its checksum, so this is a bug, not a torn write
+            throw new UncheckedIOException("Corrupt log record", e);
+        }
+    }
+
+    // ==================== STORE ====================
+
+    /**
+     * @return directory of the log and snapshots, null for a store without a log
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void displayStorageStatistics() {
+        System.out.println("\n═══════════════════════════════════════════");
+        System.out.println("MEMORY STORE");
+        System.out.println("═══════════════════════════════════════════");
+        System.out.println("  Directory: " + (directory != null ? directory.getPath() : "(none - not persisted)"));
+        System.out.printf("  Rows: %,d employees | %,d departments | %,d projects | %,d equipment%n",
+                employees.size(), departments.size(), projects.size(), equipment.size());
+        if (log == null) {
+            System.out.println("═══════════════════════════════════════════");
+            return;
+        }
+
+        long commits = metrics.operation("wal.commit").getCalls();
+        long syncs = metrics.operation("wal.fsync").getCalls();
+        long writes = metrics.operation("wal.write").getCalls();
+
+        System.out.println("\nWRITE-AHEAD LOG:");
+        System.out.println("  Fsync policy: " + log.getPolicy());
+        System.out.printf("  Segment: %d (%,d bytes, snapshot at %,d)%n", log.getGeneration(),
+                log.getSegmentBytes(), snapshotThresholdBytes);
+        System.out.printf("  Commits: %,d | Writes: %,d | Fsyncs: %,d%n", commits, writes, syncs);
+        if (writes > 0) {
+            System.out.printf("  Commits per write: %.1f%n", (double) commits / writes);
+        }
+        System.out.println("═══════════════════════════════════════════");
+    }
+
+    /**
+     * Snapshot (so the next start replays nothing) and close the log
+     */
+    @Override
+    public void close() {
+        if (log == null) {
+            return;
+        }
+        snapshotter.shutdown();
+        snapshot();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            log.close();
+            System.out.println("✓ Memory store closed");
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to close the log");
+            e.printStackTrace();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * PooledConnection pairs one JDBC connection with its statement cache
+ * Handed out by ConnectionPool to one thread at a time.
+ */
+public class PooledConnection {
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final boolean writer;
+
+    /**
+     * Constructor for PooledConnection
+     */
+    public PooledConnection(Connection connection, int statementCacheSize, boolean writer) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(connection, statementCacheSize);
+        this.writer = writer;
+    }
+
+    /**
+     * Get cached prepared statement for SQL (do not close it)
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public boolean isWriter() {
+        return writer;
+    }
+
+    /**
+     * Close cached statements and the connection
+     */
+    public void close() throws SQLException {
+        statementCache.closeAll();
+        if (!connection.isClosed()) {
+            connection.close();
+        }
+    }
+}
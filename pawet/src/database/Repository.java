@@ -0,0 +1,174 @@
+package database;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Project;
+import utils.EmployeeColumns;
+import utils.StatisticsEngine;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repository - the storage behind an Organization
+ * Implemented by DatabaseManager (SQLite), MemoryRepository (in-memory
+ * tables, optionally with a write-ahead log) and MappedRepository
+ * (memory-mapped files); StorageEngines opens one from a store URL.
+ * Entities handed out are the caller's own objects: changing one does not
+ * change the store until it is saved again.
+ *
+ * By-ID lookups also try the upper-case ID; department, role type and
+ * relationship target matches ignore case. Failed writes are logged, not
+ * thrown, as they are in DatabaseManager. Implementations are thread-safe.
+ */
+public interface Repository {
+
+    // ==================== EMPLOYEES ====================
+
+    /**
+     * Insert a new employee (and its relationship links)
+     */
+    void saveEmployee(Employee employee);
+
+    /**
+     * Write the changed fields of an existing employee
+     */
+    void updateEmployee(Employee employee);
+
+    /**
+     * Insert or replace the whole employee row and its links
+     */
+    void upsertEmployee(Employee employee);
+
+    void deleteEmployee(String employeeId);
+
+    List<Employee> loadEmployees();
+
+    Employee loadEmployeeById(String id);
+
+    /**
+     * Cursor over all employees in ID order, pageSize rows in memory at a time
+     */
+    KeysetCursor<Employee> streamEmployees(int pageSize);
+
+    int countEmployees();
+
+    /**
+     * Highest numeric suffix of employee IDs with the given prefix (e.g. 'S' -> 42 for S042)
+     */
+    int getMaxEmployeeNumber(char prefix);
+
+    List<Employee> queryEmployeesByDepartment(String departmentId);
+
+    List<Employee> queryEmployeesByRoleType(String roleType);
+
+    /**
+     * Employees with minSalary <= salary <= maxSalary, ordered by salary
+     */
+    List<Employee> queryEmployeesBySalaryRange(double minSalary, double maxSalary);
+
+    /**
+     * Stream employees within a salary range to a consumer
+     *
+     * @return number of rows visited
+     */
+    int queryEmployeesBySalaryRange(double minSalary, double maxSalary, Consumer<Employee> consumer);
+
+    /**
+     * Number of employees with minSalary <= salary <= maxSalary, without loading them
+     */
+    int countEmployeesBySalaryRange(double minSalary, double maxSalary);
+
+    /**
+     * Employees with fromId <= id <= toId in ID order (bounds upper-cased)
+     */
+    List<Employee> queryEmployeesByIdRange(String fromId, String toId);
+
+    List<Employee> queryManagersOfEmployee(String employeeId);
+
+    List<Employee> queryScientistsOnProject(String projectId);
+
+    List<Employee> queryTechniciansWithEquipment(String equipmentId);
+
+    /**
+     * All salaries in ascending order
+     */
+    double[] loadSortedSalaries();
+
+    EmployeeColumns loadEmployeeColumns();
+
+    // ==================== DEPARTMENTS AND PROJECTS ====================
+
+    /**
+     * Insert or replace a department
+     */
+    void saveDepartment(Department department);
+
+    /**
+     * Set the budget of an existing department (a missing ID is ignored)
+     */
+    void updateDepartmentBudget(String departmentId, double budget);
+
+    List<Department> loadDepartments();
+
+    Department loadDepartmentById(String id);
+
+    KeysetCursor<Department> streamDepartments(int pageSize);
+
+    int countDepartments();
+
+    /**
+     * Insert or replace a project
+     */
+    void saveProject(Project project);
+
+    List<Project> loadProjects();
+
+    KeysetCursor<Project> streamProjects(int pageSize);
+
+    int countProjects();
+
+    // ==================== EQUIPMENT ====================
+
+    /**
+     * Insert or replace an equipment item
+     */
+    void saveEquipment(Equipment equipment);
+
+    /**
+     * Change status and assignee only if the stored version is still expectedVersion
+     *
+     * @return true if the item was updated (its version is now expectedVersion + 1)
+     */
+    boolean compareAndSetEquipmentState(String equipmentId, long expectedVersion, String status, String assignedToId);
+
+    List<Equipment> loadEquipment();
+
+    Equipment loadEquipmentById(String id);
+
+    KeysetCursor<Equipment> streamEquipment(int pageSize);
+
+    int countEquipment();
+
+    // ==================== STORE ====================
+
+    /**
+     * Fill a statistics engine from the stored rows (marks it loaded)
+     */
+    void loadStatistics(StatisticsEngine statistics);
+
+    /**
+     * Run several writes as one transaction
+     *
+     * @return false if the transaction itself could not be committed
+     */
+    boolean runInTransaction(Runnable writes);
+
+    /**
+     * Print storage statistics (connection pool, log, ...)
+     */
+    void displayStorageStatistics();
+
+    void close();
+}
@@ -0,0 +1,642 @@
+package database;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Manager;
+import models.Project;
+import models.Scientist;
+import models.Technician;
+import utils.EmployeeColumns;
+import utils.Metrics;
+import utils.StatisticsEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * RowStoreRepository - a Repository over four RowTables of EntityCodec rows
+ * Holds everything the storage engines without SQL share: every query (as a
+ * scan with the same case and ordering rules as DatabaseManager's SQL), the
+ * write paths, and the single writer lock. Subclasses decide where the rows
+ * live and how a change becomes durable, through logChange / endTransaction
+ * (under the lock) and awaitDurable (after it is released, so writers can
+ * share one log write).
+ *
+ * Reads decode a fresh entity from the stored bytes, so callers never share
+ * an object with the store. Rows are EntityCodec records unless a subclass
+ * overrides the encode / decode methods of a table (MappedRepository keeps
+ * departments and equipment as FixedRecordCodec records).
+ */
+public abstract class RowStoreRepository implements Repository {
+    protected static final int PAGE_SIZE = 1_000;
+
+    protected final Metrics metrics = Metrics.shared();
+    private final String metricPrefix;
+
+    protected final RowTable employees;
+    protected final RowTable departments;
+    protected final RowTable projects;
+    protected final RowTable equipment;
+    // Indexed by table tag
+    protected final RowTable[] tables;
+
+    // Held while changing the tables (and logging the change)
+    protected final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private boolean inTransaction;
+    // Previous value of every row written in the current transaction, oldest first (guarded by lock)
+    private final List<Undo> undoLog = new ArrayList<>();
+
+    /**
+     * A row as it was before a transaction wrote it (null = absent)
+     */
+    private static final class Undo {
+        final RowTable table;
+        final String id;
+        final byte[] row;
+
+        Undo(RowTable table, String id, byte[] row) {
+            this.table = table;
+            this.id = id;
+            this.row = row;
+        }
+    }
+
+    /**
+     * @param metricPrefix operations are recorded as "<prefix>.<operation>"
+     * @param tables employees, departments, projects and equipment, with tags 0..3
+     */
+    protected RowStoreRepository(String metricPrefix, RowTable[] tables) {
+        this.metricPrefix = metricPrefix + ".";
+        this.tables = tables;
+        this.employees = tables[0];
+        this.departments = tables[1];
+        this.projects = tables[2];
+        this.equipment = tables[3];
+    }
+
+    // ==================== DURABILITY ====================
+
+    /**
+     * Record a change the tables already hold (lock held)
+     *
+     * @param row new row, null = deleted
+     * @return token for awaitDurable, 0 if there is nothing to wait for
+     */
+    protected abstract long logChange(RowTable table, String id, byte[] row);
+
+    /**
+     * End of the outermost runInTransaction (lock held); every logChange since it began was in it
+     *
+     * @return token for awaitDurable, 0 if there is nothing to wait for
+     */
+    protected abstract long endTransaction();
+
+    /**
+     * The outermost runInTransaction failed and its rows were put back (lock held):
+     * forget every logChange since it began
+     */
+    protected abstract void abortTransaction();
+
+    /**
+     * Wait until a logged change is durable (lock not held)
+     */
+    protected abstract void awaitDurable(long token) throws IOException;
+
+    /**
+     * True inside runInTransaction (lock held)
+     */
+    protected boolean isInTransaction() {
+        return inTransaction;
+    }
+
+    // ==================== ROW FORMAT ====================
+
+    protected byte[] encodeDepartment(Department department) {
+        return EntityCodec.encodeDepartment(department);
+    }
+
+    protected Department decodeDepartment(byte[] row) {
+        return EntityCodec.decodeDepartment(row);
+    }
+
+    protected byte[] encodeEquipment(Equipment item) {
+        return EntityCodec.encodeEquipment(item);
+    }
+
+    protected Equipment decodeEquipment(byte[] row) {
+        return EntityCodec.decodeEquipment(row);
+    }
+
+    // ==================== WRITES ====================
+
+    /**
+     * Insert a new employee (an existing ID is an error, as with the primary key)
+     */
+    @Override
+    public void saveEmployee(Employee employee) {
+        long started = metrics.start();
+        byte[] row = EntityCodec.encodeEmployee(employee);
+        long token;
+        lock.lock();
+        try {
+            if (employees.get(employee.getId()) != null) {
+                metrics.recordError(metricPrefix + "saveEmployee", started);
+                System.err.println("ERROR: Failed to save employee " + employee.getId() + " (ID already exists)");
+                return;
+            }
+            token = write(employees, employee.getId(), row);
+        } finally {
+            lock.unlock();
+        }
+        if (commit(token, "saveEmployee", started, row.length)) {
+            employee.clearDirtyFields();
+        }
+    }
+
+    /**
+     * Rewrite an existing employee (the row is replaced whole; a missing ID is ignored)
+     */
+    @Override
+    public void updateEmployee(Employee employee) {
+        long started = metrics.start();
+        byte[] row = EntityCodec.encodeEmployee(employee);
+        long token;
+        lock.lock();
+        try {
+            if (employees.get(employee.getId()) == null) {
+                metrics.record(metricPrefix + "updateEmployee", started);
+                return;
+            }
+            token = write(employees, employee.getId(), row);
+        } finally {
+            lock.unlock();
+        }
+        if (commit(token, "updateEmployee", started, row.length)) {
+            employee.clearDirtyFields();
+        }
+    }
+
+    @Override
+    public void upsertEmployee(Employee employee) {
+        if (put(employees, employee.getId(), () -> EntityCodec.encodeEmployee(employee), "upsertEmployee")) {
+            employee.clearDirtyFields();
+        }
+    }
+
+    @Override
+    public void deleteEmployee(String employeeId) {
+        long started = metrics.start();
+        long token;
+        lock.lock();
+        try {
+            if (employees.get(employeeId) == null) {
+                metrics.record(metricPrefix + "deleteEmployee", started);
+                return;
+            }
+            token = write(employees, employeeId, null);
+        } finally {
+            lock.unlock();
+        }
+        commit(token, "deleteEmployee", started, 0);
+    }
+
+    @Override
+    public void saveDepartment(Department department) {
+        put(departments, department.getId(), () -> encodeDepartment(department), "saveDepartment");
+    }
+
+    /**
+     * Set the budget of an existing department (a missing ID is ignored)
+     */
+    @Override
+    public void updateDepartmentBudget(String departmentId, double budget) {
+        long started = metrics.start();
+        long token;
+        lock.lock();
+        try {
+            byte[] stored = departments.get(departmentId);
+            if (stored == null) {
+                metrics.record(metricPrefix + "updateDepartmentBudget", started);
+                return;
+            }
+            Department department = decodeDepartment(stored);
+            department.setBudget(budget);
+            token = write(departments, departmentId, encodeDepartment(department));
+        } finally {
+            lock.unlock();
+        }
+        commit(token, "updateDepartmentBudget", started, 8);
+    }
+
+    @Override
+    public void saveProject(Project project) {
+        put(projects, project.getId(), () -> EntityCodec.encodeProject(project), "saveProject");
+    }
+
+    @Override
+    public void saveEquipment(Equipment item) {
+        put(equipment, item.getId(), () -> encodeEquipment(item), "saveEquipment");
+    }
+
+    @Override
+    public boolean compareAndSetEquipmentState(String equipmentId, long expectedVersion,
+                                               String status, String assignedToId) {
+        long started = metrics.start();
+        long token;
+        lock.lock();
+        try {
+            byte[] stored = equipment.get(equipmentId);
+            Equipment current = stored != null ? decodeEquipment(stored) : null;
+            if (current == null || current.getVersion() != expectedVersion) {
+                metrics.record(metricPrefix + "casEquipment", started);
+                metrics.increment(metricPrefix + "casEquipment.conflicts", 1);
+                return false;
+            }
+            Equipment changed = new Equipment(current.getId(), current.getName(), current.getType(),
+                    current.getSerialNumber(), current.getDepartmentId(), assignedToId, current.getPurchaseDate(),
+                    status, expectedVersion + 1);
+            token = write(equipment, equipmentId, encodeEquipment(changed));
+        } finally {
+            lock.unlock();
+        }
+        return commit(token, "casEquipment", started, 0);
+    }
+
+    /**
+     * Run several writes as one transaction; other writers wait until the block returns
+     * Nested calls join the outer transaction. What "atomic" means after a
+     * crash depends on the engine (see endTransaction). If the block throws,
+     * every row it wrote is put back, nothing is logged, and the exception
+     * is rethrown.
+     */
+    @Override
+    public boolean runInTransaction(Runnable writes) {
+        long started = metrics.start();
+        long token;
+        lock.lock();
+        try {
+            if (inTransaction) {
+                writes.run();
+                return true;
+            }
+            inTransaction = true;
+            try {
+                writes.run();
+            } catch (RuntimeException | Error e) {
+                inTransaction = false;
+                rollBack();
+                metrics.recordError(metricPrefix + "transaction", started);
+                throw e;
+            }
+            inTransaction = false;
+            undoLog.clear();
+            token = endTransaction();
+        } finally {
+            lock.unlock();
+        }
+        return commit(token, "transaction", started, 0);
+    }
+
+    /**
+     * Insert or replace one row
+     * A row the table's format cannot hold (IllegalArgumentException from the
+     * encoder) is logged and not written.
+     */
+    private boolean put(RowTable table, String id, Supplier<byte[]> encoder, String operation) {
+        long started = metrics.start();
+        byte[] row;
+        try {
+            row = encoder.get();
+        } catch (IllegalArgumentException e) {
+            metrics.recordError(metricPrefix + operation, started);
+            System.err.println("ERROR: Failed to save " + table.getName() + " row " + id + " (" + e.getMessage() + ")");
+            return false;
+        }
+        long token;
+        lock.lock();
+        try {
+            token = write(table, id, row);
+        } finally {
+            lock.unlock();
+        }
+        return commit(token, operation, started, row.length);
+    }
+
+    /**
+     * Put back every row the failed transaction wrote, newest first (lock held)
+     */
+    private void rollBack() {
+        try {
+            for (int i = undoLog.size() - 1; i >= 0; i--) {
+                Undo undo = undoLog.get(i);
+                if (undo.row == null) {
+                    undo.table.remove(undo.id);
+                } else {
+                    undo.table.put(undo.id, undo.row);
+                }
+            }
+        } finally {
+            undoLog.clear();
+            abortTransaction();
+        }
+    }
+
+    /**
+     * Apply one change and log it (lock held)
+     */
+    private long write(RowTable table, String id, byte[] row) {
+        if (inTransaction) {
+            undoLog.add(new Undo(table, id, table.get(id)));
+        }
+        if (row == null) {
+            table.remove(id);
+        } else {
+            table.put(id, row);
+        }
+        return logChange(table, id, row);
+    }
+
+    /**
+     * Wait for the change to become durable (no lock held)
+     *
+     * @return false if it could not be made durable
+     */
+    private boolean commit(long token, String operation, long started, long bytes) {
+        if (token > 0) {
+            try {
+                awaitDurable(token);
+            } catch (IOException e) {
+                metrics.recordError(metricPrefix + operation, started);
+                System.err.println("ERROR: Failed to persist change (" + operation + ")");
+                e.printStackTrace();
+                return false;
+            }
+        }
+        metrics.record(metricPrefix + operation, started, 1, bytes);
+        return true;
+    }
+
+    // ==================== READS ====================
+
+    @Override
+    public List<Employee> loadEmployees() {
+        return scan(employees, EntityCodec::decodeEmployee, employee -> true);
+    }
+
+    @Override
+    public Employee loadEmployeeById(String id) {
+        return loadById(employees, id, EntityCodec::decodeEmployee);
+    }
+
+    @Override
+    public KeysetCursor<Employee> streamEmployees(int pageSize) {
+        return new KeysetCursor<>((afterId, limit) -> loadPage(employees, afterId, limit, EntityCodec::decodeEmployee),
+                Employee::getId, pageSize);
+    }
+
+    @Override
+    public int countEmployees() {
+        return employees.size();
+    }
+
+    /**
+     * Same rule as SQLite's CAST(SUBSTR(id, 2) AS INTEGER): leading digits, else 0
+     */
+    @Override
+    public int getMaxEmployeeNumber(char prefix) {
+        int max = 0;
+        for (String id : employees.ids()) {
+            if (!id.isEmpty() && Character.toUpperCase(id.charAt(0)) == Character.toUpperCase(prefix)) {
+                int number = 0;
+                for (int i = 1; i < id.length() && Character.isDigit(id.charAt(i)) && number < 100_000_000; i++) {
+                    number = number * 10 + (id.charAt(i) - '0');
+                }
+                max = Math.max(max, number);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public List<Employee> queryEmployeesByDepartment(String departmentId) {
+        return scan(employees, EntityCodec::decodeEmployee,
+                employee -> departmentId.equalsIgnoreCase(employee.getDepartmentId()));
+    }
+
+    @Override
+    public List<Employee> queryEmployeesByRoleType(String roleType) {
+        return scan(employees, EntityCodec::decodeEmployee,
+                employee -> roleType.equalsIgnoreCase(employee.getRoleType()));
+    }
+
+    @Override
+    public List<Employee> queryEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        List<Employee> results = scan(employees, EntityCodec::decodeEmployee,
+                employee -> employee.getSalary() >= minSalary && employee.getSalary() <= maxSalary);
+        results.sort(Comparator.comparingDouble(Employee::getSalary));
+        return results;
+    }
+
+    @Override
+    public int queryEmployeesBySalaryRange(double minSalary, double maxSalary, Consumer<Employee> consumer) {
+        List<Employee> results = queryEmployeesBySalaryRange(minSalary, maxSalary);
+        results.forEach(consumer);
+        return results.size();
+    }
+
+    /**
+     * A scan like the queries, but nothing is kept or sorted
+     */
+    @Override
+    public int countEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        long started = metrics.start();
+        int count = 0;
+        Iterator<byte[]> rows = employees.rows(null, true, null);
+        while (rows.hasNext()) {
+            double salary = EntityCodec.decodeEmployee(rows.next()).getSalary();
+            if (salary >= minSalary && salary <= maxSalary) {
+                count++;
+            }
+        }
+        metrics.record(metricPrefix + "countEmployeesBySalaryRange", started, count, 0);
+        return count;
+    }
+
+    @Override
+    public List<Employee> queryEmployeesByIdRange(String fromId, String toId) {
+        String from = fromId.toUpperCase();
+        String to = toId.toUpperCase();
+        List<Employee> results = new ArrayList<>();
+        if (from.compareTo(to) <= 0) {
+            Iterator<byte[]> rows = employees.rows(from, true, to);
+            while (rows.hasNext()) {
+                results.add(EntityCodec.decodeEmployee(rows.next()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<Employee> queryManagersOfEmployee(String employeeId) {
+        return scan(employees, EntityCodec::decodeEmployee,
+                employee -> employee instanceof Manager && containsIgnoreCase(((Manager) employee).getTeamList(), employeeId));
+    }
+
+    @Override
+    public List<Employee> queryScientistsOnProject(String projectId) {
+        return scan(employees, EntityCodec::decodeEmployee,
+                employee -> employee instanceof Scientist
+                        && containsIgnoreCase(((Scientist) employee).getProjectList(), projectId));
+    }
+
+    @Override
+    public List<Employee> queryTechniciansWithEquipment(String equipmentId) {
+        return scan(employees, EntityCodec::decodeEmployee,
+                employee -> employee instanceof Technician
+                        && containsIgnoreCase(((Technician) employee).getEquipmentHandled(), equipmentId));
+    }
+
+    @Override
+    public double[] loadSortedSalaries() {
+        List<Employee> all = loadEmployees();
+        double[] salaries = new double[all.size()];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = all.get(i).getSalary();
+        }
+        Arrays.sort(salaries);
+        return salaries;
+    }
+
+    @Override
+    public EmployeeColumns loadEmployeeColumns() {
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder(employees.size());
+        Iterator<byte[]> rows = employees.rows(null, true, null);
+        while (rows.hasNext()) {
+            builder.add(EntityCodec.decodeEmployee(rows.next()));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public List<Department> loadDepartments() {
+        return scan(departments, this::decodeDepartment, department -> true);
+    }
+
+    @Override
+    public Department loadDepartmentById(String id) {
+        return loadById(departments, id, this::decodeDepartment);
+    }
+
+    @Override
+    public KeysetCursor<Department> streamDepartments(int pageSize) {
+        return new KeysetCursor<>((afterId, limit) -> loadPage(departments, afterId, limit, this::decodeDepartment),
+                Department::getId, pageSize);
+    }
+
+    @Override
+    public int countDepartments() {
+        return departments.size();
+    }
+
+    @Override
+    public List<Project> loadProjects() {
+        return scan(projects, EntityCodec::decodeProject, project -> true);
+    }
+
+    @Override
+    public KeysetCursor<Project> streamProjects(int pageSize) {
+        return new KeysetCursor<>((afterId, limit) -> loadPage(projects, afterId, limit, EntityCodec::decodeProject),
+                Project::getId, pageSize);
+    }
+
+    @Override
+    public int countProjects() {
+        return projects.size();
+    }
+
+    @Override
+    public List<Equipment> loadEquipment() {
+        return scan(equipment, this::decodeEquipment, item -> true);
+    }
+
+    @Override
+    public Equipment loadEquipmentById(String id) {
+        return loadById(equipment, id, this::decodeEquipment);
+    }
+
+    @Override
+    public KeysetCursor<Equipment> streamEquipment(int pageSize) {
+        return new KeysetCursor<>((afterId, limit) -> loadPage(equipment, afterId, limit, this::decodeEquipment),
+                Equipment::getId, pageSize);
+    }
+
+    @Override
+    public int countEquipment() {
+        return equipment.size();
+    }
+
+    @Override
+    public void loadStatistics(StatisticsEngine statistics) {
+        long started = metrics.start();
+        statistics.rebuild(streamEmployees(PAGE_SIZE), streamDepartments(PAGE_SIZE), streamProjects(PAGE_SIZE),
+                streamEquipment(PAGE_SIZE));
+        metrics.record(metricPrefix + "loadStatistics", started, employees.size(), 0);
+    }
+
+    /**
+     * Decode the rows that match, in ID order (a full scan, like an unindexed query)
+     */
+    private <T> List<T> scan(RowTable table, Function<byte[], T> decoder, Predicate<T> filter) {
+        long started = metrics.start();
+        List<T> results = new ArrayList<>();
+        Iterator<byte[]> rows = table.rows(null, true, null);
+        while (rows.hasNext()) {
+            T entity = decoder.apply(rows.next());
+            if (filter.test(entity)) {
+                results.add(entity);
+            }
+        }
+        metrics.record(metricPrefix + "scan." + table.getName(), started, results.size(), 0);
+        return results;
+    }
+
+    private static <T> T loadById(RowTable table, String id, Function<byte[], T> decoder) {
+        if (id == null) {
+            return null;
+        }
+        byte[] row = table.get(id);
+        if (row == null) {
+            row = table.get(id.toUpperCase());
+        }
+        return row != null ? decoder.apply(row) : null;
+    }
+
+    private static <T> List<T> loadPage(RowTable table, String afterId, int limit, Function<byte[], T> decoder) {
+        List<T> page = new ArrayList<>(Math.min(limit, 10_000));
+        Iterator<byte[]> rows = table.rows(afterId == null ? "" : afterId, false, null);
+        while (page.size() < limit && rows.hasNext()) {
+            page.add(decoder.apply(rows.next()));
+        }
+        return page;
+    }
+
+    private static boolean containsIgnoreCase(List<String> values, String target) {
+        for (String value : values) {
+            if (value.equalsIgnoreCase(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package database;
+
+import java.util.Iterator;
+
+/**
+ * RowTable - one table of encoded rows (EntityCodec bytes) keyed by ID, in ID order
+ * The storage half of a RowStoreRepository: MemoryRepository keeps rows on
+ * the heap, MappedRepository in a memory-mapped file. Changes are made by
+ * one writer at a time (the repository lock); reads may run concurrently
+ * with it and always see whole rows.
+ */
+interface RowTable {
+
+    /**
+     * Tag of the table in log records and snapshots
+     */
+    byte getTag();
+
+    String getName();
+
+    /**
+     * @return a copy of the row, or null if there is none
+     */
+    byte[] get(String id);
+
+    void put(String id, byte[] row);
+
+    /**
+     * @return true if a row was removed
+     */
+    boolean remove(String id);
+
+    int size();
+
+    /**
+     * Rows with fromId <= id <= toId (exclusive lower bound if !fromInclusive) in ID order
+     * A null bound is open. The iterator is weakly consistent, like the
+     * concurrent collections: it never fails, and may or may not see changes
+     * made while it runs.
+     */
+    Iterator<byte[]> rows(String fromId, boolean fromInclusive, String toId);
+
+    /**
+     * IDs of every row, in ID order (weakly consistent)
+     */
+    Iterable<String> ids();
+
+    void clear();
+}
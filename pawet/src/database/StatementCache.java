@@ -0,0 +1,97 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache keeps prepared statements for one connection, keyed by SQL text
+ * Uses least-recently-used eviction so dynamic SQL (e.g. dirty-column UPDATEs)
+ * cannot grow the cache without bound.
+ *
+ * Not thread-safe on its own: the owning connection is only used by one
+ * thread at a time (see ConnectionPool). Counters are atomic so statistics
+ * can be read from any thread.
+ */
+public class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Constructor for StatementCache
+     */
+    public StatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true); // access order = LRU
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Return cached statement for SQL, preparing it on first use
+     * Callers must not close the returned statement.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt != null && !pstmt.isClosed()) {
+            hits.incrementAndGet();
+            pstmt.clearParameters();
+            return pstmt;
+        }
+
+        misses.incrementAndGet();
+        pstmt = connection.prepareStatement(sql);
+        statements.put(sql, pstmt);
+        evictIfNeeded();
+        return pstmt;
+    }
+
+    /**
+     * Close least-recently-used statements above the size limit
+     */
+    private void evictIfNeeded() throws SQLException {
+        Iterator<Map.Entry<String, PreparedStatement>> iterator = statements.entrySet().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            PreparedStatement eldest = iterator.next().getValue();
+            iterator.remove();
+            eldest.close();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Close all cached statements
+     */
+    public void closeAll() throws SQLException {
+        for (PreparedStatement pstmt : statements.values()) {
+            pstmt.close();
+        }
+        statements.clear();
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+}
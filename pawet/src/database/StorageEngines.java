@@ -0,0 +1,139 @@
+package database;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Project;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StorageEngines - opens a Repository from a store URL "<scheme>:<location>"
+ *
+ *   jdbc:sqlite:<file>   SQLite (DatabaseManager)
+ *   memory:              in-memory tables, nothing persisted (MemoryRepository)
+ *   wal:<directory>      in-memory tables + write-ahead log and snapshots (MemoryRepository)
+ *   mmap:<directory>     memory-mapped table files (MappedRepository)
+ *
+ * The store a program opens by default is -Dpawet.store, else
+ * jdbc:sqlite:data/pawet.db. Further engines can be added with register().
+ */
+public final class StorageEngines {
+    public static final String DEFAULT_URL = "jdbc:sqlite:data/pawet.db";
+    private static final int COPY_BATCH_SIZE = 1000;
+
+    /**
+     * Opens a store of one engine
+     */
+    public interface Engine {
+        /**
+         * @param location the URL after "<scheme>:" (empty if none)
+         */
+        Repository open(String location);
+    }
+
+    private static final Map<String, Engine> ENGINES = new LinkedHashMap<>();
+
+    static {
+        register("jdbc:sqlite", location -> new DatabaseManager("jdbc:sqlite:" + location));
+        register("memory", location -> new MemoryRepository());
+        register("wal", location -> new MemoryRepository(
+                new File(location.isEmpty() ? MemoryRepository.DEFAULT_DIRECTORY : location)));
+        register("mmap", location -> new MappedRepository(
+                new File(location.isEmpty() ? MappedRepository.DEFAULT_DIRECTORY : location)));
+    }
+
+    private StorageEngines() {
+    }
+
+    /**
+     * Add (or replace) the engine for a scheme
+     */
+    public static synchronized void register(String scheme, Engine engine) {
+        ENGINES.put(scheme, engine);
+    }
+
+    public static synchronized List<String> getSchemes() {
+        return Collections.unmodifiableList(new ArrayList<>(ENGINES.keySet()));
+    }
+
+    /**
+     * The default store URL: -Dpawet.store, else data/pawet.db
+     */
+    public static String getDefaultUrl() {
+        return System.getProperty("pawet.store", DEFAULT_URL);
+    }
+
+    /**
+     * Open the store at a URL (the longest matching scheme wins)
+     *
+     * @throws IllegalArgumentException if no engine handles the URL
+     */
+    public static Repository open(String url) {
+        Engine engine = null;
+        String location = null;
+        synchronized (StorageEngines.class) {
+            int longest = -1;
+            for (Map.Entry<String, Engine> entry : ENGINES.entrySet()) {
+                String scheme = entry.getKey();
+                if (url.startsWith(scheme + ":") && scheme.length() > longest) {
+                    longest = scheme.length();
+                    engine = entry.getValue();
+                    location = url.substring(scheme.length() + 1);
+                }
+            }
+        }
+        if (engine == null) {
+            throw new IllegalArgumentException("No storage engine for '" + url + "' (known: " + getSchemes() + ")");
+        }
+        return engine.open(location);
+    }
+
+    public static boolean isEmpty(Repository repository) {
+        return repository.countEmployees() == 0 && repository.countDepartments() == 0
+                && repository.countProjects() == 0 && repository.countEquipment() == 0;
+    }
+
+    /**
+     * Copy every row of one store into another, COPY_BATCH_SIZE rows per transaction
+     *
+     * @return number of rows copied
+     */
+    public static int copy(Repository source, Repository target) {
+        List<Runnable> batch = new ArrayList<>(COPY_BATCH_SIZE);
+        int rows = 0;
+        for (Employee employee : source.streamEmployees(COPY_BATCH_SIZE)) {
+            batch.add(() -> target.upsertEmployee(employee));
+            rows += flushIfFull(target, batch);
+        }
+        for (Department department : source.streamDepartments(COPY_BATCH_SIZE)) {
+            batch.add(() -> target.saveDepartment(department));
+            rows += flushIfFull(target, batch);
+        }
+        for (Project project : source.streamProjects(COPY_BATCH_SIZE)) {
+            batch.add(() -> target.saveProject(project));
+            rows += flushIfFull(target, batch);
+        }
+        for (Equipment item : source.streamEquipment(COPY_BATCH_SIZE)) {
+            batch.add(() -> target.saveEquipment(item));
+            rows += flushIfFull(target, batch);
+        }
+        return rows + flush(target, batch);
+    }
+
+    private static int flushIfFull(Repository target, List<Runnable> batch) {
+        return batch.size() >= COPY_BATCH_SIZE ? flush(target, batch) : 0;
+    }
+
+    private static int flush(Repository target, List<Runnable> batch) {
+        int size = batch.size();
+        target.runInTransaction(() -> batch.forEach(Runnable::run));
+        batch.clear();
+        return size;
+    }
+}
@@ -0,0 +1,53 @@
+package database;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Project;
+import utils.SyntheticDataGenerator;
+
+import java.util.List;
+
+/**
+ * SyntheticDataWriter - writes SyntheticDataGenerator output through the batch API
+ * Each chunk goes to saveEmployees/saveProjects/saveEquipmentBatch, so rows
+ * are committed in batches and the relationship join tables are filled.
+ * Expects an empty database (employee inserts are plain INSERTs).
+ */
+public class SyntheticDataWriter implements SyntheticDataGenerator.Sink {
+    private final DatabaseManager dbManager;
+    private long departments;
+    private long employees;
+    private long projects;
+    private long equipment;
+
+    public SyntheticDataWriter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    @Override
+    public void departments(List<Department> generated) {
+        departments = dbManager.saveDepartments(generated);
+    }
+
+    @Override
+    public void chunk(List<Employee> chunkEmployees, List<Project> chunkProjects, List<Equipment> chunkEquipment) {
+        employees += dbManager.saveEmployees(chunkEmployees);
+        projects += dbManager.saveProjects(chunkProjects);
+        equipment += dbManager.saveEquipmentBatch(chunkEquipment);
+        System.out.printf("→ %,d employees, %,d projects, %,d equipment written%n", employees, projects, equipment);
+    }
+
+    @Override
+    public void departmentsUpdated(List<Department> updated) {
+        // Final employee counts and department heads (INSERT OR REPLACE)
+        dbManager.saveDepartments(updated);
+    }
+
+    /**
+     * Total rows written so far
+     */
+    public long getRowsWritten() {
+        return departments + employees + projects + equipment;
+    }
+}
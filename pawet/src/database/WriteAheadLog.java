@@ -0,0 +1,384 @@
+package database;
+
+import utils.Metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog - append-only binary log of change records, in segment files
+ * Each append is one frame: [int length][int CRC32 of payload][payload]. A
+ * segment file starts with a magic number and format version; recovery reads
+ * frames until the first short or corrupt one (a write torn by a crash) and
+ * cuts the file there.
+ *
+ * Group commit: append() only copies the frame into a buffer (callers do it
+ * while holding their own lock, so frames are in change order). commit(lsn)
+ * then waits until that frame is written; the first waiting thread writes
+ * every buffered frame with one write (and one fsync), the others ride along.
+ *
+ * Fsync policy:
+ *   ALWAYS   - commit returns once the frame is fsynced (survives power loss)
+ *   INTERVAL - commit returns once the frame is written to the OS; a background
+ *              thread fsyncs every interval (a power loss can lose one interval)
+ *   NEVER    - written to the OS only; fsync on rotate and close
+ * Every policy survives a crash of the process itself.
+ */
+public class WriteAheadLog {
+    private static final int MAGIC = 0x5057414C;   // "PWAL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    public enum FsyncPolicy {
+        ALWAYS, INTERVAL, NEVER
+    }
+
+    private final File directory;
+    private final FsyncPolicy policy;
+    private final Metrics metrics = Metrics.shared();
+    private final ScheduledExecutorService syncer;
+
+    // Guarded by this
+    private FileChannel channel;
+    private long generation;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private long appended;
+    private long written;
+    private long synced;
+    private long segmentBytes;
+    private boolean writing;
+    private boolean syncing;
+    private IOException failure;
+
+    /**
+     * Open a segment for appending (created if missing, kept up to its end if present)
+     *
+     * @param fsyncIntervalMillis fsync period for the INTERVAL policy
+     */
+    public WriteAheadLog(File directory, long generation, FsyncPolicy policy, long fsyncIntervalMillis)
+            throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        openSegment(generation);
+        if (policy == FsyncPolicy.INTERVAL) {
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMillis, fsyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Segment file of a generation
+     */
+    public static File segmentFile(File directory, long generation) {
+        return new File(directory, String.format("wal-%08d.log", generation));
+    }
+
+    // ==================== APPEND AND COMMIT ====================
+
+    /**
+     * Buffer one frame (no I/O)
+     *
+     * @return log sequence number to pass to commit()
+     */
+    public synchronized long append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        writeInt(buffer, payload.length);
+        writeInt(buffer, (int) crc.getValue());
+        buffer.write(payload, 0, payload.length);
+        return ++appended;
+    }
+
+    /**
+     * Wait until frame lsn is durable under the fsync policy (group commit)
+     */
+    public void commit(long lsn) throws IOException {
+        long started = metrics.start();
+        while (true) {
+            byte[] frames;
+            long upTo;
+            synchronized (this) {
+                while (writing && !isDurable(lsn) && failure == null) {
+                    waitQuietly();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                if (isDurable(lsn)) {
+                    metrics.record("wal.commit", started);
+                    return;
+                }
+                // Become the writer for everything buffered so far
+                writing = true;
+                frames = buffer.toByteArray();
+                buffer.reset();
+                upTo = appended;
+            }
+            writeFrames(frames, upTo, policy == FsyncPolicy.ALWAYS);
+        }
+    }
+
+    private boolean isDurable(long lsn) {
+        return policy == FsyncPolicy.ALWAYS ? synced >= lsn : written >= lsn;
+    }
+
+    /**
+     * Write (and optionally fsync) frames taken from the buffer; called with writing set
+     */
+    private void writeFrames(byte[] frames, long upTo, boolean sync) {
+        IOException error = null;
+        try {
+            long started = metrics.start();
+            ByteBuffer data = ByteBuffer.wrap(frames);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            metrics.record("wal.write", started, 0, frames.length);
+            if (sync) {
+                force();
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (this) {
+            writing = false;
+            if (error != null) {
+                failure = error;
+            } else {
+                written = upTo;
+                segmentBytes += frames.length;
+                if (sync) {
+                    synced = upTo;
+                }
+            }
+            notifyAll();
+        }
+    }
+
+    private void force() throws IOException {
+        long started = metrics.start();
+        channel.force(false);
+        metrics.record("wal.fsync", started);
+    }
+
+    /**
+     * Write and fsync everything appended so far
+     * The fsync runs outside the monitor: append() and commit() carry on
+     * meanwhile, and frames written during it are left for the next sync.
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        commit(target);
+        if (policy == FsyncPolicy.ALWAYS) {
+            return;
+        }
+        long upTo;
+        synchronized (this) {
+            while (syncing) {
+                waitQuietly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (synced >= written) {
+                return;
+            }
+            // Frames up to here are written; force() makes at least those durable
+            syncing = true;
+            upTo = written;
+        }
+        IOException error = null;
+        try {
+            force();
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (this) {
+            syncing = false;
+            if (error != null) {
+                failure = error;
+            } else {
+                synced = Math.max(synced, upTo);
+            }
+            notifyAll();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            // Reported to the next commit through failure
+        }
+    }
+
+    // ==================== SEGMENTS ====================
+
+    /**
+     * Make everything so far durable and continue in a new segment
+     * Frames appended before the call end up in the old segment.
+     */
+    public synchronized void rotate(long newGeneration) throws IOException {
+        while (writing || syncing) {
+            waitQuietly();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        writing = true;
+        try {
+            byte[] frames = buffer.toByteArray();
+            buffer.reset();
+            ByteBuffer data = ByteBuffer.wrap(frames);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            force();
+            written = appended;
+            synced = appended;
+            channel.close();
+            openSegment(newGeneration);
+        } finally {
+            writing = false;
+            notifyAll();
+        }
+    }
+
+    private void openSegment(long newGeneration) throws IOException {
+        File file = segmentFile(directory, newGeneration);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION);
+            header.flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        channel.position(channel.size());
+        generation = newGeneration;
+        segmentBytes = channel.size();
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Bytes in the current segment, written or still buffered
+     */
+    public synchronized long getSegmentBytes() {
+        return segmentBytes + buffer.size();
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Write and fsync what is left, then close the segment
+     */
+    public void close() throws IOException {
+        if (syncer != null) {
+            // Not shutdownNow(): interrupting a thread inside force() closes the channel
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sync();
+        synchronized (this) {
+            channel.close();
+        }
+    }
+
+    // ==================== RECOVERY ====================
+
+    /**
+     * Hand every intact frame of a segment to the consumer, in order
+     * A short or corrupt frame ends the segment: the file is truncated there
+     * so new frames follow the last good one.
+     *
+     * @return number of frames read
+     */
+    public static long replay(File segment, Consumer<byte[]> consumer) throws IOException {
+        long frames = 0;
+        long validLength = HEADER_BYTES;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a write-ahead log segment: " + segment);
+            }
+            long fileLength = segment.length();
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                // A garbage header may claim more bytes than the file has: corrupt, not a huge frame
+                if (length < 0 || length > fileLength - validLength - FRAME_HEADER_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(payload);
+                frames++;
+                validLength += FRAME_HEADER_BYTES + length;
+            }
+        } catch (EOFException e) {
+            // Torn final frame (or a clean end): everything before it is valid
+        }
+        if (segment.length() > validLength) {
+            try (FileChannel file = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE)) {
+                file.truncate(validLength);
+                file.force(true);
+            }
+        }
+        return frames;
+    }
+
+    private void waitQuietly() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
@@ -0,0 +1,361 @@
+package database;
+
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Project;
+import utils.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * WriteBehindQueue - asynchronous, coalescing writes to a Repository
+ * Callers hand over a changed entity and return at once; one writer thread
+ * writes everything pending in a single transaction per flush. The queue
+ * holds a snapshot of the row (its EntityCodec bytes, taken in the caller's
+ * thread), keyed by table and ID, so a row changed many times before a flush
+ * is written once, in its latest state, and the queue never holds more than
+ * one entry per row. The writer thread only sees decoded copies, never the
+ * live entity; callers snapshot an entity while holding its lock.
+ *
+ * A flush starts when maxPending rows are waiting, flushIntervalMillis after
+ * the oldest pending change, on flush() (which returns once everything queued
+ * before the call is committed) and on close().
+ *
+ * Durability: a change is durable once the flush that writes it commits
+ * (SQLite WAL with synchronous=NORMAL, like write-through). If the process
+ * dies first, the changes of up to the last flushIntervalMillis are lost.
+ * Each flush is one transaction, so the database always holds the state of
+ * some flush; but as rows are coalesced, that state is not a prefix of the
+ * calls made, and another process reading the database sees changes up to
+ * one interval late. A write that fails is logged and dropped, as it is
+ * with write-through; if a flush cannot commit, its rows are written one by
+ * one. If the writer thread dies, the queue falls back to write-through.
+ * Thread-safe.
+ */
+public class WriteBehindQueue {
+    public static final int DEFAULT_MAX_PENDING = 1000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    private final Repository repository;
+    private final int maxPending;
+    private final long flushIntervalMillis;
+    private final Thread writer;
+    private final Metrics metrics = Metrics.shared();
+
+    // Guarded by this
+    private LinkedHashMap<String, Write> pending = new LinkedHashMap<>();
+    private long oldestPendingNanos;
+    private long enqueued;
+    private long flushed;
+    private boolean flushRequested;
+    private boolean closed;
+
+    /**
+     * One pending row: the encoded entity to write, or the ID of an employee to delete
+     * version orders equipment snapshots (-1 for the other kinds).
+     */
+    private static final class Write {
+        final char kind;
+        final byte[] row;
+        final String deletedEmployeeId;
+        final long version;
+
+        Write(char kind, byte[] row, String deletedEmployeeId) {
+            this(kind, row, deletedEmployeeId, -1);
+        }
+
+        Write(char kind, byte[] row, String deletedEmployeeId, long version) {
+            this.kind = kind;
+            this.row = row;
+            this.deletedEmployeeId = deletedEmployeeId;
+            this.version = version;
+        }
+    }
+
+    private static final char EMPLOYEE = 'E';
+    private static final char DELETED_EMPLOYEE = 'X';
+    private static final char DEPARTMENT = 'D';
+    private static final char PROJECT = 'P';
+    private static final char EQUIPMENT = 'Q';
+
+    /**
+     * Constructor - starts the writer thread
+     *
+     * @param maxPending pending rows that start a flush straight away
+     * @param flushIntervalMillis longest a change waits before it is flushed
+     */
+    public WriteBehindQueue(Repository repository, int maxPending, long flushIntervalMillis) {
+        if (maxPending <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Batch size and flush interval must be positive");
+        }
+        this.repository = repository;
+        this.maxPending = maxPending;
+        this.flushIntervalMillis = flushIntervalMillis;
+        metrics.gauge("db.writeBehind.pending", this::getPendingCount);
+        writer = new Thread(this::run, "write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // ==================== ENQUEUE ====================
+
+    /**
+     * Queue a new or changed employee (the whole row and its links are written)
+     * The snapshot holds every field, so the employee's dirty fields are cleared here.
+     */
+    public void saveEmployee(Employee employee) {
+        byte[] row = EntityCodec.encodeEmployee(employee);
+        employee.clearDirtyFields();
+        enqueue("employees:" + employee.getId(), new Write(EMPLOYEE, row, null));
+    }
+
+    /**
+     * Queue an employee deletion (replaces any pending write of the row)
+     */
+    public void deleteEmployee(String employeeId) {
+        enqueue("employees:" + employeeId, new Write(DELETED_EMPLOYEE, null, employeeId));
+    }
+
+    public void saveDepartment(Department department) {
+        enqueue("departments:" + department.getId(),
+                new Write(DEPARTMENT, EntityCodec.encodeDepartment(department), null));
+    }
+
+    public void saveProject(Project project) {
+        enqueue("projects:" + project.getId(), new Write(PROJECT, EntityCodec.encodeProject(project), null));
+    }
+
+    /**
+     * Queue equipment; its state changes by compare-and-set without a lock, so
+     * encode until the version holds still, and never let an older snapshot
+     * replace a newer one that was queued first
+     */
+    public void saveEquipment(Equipment equipment) {
+        byte[] row;
+        long version;
+        do {
+            version = equipment.getVersion();
+            row = EntityCodec.encodeEquipment(equipment);
+        } while (equipment.getVersion() != version);
+        enqueue("equipment:" + equipment.getId(), new Write(EQUIPMENT, row, null, version));
+    }
+
+    private void enqueue(String key, Write write) {
+        synchronized (this) {
+            if (!closed && writer.isAlive()) {
+                if (pending.isEmpty()) {
+                    oldestPendingNanos = System.nanoTime();
+                }
+                Write previous = pending.put(key, write);
+                if (previous != null) {
+                    if (previous.version > write.version) {
+                        pending.put(key, previous);
+                    }
+                    metrics.increment("db.writeBehind.coalesced", 1);
+                }
+                enqueued++;
+                if (pending.size() >= maxPending || pending.size() == 1) {
+                    notifyAll();
+                }
+                return;
+            }
+        }
+        // Closed (or the writer died): nobody will flush any more, so write through
+        applyLogged(key, write);
+    }
+
+    // ==================== FLUSH ====================
+
+    /**
+     * Write everything queued so far and wait until it is committed
+     */
+    public void flush() {
+        synchronized (this) {
+            long target = enqueued;
+            if (flushed >= target) {
+                return;
+            }
+            flushRequested = true;
+            notifyAll();
+            boolean interrupted = false;
+            while (flushed < target && writer.isAlive()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writeThroughLeftovers();
+    }
+
+    /**
+     * Flush what is pending and stop the writer thread; later writes go straight to the database
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        writeThroughLeftovers();
+    }
+
+    /**
+     * Once the writer thread is gone, write whatever it left pending from the calling thread
+     */
+    private void writeThroughLeftovers() {
+        Map<String, Write> leftovers;
+        synchronized (this) {
+            if (writer.isAlive() || pending.isEmpty()) {
+                return;
+            }
+            leftovers = pending;
+            pending = new LinkedHashMap<>();
+        }
+        System.err.println("ERROR: Write-behind thread stopped; writing " + leftovers.size() + " pending rows through");
+        for (Map.Entry<String, Write> entry : leftovers.entrySet()) {
+            applyLogged(entry.getKey(), entry.getValue());
+        }
+        synchronized (this) {
+            flushed = enqueued;
+            notifyAll();
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    /**
+     * Writer thread: wait for a trigger, take the pending rows, write them in one transaction
+     */
+    private void run() {
+        while (true) {
+            Map<String, Write> batch;
+            long upTo;
+            synchronized (this) {
+                while (!closed && !flushRequested && !dueForFlush()) {
+                    try {
+                        if (pending.isEmpty()) {
+                            wait();
+                        } else {
+                            long waitNanos = oldestPendingNanos + flushIntervalMillis * 1_000_000L - System.nanoTime();
+                            wait(Math.max(1, waitNanos / 1_000_000L));
+                        }
+                    } catch (InterruptedException e) {
+                        // Only close() stops the writer: it must not drop pending rows
+                    }
+                }
+                if (pending.isEmpty()) {
+                    flushRequested = false;
+                    flushed = enqueued;
+                    notifyAll();
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                upTo = enqueued;
+                flushRequested = false;
+            }
+
+            long started = metrics.start();
+            try {
+                if (!repository.runInTransaction(() -> {
+                    for (Map.Entry<String, Write> entry : batch.entrySet()) {
+                        applyLogged(entry.getKey(), entry.getValue());
+                    }
+                })) {
+                    writeOneByOne(batch);
+                }
+                metrics.record("db.writeBehind.flush", started, batch.size(), 0);
+            } catch (RuntimeException e) {
+                // The transaction was rolled back; the thread must survive to flush later rows
+                metrics.recordError("db.writeBehind.flush", started);
+                System.err.println("ERROR: Write-behind flush of " + batch.size() + " rows failed");
+                e.printStackTrace();
+                writeOneByOne(batch);
+            }
+
+            synchronized (this) {
+                flushed = upTo;
+                notifyAll();
+            }
+        }
+    }
+
+    private boolean dueForFlush() {
+        return pending.size() >= maxPending || (!pending.isEmpty()
+                && System.nanoTime() - oldestPendingNanos >= flushIntervalMillis * 1_000_000L);
+    }
+
+    /**
+     * A batch whose transaction could not commit: write each row on its own, so the rows that can be written are
+     */
+    private void writeOneByOne(Map<String, Write> batch) {
+        for (Map.Entry<String, Write> entry : batch.entrySet()) {
+            applyLogged(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Write one row; a failure is logged and dropped so the rest of the batch still goes out
+     */
+    private void applyLogged(String key, Write write) {
+        try {
+            apply(write);
+        } catch (RuntimeException e) {
+            metrics.increment("db.writeBehind.failed", 1);
+            System.err.println("ERROR: Write-behind failed to write " + key);
+            e.printStackTrace();
+        }
+    }
+
+    private void apply(Write write) {
+        switch (write.kind) {
+            case DELETED_EMPLOYEE:
+                repository.deleteEmployee(write.deletedEmployeeId);
+                break;
+            case EMPLOYEE:
+                repository.upsertEmployee(EntityCodec.decodeEmployee(write.row));
+                break;
+            case DEPARTMENT:
+                repository.saveDepartment(EntityCodec.decodeDepartment(write.row));
+                break;
+            case PROJECT:
+                repository.saveProject(EntityCodec.decodeProject(write.row));
+                break;
+            case EQUIPMENT:
+                repository.saveEquipment(EntityCodec.decodeEquipment(write.row));
+                break;
+            default:
+                throw new IllegalStateException("Unknown write kind: " + write.kind);
+        }
+    }
+}
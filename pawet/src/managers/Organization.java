@@ -1,46 +1,164 @@
 package managers;
 
 import models.*;
-import database.DatabaseManager;
+import database.Repository;
+import database.StorageEngines;
+import database.WriteBehindQueue;
+import utils.ChangeEvent;
+import utils.ChangeStream;
+import utils.EmployeeColumns;
+import utils.EmployeeIndex;
+import utils.LruCache;
+import utils.Metrics;
 import utils.SearchAlgorithms;
+import utils.ParallelSort;
+import utils.SalaryIndex;
 import utils.SortAlgorithms;
+import utils.StatisticsEngine;
+import utils.StripedLocks;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * Organization class - Central coordinator for PAWET-B system
  * Manages all employees, departments, projects, and equipment
  * Demonstrates Manager/Facade pattern
+ *
+ * Thread-safe, so one instance can serve many clients. Searches never lock:
+ * the indexes are concurrent maps and copy-on-write snapshots. Equipment
+ * state changes are optimistic (compare-and-set on a version, in memory and
+ * in the database). Other read-modify-write updates are serialized by striped
+ * locks keyed by the entity's ID (department headcounts, technician and
+ * scientist lists), so updates to different entities run in parallel.
+ *
+ * Writes go through to the database as they happen, or with write-behind on
+ * (startWriteBehind) to a queue that a background thread flushes in batches.
+ *
+ * Every change is also published as a ChangeEvent on getChangeStream(), once
+ * it has been written (or queued), for consumers that follow the
+ * organization instead of diffing tables. Publishing never locks or waits
+ * unless a subscription has fallen a whole buffer behind.
  */
 public class Organization {
-    private List<Employee> employees;
-    private List<Department> departments;
-    private List<Project> projects;
-    private List<Equipment> equipmentList;
-    private DatabaseManager dbManager;
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+    private static final int PAGE_SIZE = 1_000;
+    private static final int LOCK_STRIPES = 64;
+
+    // Employees live in employeeIndex; the other lists are small and rarely added to
+    private final List<Department> departments = new CopyOnWriteArrayList<>();
+    private final List<Project> projects = new CopyOnWriteArrayList<>();
+    private final List<Equipment> equipmentList = new CopyOnWriteArrayList<>();
+    private Repository repository;
+
+    // Hash indexes kept in sync with the lists above (O(1) lookups by ID)
+    private final EmployeeIndex employeeIndex = new EmployeeIndex();
+    private final ConcurrentMap<String, Department> departmentIndex = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Equipment> equipmentIndex = new ConcurrentHashMap<>();
+
+    // Write-behind queue for the database writes (null = write through)
+    private volatile WriteBehindQueue writeBehind;
+
+    // Per-entity update locks, keyed by department or employee ID
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+
+    // Lazy mode: nothing is loaded at startup, entities are read on demand
+    // and the most recently used ones are kept in bounded LRU caches
+    private final boolean lazyLoading;
+    private LruCache<Employee> employeeCache;
+    private LruCache<Department> departmentCache;
+    private LruCache<Equipment> equipmentCache;
+
+    // Aggregates for the statistics screen, updated on every change instead of
+    // recomputed; in lazy mode they are read from the database on first use
+    private final StatisticsEngine statistics = new StatisticsEngine();
+    // Held while loading them, so one caller loads and the others wait
+    private final Object statisticsLoad = new Object();
+    // Cross-check the aggregates against a full recompute after each statistics screen
+    private volatile boolean statisticsVerification = Boolean.getBoolean("pawet.stats.verify");
+
+    // Every public operation below records its latency as "org.<method>"
+    private final Metrics metrics = Metrics.shared();
+
+    // Change events (-Dpawet.cdc.capacity events kept, -Dpawet.cdc.maxBlockMs wait for slow consumers)
+    private final ChangeStream changes = new ChangeStream(
+            Integer.getInteger("pawet.cdc.capacity", ChangeStream.DEFAULT_CAPACITY),
+            Long.getLong("pawet.cdc.maxBlockMs", ChangeStream.DEFAULT_MAX_BLOCK_MILLIS));
+
+    // Lists at least this long are sorted with the fork/join ParallelSort
+    private volatile int parallelSortThreshold = ParallelSort.DEFAULT_PARALLEL_THRESHOLD;
 
     /**
      * Constructor - initializes organization and loads data from database
      */
     public Organization() {
+        this(null, false, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor - optionally in lazy mode (load on demand instead of at startup)
+     */
+    public Organization(boolean lazyLoading) {
+        this(null, lazyLoading, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor - uses the given storage (null = StorageEngines default store)
+     *
+     * @param lazyLoading load entities on demand instead of at startup
+     * @param cacheSize entities of each kind kept in memory in lazy mode
+     */
+    public Organization(Repository repository, boolean lazyLoading, int cacheSize) {
         System.out.println("\n════════════════════════════════════════════════════════");
         System.out.println("   PAWET-B ORGANIZATIONAL MANAGEMENT SYSTEM");
         System.out.println("   Pan-African Wildlife, Environment, and Tourism Bureau");
         System.out.println("════════════════════════════════════════════════════════\n");
 
-        // Initialize collections
-        employees = new ArrayList<>();
-        departments = new ArrayList<>();
-        projects = new ArrayList<>();
-        equipmentList = new ArrayList<>();
+        this.lazyLoading = lazyLoading;
+        if (lazyLoading) {
+            employeeCache = new LruCache<>(cacheSize);
+            departmentCache = new LruCache<>(cacheSize);
+            equipmentCache = new LruCache<>(cacheSize);
+        }
 
         // Initialize database
-        dbManager = new DatabaseManager();
+        this.repository = repository != null ? repository : StorageEngines.open(StorageEngines.getDefaultUrl());
+
+        registerGauges();
 
         // Load existing data
-        loadAllData();
+        if (lazyLoading) {
+            System.out.println("Lazy loading enabled (cache size " + cacheSize + ") - data loads on demand");
+            System.out.println("✓ " + this.repository.countEmployees() + " employees in database\n");
+        } else {
+            loadAllData();
+        }
+    }
+
+    /**
+     * Expose in-memory sizes and lazy cache hit rates as metrics gauges
+     */
+    private void registerGauges() {
+        metrics.gauge("org.employees.in_memory", () -> lazyLoading ? employeeCache.size() : employeeIndex.size());
+        metrics.gauge("cdc.events", changes::getNextOffset);
+        metrics.gauge("cdc.max_lag", () -> changes.getSubscriptions().stream()
+                .mapToLong(ChangeStream.Subscription::getLag).max().orElse(0));
+        if (lazyLoading) {
+            metrics.gauge("org.cache.employees.hit_rate", () -> hitRate(employeeCache));
+            metrics.gauge("org.cache.departments.hit_rate", () -> hitRate(departmentCache));
+            metrics.gauge("org.cache.equipment.hit_rate", () -> hitRate(equipmentCache));
+        }
+    }
+
+    private static double hitRate(LruCache<?> cache) {
+        long lookups = cache.getHits() + cache.getMisses();
+        return lookups > 0 ? 100.0 * cache.getHits() / lookups : 0;
     }
 
     /**
@@ -48,10 +166,12 @@ public class Organization {
      */
     private void loadAllData() {
         System.out.println("Loading data from database...");
-        employees = dbManager.loadEmployees();
-        departments = dbManager.loadDepartments();
-        projects = dbManager.loadProjects();
-        equipmentList = dbManager.loadEquipment();
+        List<Employee> employees = repository.loadEmployees();
+        departments.addAll(repository.loadDepartments());
+        projects.addAll(repository.loadProjects());
+        equipmentList.addAll(repository.loadEquipment());
+        rebuildIndexes(employees);
+        statistics.rebuild(employees, departments, projects, equipmentList);
 
         System.out.println("✓ Loaded " + employees.size() + " employees");
         System.out.println("✓ Loaded " + departments.size() + " departments");
@@ -59,6 +179,269 @@ public class Organization {
         System.out.println("✓ Loaded " + equipmentList.size() + " equipment items\n");
     }
 
+    /**
+     * Rebuild all hash indexes from the loaded lists (and report changes to the statistics)
+     */
+    private void rebuildIndexes(List<Employee> employees) {
+        employeeIndex.rebuild(employees);
+
+        departmentIndex.clear();
+        for (Department dept : departments) {
+            departmentIndex.put(indexKey(dept.getId()), dept);
+            dept.setChangeListener(statistics);
+        }
+
+        for (Project project : projects) {
+            project.setChangeListener(statistics);
+        }
+
+        equipmentIndex.clear();
+        for (Equipment eq : equipmentList) {
+            equipmentIndex.put(indexKey(eq.getId()), eq);
+            eq.setChangeListener(statistics);
+        }
+    }
+
+    /**
+     * Normalize IDs for case-insensitive index keys
+     */
+    private static String indexKey(String id) {
+        return id == null ? "" : id.toUpperCase();
+    }
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    // ==================== PERSISTENCE ====================
+    // Each change is written through, or queued while write-behind is on. The
+    // queue writes whole rows, so an update and an insert queue the same way.
+    // The queue snapshots the row at once, under the entity's lock (reentrant,
+    // so callers already holding it are fine), never halfway through a change.
+
+    private void saveEmployee(Employee employee) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            enqueueLocked(employee.getId(), () -> queue.saveEmployee(employee));
+        } else {
+            repository.saveEmployee(employee);
+        }
+    }
+
+    private void updateEmployee(Employee employee) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            enqueueLocked(employee.getId(), () -> queue.saveEmployee(employee));
+        } else {
+            repository.updateEmployee(employee);
+        }
+    }
+
+    private void deleteEmployee(String employeeId) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            queue.deleteEmployee(employeeId);
+        } else {
+            repository.deleteEmployee(employeeId);
+        }
+    }
+
+    private void saveDepartment(Department department) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            enqueueLocked(department.getId(), () -> queue.saveDepartment(department));
+        } else {
+            repository.saveDepartment(department);
+        }
+    }
+
+    private void saveDepartmentBudget(Department department) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            enqueueLocked(department.getId(), () -> queue.saveDepartment(department));
+        } else {
+            repository.updateDepartmentBudget(department.getId(), department.getBudget());
+        }
+    }
+
+    private void saveProject(Project project) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            enqueueLocked(project.getId(), () -> queue.saveProject(project));
+        } else {
+            repository.saveProject(project);
+        }
+    }
+
+    private void saveEquipment(Equipment equipment) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            queue.saveEquipment(equipment);
+        } else {
+            repository.saveEquipment(equipment);
+        }
+    }
+
+    private void enqueueLocked(String id, Runnable enqueue) {
+        locks.withLock(id, () -> {
+            enqueue.run();
+            return null;
+        });
+    }
+
+    /**
+     * Commit queued writes before reading something only the database answers
+     */
+    private void flushPendingWrites() {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            queue.flush();
+        }
+    }
+
+    // ==================== LAZY LOADING ====================
+    // Every mutation is written through to the database straight away, so an
+    // entity evicted from a cache can always be reloaded in its current state.
+
+    /**
+     * Find employee in the index (eager) or cache, then database (lazy)
+     */
+    private Employee findEmployee(String employeeId) {
+        if (!lazyLoading) {
+            return employeeIndex.getById(employeeId);
+        }
+        Employee employee = employeeCache.get(employeeId);
+        if (employee == null) {
+            employee = repository.loadEmployeeById(employeeId);
+            if (employee != null) {
+                // Another thread may have loaded it meanwhile: share its instance
+                employee = employeeCache.putIfAbsent(employee.getId(), employee);
+            }
+        }
+        return employee;
+    }
+
+    private Department findDepartment(String departmentId) {
+        if (!lazyLoading) {
+            return departmentIndex.get(indexKey(departmentId));
+        }
+        Department department = departmentCache.get(departmentId);
+        if (department == null) {
+            department = repository.loadDepartmentById(departmentId);
+            if (department != null) {
+                department.setChangeListener(statistics);
+                department = departmentCache.putIfAbsent(department.getId(), department);
+            }
+        }
+        return department;
+    }
+
+    private Equipment findEquipment(String equipmentId) {
+        if (!lazyLoading) {
+            return equipmentIndex.get(indexKey(equipmentId));
+        }
+        Equipment equipment = equipmentCache.get(equipmentId);
+        if (equipment == null) {
+            equipment = repository.loadEquipmentById(equipmentId);
+            if (equipment != null) {
+                equipment.setChangeListener(statistics);
+                equipment = equipmentCache.putIfAbsent(equipment.getId(), equipment);
+            }
+        }
+        return equipment;
+    }
+
+    /**
+     * Find a project by ID (projects have no index: a scan, or a paged database read in lazy mode)
+     */
+    private Project findProject(String projectId) {
+        for (Project project : projectSource()) {
+            if (project.getId().equalsIgnoreCase(projectId)) {
+                if (lazyLoading) {
+                    project.setChangeListener(statistics);
+                }
+                return project;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Track a newly created employee in the index, or the cache, and save it
+     */
+    private void registerEmployee(Employee employee) {
+        statisticsChange(() -> {
+            if (lazyLoading) {
+                employeeCache.put(employee.getId(), employee);
+            } else {
+                employeeIndex.add(employee);
+            }
+            statistics.employeeAdded(employee);
+            saveEmployee(employee);
+            return employee;
+        });
+    }
+
+    /**
+     * Run a change that reports to the statistics and writes to the database
+     * A lazy load of the statistics waits for it (and it for the load). Call
+     * it holding no entity lock: a change waiting here must not block one in flight.
+     */
+    private <T> T statisticsChange(Supplier<T> change) {
+        statistics.beginChange();
+        try {
+            return change.get();
+        } finally {
+            statistics.endChange();
+        }
+    }
+
+    /**
+     * All employees: an ID-ordered index snapshot, or a paged database cursor in lazy mode
+     */
+    private Iterable<Employee> employeeSource() {
+        return lazyLoading ? repository.streamEmployees(PAGE_SIZE) : employeeIndex.getSortedById();
+    }
+
+    private Iterable<Department> departmentSource() {
+        return lazyLoading ? repository.streamDepartments(PAGE_SIZE) : departments;
+    }
+
+    private Iterable<Project> projectSource() {
+        return lazyLoading ? repository.streamProjects(PAGE_SIZE) : projects;
+    }
+
+    private Iterable<Equipment> equipmentSource() {
+        return lazyLoading ? repository.streamEquipment(PAGE_SIZE) : equipmentList;
+    }
+
+    private int employeeCount() {
+        return lazyLoading ? repository.countEmployees() : employeeIndex.size();
+    }
+
+    private int departmentCount() {
+        return lazyLoading ? repository.countDepartments() : departments.size();
+    }
+
+    private int projectCount() {
+        return lazyLoading ? repository.countProjects() : projects.size();
+    }
+
+    private int equipmentCount() {
+        return lazyLoading ? repository.countEquipment() : equipmentList.size();
+    }
+
+    private static <T> List<T> toList(Iterable<T> source) {
+        if (source instanceof List) {
+            return new ArrayList<>((List<T>) source);
+        }
+        List<T> list = new ArrayList<>();
+        for (T item : source) {
+            list.add(item);
+        }
+        return list;
+    }
+
     // ==================== EMPLOYEE OPERATIONS ====================
 
     /**
@@ -67,15 +450,20 @@ public class Organization {
     public void addManager(String id, String name, String email, String phone,
                           String departmentId, String role, double salary,
                           LocalDate hireDate, double budgetAuthority) {
-        Manager manager = new Manager(id, name, email, phone, departmentId,
-                role, salary, hireDate, budgetAuthority);
-        employees.add(manager);
-        dbManager.saveEmployee(manager);
-
-        // Update department employee count
-        updateDepartmentEmployeeCount(departmentId, 1);
-
-        System.out.println("✓ Manager added successfully: " + name);
+        long started = metrics.start();
+        try {
+            Manager manager = new Manager(id, name, email, phone, departmentId,
+                    role, salary, hireDate, budgetAuthority);
+            registerEmployee(manager);
+
+            // Update department employee count
+            updateDepartmentEmployeeCount(departmentId, 1);
+            publishEmployeeChange(ChangeEvent.Type.EMPLOYEE_ADDED, manager);
+
+            System.out.println("✓ Manager added successfully: " + name);
+        } finally {
+            metrics.record("org.addManager", started);
+        }
     }
 
     /**
@@ -84,14 +472,19 @@ public class Organization {
     public void addScientist(String id, String name, String email, String phone,
                             String departmentId, String role, double salary,
                             LocalDate hireDate, String specialization) {
-        Scientist scientist = new Scientist(id, name, email, phone, departmentId,
-                role, salary, hireDate, specialization);
-        employees.add(scientist);
-        dbManager.saveEmployee(scientist);
-
-        updateDepartmentEmployeeCount(departmentId, 1);
-
-        System.out.println("✓ Scientist added successfully: " + name);
+        long started = metrics.start();
+        try {
+            Scientist scientist = new Scientist(id, name, email, phone, departmentId,
+                    role, salary, hireDate, specialization);
+            registerEmployee(scientist);
+
+            updateDepartmentEmployeeCount(departmentId, 1);
+            publishEmployeeChange(ChangeEvent.Type.EMPLOYEE_ADDED, scientist);
+
+            System.out.println("✓ Scientist added successfully: " + name);
+        } finally {
+            metrics.record("org.addScientist", started);
+        }
     }
 
     /**
@@ -100,120 +493,336 @@ public class Organization {
     public void addTechnician(String id, String name, String email, String phone,
                              String departmentId, String role, double salary,
                              LocalDate hireDate, String certifications) {
-        Technician technician = new Technician(id, name, email, phone, departmentId,
-                role, salary, hireDate, certifications);
-        employees.add(technician);
-        dbManager.saveEmployee(technician);
-
-        updateDepartmentEmployeeCount(departmentId, 1);
-
-        System.out.println("✓ Technician added successfully: " + name);
+        long started = metrics.start();
+        try {
+            Technician technician = new Technician(id, name, email, phone, departmentId,
+                    role, salary, hireDate, certifications);
+            registerEmployee(technician);
+
+            updateDepartmentEmployeeCount(departmentId, 1);
+            publishEmployeeChange(ChangeEvent.Type.EMPLOYEE_ADDED, technician);
+
+            System.out.println("✓ Technician added successfully: " + name);
+        } finally {
+            metrics.record("org.addTechnician", started);
+        }
     }
 
     /**
      * Remove employee
      */
     public boolean removeEmployee(String employeeId) {
-        Employee employee = searchEmployeeById(employeeId);
-        if (employee == null) {
-            System.out.println("❌ Employee not found: " + employeeId);
-            return false;
-        }
-
-        employees.remove(employee);
-        dbManager.deleteEmployee(employeeId);
-        updateDepartmentEmployeeCount(employee.getDepartmentId(), -1);
+        long started = metrics.start();
+        try {
+            Employee employee = lazyLoading ? findEmployee(employeeId) : employeeIndex.remove(employeeId);
+            if (employee == null) {
+                System.out.println("❌ Employee not found: " + employeeId);
+                return false;
+            }
 
-        System.out.println("✓ Employee removed: " + employee.getName());
-        return true;
+            // Cached and stored under the resolved ID, whatever case was typed
+            if (lazyLoading) {
+                employeeCache.remove(employee.getId());
+            }
+            statisticsChange(() -> {
+                deleteEmployee(employee.getId());
+                statistics.employeeRemoved(employee);
+                return employee;
+            });
+            updateDepartmentEmployeeCount(employee.getDepartmentId(), -1);
+            publishEmployeeChange(ChangeEvent.Type.EMPLOYEE_REMOVED, employee);
+
+            System.out.println("✓ Employee removed: " + employee.getName());
+            return true;
+        } finally {
+            metrics.record("org.removeEmployee", started);
+        }
     }
 
     /**
-     * Search employee by ID (uses linear search)
+     * Search employee by ID (uses hash index - O(1); cache then primary key in lazy mode)
      */
     public Employee searchEmployeeById(String employeeId) {
-        return SearchAlgorithms.linearSearchById(employees, employeeId);
+        long started = metrics.start();
+        try {
+            Employee employee = findEmployee(employeeId);
+            String lookup = lazyLoading ? "→ Cache/primary key lookup completed" : "→ Index lookup completed in 1 probe";
+            System.out.println(lookup + (employee == null ? " - Not found" : ""));
+            return employee;
+        } finally {
+            metrics.record("org.searchEmployeeById", started);
+        }
+    }
+
+    /**
+     * Search employee by ID using linear search (kept for algorithm comparison)
+     */
+    public Employee linearSearchEmployeeById(String employeeId) {
+        long started = metrics.start();
+        try {
+            return SearchAlgorithms.linearSearchById(lazyLoading ? getAllEmployees() : employeeIndex.getSortedById(), employeeId);
+        } finally {
+            metrics.record("org.linearSearchEmployeeById", started);
+        }
     }
 
     /**
-     * Search employee by ID using binary search (requires sorted list)
+     * Search employee by ID using binary search over the ID-sorted index - O(log n)
+     * (lazy mode: the primary key B-tree does the same search in the database)
      */
     public Employee binarySearchEmployeeById(String employeeId) {
-        List<Employee> sortedEmployees = SortAlgorithms.quickSortById(employees);
-        return SearchAlgorithms.binarySearchById(sortedEmployees, employeeId);
+        long started = metrics.start();
+        try {
+            if (!lazyLoading) {
+                return SearchAlgorithms.binarySearchById(employeeIndex.getSortedById(), employeeId);
+            }
+            Employee employee = repository.loadEmployeeById(employeeId);
+            System.out.println("→ Primary key (B-tree) search completed" + (employee == null ? " - Not found" : ""));
+            return employee;
+        } finally {
+            metrics.record("org.binarySearchEmployeeById", started);
+        }
     }
 
     /**
-     * Search employees by name
+     * Employees with fromId <= ID <= toId in ID order (case-insensitive) - O(log n + k)
+     */
+    public List<Employee> searchEmployeesByIdRange(String fromId, String toId) {
+        long started = metrics.start();
+        try {
+            List<Employee> results = lazyLoading
+                    ? repository.queryEmployeesByIdRange(fromId, toId)
+                    : employeeIndex.getByIdRange(fromId, toId);
+            System.out.println("→ Found " + results.size() + " employee(s) with ID between " + fromId + " and " + toId);
+            return results;
+        } finally {
+            metrics.record("org.searchEmployeesByIdRange", started);
+        }
+    }
+
+    /**
+     * Search employees by name, email, role, specialization or certifications
+     * (inverted text index, ranked; lazy mode scans names page by page)
      */
     public List<Employee> searchEmployeesByName(String name) {
-        return SearchAlgorithms.linearSearchByName(employees, name);
+        long started = metrics.start();
+        try {
+            if (!lazyLoading) {
+                long start = System.nanoTime();
+                List<Employee> results = employeeIndex.searchText(name, 0);
+                System.out.printf("→ Text index search completed in %.3f ms\n", (System.nanoTime() - start) / 1_000_000.0);
+                System.out.println("→ Found " + results.size() + " match(es)");
+                return results;
+            }
+
+            List<Employee> results = new ArrayList<>();
+            String lowerSearchTerm = name.toLowerCase();
+            long comparisons = repository.streamEmployees(PAGE_SIZE).forEachPage(page -> {
+                for (Employee employee : page) {
+                    if (employee.getName().toLowerCase().contains(lowerSearchTerm)) {
+                        results.add(employee);
+                    }
+                }
+            });
+            System.out.println("→ Linear search completed in " + comparisons + " comparison(s)");
+            System.out.println("→ Found " + results.size() + " match(es)");
+            return results;
+        } finally {
+            metrics.record("org.searchEmployeesByName", started);
+        }
     }
 
     /**
-     * Search employees by department
+     * Search employees by department (uses department index - O(k))
      */
     public List<Employee> searchEmployeesByDepartment(String departmentId) {
-        return SearchAlgorithms.searchByDepartment(employees, departmentId);
+        long started = metrics.start();
+        try {
+            List<Employee> results = lazyLoading
+                    ? repository.queryEmployeesByDepartment(departmentId)
+                    : employeeIndex.getByDepartment(departmentId);
+            System.out.println("→ Found " + results.size() + " employee(s) in department " + departmentId);
+            return results;
+        } finally {
+            metrics.record("org.searchEmployeesByDepartment", started);
+        }
     }
 
     /**
-     * Search employees by role type
+     * Search employees by role type (uses role type index - O(k))
      */
     public List<Employee> searchEmployeesByRoleType(String roleType) {
-        return SearchAlgorithms.searchByRoleType(employees, roleType);
+        long started = metrics.start();
+        try {
+            List<Employee> results = lazyLoading
+                    ? repository.queryEmployeesByRoleType(roleType)
+                    : employeeIndex.getByRoleType(roleType);
+            System.out.println("→ Found " + results.size() + " " + roleType + "(s)");
+            return results;
+        } finally {
+            metrics.record("org.searchEmployeesByRoleType", started);
+        }
     }
 
     /**
-     * Search employees by salary range
+     * Search employees by salary range, lowest salary first
+     * (salary index - O(log n + k); idx_employees_salary in lazy mode)
      */
     public List<Employee> searchEmployeesBySalaryRange(double minSalary, double maxSalary) {
-        return SearchAlgorithms.searchBySalaryRange(employees, minSalary, maxSalary);
+        long started = metrics.start();
+        try {
+            List<Employee> results = lazyLoading
+                    ? repository.queryEmployeesBySalaryRange(minSalary, maxSalary)
+                    : employeeIndex.getBySalaryRange(minSalary, maxSalary);
+            System.out.println("→ Found " + results.size() + " employee(s) earning between $" +
+                    String.format("%,.2f", minSalary) + " and $" + String.format("%,.2f", maxSalary));
+            return results;
+        } finally {
+            metrics.record("org.searchEmployeesBySalaryRange", started);
+        }
+    }
+
+    /**
+     * Find managers whose team includes an employee (join table index lookup)
+     */
+    public List<Employee> findManagersOfEmployee(String employeeId) {
+        long started = metrics.start();
+        try {
+            flushPendingWrites();
+            List<Employee> results = repository.queryManagersOfEmployee(employeeId);
+            System.out.println("→ Found " + results.size() + " manager(s) of employee " + employeeId);
+            return results;
+        } finally {
+            metrics.record("org.findManagersOfEmployee", started);
+        }
+    }
+
+    /**
+     * Find scientists working on a project (join table index lookup)
+     */
+    public List<Employee> findScientistsOnProject(String projectId) {
+        long started = metrics.start();
+        try {
+            flushPendingWrites();
+            List<Employee> results = repository.queryScientistsOnProject(projectId);
+            System.out.println("→ Found " + results.size() + " scientist(s) on project " + projectId);
+            return results;
+        } finally {
+            metrics.record("org.findScientistsOnProject", started);
+        }
+    }
+
+    /**
+     * Find technicians handling an equipment item (join table index lookup)
+     */
+    public List<Employee> findTechniciansWithEquipment(String equipmentId) {
+        long started = metrics.start();
+        try {
+            flushPendingWrites();
+            List<Employee> results = repository.queryTechniciansWithEquipment(equipmentId);
+            System.out.println("→ Found " + results.size() + " technician(s) handling equipment " + equipmentId);
+            return results;
+        } finally {
+            metrics.record("org.findTechniciansWithEquipment", started);
+        }
     }
 
     /**
      * Sort employees by name (bubble sort)
      */
     public List<Employee> sortEmployeesByNameBubble() {
-        return SortAlgorithms.bubbleSortByName(employees);
+        long started = metrics.start();
+        try {
+            return SortAlgorithms.bubbleSortByName(lazyLoading ? getAllEmployees() : employeeIndex.getSortedById());
+        } finally {
+            metrics.record("org.sortEmployeesByNameBubble", started);
+        }
     }
 
     /**
      * Sort employees by name (quick sort)
      */
     public List<Employee> sortEmployeesByNameQuick() {
-        return SortAlgorithms.quickSortByName(employees);
+        long started = metrics.start();
+        try {
+            List<Employee> source = lazyLoading ? getAllEmployees() : employeeIndex.getSortedById();
+            if (source.size() < parallelSortThreshold) {
+                return SortAlgorithms.quickSortByName(source);
+            }
+            ParallelSort sorter = ParallelSort.getDefault();
+            long start = System.nanoTime();
+            List<Employee> sorted = sorter.sortByName(source);
+            printParallelSortTime(sorter, start);
+            return sorted;
+        } finally {
+            metrics.record("org.sortEmployeesByNameQuick", started);
+        }
     }
 
     /**
      * Sort employees by salary
      */
     public List<Employee> sortEmployeesBySalary(boolean ascending) {
-        return SortAlgorithms.quickSortBySalary(employees, ascending);
+        long started = metrics.start();
+        try {
+            List<Employee> source = lazyLoading ? getAllEmployees() : employeeIndex.getSortedById();
+            if (source.size() < parallelSortThreshold) {
+                return SortAlgorithms.quickSortBySalary(source, ascending);
+            }
+            ParallelSort sorter = ParallelSort.getDefault();
+            long start = System.nanoTime();
+            List<Employee> sorted = sorter.sortBySalary(source, ascending);
+            printParallelSortTime(sorter, start);
+            return sorted;
+        } finally {
+            metrics.record("org.sortEmployeesBySalary", started);
+        }
+    }
+
+    private void printParallelSortTime(ParallelSort sorter, long start) {
+        System.out.printf("→ Parallel Sort (%d threads) completed in %.2f ms\n",
+                sorter.getParallelism(), (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * Set the list size from which sorts run in parallel (Integer.MAX_VALUE = never)
+     */
+    public void setParallelSortThreshold(int parallelSortThreshold) {
+        this.parallelSortThreshold = parallelSortThreshold;
     }
 
     /**
      * Display all employees
      */
     public void displayAllEmployees() {
-        if (employees.isEmpty()) {
-            System.out.println("\n❌ No employees in the system");
-            return;
-        }
-
-        System.out.println("\n═══════════════════════════════════════════");
-        System.out.println("ALL EMPLOYEES (" + employees.size() + " total)");
-        System.out.println("═══════════════════════════════════════════\n");
+        long started = metrics.start();
+        try {
+            int total = employeeCount();
+            if (total == 0) {
+                System.out.println("\n❌ No employees in the system");
+                return;
+            }
 
-        for (Employee employee : employees) {
-            System.out.printf("%-10s | %-25s | %-12s | %-8s | $%,10.2f\n",
-                    employee.getId(),
-                    employee.getName(),
-                    employee.getRoleType(),
-                    employee.getDepartmentId(),
-                    employee.getSalary());
+            System.out.println("\n═══════════════════════════════════════════");
+            System.out.println("ALL EMPLOYEES (" + total + " total)");
+            System.out.println("═══════════════════════════════════════════\n");
+
+            for (Employee employee : employeeSource()) {
+                System.out.printf("%-10s | %-25s | %-12s | %-8s | $%,10.2f\n",
+                        employee.getId(),
+                        employee.getName(),
+                        employee.getRoleType(),
+                        employee.getDepartmentId(),
+                        employee.getSalary());
+            }
+            System.out.println("\n═══════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displayAllEmployees", started);
         }
-        System.out.println("\n═══════════════════════════════════════════");
     }
 
     // ==================== DEPARTMENT OPERATIONS ====================
@@ -223,57 +832,123 @@ public class Organization {
      */
     public void addDepartment(String id, String name, String region,
                              double budget, String managerId) {
-        Department department = new Department(id, name, region, budget, managerId, 0);
-        departments.add(department);
-        dbManager.saveDepartment(department);
-
-        System.out.println("✓ Department added successfully: " + name);
+        long started = metrics.start();
+        try {
+            Department department = new Department(id, name, region, budget, managerId, 0);
+            department.setChangeListener(statistics);
+            statisticsChange(() -> {
+                statistics.departmentAdded(department);
+                if (lazyLoading) {
+                    departmentCache.put(id, department);
+                } else {
+                    departments.add(department);
+                    departmentIndex.put(indexKey(id), department);
+                }
+                saveDepartment(department);
+                return department;
+            });
+            changes.publish(ChangeEvent.Type.DEPARTMENT_ADDED, id, managerId, name, budget);
+
+            System.out.println("✓ Department added successfully: " + name);
+        } finally {
+            metrics.record("org.addDepartment", started);
+        }
     }
 
     /**
-     * Search department by ID
+     * Search department by ID (uses hash index - O(1))
      */
     public Department searchDepartmentById(String departmentId) {
-        return SearchAlgorithms.searchDepartmentById(departments, departmentId);
+        long started = metrics.start();
+        try {
+            return findDepartment(departmentId);
+        } finally {
+            metrics.record("org.searchDepartmentById", started);
+        }
+    }
+
+    /**
+     * Allocate part of a department's budget (only the new budget is written)
+     * Holds the department's lock through the save, like the employee count.
+     *
+     * @return false if the department is missing or its budget is smaller than the amount
+     */
+    public boolean allocateDepartmentBudget(String departmentId, double amount) {
+        long started = metrics.start();
+        try {
+            if (amount <= 0) {
+                System.out.println("\n❌ Amount must be positive");
+                return false;
+            }
+            return statisticsChange(() -> locks.withLock(departmentId, () -> {
+                Department dept = searchDepartmentById(departmentId);
+                if (dept == null) {
+                    System.out.println("\n❌ Department not found: " + departmentId);
+                    return false;
+                }
+                if (!dept.allocateBudget(amount)) {
+                    System.out.printf("%n❌ Insufficient budget: %s has $%,.2f%n", dept.getName(), dept.getBudget());
+                    return false;
+                }
+                saveDepartmentBudget(dept);
+                changes.publish(ChangeEvent.Type.BUDGET_ALLOCATED, dept.getId(), null, null, amount);
+                System.out.printf("✓ Allocated $%,.2f from %s (remaining $%,.2f)%n", amount, dept.getName(),
+                        dept.getBudget());
+                return true;
+            }));
+        } finally {
+            metrics.record("org.allocateDepartmentBudget", started);
+        }
     }
 
     /**
      * Update department employee count
+     * Holds the department's lock through the save, so concurrent updates
+     * reach the database in the order they were counted.
      */
     private void updateDepartmentEmployeeCount(String departmentId, int change) {
-        Department dept = searchDepartmentById(departmentId);
-        if (dept != null) {
-            if (change > 0) {
-                dept.incrementEmployeeCount();
-            } else if (change < 0) {
-                dept.decrementEmployeeCount();
+        locks.withLock(departmentId, () -> {
+            Department dept = searchDepartmentById(departmentId);
+            if (dept != null) {
+                if (change > 0) {
+                    dept.incrementEmployeeCount();
+                } else if (change < 0) {
+                    dept.decrementEmployeeCount();
+                }
+                saveDepartment(dept);
             }
-            dbManager.saveDepartment(dept);
-        }
+            return dept;
+        });
     }
 
     /**
      * Display all departments
      */
     public void displayAllDepartments() {
-        if (departments.isEmpty()) {
-            System.out.println("\n❌ No departments in the system");
-            return;
-        }
-
-        System.out.println("\n═══════════════════════════════════════════");
-        System.out.println("ALL DEPARTMENTS (" + departments.size() + " total)");
-        System.out.println("═══════════════════════════════════════════\n");
+        long started = metrics.start();
+        try {
+            int total = departmentCount();
+            if (total == 0) {
+                System.out.println("\n❌ No departments in the system");
+                return;
+            }
 
-        for (Department dept : departments) {
-            System.out.printf("%-8s | %-30s | %-15s | $%,12.2f | %3d employees\n",
-                    dept.getId(),
-                    dept.getName(),
-                    dept.getRegion(),
-                    dept.getBudget(),
-                    dept.getEmployeeCount());
+            System.out.println("\n═══════════════════════════════════════════");
+            System.out.println("ALL DEPARTMENTS (" + total + " total)");
+            System.out.println("═══════════════════════════════════════════\n");
+
+            for (Department dept : departmentSource()) {
+                System.out.printf("%-8s | %-30s | %-15s | $%,12.2f | %3d employees\n",
+                        dept.getId(),
+                        dept.getName(),
+                        dept.getRegion(),
+                        dept.getBudget(),
+                        dept.getEmployeeCount());
+            }
+            System.out.println("\n═══════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displayAllDepartments", started);
         }
-        System.out.println("\n═══════════════════════════════════════════");
     }
 
     // ==================== PROJECT OPERATIONS ====================
@@ -284,44 +959,102 @@ public class Organization {
     public void addProject(String id, String name, String description,
                           String departmentId, String leadScientistId,
                           double budget, LocalDate startDate, LocalDate endDate) {
-        Project project = new Project(id, name, description, departmentId,
-                leadScientistId, budget, startDate, endDate, "ACTIVE");
-        projects.add(project);
-        dbManager.saveProject(project);
+        long started = metrics.start();
+        try {
+            Project project = new Project(id, name, description, departmentId,
+                    leadScientistId, budget, startDate, endDate, "ACTIVE");
+            project.setChangeListener(statistics);
+            statisticsChange(() -> {
+                statistics.projectAdded(project);
+                if (!lazyLoading) {
+                    projects.add(project);
+                }
+                saveProject(project);
+                return project;
+            });
+            changes.publish(ChangeEvent.Type.PROJECT_ADDED, id, departmentId, project.getStatus(), budget);
+
+            // Add project to scientist's project list
+            locks.withLock(leadScientistId, () -> {
+                Employee emp = searchEmployeeById(leadScientistId);
+                if (emp instanceof Scientist) {
+                    Scientist scientist = (Scientist) emp;
+                    scientist.addProject(id);
+                    updateEmployee(scientist);
+                }
+                return emp;
+            });
 
-        // Add project to scientist's project list
-        Employee emp = searchEmployeeById(leadScientistId);
-        if (emp instanceof Scientist) {
-            Scientist scientist = (Scientist) emp;
-            scientist.addProject(id);
-            dbManager.updateEmployee(scientist);
+            System.out.println("✓ Project added successfully: " + name);
+        } finally {
+            metrics.record("org.addProject", started);
         }
+    }
 
-        System.out.println("✓ Project added successfully: " + name);
+    /**
+     * Change a project's status (ACTIVE, COMPLETED or SUSPENDED)
+     *
+     * @return false if the project is missing or the status unknown
+     */
+    public boolean changeProjectStatus(String projectId, String status) {
+        long started = metrics.start();
+        try {
+            String newStatus = status == null ? "" : status.trim().toUpperCase();
+            if (!Arrays.asList("ACTIVE", "COMPLETED", "SUSPENDED").contains(newStatus)) {
+                System.out.println("\n❌ Unknown project status: " + status + " (ACTIVE, COMPLETED or SUSPENDED)");
+                return false;
+            }
+            return statisticsChange(() -> locks.withLock(projectId, () -> {
+                Project project = findProject(projectId);
+                if (project == null) {
+                    System.out.println("\n❌ Project not found: " + projectId);
+                    return false;
+                }
+                String oldStatus = project.getStatus();
+                if (newStatus.equalsIgnoreCase(oldStatus)) {
+                    System.out.println("→ Project " + project.getName() + " is already " + newStatus);
+                    return true;
+                }
+                project.setStatus(newStatus);
+                saveProject(project);
+                changes.publish(ChangeEvent.Type.PROJECT_STATUS_CHANGED, project.getId(), project.getDepartmentId(),
+                        newStatus, 0);
+                System.out.println("✓ Project " + project.getName() + ": " + oldStatus + " → " + newStatus);
+                return true;
+            }));
+        } finally {
+            metrics.record("org.changeProjectStatus", started);
+        }
     }
 
     /**
      * Display all projects
      */
     public void displayAllProjects() {
-        if (projects.isEmpty()) {
-            System.out.println("\n❌ No projects in the system");
-            return;
-        }
-
-        System.out.println("\n═══════════════════════════════════════════");
-        System.out.println("ALL PROJECTS (" + projects.size() + " total)");
-        System.out.println("═══════════════════════════════════════════\n");
+        long started = metrics.start();
+        try {
+            int total = projectCount();
+            if (total == 0) {
+                System.out.println("\n❌ No projects in the system");
+                return;
+            }
 
-        for (Project project : projects) {
-            System.out.printf("%-8s | %-30s | %-12s | $%,10.2f | %s\n",
-                    project.getId(),
-                    project.getName(),
-                    project.getStatus(),
-                    project.getBudget(),
-                    project.getDepartmentId());
+            System.out.println("\n═══════════════════════════════════════════");
+            System.out.println("ALL PROJECTS (" + total + " total)");
+            System.out.println("═══════════════════════════════════════════\n");
+
+            for (Project project : projectSource()) {
+                System.out.printf("%-8s | %-30s | %-12s | $%,10.2f | %s\n",
+                        project.getId(),
+                        project.getName(),
+                        project.getStatus(),
+                        project.getBudget(),
+                        project.getDepartmentId());
+            }
+            System.out.println("\n═══════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displayAllProjects", started);
         }
-        System.out.println("\n═══════════════════════════════════════════");
     }
 
     // ==================== EQUIPMENT OPERATIONS ====================
@@ -331,143 +1064,554 @@ public class Organization {
      */
     public void addEquipment(String id, String name, String type, String serialNumber,
                             String departmentId, LocalDate purchaseDate) {
-        Equipment equipment = new Equipment(id, name, type, serialNumber,
-                departmentId, null, purchaseDate, "AVAILABLE");
-        equipmentList.add(equipment);
-        dbManager.saveEquipment(equipment);
-
-        System.out.println("✓ Equipment added successfully: " + name);
+        long started = metrics.start();
+        try {
+            Equipment equipment = new Equipment(id, name, type, serialNumber,
+                    departmentId, null, purchaseDate, "AVAILABLE");
+            equipment.setChangeListener(statistics);
+            statisticsChange(() -> {
+                statistics.equipmentAdded(equipment);
+                if (lazyLoading) {
+                    equipmentCache.put(id, equipment);
+                } else {
+                    equipmentList.add(equipment);
+                    equipmentIndex.put(indexKey(id), equipment);
+                }
+                saveEquipment(equipment);
+                return equipment;
+            });
+            changes.publish(ChangeEvent.Type.EQUIPMENT_ADDED, id, departmentId, equipment.getStatus(), 0, 0);
+
+            System.out.println("✓ Equipment added successfully: " + name);
+        } finally {
+            metrics.record("org.addEquipment", started);
+        }
     }
 
     /**
      * Assign equipment to technician
+     * Optimistic: the item is claimed with a compare-and-set on its version
+     * (in the database, then in memory), so concurrent callers never wait on
+     * each other and exactly one of those racing for an available item wins.
      */
     public boolean assignEquipment(String equipmentId, String technicianId) {
-        // Find equipment
-        Equipment equipment = null;
-        for (Equipment eq : equipmentList) {
-            if (eq.getId().equalsIgnoreCase(equipmentId)) {
-                equipment = eq;
-                break;
+        long started = metrics.start();
+        try {
+            // Find equipment (version first: a status read after it can only be newer)
+            Equipment equipment = findEquipment(equipmentId);
+
+            if (equipment == null) {
+                System.out.println("❌ Equipment not found: " + equipmentId);
+                return false;
+            }
+
+            long version = equipment.getVersion();
+            if (!equipment.isAvailable()) {
+                System.out.println("❌ Equipment not available: " + equipment.getName());
+                return false;
             }
+
+            // Find technician
+            Employee emp = searchEmployeeById(technicianId);
+            if (!(emp instanceof Technician)) {
+                System.out.println("❌ Employee is not a technician: " + technicianId);
+                return false;
+            }
+
+            // Assign equipment (the status change reaches the statistics through the listener)
+            if (!transitionEquipment(equipment, version, "IN_USE", emp.getId())) {
+                System.out.println("❌ Equipment was just taken or changed: " + equipment.getName());
+                return false;
+            }
+            changes.publish(ChangeEvent.Type.EQUIPMENT_ASSIGNED, equipment.getId(), emp.getId(), "IN_USE", 0,
+                    version + 1);
+
+            // The technician's list is a plain read-modify-write: lock the technician
+            Technician technician = (Technician) emp;
+            locks.withLock(technicianId, () -> {
+                technician.addEquipment(equipment.getId());
+                updateEmployee(technician);
+                return technician;
+            });
+
+            System.out.println("✓ Equipment assigned: " + equipment.getName() + " → " + technician.getName());
+            return true;
+        } finally {
+            metrics.record("org.assignEquipment", started);
         }
+    }
 
-        if (equipment == null) {
-            System.out.println("❌ Equipment not found: " + equipmentId);
-            return false;
+    /**
+     * Send equipment to maintenance (keeps the assignee, so it returns to them)
+     */
+    public boolean sendEquipmentToMaintenance(String equipmentId) {
+        long started = metrics.start();
+        try {
+            Equipment equipment = findEquipment(equipmentId);
+            if (equipment == null) {
+                System.out.println("❌ Equipment not found: " + equipmentId);
+                return false;
+            }
+            long version = equipment.getVersion();
+            String assignedToId = equipment.getAssignedToId();
+            if (!Equipment.isAllowedTransition(equipment.getStatus(), "MAINTENANCE")
+                    || !transitionEquipment(equipment, version, "MAINTENANCE", assignedToId)) {
+                System.out.println("❌ Equipment cannot go to maintenance: " + equipment.getName()
+                        + " (" + equipment.getStatus() + ")");
+                return false;
+            }
+            changes.publish(ChangeEvent.Type.EQUIPMENT_STATUS_CHANGED, equipment.getId(), assignedToId,
+                    "MAINTENANCE", 0, version + 1);
+            System.out.println("✓ Equipment sent to maintenance: " + equipment.getName());
+            return true;
+        } finally {
+            metrics.record("org.sendEquipmentToMaintenance", started);
         }
+    }
 
-        if (!equipment.isAvailable()) {
-            System.out.println("❌ Equipment not available: " + equipment.getName());
-            return false;
+    /**
+     * Return equipment from maintenance (IN_USE again if it has an assignee, else AVAILABLE)
+     */
+    public boolean returnEquipmentFromMaintenance(String equipmentId) {
+        long started = metrics.start();
+        try {
+            Equipment equipment = findEquipment(equipmentId);
+            if (equipment == null) {
+                System.out.println("❌ Equipment not found: " + equipmentId);
+                return false;
+            }
+            long version = equipment.getVersion();
+            String assignedToId = equipment.getAssignedToId();
+            String status = assignedToId != null ? "IN_USE" : "AVAILABLE";
+            if (!equipment.isInMaintenance() || !transitionEquipment(equipment, version, status, assignedToId)) {
+                System.out.println("❌ Equipment is not in maintenance: " + equipment.getName()
+                        + " (" + equipment.getStatus() + ")");
+                return false;
+            }
+            changes.publish(ChangeEvent.Type.EQUIPMENT_STATUS_CHANGED, equipment.getId(), assignedToId, status, 0,
+                    version + 1);
+            System.out.println("✓ Equipment returned from maintenance: " + equipment.getName() + " → " + status);
+            return true;
+        } finally {
+            metrics.record("org.returnEquipmentFromMaintenance", started);
         }
+    }
 
-        // Find technician
-        Employee emp = searchEmployeeById(technicianId);
-        if (!(emp instanceof Technician)) {
-            System.out.println("❌ Employee is not a technician: " + technicianId);
-            return false;
+    /**
+     * Retire equipment (final; it is taken off its technician's list)
+     */
+    public boolean retireEquipment(String equipmentId) {
+        long started = metrics.start();
+        try {
+            Equipment equipment = findEquipment(equipmentId);
+            if (equipment == null) {
+                System.out.println("❌ Equipment not found: " + equipmentId);
+                return false;
+            }
+            long version = equipment.getVersion();
+            String assignedToId = equipment.getAssignedToId();
+            if (!Equipment.isAllowedTransition(equipment.getStatus(), "RETIRED")
+                    || !transitionEquipment(equipment, version, "RETIRED", null)) {
+                System.out.println("❌ Equipment cannot be retired: " + equipment.getName()
+                        + " (" + equipment.getStatus() + ")");
+                return false;
+            }
+            changes.publish(ChangeEvent.Type.EQUIPMENT_RETIRED, equipment.getId(), assignedToId, "RETIRED", 0,
+                    version + 1);
+
+            if (assignedToId != null) {
+                locks.withLock(assignedToId, () -> {
+                    Employee emp = findEmployee(assignedToId);
+                    if (emp instanceof Technician) {
+                        ((Technician) emp).removeEquipment(equipment.getId());
+                        updateEmployee(emp);
+                    }
+                    return emp;
+                });
+            }
+            System.out.println("✓ Equipment retired: " + equipment.getName());
+            return true;
+        } finally {
+            metrics.record("org.retireEquipment", started);
         }
+    }
 
-        // Assign equipment
-        Technician technician = (Technician) emp;
-        equipment.assign(technicianId);
-        technician.addEquipment(equipmentId);
+    private void publishEmployeeChange(ChangeEvent.Type type, Employee employee) {
+        changes.publish(type, employee.getId(), employee.getDepartmentId(), employee.getRoleType(),
+                employee.getSalary());
+    }
 
-        dbManager.saveEquipment(equipment);
-        dbManager.updateEmployee(technician);
+    /**
+     * Compare-and-set an equipment state change against the version the caller read
+     * The database row decides (UPDATE ... WHERE version = ?), so the change is
+     * also safe against other processes; the in-memory item then follows.
+     * With write-behind on, the in-memory item decides and the row is queued.
+     *
+     * @return false if the item changed since expectedVersion was read
+     */
+    private boolean transitionEquipment(Equipment equipment, long expectedVersion,
+                                        String newStatus, String assignedToId) {
+        return statisticsChange(() -> compareAndSetEquipment(equipment, expectedVersion, newStatus, assignedToId));
+    }
 
-        System.out.println("✓ Equipment assigned: " + equipment.getName() + " → " + technician.getName());
+    private boolean compareAndSetEquipment(Equipment equipment, long expectedVersion,
+                                           String newStatus, String assignedToId) {
+        // Fail fast without touching the database when memory already moved on
+        if (equipment.getVersion() != expectedVersion) {
+            metrics.increment("org.equipment.conflicts", 1);
+            return false;
+        }
+        // Never store a state the lifecycle does not allow
+        if (!equipment.canTransition(expectedVersion, newStatus, assignedToId)) {
+            return false;
+        }
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            // Writes are queued, so memory is the record: claim the item there, persist it later
+            if (!equipment.tryTransition(expectedVersion, newStatus, assignedToId)) {
+                metrics.increment("org.equipment.conflicts", 1);
+                return false;
+            }
+            queue.saveEquipment(equipment);
+            return true;
+        }
+        if (!repository.compareAndSetEquipmentState(equipment.getId(), expectedVersion, newStatus, assignedToId)) {
+            metrics.increment("org.equipment.conflicts", 1);
+            refreshEquipment(equipment);
+            return false;
+        }
+        if (!equipment.tryTransition(expectedVersion, newStatus, assignedToId)) {
+            // Another process's change was loaded in between: catch up with the row
+            refreshEquipment(equipment);
+        }
         return true;
     }
 
     /**
-     * Display all equipment
+     * Catch an in-memory item up with its row (a no-op unless the row is newer)
      */
-    public void displayAllEquipment() {
-        if (equipmentList.isEmpty()) {
-            System.out.println("\n❌ No equipment in the system");
-            return;
+    private void refreshEquipment(Equipment equipment) {
+        Equipment stored = repository.loadEquipmentById(equipment.getId());
+        if (stored != null) {
+            equipment.reload(stored.getStatus(), stored.getAssignedToId(), stored.getVersion());
         }
+    }
 
-        System.out.println("\n═══════════════════════════════════════════");
-        System.out.println("ALL EQUIPMENT (" + equipmentList.size() + " total)");
-        System.out.println("═══════════════════════════════════════════\n");
+    /**
+     * Display all equipment
+     */
+    public void displayAllEquipment() {
+        long started = metrics.start();
+        try {
+            int total = equipmentCount();
+            if (total == 0) {
+                System.out.println("\n❌ No equipment in the system");
+                return;
+            }
 
-        for (Equipment eq : equipmentList) {
-            System.out.printf("%-8s | %-25s | %-15s | %-12s | %s\n",
-                    eq.getId(),
-                    eq.getName(),
-                    eq.getType(),
-                    eq.getStatus(),
-                    eq.getAssignedToId() != null ? eq.getAssignedToId() : "Not assigned");
+            System.out.println("\n═══════════════════════════════════════════");
+            System.out.println("ALL EQUIPMENT (" + total + " total)");
+            System.out.println("═══════════════════════════════════════════\n");
+
+            for (Equipment eq : equipmentSource()) {
+                System.out.printf("%-8s | %-25s | %-15s | %-12s | %s\n",
+                        eq.getId(),
+                        eq.getName(),
+                        eq.getType(),
+                        eq.getStatus(),
+                        eq.getAssignedToId() != null ? eq.getAssignedToId() : "Not assigned");
+            }
+            System.out.println("\n═══════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displayAllEquipment", started);
         }
-        System.out.println("\n═══════════════════════════════════════════");
     }
 
     // ==================== REPORTING ====================
 
     /**
-     * Display system statistics
+     * Display system statistics - O(1) reads from the incrementally maintained aggregates
+     * (O(departments) for the per-department lines)
      */
     public void displaySystemStatistics() {
-        System.out.println("\n════════════════════════════════════════════════════════");
-        System.out.println("PAWET-B SYSTEM STATISTICS");
-        System.out.println("════════════════════════════════════════════════════════\n");
+        long started = metrics.start();
+        try {
+            StatisticsEngine stats = statistics();
+
+            System.out.println("\n════════════════════════════════════════════════════════");
+            System.out.println("PAWET-B SYSTEM STATISTICS");
+            System.out.println("════════════════════════════════════════════════════════\n");
+
+            System.out.println("PERSONNEL:");
+            System.out.println("  Total Employees: " + stats.getEmployeeCount());
+            System.out.println("  - Managers: " + stats.getEmployeeCount("MANAGER"));
+            System.out.println("  - Scientists: " + stats.getEmployeeCount("SCIENTIST"));
+            System.out.println("  - Technicians: " + stats.getEmployeeCount("TECHNICIAN"));
+            System.out.println("  Total Payroll: $" + String.format("%,.2f", stats.getTotalPayroll()));
+            if (stats.getEmployeeCount() > 0) {
+                System.out.println("  Average Salary: $" + String.format("%,.2f", stats.getAverageSalary()));
+            }
+
+            System.out.println("\nORGANIZATION:");
+            System.out.println("  Total Departments: " + stats.getDepartmentCount());
+            System.out.println("  Total Budget: $" + String.format("%,.2f", stats.getTotalBudget()));
+            for (StatisticsEngine.DepartmentTotals dept : stats.getAllDepartmentTotals()) {
+                if (dept.isRegistered() || dept.getEmployeeCount() > 0) {
+                    System.out.printf("  - %-8s %6d employees | payroll $%,14.2f | budget $%,14.2f%s\n",
+                            dept.getDepartmentId(), dept.getEmployeeCount(), dept.getPayroll(), dept.getBudget(),
+                            dept.isRegistered() ? "" : " (no such department)");
+                }
+            }
+
+            System.out.println("\nPROJECTS:");
+            System.out.println("  Total Projects: " + stats.getProjectCount());
+            System.out.println("  Active Projects: " + stats.getProjectCount("ACTIVE"));
+            System.out.println("  Completed: " + stats.getProjectCount("COMPLETED"));
+            System.out.println("  Suspended: " + stats.getProjectCount("SUSPENDED"));
+            System.out.println("  Total Project Budget: $" + String.format("%,.2f", stats.getTotalProjectBudget()));
+
+            System.out.println("\nEQUIPMENT:");
+            System.out.println("  Total Equipment: " + stats.getEquipmentCount());
+            System.out.println("  Available: " + stats.getEquipmentCount("AVAILABLE"));
+            System.out.println("  In Use: " + stats.getEquipmentCount("IN_USE"));
+            System.out.println("  Maintenance: " + stats.getEquipmentCount("MAINTENANCE"));
+            System.out.println("  Retired: " + stats.getEquipmentCount("RETIRED"));
+
+            System.out.println("\n════════════════════════════════════════════════════════\n");
+
+            if (statisticsVerification) {
+                verifyStatistics();
+            }
+        } finally {
+            metrics.record("org.displaySystemStatistics", started);
+        }
+    }
+
+    /**
+     * The aggregates, loaded from database GROUP BY queries on first use in lazy mode
+     */
+    private StatisticsEngine statistics() {
+        synchronized (statisticsLoad) {
+            if (!statistics.isLoaded()) {
+                long start = System.nanoTime();
+                // A change running meanwhile could reach both the GROUP BY and the events, or neither
+                statistics.pauseChanges();
+                try {
+                    flushPendingWrites();
+                    repository.loadStatistics(statistics);
+                } finally {
+                    statistics.resumeChanges();
+                }
+                System.out.printf("→ Statistics loaded from database aggregates in %.2f ms\n",
+                        (System.nanoTime() - start) / 1_000_000.0);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Cross-check the incremental aggregates against a full recompute over every entity
+     *
+     * @return true if every aggregate matches
+     */
+    public boolean verifyStatistics() {
+        long started = metrics.start();
+        try {
+            StatisticsEngine incremental = statistics();
+            long start = System.nanoTime();
+            StatisticsEngine recomputed = new StatisticsEngine();
+            recomputed.rebuild(employeeSource(), departmentSource(), projectSource(), equipmentSource());
+            List<String> differences = incremental.differences(recomputed);
+            double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            if (differences.isEmpty()) {
+                System.out.printf("✓ Statistics verified: all aggregates match a full recompute (%.2f ms)\n", elapsedMs);
+                return true;
+            }
+            System.out.println("❌ Statistics mismatch (" + differences.size() + " aggregate(s) differ from a full recompute):");
+            for (String difference : differences) {
+                System.out.println("  - " + difference);
+            }
+            return false;
+        } finally {
+            metrics.record("org.verifyStatistics", started);
+        }
+    }
 
-        // Employee statistics
-        int managerCount = 0;
-        int scientistCount = 0;
-        int technicianCount = 0;
-        double totalSalary = 0;
+    public boolean isStatisticsVerification() {
+        return statisticsVerification;
+    }
 
-        for (Employee emp : employees) {
-            if (emp instanceof Manager) managerCount++;
-            else if (emp instanceof Scientist) scientistCount++;
-            else if (emp instanceof Technician) technicianCount++;
-            totalSalary += emp.getSalary();
+    /**
+     * Verify the aggregates after every statistics screen (also -Dpawet.stats.verify=true)
+     */
+    public void setStatisticsVerification(boolean statisticsVerification) {
+        this.statisticsVerification = statisticsVerification;
+    }
+
+    /**
+     * Columnar snapshot of the employees for analytics (read straight from
+     * the database in lazy mode, without building Employee objects)
+     */
+    public EmployeeColumns getEmployeeColumns() {
+        long started = metrics.start();
+        try {
+            return lazyLoading ? repository.loadEmployeeColumns() : EmployeeColumns.of(employeeIndex.getSortedById());
+        } finally {
+            metrics.record("org.getEmployeeColumns", started);
         }
+    }
 
-        System.out.println("PERSONNEL:");
-        System.out.println("  Total Employees: " + employees.size());
-        System.out.println("  - Managers: " + managerCount);
-        System.out.println("  - Scientists: " + scientistCount);
-        System.out.println("  - Technicians: " + technicianCount);
-        System.out.println("  Total Payroll: $" + String.format("%,.2f", totalSalary));
-        if (employees.size() > 0) {
-            System.out.println("  Average Salary: $" + String.format("%,.2f", totalSalary / employees.size()));
+    /**
+     * Display payroll and headcount per department and role type (columnar group-by)
+     */
+    public void displayPayrollByDepartmentAndRole() {
+        long started = metrics.start();
+        try {
+            long start = System.nanoTime();
+            EmployeeColumns columns = getEmployeeColumns();
+            double buildMs = (System.nanoTime() - start) / 1_000_000.0;
+            if (columns.size() == 0) {
+                System.out.println("\n❌ No employees in the system");
+                return;
+            }
+
+            start = System.nanoTime();
+            int[] headcount = columns.countByDepartment();
+            double[] payroll = columns.payrollByDepartment();
+            double[][] byRole = columns.payrollByDepartmentAndRoleType();
+            double groupMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            System.out.println("\n═══════════════════════════════════════════");
+            System.out.println("PAYROLL BY DEPARTMENT AND ROLE (" + columns.size() + " employees)");
+            System.out.println("═══════════════════════════════════════════\n");
+            System.out.printf("%-8s %8s %16s", "Dept", "Staff", "Payroll");
+            for (int role = 0; role < columns.getRoleTypeCount(); role++) {
+                System.out.printf(" %16s", columns.getRoleType(role));
+            }
+            System.out.println();
+            for (int dept = 0; dept < columns.getDepartmentCount(); dept++) {
+                System.out.printf("%-8s %8d %,16.2f", columns.getDepartment(dept), headcount[dept], payroll[dept]);
+                for (double amount : byRole[dept]) {
+                    System.out.printf(" %,16.2f", amount);
+                }
+                System.out.println();
+            }
+            System.out.printf("\n→ Columnar snapshot built in %.2f ms (%,d bytes), grouped in %.3f ms\n",
+                    buildMs, columns.estimatedBytes(), groupMs);
+            System.out.println("═══════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displayPayrollByDepartmentAndRole", started);
         }
+    }
 
-        // Department statistics
-        System.out.println("\nORGANIZATION:");
-        System.out.println("  Total Departments: " + departments.size());
+    /**
+     * Salary index: a snapshot of the in-memory one, or a salary-only one read
+     * from the database in lazy mode
+     */
+    private SalaryIndex salaryIndex() {
+        return lazyLoading
+                ? SalaryIndex.ofSortedSalaries(repository.loadSortedSalaries())
+                : employeeIndex.getSalaryIndex().snapshot();
+    }
 
-        double totalBudget = 0;
-        for (Department dept : departments) {
-            totalBudget += dept.getBudget();
+    /**
+     * Number of employees earning between minSalary and maxSalary (inclusive)
+     */
+    public int countEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        long started = metrics.start();
+        try {
+            if (lazyLoading) {
+                flushPendingWrites();
+                return repository.countEmployeesBySalaryRange(minSalary, maxSalary);
+            }
+            return employeeIndex.getSalaryIndex().countInRange(minSalary, maxSalary);
+        } finally {
+            metrics.record("org.countEmployeesBySalaryRange", started);
         }
-        System.out.println("  Total Budget: $" + String.format("%,.2f", totalBudget));
+    }
 
-        // Project statistics
-        int activeProjects = 0;
-        for (Project project : projects) {
-            if (project.isActive()) activeProjects++;
+    /**
+     * Salary at a percentile (0-100, nearest rank), NaN if there are no employees
+     */
+    public double getSalaryPercentile(double percentile) {
+        long started = metrics.start();
+        try {
+            return salaryIndex().percentile(percentile);
+        } finally {
+            metrics.record("org.getSalaryPercentile", started);
         }
-        System.out.println("\nPROJECTS:");
-        System.out.println("  Total Projects: " + projects.size());
-        System.out.println("  Active Projects: " + activeProjects);
+    }
 
-        // Equipment statistics
-        int availableEquipment = 0;
-        for (Equipment eq : equipmentList) {
-            if (eq.isAvailable()) availableEquipment++;
+    /**
+     * Display salary percentiles and a histogram
+     */
+    public void displaySalaryDistribution(int buckets) {
+        long started = metrics.start();
+        try {
+            SalaryIndex index = salaryIndex();
+            if (index.size() == 0) {
+                System.out.println("\n❌ No employees in the system");
+                return;
+            }
+
+            System.out.println("\n════════════════════════════════════════════════════════");
+            System.out.println("SALARY DISTRIBUTION (" + index.size() + " employees)");
+            System.out.println("════════════════════════════════════════════════════════\n");
+            System.out.printf("  Min: $%,.2f   Max: $%,.2f\n", index.getMinSalary(), index.getMaxSalary());
+            for (double percentile : new double[]{10, 25, 50, 75, 90, 99}) {
+                System.out.printf("  p%-3.0f $%,12.2f\n", percentile, index.percentile(percentile));
+            }
+
+            double[] boundaries = index.equalWidthBoundaries(buckets);
+            int[] counts = index.histogram(boundaries);
+            int largest = 1;
+            for (int count : counts) {
+                largest = Math.max(largest, count);
+            }
+            System.out.println();
+            for (int i = 0; i < counts.length; i++) {
+                int bar = (int) Math.round(40.0 * counts[i] / largest);
+                System.out.printf("  $%,10.0f - $%,10.0f | %-40s %d\n",
+                        boundaries[i], boundaries[i + 1], repeat('#', bar), counts[i]);
+            }
+            System.out.println("\n════════════════════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displaySalaryDistribution", started);
         }
-        System.out.println("\nEQUIPMENT:");
-        System.out.println("  Total Equipment: " + equipmentList.size());
-        System.out.println("  Available: " + availableEquipment);
-        System.out.println("  In Use: " + (equipmentList.size() - availableEquipment));
+    }
+
+    private static String repeat(char c, int times) {
+        char[] chars = new char[times];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
 
-        System.out.println("\n════════════════════════════════════════════════════════\n");
+    /**
+     * Display storage statistics (connection pool or write-ahead log) and lazy cache statistics
+     */
+    public void displayDatabaseStatistics() {
+        long started = metrics.start();
+        try {
+            repository.displayStorageStatistics();
+
+            if (lazyLoading) {
+                System.out.println("\nLAZY LOADING CACHES:");
+                displayCacheStatistics("Employees", employeeCache);
+                displayCacheStatistics("Departments", departmentCache);
+                displayCacheStatistics("Equipment", equipmentCache);
+            }
+        } finally {
+            metrics.record("org.displayDatabaseStatistics", started);
+        }
+    }
+
+    private static void displayCacheStatistics(String label, LruCache<?> cache) {
+        long lookups = cache.getHits() + cache.getMisses();
+        System.out.printf("  %-12s %,d/%,d cached | Hits: %,d | Misses: %,d | Evictions: %,d%s%n",
+                label + ":", cache.size(), cache.getCapacity(), cache.getHits(), cache.getMisses(),
+                cache.getEvictions(),
+                lookups > 0 ? String.format(" | Hit Rate: %.1f%%", cache.getHits() * 100.0 / lookups) : "");
     }
 
     // ==================== UTILITY METHODS ====================
@@ -476,55 +1620,188 @@ public class Organization {
      * Generate next employee ID
      */
     public String generateNextEmployeeId(String roleType) {
-        String prefix = roleType.substring(0, 1); // M, S, or T
-        int maxNum = 0;
-
-        for (Employee emp : employees) {
-            if (emp.getId().startsWith(prefix)) {
-                try {
-                    int num = Integer.parseInt(emp.getId().substring(1));
-                    if (num > maxNum) maxNum = num;
-                } catch (NumberFormatException e) {
-                    // Skip invalid IDs
-                }
-            }
+        long started = metrics.start();
+        try {
+            String prefix = roleType.substring(0, 1); // M, S, or T
+            int maxNum = lazyLoading
+                    ? repository.getMaxEmployeeNumber(prefix.charAt(0))
+                    : employeeIndex.getMaxIdNumber(prefix.charAt(0));
+
+            return prefix + String.format("%03d", maxNum + 1);
+        } finally {
+            metrics.record("org.generateNextEmployeeId", started);
         }
-
-        return prefix + String.format("%03d", maxNum + 1);
     }
 
     /**
      * Get all employees
      */
     public List<Employee> getAllEmployees() {
-        return new ArrayList<>(employees);
+        long started = metrics.start();
+        try {
+            return toList(employeeSource());
+        } finally {
+            metrics.record("org.getAllEmployees", started);
+        }
     }
 
     /**
      * Get all departments
      */
     public List<Department> getAllDepartments() {
-        return new ArrayList<>(departments);
+        long started = metrics.start();
+        try {
+            return toList(departmentSource());
+        } finally {
+            metrics.record("org.getAllDepartments", started);
+        }
     }
 
     /**
      * Get all projects
      */
     public List<Project> getAllProjects() {
-        return new ArrayList<>(projects);
+        long started = metrics.start();
+        try {
+            return toList(projectSource());
+        } finally {
+            metrics.record("org.getAllProjects", started);
+        }
     }
 
     /**
      * Get all equipment
      */
     public List<Equipment> getAllEquipment() {
-        return new ArrayList<>(equipmentList);
+        long started = metrics.start();
+        try {
+            return toList(equipmentSource());
+        } finally {
+            metrics.record("org.getAllEquipment", started);
+        }
+    }
+
+    // ==================== CHANGE EVENTS ====================
+
+    /**
+     * Stream of the changes made through this organization (see ChangeEvent)
+     */
+    public ChangeStream getChangeStream() {
+        return changes;
+    }
+
+    /**
+     * Display the last change events and the subscriptions following the stream
+     */
+    public void displayRecentChanges(int count) {
+        long started = metrics.start();
+        try {
+            long next = changes.getNextOffset();
+            System.out.println("\n═══════════════════════════════════════════");
+            System.out.println("CHANGE EVENTS (" + next + " published)");
+            System.out.println("═══════════════════════════════════════════");
+            if (next == 0) {
+                System.out.println("  No changes since startup");
+            } else {
+                List<ChangeEvent> events = readRecentChanges(count);
+                if (events == null) {
+                    System.out.println("  ❌ Changes are arriving too fast to display - try again");
+                } else {
+                    for (ChangeEvent event : events) {
+                        System.out.println("  " + event);
+                    }
+                }
+            }
+            for (ChangeStream.Subscription subscription : changes.getSubscriptions()) {
+                System.out.printf("  Subscription %-12s at offset %,d (%,d behind)%n", subscription.getName(),
+                        subscription.getOffset(), subscription.getLag());
+            }
+            System.out.println("═══════════════════════════════════════════");
+        } finally {
+            metrics.record("org.displayRecentChanges", started);
+        }
+    }
+
+    /**
+     * The last count events, or null if the stream overwrote them twice while they were read
+     * Producers may wrap past the start offset between getOldestOffset and
+     * subscribe (IllegalArgumentException) or poll (IllegalStateException),
+     * so one retry starts again from the new oldest offset.
+     */
+    private List<ChangeEvent> readRecentChanges(int count) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            long from = Math.max(changes.getOldestOffset(), changes.getNextOffset() - count);
+            try (ChangeStream.Subscription reader = changes.subscribe("display", from)) {
+                return reader.poll(count);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                metrics.increment("org.displayRecentChanges.retries", 1);
+            }
+        }
+        return null;
     }
 
+    // ==================== WRITE-BEHIND ====================
+
     /**
-     * Close database connection
+     * Queue database writes for a background thread instead of writing through
+     * Changes apply in memory at once and reach the database in batched
+     * transactions when maxPending rows are waiting, after flushIntervalMillis,
+     * on flushWrites() or on closeDatabase(); a crash loses the changes not yet
+     * flushed (see WriteBehindQueue). Equipment state changes are then decided
+     * in memory, so only this process may write to the database.
+     * Eager mode only: lazy mode reloads evicted entities from the database.
+     *
+     * @return false if write-behind cannot be used (lazy mode)
+     */
+    public synchronized boolean startWriteBehind(int maxPending, long flushIntervalMillis) {
+        if (lazyLoading) {
+            System.out.println("❌ Write-behind needs eager loading; writing through to the database");
+            return false;
+        }
+        stopWriteBehind();
+        writeBehind = new WriteBehindQueue(repository, maxPending, flushIntervalMillis);
+        System.out.println("✓ Write-behind enabled (flush every " + maxPending + " rows or "
+                + flushIntervalMillis + " ms)");
+        return true;
+    }
+
+    /**
+     * Flush the queue and go back to writing through
+     */
+    public synchronized void stopWriteBehind() {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            writeBehind = null;
+            queue.close();
+        }
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind != null;
+    }
+
+    /**
+     * Wait until every queued write is committed (no-op when writing through)
+     */
+    public void flushWrites() {
+        long started = metrics.start();
+        try {
+            flushPendingWrites();
+        } finally {
+            metrics.record("org.flushWrites", started);
+        }
+    }
+
+    /**
+     * Close database connection (after flushing queued writes)
      */
     public void closeDatabase() {
-        dbManager.close();
+        long started = metrics.start();
+        try {
+            stopWriteBehind();
+            repository.close();
+        } finally {
+            metrics.record("org.closeDatabase", started);
+        }
     }
 }
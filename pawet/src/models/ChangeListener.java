@@ -0,0 +1,25 @@
+package models;
+
+/**
+ * ChangeListener interface - notified when a department, project or piece of
+ * equipment changes state, so aggregates kept elsewhere (e.g. the statistics
+ * engine) can be updated without rescanning every entity
+ *
+ * Called after the change has been applied; the old value is passed in
+ * (equipment also passes the new status, as concurrent transitions may
+ * already have moved it on). All methods default to doing nothing.
+ */
+public interface ChangeListener {
+
+    default void departmentBudgetChanged(Department department, double oldBudget) {
+    }
+
+    default void projectStatusChanged(Project project, String oldStatus) {
+    }
+
+    default void projectBudgetChanged(Project project, double oldBudget) {
+    }
+
+    default void equipmentStatusChanged(Equipment equipment, String oldStatus, String newStatus) {
+    }
+}
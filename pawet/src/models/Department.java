@@ -10,6 +10,7 @@ public class Department {
     private double budget;
     private String managerId;
     private int employeeCount;
+    private ChangeListener changeListener;
 
     /**
      * Constructor for Department
@@ -50,7 +51,7 @@ public class Department {
      */
     public boolean allocateBudget(double amount) {
         if (hasBudgetAvailable(amount)) {
-            budget -= amount;
+            changeBudget(budget - amount);
             return true;
         }
         return false;
@@ -61,7 +62,7 @@ public class Department {
      */
     public void addBudget(double amount) {
         if (amount > 0) {
-            budget += amount;
+            changeBudget(budget + amount);
         }
     }
 
@@ -81,6 +82,24 @@ public class Department {
         }
     }
 
+    /**
+     * Set budget and notify the change listener
+     */
+    private void changeBudget(double newBudget) {
+        double oldBudget = budget;
+        this.budget = newBudget;
+        if (changeListener != null) {
+            changeListener.departmentBudgetChanged(this, oldBudget);
+        }
+    }
+
+    /**
+     * Listener notified of budget changes (null = none)
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -112,7 +131,7 @@ public class Department {
 
     public void setBudget(double budget) {
         if (budget >= 0) {
-            this.budget = budget;
+            changeBudget(budget);
         }
     }
 
@@ -1,12 +1,25 @@
 package models;
 
+import utils.StringPool;
+
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Abstract base class representing all PAWET-B employees
  * Demonstrates Abstraction and Encapsulation principles
  */
 public abstract class Employee {
+    /**
+     * Updatable fields, used for dirty tracking so only changed columns are written
+     */
+    public enum Field {
+        NAME, EMAIL, PHONE, DEPARTMENT_ID, ROLE, SALARY, HIRE_DATE,
+        SPECIALIZATION, PROJECT_LIST, TEAM_LIST, BUDGET_AUTHORITY,
+        EQUIPMENT_LIST, CERTIFICATIONS
+    }
+
     // Private fields (Encapsulation)
     private String id;
     private String name;
@@ -17,6 +30,9 @@ public abstract class Employee {
     private double salary;
     private LocalDate hireDate;
 
+    // Fields changed since the last save/load
+    private final Set<Field> dirtyFields = EnumSet.noneOf(Field.class);
+
     /**
      * Constructor for Employee
      */
@@ -26,8 +42,9 @@ public abstract class Employee {
         this.name = name;
         this.email = email;
         this.phone = phone;
-        this.departmentId = departmentId;
-        this.role = role;
+        // Repeated across many rows: share one instance per value
+        this.departmentId = StringPool.shared().canonical(departmentId);
+        this.role = StringPool.shared().canonical(role);
         this.salary = salary;
         this.hireDate = hireDate;
     }
@@ -58,6 +75,7 @@ public abstract class Employee {
 
     public void setName(String name) {
         this.name = name;
+        markDirty(Field.NAME);
     }
 
     public String getEmail() {
@@ -66,6 +84,7 @@ public abstract class Employee {
 
     public void setEmail(String email) {
         this.email = email;
+        markDirty(Field.EMAIL);
     }
 
     public String getPhone() {
@@ -74,6 +93,7 @@ public abstract class Employee {
 
     public void setPhone(String phone) {
         this.phone = phone;
+        markDirty(Field.PHONE);
     }
 
     public String getDepartmentId() {
@@ -81,7 +101,8 @@ public abstract class Employee {
     }
 
     public void setDepartmentId(String departmentId) {
-        this.departmentId = departmentId;
+        this.departmentId = StringPool.shared().canonical(departmentId);
+        markDirty(Field.DEPARTMENT_ID);
     }
 
     public String getRole() {
@@ -89,7 +110,8 @@ public abstract class Employee {
     }
 
     public void setRole(String role) {
-        this.role = role;
+        this.role = StringPool.shared().canonical(role);
+        markDirty(Field.ROLE);
     }
 
     public double getSalary() {
@@ -99,6 +121,7 @@ public abstract class Employee {
     public void setSalary(double salary) {
         if (salary >= 0) {
             this.salary = salary;
+            markDirty(Field.SALARY);
         }
     }
 
@@ -108,6 +131,34 @@ public abstract class Employee {
 
     public void setHireDate(LocalDate hireDate) {
         this.hireDate = hireDate;
+        markDirty(Field.HIRE_DATE);
+    }
+
+    // Dirty tracking
+
+    /**
+     * Record that a field changed and needs to be written on next update
+     */
+    protected void markDirty(Field field) {
+        dirtyFields.add(field);
+    }
+
+    /**
+     * Fields changed since the last save (copy)
+     */
+    public Set<Field> getDirtyFields() {
+        return dirtyFields.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(dirtyFields);
+    }
+
+    public boolean isDirty() {
+        return !dirtyFields.isEmpty();
+    }
+
+    /**
+     * Mark all fields as persisted (called after a successful save/update)
+     */
+    public void clearDirtyFields() {
+        dirtyFields.clear();
     }
 
     /**
@@ -1,9 +1,28 @@
 package models;
 
+import utils.StringPool;
+
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Equipment class representing physical assets and tools used in PAWET-B operations
+ *
+ * Lifecycle: AVAILABLE -> IN_USE -> MAINTENANCE -> RETIRED, with the way back
+ * from IN_USE and MAINTENANCE (unassign, return from maintenance); RETIRED is
+ * final (see TRANSITIONS). IN_USE needs a technician, AVAILABLE and RETIRED
+ * must have none, and no other status exists. Status, assignee and a version number
+ * change together as one immutable state swapped by compare-and-set, so
+ * concurrent callers never lock: tryTransition() fails for every caller but
+ * one that saw the same version. The equipment table stores the version too,
+ * and DatabaseManager.compareAndSetEquipmentState() applies the same check.
  */
 public class Equipment {
     private String id;
@@ -11,9 +30,41 @@ public class Equipment {
     private String type;
     private String serialNumber;
     private String departmentId;
-    private String assignedToId;
     private LocalDate purchaseDate;
-    private String status;  // AVAILABLE, IN_USE, MAINTENANCE, RETIRED
+    private final AtomicReference<State> state;
+    private ChangeListener changeListener;
+
+    /**
+     * Status -> statuses it may move to (staying put is allowed, e.g. to reassign)
+     */
+    private static final Map<String, Set<String>> TRANSITIONS = new HashMap<>();
+
+    static {
+        TRANSITIONS.put("AVAILABLE", statuses("AVAILABLE", "IN_USE", "MAINTENANCE", "RETIRED"));
+        TRANSITIONS.put("IN_USE", statuses("IN_USE", "AVAILABLE", "MAINTENANCE", "RETIRED"));
+        TRANSITIONS.put("MAINTENANCE", statuses("MAINTENANCE", "AVAILABLE", "IN_USE", "RETIRED"));
+        TRANSITIONS.put("RETIRED", Collections.<String>emptySet());
+    }
+
+    private static Set<String> statuses(String... statuses) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(statuses)));
+    }
+
+    /**
+     * Status (AVAILABLE, IN_USE, MAINTENANCE, RETIRED), assignee and version,
+     * never modified once created
+     */
+    private static final class State {
+        final String status;
+        final String assignedToId;
+        final long version;
+
+        State(String status, String assignedToId, long version) {
+            this.status = StringPool.shared().canonical(status);
+            this.assignedToId = assignedToId;
+            this.version = version;
+        }
+    }
 
     /**
      * Constructor for Equipment
@@ -21,14 +72,22 @@ public class Equipment {
     public Equipment(String id, String name, String type, String serialNumber,
                     String departmentId, String assignedToId, LocalDate purchaseDate,
                     String status) {
+        this(id, name, type, serialNumber, departmentId, assignedToId, purchaseDate, status, 0);
+    }
+
+    /**
+     * Constructor for Equipment with a stored version
+     */
+    public Equipment(String id, String name, String type, String serialNumber,
+                    String departmentId, String assignedToId, LocalDate purchaseDate,
+                    String status, long version) {
         this.id = id;
         this.name = name;
-        this.type = type;
+        this.type = StringPool.shared().canonical(type);
         this.serialNumber = serialNumber;
-        this.departmentId = departmentId;
-        this.assignedToId = assignedToId;
+        this.departmentId = StringPool.shared().canonical(departmentId);
         this.purchaseDate = purchaseDate;
-        this.status = status;
+        this.state = new AtomicReference<>(new State(status, assignedToId, version));
     }
 
     /**
@@ -41,10 +100,11 @@ public class Equipment {
         System.out.println("Type: " + type);
         System.out.println("Serial Number: " + serialNumber);
         System.out.println("Department ID: " + departmentId);
-        System.out.println("Assigned To: " + (assignedToId != null ? assignedToId : "Not assigned"));
+        State current = state.get();
+        System.out.println("Assigned To: " + (current.assignedToId != null ? current.assignedToId : "Not assigned"));
         System.out.println("Purchase Date: " + purchaseDate);
         System.out.println("Age: " + getAgeYears() + " years");
-        System.out.println("Status: " + status);
+        System.out.println("Status: " + current.status + " (version " + current.version + ")");
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
     }
 
@@ -52,21 +112,21 @@ public class Equipment {
      * Check if equipment is available
      */
     public boolean isAvailable() {
-        return "AVAILABLE".equalsIgnoreCase(status);
+        return "AVAILABLE".equalsIgnoreCase(state.get().status);
     }
 
     /**
      * Check if equipment is in use
      */
     public boolean isInUse() {
-        return "IN_USE".equalsIgnoreCase(status);
+        return "IN_USE".equalsIgnoreCase(state.get().status);
     }
 
     /**
      * Check if equipment is in maintenance
      */
     public boolean isInMaintenance() {
-        return "MAINTENANCE".equalsIgnoreCase(status);
+        return "MAINTENANCE".equalsIgnoreCase(state.get().status);
     }
 
     /**
@@ -80,38 +140,171 @@ public class Equipment {
      * Assign equipment to technician
      */
     public void assign(String technicianId) {
-        this.assignedToId = technicianId;
-        this.status = "IN_USE";
+        changeState("IN_USE", technicianId);
     }
 
     /**
      * Unassign equipment
      */
     public void unassign() {
-        this.assignedToId = null;
-        this.status = "AVAILABLE";
+        changeState("AVAILABLE", null);
     }
 
     /**
-     * Send equipment to maintenance
+     * Send equipment to maintenance (keeps the assignee)
      */
     public void sendToMaintenance() {
-        this.status = "MAINTENANCE";
+        while (true) {
+            State current = state.get();
+            if (apply(current, "MAINTENANCE", current.assignedToId)) {
+                return;
+            }
+        }
     }
 
     /**
      * Return equipment from maintenance
      */
     public void returnFromMaintenance() {
-        this.status = assignedToId != null ? "IN_USE" : "AVAILABLE";
+        while (true) {
+            State current = state.get();
+            String status = current.assignedToId != null ? "IN_USE" : "AVAILABLE";
+            if (apply(current, status, current.assignedToId)) {
+                return;
+            }
+        }
     }
 
     /**
      * Retire equipment
      */
     public void retire() {
-        this.status = "RETIRED";
-        this.assignedToId = null;
+        changeState("RETIRED", null);
+    }
+
+    // ==================== VERSIONED STATE ====================
+
+    /**
+     * Whether the lifecycle allows moving from one status to another
+     * (false for an unknown status; RETIRED is final, so an item is retired once)
+     */
+    public static boolean isAllowedTransition(String fromStatus, String toStatus) {
+        if (fromStatus == null || toStatus == null) {
+            return false;
+        }
+        Set<String> targets = TRANSITIONS.get(fromStatus.toUpperCase(Locale.ROOT));
+        return targets != null && targets.contains(toStatus.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Whether an item may be in a status with an assignee
+     * (IN_USE needs one, AVAILABLE and RETIRED must have none, MAINTENANCE keeps either)
+     */
+    public static boolean isValidState(String status, String assignedToId) {
+        if (status == null || !TRANSITIONS.containsKey(status.toUpperCase(Locale.ROOT))) {
+            return false;
+        }
+        switch (status.toUpperCase(Locale.ROOT)) {
+            case "IN_USE":
+                return assignedToId != null;
+            case "AVAILABLE":
+            case "RETIRED":
+                return assignedToId == null;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Whether tryTransition() would accept the change right now
+     * (checked before the database compare-and-set, so no impossible state is stored)
+     */
+    public boolean canTransition(long expectedVersion, String newStatus, String newAssignedToId) {
+        State current = state.get();
+        return current.version == expectedVersion && allowed(current, newStatus, newAssignedToId);
+    }
+
+    /**
+     * Compare-and-set transition: applied only if the version is still expectedVersion
+     *
+     * @return true if this call made the change (the version is now expectedVersion + 1);
+     *         false if the version moved on or the transition is not allowed
+     */
+    public boolean tryTransition(long expectedVersion, String newStatus, String newAssignedToId) {
+        State current = state.get();
+        if (current.version != expectedVersion || !allowed(current, newStatus, newAssignedToId)) {
+            return false;
+        }
+        return apply(current, newStatus, newAssignedToId);
+    }
+
+    /**
+     * Catch up with a newer stored state (e.g. one written by another process)
+     * Older or equal versions are ignored, so a late reload never undoes a change.
+     */
+    public void reload(String storedStatus, String storedAssignedToId, long storedVersion) {
+        while (true) {
+            State current = state.get();
+            if (current.version >= storedVersion) {
+                return;
+            }
+            State next = new State(storedStatus, storedAssignedToId, storedVersion);
+            if (state.compareAndSet(current, next)) {
+                notifyStatusChanged(current.status, next.status);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Unconditional change for single-threaded callers: retries until it wins a race
+     *
+     * @throws IllegalStateException if the lifecycle does not allow it
+     */
+    private void changeState(String newStatus, String newAssignedToId) {
+        while (true) {
+            if (apply(state.get(), newStatus, newAssignedToId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swap current for the next version; false if another change got in first
+     */
+    private boolean apply(State current, String newStatus, String newAssignedToId) {
+        if (!allowed(current, newStatus, newAssignedToId)) {
+            throw new IllegalStateException("Equipment " + id + " cannot go from " + current.status + " to "
+                    + newStatus + (newAssignedToId != null ? " assigned to " + newAssignedToId : " without a technician"));
+        }
+        State next = new State(newStatus, newAssignedToId, current.version + 1);
+        if (!state.compareAndSet(current, next)) {
+            return false;
+        }
+        notifyStatusChanged(current.status, next.status);
+        return true;
+    }
+
+    private static boolean allowed(State current, String newStatus, String newAssignedToId) {
+        return isAllowedTransition(current.status, newStatus) && isValidState(newStatus, newAssignedToId);
+    }
+
+    /**
+     * Notify the change listener (old and new are passed, since another
+     * thread may already have moved the equipment on)
+     */
+    private void notifyStatusChanged(String oldStatus, String newStatus) {
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.equipmentStatusChanged(this, oldStatus, newStatus);
+        }
+    }
+
+    /**
+     * Listener notified of status changes (null = none)
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
     }
 
     // Getters and Setters
@@ -136,7 +329,7 @@ public class Equipment {
     }
 
     public void setType(String type) {
-        this.type = type;
+        this.type = StringPool.shared().canonical(type);
     }
 
     public String getSerialNumber() {
@@ -152,15 +345,20 @@ public class Equipment {
     }
 
     public void setDepartmentId(String departmentId) {
-        this.departmentId = departmentId;
+        this.departmentId = StringPool.shared().canonical(departmentId);
     }
 
     public String getAssignedToId() {
-        return assignedToId;
+        return state.get().assignedToId;
     }
 
     public void setAssignedToId(String assignedToId) {
-        this.assignedToId = assignedToId;
+        while (true) {
+            State current = state.get();
+            if (apply(current, current.status, assignedToId)) {
+                return;
+            }
+        }
     }
 
     public LocalDate getPurchaseDate() {
@@ -172,11 +370,23 @@ public class Equipment {
     }
 
     public String getStatus() {
-        return status;
+        return state.get().status;
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        while (true) {
+            State current = state.get();
+            if (apply(current, status, current.assignedToId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Incremented by every status or assignee change
+     */
+    public long getVersion() {
+        return state.get().version;
     }
 
     /**
@@ -184,8 +394,9 @@ public class Equipment {
      */
     @Override
     public String toString() {
+        State current = state.get();
         return String.format("%s|%s|%s|%s|%s|%s|%s|%s",
                 id, name, type, serialNumber, departmentId,
-                assignedToId != null ? assignedToId : "", purchaseDate, status);
+                current.assignedToId != null ? current.assignedToId : "", purchaseDate, current.status);
     }
 }
@@ -65,6 +65,7 @@ public class Manager extends Employee {
     public void addTeamMember(String employeeId) {
         if (!teamList.contains(employeeId)) {
             teamList.add(employeeId);
+            markDirty(Field.TEAM_LIST);
         }
     }
 
@@ -72,7 +73,9 @@ public class Manager extends Employee {
      * Remove team member
      */
     public void removeTeamMember(String employeeId) {
-        teamList.remove(employeeId);
+        if (teamList.remove(employeeId)) {
+            markDirty(Field.TEAM_LIST);
+        }
     }
 
     /**
@@ -96,6 +99,7 @@ public class Manager extends Employee {
 
     public void setTeamList(List<String> teamList) {
         this.teamList = teamList != null ? new ArrayList<>(teamList) : new ArrayList<>();
+        markDirty(Field.TEAM_LIST);
     }
 
     public double getBudgetAuthority() {
@@ -105,6 +109,7 @@ public class Manager extends Employee {
     public void setBudgetAuthority(double budgetAuthority) {
         if (budgetAuthority >= 0) {
             this.budgetAuthority = budgetAuthority;
+            markDirty(Field.BUDGET_AUTHORITY);
         }
     }
 
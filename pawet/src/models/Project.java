@@ -1,5 +1,7 @@
 package models;
 
+import utils.StringPool;
+
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
@@ -16,6 +18,7 @@ public class Project {
     private LocalDate startDate;
     private LocalDate endDate;
     private String status;  // ACTIVE, COMPLETED, SUSPENDED
+    private ChangeListener changeListener;
 
     /**
      * Constructor for Project
@@ -26,12 +29,12 @@ public class Project {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.departmentId = departmentId;
+        this.departmentId = StringPool.shared().canonical(departmentId);
         this.leadScientistId = leadScientistId;
         this.budget = budget;
         this.startDate = startDate;
         this.endDate = endDate;
-        this.status = status;
+        this.status = StringPool.shared().canonical(status);
     }
 
     /**
@@ -95,21 +98,39 @@ public class Project {
      * Complete project
      */
     public void complete() {
-        this.status = "COMPLETED";
+        changeStatus("COMPLETED");
     }
 
     /**
      * Suspend project
      */
     public void suspend() {
-        this.status = "SUSPENDED";
+        changeStatus("SUSPENDED");
     }
 
     /**
      * Reactivate project
      */
     public void reactivate() {
-        this.status = "ACTIVE";
+        changeStatus("ACTIVE");
+    }
+
+    /**
+     * Set status and notify the change listener
+     */
+    private void changeStatus(String newStatus) {
+        String oldStatus = status;
+        this.status = StringPool.shared().canonical(newStatus);
+        if (changeListener != null) {
+            changeListener.projectStatusChanged(this, oldStatus);
+        }
+    }
+
+    /**
+     * Listener notified of status and budget changes (null = none)
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
     }
 
     // Getters and Setters
@@ -142,7 +163,7 @@ public class Project {
     }
 
     public void setDepartmentId(String departmentId) {
-        this.departmentId = departmentId;
+        this.departmentId = StringPool.shared().canonical(departmentId);
     }
 
     public String getLeadScientistId() {
@@ -159,7 +180,11 @@ public class Project {
 
     public void setBudget(double budget) {
         if (budget >= 0) {
+            double oldBudget = this.budget;
             this.budget = budget;
+            if (changeListener != null) {
+                changeListener.projectBudgetChanged(this, oldBudget);
+            }
         }
     }
 
@@ -184,7 +209,7 @@ public class Project {
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        changeStatus(status);
     }
 
     /**
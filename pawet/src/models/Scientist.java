@@ -65,6 +65,7 @@ public class Scientist extends Employee {
     public void addProject(String projectId) {
         if (!projectList.contains(projectId)) {
             projectList.add(projectId);
+            markDirty(Field.PROJECT_LIST);
         }
     }
 
@@ -72,7 +73,9 @@ public class Scientist extends Employee {
      * Remove project from scientist's portfolio
      */
     public void removeProject(String projectId) {
-        projectList.remove(projectId);
+        if (projectList.remove(projectId)) {
+            markDirty(Field.PROJECT_LIST);
+        }
     }
 
     /**
@@ -96,6 +99,7 @@ public class Scientist extends Employee {
 
     public void setSpecialization(String specialization) {
         this.specialization = specialization;
+        markDirty(Field.SPECIALIZATION);
     }
 
     public List<String> getProjectList() {
@@ -104,6 +108,7 @@ public class Scientist extends Employee {
 
     public void setProjectList(List<String> projectList) {
         this.projectList = projectList != null ? new ArrayList<>(projectList) : new ArrayList<>();
+        markDirty(Field.PROJECT_LIST);
     }
 
     /**
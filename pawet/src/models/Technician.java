@@ -65,6 +65,7 @@ public class Technician extends Employee {
     public void addEquipment(String equipmentId) {
         if (!equipmentHandled.contains(equipmentId)) {
             equipmentHandled.add(equipmentId);
+            markDirty(Field.EQUIPMENT_LIST);
         }
     }
 
@@ -72,7 +73,9 @@ public class Technician extends Employee {
      * Remove equipment from technician's responsibility
      */
     public void removeEquipment(String equipmentId) {
-        equipmentHandled.remove(equipmentId);
+        if (equipmentHandled.remove(equipmentId)) {
+            markDirty(Field.EQUIPMENT_LIST);
+        }
     }
 
     /**
@@ -103,6 +106,7 @@ public class Technician extends Employee {
 
     public void setEquipmentHandled(List<String> equipmentHandled) {
         this.equipmentHandled = equipmentHandled != null ? new ArrayList<>(equipmentHandled) : new ArrayList<>();
+        markDirty(Field.EQUIPMENT_LIST);
     }
 
     public String getCertifications() {
@@ -111,6 +115,7 @@ public class Technician extends Employee {
 
     public void setCertifications(String certifications) {
         this.certifications = certifications;
+        markDirty(Field.CERTIFICATIONS);
     }
 
     /**
@@ -0,0 +1,131 @@
+package utils;
+
+import java.time.Instant;
+
+/**
+ * ChangeEvent - one change to the organization, as published on a ChangeStream
+ * Immutable. The offset is the event's position in the stream (0, 1, 2, ...
+ * per process). What the other fields hold depends on the type:
+ *
+ *   Type                      entityId    relatedId        value        amount
+ *   EMPLOYEE_ADDED / REMOVED  employee    department       role type    salary
+ *   DEPARTMENT_ADDED          department  manager          name         budget
+ *   BUDGET_ALLOCATED          department  -                -            amount allocated
+ *   PROJECT_ADDED             project     department       ACTIVE       budget
+ *   PROJECT_STATUS_CHANGED    project     department       new status   -
+ *   EQUIPMENT_ADDED           equipment   department       AVAILABLE    -
+ *   EQUIPMENT_ASSIGNED        equipment   technician       IN_USE       -
+ *   EQUIPMENT_STATUS_CHANGED  equipment   assignee         new status   -
+ *   EQUIPMENT_RETIRED         equipment   former assignee  RETIRED      -
+ *
+ * Events of one department, employee or project are in stream order. An
+ * equipment item changes lock-free, so two of its transitions racing on
+ * different threads may be published in either order: its events carry the
+ * item's version after the change, which consumers order them by.
+ */
+public final class ChangeEvent {
+
+    public enum Type {
+        EMPLOYEE_ADDED,
+        EMPLOYEE_REMOVED,
+        DEPARTMENT_ADDED,
+        BUDGET_ALLOCATED,
+        PROJECT_ADDED,
+        PROJECT_STATUS_CHANGED,
+        EQUIPMENT_ADDED,
+        EQUIPMENT_ASSIGNED,
+        EQUIPMENT_STATUS_CHANGED,
+        EQUIPMENT_RETIRED
+    }
+
+    private final long offset;
+    private final long timestampMillis;
+    private final Type type;
+    private final String entityId;
+    private final String relatedId;
+    private final String value;
+    private final double amount;
+    private final long version;
+
+    /**
+     * Constructor for ChangeEvent (offsets are assigned by ChangeStream.publish)
+     */
+    ChangeEvent(long offset, long timestampMillis, Type type, String entityId, String relatedId,
+                String value, double amount, long version) {
+        this.offset = offset;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.entityId = entityId;
+        this.relatedId = relatedId;
+        this.value = value;
+        this.amount = amount;
+        this.version = version;
+    }
+
+    /**
+     * One JSON object, e.g. for a line of a change log
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"offset\":").append(offset)
+                .append(",\"timestamp\":\"").append(Instant.ofEpochMilli(timestampMillis)).append('"')
+                .append(",\"type\":\"").append(type).append('"')
+                .append(",\"entityId\":").append(quote(entityId))
+                .append(",\"relatedId\":").append(quote(relatedId))
+                .append(",\"value\":").append(quote(value))
+                .append(",\"amount\":").append(amount);
+        if (version > 0) {
+            json.append(",\"version\":").append(version);
+        }
+        return json.append('}').toString();
+    }
+
+    private static String quote(String text) {
+        return text == null ? "null" : "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    // Getters
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public String getRelatedId() {
+        return relatedId;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Version of an equipment item after the change (0 for other entities)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s %s%s%s%s", offset, type, entityId,
+                relatedId != null ? " -> " + relatedId : "",
+                value != null ? " [" + value + "]" : "",
+                amount != 0 ? String.format(" $%,.2f", amount) : "");
+    }
+}
@@ -0,0 +1,107 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChangeLogWriter - a ChangeStream consumer that appends every event to a file, one JSON object per line
+ * Runs on its own daemon thread ("cdc-log"), reading the stream in batches
+ * and flushing the file once per batch, so a downstream system can tail
+ * the file. close() writes what has been published so far, then stops.
+ */
+public final class ChangeLogWriter implements AutoCloseable {
+    private static final int BATCH_SIZE = 1_000;
+    private static final long POLL_MILLIS = 100;
+
+    private final String file;
+    private final ChangeStream.Subscription subscription;
+    private final Writer out;
+    private final Thread thread;
+    private final Metrics metrics = Metrics.shared();
+    private volatile boolean running = true;
+    private long written;
+
+    /**
+     * Start appending the events of a stream from an offset to a file
+     */
+    public ChangeLogWriter(ChangeStream stream, long fromOffset, String file) throws IOException {
+        this.file = file;
+        this.out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+        this.subscription = stream.subscribe("cdc-log", fromOffset);
+        this.thread = new Thread(this::run, "cdc-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                writeBatch(POLL_MILLIS);
+            }
+            // Drain what was published before close()
+            while (writeBatch(0) > 0) {
+                // keep going
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("ERROR: Change log " + file + " stopped");
+            e.printStackTrace();
+        } finally {
+            subscription.close();
+        }
+    }
+
+    private int writeBatch(long waitMillis) throws IOException {
+        long started = metrics.start();
+        int count;
+        try {
+            count = subscription.poll(BATCH_SIZE, waitMillis, TimeUnit.MILLISECONDS, event -> {
+                try {
+                    out.write(event.toJson());
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (count > 0) {
+            out.flush();
+            written += count;
+            metrics.record("cdc.log.batch", started, count, 0);
+        }
+        return count;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public ChangeStream.Subscription getSubscription() {
+        return subscription;
+    }
+
+    /**
+     * Write the remaining events, stop the thread and close the file
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+            out.close();
+            System.out.println("✓ Change log " + file + " closed (" + written + " events written)");
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to close change log " + file);
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * ChangeStream - an ordered stream of ChangeEvents in a bounded lock-free ring buffer
+ * Organization publishes one event per change; downstream consumers (payroll,
+ * inventory, a change log) subscribe from an offset and read in batches,
+ * instead of diffing whole tables.
+ *
+ * Publishing never takes a lock: a producer claims the next offset with one
+ * atomic increment and stores the event in its slot (offset mod capacity).
+ * Consumers are not woken - they poll, and a blocking poll parks briefly
+ * between attempts - so publishing costs the same with or without them.
+ *
+ * Backpressure: a slot is only reused once every subscription has read the
+ * event in it. A producer a full buffer ahead of the slowest subscription
+ * waits (spin, yield, then park) for it to catch up. A subscription that
+ * keeps a producer waiting longer than maxBlockMillis is detached
+ * ("overrun"): the mutation path never stalls behind a dead consumer for
+ * longer than that. An overrun subscription fails its next poll and has to
+ * subscribe again, from an offset still in the buffer.
+ *
+ * The stream lives in memory: offsets start at 0 in every process, and only
+ * the last capacity events can be read by a new subscription.
+ */
+public final class ChangeStream {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final long DEFAULT_MAX_BLOCK_MILLIS = 1000;
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    private final int capacity;
+    private final int mask;
+    private final long maxBlockNanos;
+    private final AtomicReferenceArray<ChangeEvent> slots;
+    // Next offset to claim
+    private final AtomicLong nextOffset = new AtomicLong();
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // Lowest offset a subscription still has to read, as last computed: only ever stale low
+    private volatile long gatingOffset = Long.MAX_VALUE;
+    private final Metrics metrics = Metrics.shared();
+
+    /**
+     * Constructor for ChangeStream
+     *
+     * @param capacity events kept (rounded up to a power of two)
+     * @param maxBlockMillis longest a producer waits for a slow subscription before detaching it
+     */
+    public ChangeStream(int capacity, long maxBlockMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    // ==================== PUBLISHING ====================
+
+    /**
+     * Append an event (see ChangeEvent for what each type puts in which field)
+     *
+     * @return the event's offset
+     */
+    public long publish(ChangeEvent.Type type, String entityId, String relatedId, String value, double amount) {
+        return publish(type, entityId, relatedId, value, amount, 0);
+    }
+
+    /**
+     * Append an event of a versioned entity (equipment)
+     *
+     * @return the event's offset
+     */
+    public long publish(ChangeEvent.Type type, String entityId, String relatedId, String value, double amount,
+                        long version) {
+        long offset = nextOffset.getAndIncrement();
+        if (offset - capacity >= gatingOffset) {
+            awaitSlot(offset);
+        }
+        ChangeEvent event = new ChangeEvent(offset, System.currentTimeMillis(), type, entityId, relatedId,
+                value, amount, version);
+        int index = (int) offset & mask;
+        while (true) {
+            ChangeEvent previous = slots.get(index);
+            // With no subscription to hold them back, producers a lap apart may
+            // finish out of order: the later lap's event stays
+            if (previous != null && previous.getOffset() > offset) {
+                break;
+            }
+            if (slots.compareAndSet(index, previous, event)) {
+                break;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Wait until every subscription has read the event a lap before offset
+     */
+    private void awaitSlot(long offset) {
+        long limit = offset - capacity;
+        long deadline = System.nanoTime() + maxBlockNanos;
+        int attempts = 0;
+        while (limit >= (gatingOffset = lowestSubscribedOffset())) {
+            if (attempts == 0) {
+                metrics.increment("cdc.backpressure", 1);
+            }
+            if (System.nanoTime() - deadline > 0) {
+                detachSubscriptionsAt(limit);
+            } else if (attempts < SPINS) {
+                attempts++;
+            } else if (attempts < SPINS + YIELDS) {
+                attempts++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    private long lowestSubscribedOffset() {
+        long lowest = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions) {
+            lowest = Math.min(lowest, subscription.offset);
+        }
+        return lowest;
+    }
+
+    /**
+     * Detach every subscription that has not read past offset
+     */
+    private void detachSubscriptionsAt(long offset) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.offset <= offset && subscriptions.remove(subscription)) {
+                subscription.overrun = true;
+                metrics.increment("cdc.overruns", 1);
+                System.err.println("ERROR: Change stream subscription '" + subscription.name + "' was "
+                        + (nextOffset.get() - subscription.offset) + " events behind for "
+                        + TimeUnit.NANOSECONDS.toMillis(maxBlockNanos) + " ms - detached");
+            }
+        }
+    }
+
+    // ==================== SUBSCRIBING ====================
+
+    /**
+     * Subscribe from an offset: getOldestOffset() for everything still kept,
+     * getNextOffset() for new events only
+     *
+     * @throws IllegalArgumentException if the offset is no longer (or not yet) in the stream
+     */
+    public Subscription subscribe(String name, long fromOffset) {
+        long next = nextOffset.get();
+        if (fromOffset < Math.max(0, next - capacity) || fromOffset > next) {
+            throw new IllegalArgumentException("Offset " + fromOffset + " is not in the stream (available: "
+                    + Math.max(0, next - capacity) + ".." + next + ")");
+        }
+        Subscription subscription = new Subscription(name, fromOffset);
+        subscriptions.add(subscription);
+        // Hold producers back from here on; one that got past the old gate
+        // meanwhile shows up as an overrun on the first poll
+        gatingOffset = Math.min(gatingOffset, fromOffset);
+        return subscription;
+    }
+
+    /**
+     * Offset the next published event gets
+     */
+    public long getNextOffset() {
+        return nextOffset.get();
+    }
+
+    /**
+     * Oldest offset a new subscription can start from
+     */
+    public long getOldestOffset() {
+        return Math.max(0, nextOffset.get() - capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return new ArrayList<>(subscriptions);
+    }
+
+    /**
+     * A consumer's position in the stream; used by one consumer thread at a time
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String name;
+        // Next offset to read
+        private volatile long offset;
+        private volatile boolean overrun;
+        private volatile boolean closed;
+
+        private Subscription(String name, long offset) {
+            this.name = name;
+            this.offset = offset;
+        }
+
+        /**
+         * Hand up to maxEvents published events, in offset order, to handler
+         * Returns at once if none is ready. If handler throws, the events
+         * before the failing one count as read.
+         *
+         * @return number of events handled
+         * @throws IllegalStateException if the subscription was overrun or closed
+         */
+        public int poll(int maxEvents, Consumer<? super ChangeEvent> handler) {
+            checkUsable();
+            long position = offset;
+            int count = 0;
+            try {
+                while (count < maxEvents) {
+                    ChangeEvent event = slots.get((int) position & mask);
+                    if (event == null || event.getOffset() < position) {
+                        break;
+                    }
+                    if (event.getOffset() > position) {
+                        overrun = true;
+                        subscriptions.remove(this);
+                        metrics.increment("cdc.overruns", 1);
+                        checkUsable();
+                    }
+                    handler.accept(event);
+                    position++;
+                    count++;
+                }
+            } finally {
+                // One volatile write per batch; producers waiting on it see it on their next check
+                offset = position;
+            }
+            return count;
+        }
+
+        /**
+         * poll(), waiting up to timeout for the first event
+         *
+         * @return number of events handled (0 if none arrived in time)
+         */
+        public int poll(int maxEvents, long timeout, TimeUnit unit, Consumer<? super ChangeEvent> handler) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (true) {
+                int count = poll(maxEvents, handler);
+                if (count > 0 || System.nanoTime() - deadline >= 0) {
+                    return count;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+
+        /**
+         * Up to maxEvents published events, without waiting
+         */
+        public List<ChangeEvent> poll(int maxEvents) {
+            List<ChangeEvent> batch = new ArrayList<>(Math.min(maxEvents, 1024));
+            poll(maxEvents, batch::add);
+            return batch;
+        }
+
+        private void checkUsable() {
+            if (overrun) {
+                throw new IllegalStateException("Change stream subscription '" + name + "' was overrun at offset "
+                        + offset + " (oldest available: " + getOldestOffset() + ") - subscribe again");
+            }
+            if (closed) {
+                throw new IllegalStateException("Change stream subscription '" + name + "' is closed");
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Next offset this subscription reads
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Events published but not yet read
+         */
+        public long getLag() {
+            return Math.max(0, nextOffset.get() - offset);
+        }
+
+        public boolean isOverrun() {
+            return overrun;
+        }
+
+        /**
+         * Stop holding producers back; the subscription cannot be polled afterwards
+         */
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
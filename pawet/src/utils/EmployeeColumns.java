@@ -0,0 +1,269 @@
+package utils;
+
+import models.Employee;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * EmployeeColumns class - read-only columnar snapshot of the fields analytics use
+ * One primitive array per column instead of one Employee object per row:
+ * salaries as double[], department and role type as dictionary codes in
+ * int[], hire dates as epoch days in int[]. About 20 bytes per employee
+ * against several hundred for an Employee with its Strings and LocalDate.
+ *
+ * The operators are plain counted loops over the arrays (no getters, no
+ * pointer chasing), which the JIT unrolls and, for the integer loops,
+ * vectorizes. Group-by results are indexed by dictionary code; use
+ * getDepartment()/getRoleType() to decode them.
+ *
+ * Department IDs and role types are upper-cased, like the ID indexes.
+ * The snapshot does not change when employees are added or removed later.
+ */
+public final class EmployeeColumns {
+    /** Hire date column value for employees without a hire date */
+    public static final int NO_HIRE_DATE = Integer.MIN_VALUE;
+
+    private final int size;
+    private final double[] salaries;
+    private final int[] departmentCodes;
+    private final int[] roleCodes;
+    private final int[] hireDays;
+    private final StringDictionary departments;
+    private final StringDictionary roleTypes;
+
+    private EmployeeColumns(Builder builder) {
+        this.size = builder.size;
+        this.salaries = Arrays.copyOf(builder.salaries, size);
+        this.departmentCodes = Arrays.copyOf(builder.departmentCodes, size);
+        this.roleCodes = Arrays.copyOf(builder.roleCodes, size);
+        this.hireDays = Arrays.copyOf(builder.hireDays, size);
+        this.departments = builder.departments;
+        this.roleTypes = builder.roleTypes;
+    }
+
+    /**
+     * Snapshot of the given employees (e.g. Organization.getAllEmployees())
+     */
+    public static EmployeeColumns of(Collection<? extends Employee> employees) {
+        Builder builder = new Builder(employees.size());
+        for (Employee employee : employees) {
+            builder.add(employee);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Appends rows one at a time (used when reading straight from the database)
+     */
+    public static final class Builder {
+        private double[] salaries;
+        private int[] departmentCodes;
+        private int[] roleCodes;
+        private int[] hireDays;
+        private int size;
+        private final StringDictionary departments = new StringDictionary();
+        private final StringDictionary roleTypes = new StringDictionary();
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            salaries = new double[capacity];
+            departmentCodes = new int[capacity];
+            roleCodes = new int[capacity];
+            hireDays = new int[capacity];
+        }
+
+        public Builder add(Employee employee) {
+            return add(employee.getSalary(), employee.getDepartmentId(), employee.getRoleType(),
+                    employee.getHireDate());
+        }
+
+        public Builder add(double salary, String departmentId, String roleType, LocalDate hireDate) {
+            if (size == salaries.length) {
+                int capacity = size + (size >> 1);
+                salaries = Arrays.copyOf(salaries, capacity);
+                departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+                roleCodes = Arrays.copyOf(roleCodes, capacity);
+                hireDays = Arrays.copyOf(hireDays, capacity);
+            }
+            salaries[size] = salary;
+            departmentCodes[size] = departments.encode(normalize(departmentId));
+            roleCodes[size] = roleTypes.encode(normalize(roleType));
+            hireDays[size] = hireDate != null ? (int) hireDate.toEpochDay() : NO_HIRE_DATE;
+            size++;
+            return this;
+        }
+
+        public EmployeeColumns build() {
+            return new EmployeeColumns(this);
+        }
+    }
+
+    // ==================== AGGREGATES ====================
+
+    public double totalPayroll() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += salaries[i];
+        }
+        return total;
+    }
+
+    /**
+     * @return average salary, or NaN if the snapshot is empty
+     */
+    public double averageSalary() {
+        return size > 0 ? totalPayroll() / size : Double.NaN;
+    }
+
+    public double minSalary() {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, salaries[i]);
+        }
+        return size > 0 ? min : Double.NaN;
+    }
+
+    public double maxSalary() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, salaries[i]);
+        }
+        return size > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Payroll of one department (0 if it has no employees)
+     */
+    public double payrollOfDepartment(String departmentId) {
+        int code = departments.codeOf(normalize(departmentId));
+        if (code < 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += departmentCodes[i] == code ? salaries[i] : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Employees hired from..to (inclusive)
+     * Branch-free: the sign bit of (day - first) | (last - day) is set only
+     * when the day is outside the range, so random dates cost no mispredictions.
+     */
+    public int countHiredBetween(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long day = hireDays[i];
+            count += (int) (((day - first) | (last - day)) >>> 63) ^ 1;
+        }
+        return count;
+    }
+
+    // ==================== GROUP BY ====================
+
+    /**
+     * Headcount per department, indexed by department code
+     */
+    public int[] countByDepartment() {
+        return countBy(departmentCodes, departments.size());
+    }
+
+    /**
+     * Payroll per department, indexed by department code
+     */
+    public double[] payrollByDepartment() {
+        return sumBy(departmentCodes, departments.size());
+    }
+
+    /**
+     * Headcount per role type, indexed by role code
+     */
+    public int[] countByRoleType() {
+        return countBy(roleCodes, roleTypes.size());
+    }
+
+    /**
+     * Payroll per role type, indexed by role code
+     */
+    public double[] payrollByRoleType() {
+        return sumBy(roleCodes, roleTypes.size());
+    }
+
+    /**
+     * Payroll per department and role type: [department code][role code]
+     */
+    public double[][] payrollByDepartmentAndRoleType() {
+        int roles = roleTypes.size();
+        double[] flat = new double[departments.size() * roles];
+        for (int i = 0; i < size; i++) {
+            flat[departmentCodes[i] * roles + roleCodes[i]] += salaries[i];
+        }
+        double[][] result = new double[departments.size()][];
+        for (int d = 0; d < result.length; d++) {
+            result[d] = Arrays.copyOfRange(flat, d * roles, (d + 1) * roles);
+        }
+        return result;
+    }
+
+    private int[] countBy(int[] codes, int groups) {
+        int[] counts = new int[groups];
+        for (int i = 0; i < size; i++) {
+            counts[codes[i]]++;
+        }
+        return counts;
+    }
+
+    private double[] sumBy(int[] codes, int groups) {
+        double[] sums = new double[groups];
+        for (int i = 0; i < size; i++) {
+            sums[codes[i]] += salaries[i];
+        }
+        return sums;
+    }
+
+    // ==================== DICTIONARIES ====================
+
+    public String getDepartment(int code) {
+        return departments.decode(code);
+    }
+
+    public String getRoleType(int code) {
+        return roleTypes.decode(code);
+    }
+
+    public int getDepartmentCount() {
+        return departments.size();
+    }
+
+    public int getRoleTypeCount() {
+        return roleTypes.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Approximate heap used by the columns and dictionaries, in bytes
+     */
+    public long estimatedBytes() {
+        long columns = 4 * 16 + (long) size * (8 + 4 + 4 + 4);
+        long dictionaries = 0;
+        for (String value : departments.values()) {
+            dictionaries += 64 + 2L * value.length();
+        }
+        for (String value : roleTypes.values()) {
+            dictionaries += 64 + 2L * value.length();
+        }
+        return columns + dictionaries;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toUpperCase();
+    }
+}
@@ -0,0 +1,306 @@
+package utils;
+
+import models.Employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * EmployeeIndex class maintaining hash indexes over the employee collection
+ * Primary index: employee ID -> Employee
+ * Secondary indexes: department ID -> employees, role type -> employees
+ * Ordered indexes: SortedIdView, for binary search and ID range scans;
+ * SalaryIndex, for salary ranges, percentiles and histograms
+ * Text index: EmployeeTextIndex, for ranked word/prefix/substring search
+ * (built on the first text search, so startup does not pay for it)
+ *
+ * Time Complexity: O(1) for lookup by ID, O(k) for department/role filters
+ * (k = number of matching employees) instead of O(n) list scans,
+ * O(log n + k) for ID ranges.
+ *
+ * Keys are normalized to upper case so lookups stay case-insensitive,
+ * matching the equalsIgnoreCase behaviour of SearchAlgorithms.
+ *
+ * Thread-safe. Writers (add/remove/rebuild/clear) are serialized; readers
+ * never lock: the hash indexes are concurrent maps and the ordered indexes
+ * publish copy-on-write snapshots. A reader running alongside a writer may
+ * see the change in one index before another. Only text search locks,
+ * because EmployeeTextIndex keeps per-search scratch space.
+ */
+public class EmployeeIndex {
+    private final ConcurrentMap<String, Employee> byId;
+    private final ConcurrentMap<String, ConcurrentSkipListMap<String, Employee>> byDepartment;
+    private final ConcurrentMap<String, ConcurrentSkipListMap<String, Employee>> byRoleType;
+    private final ConcurrentMap<Character, Integer> maxIdNumberByPrefix;
+    private final SortedIdView sortedById;
+    private final SalaryIndex bySalary;
+    private final EmployeeTextIndex textIndex;
+    private final ReentrantLock textLock = new ReentrantLock();
+    private boolean textIndexBuilt;
+
+    /**
+     * Constructor - creates empty indexes
+     */
+    public EmployeeIndex() {
+        byId = new ConcurrentHashMap<>();
+        byDepartment = new ConcurrentHashMap<>();
+        byRoleType = new ConcurrentHashMap<>();
+        maxIdNumberByPrefix = new ConcurrentHashMap<>();
+        sortedById = new SortedIdView();
+        bySalary = new SalaryIndex();
+        textIndex = new EmployeeTextIndex();
+    }
+
+    /**
+     * Build indexes from an existing collection (e.g. after loading from database)
+     */
+    public synchronized void rebuild(Collection<Employee> employees) {
+        clear();
+        for (Employee employee : employees) {
+            addToHashIndexes(employee);
+        }
+        sortedById.rebuild(byId.values());
+        bySalary.rebuild(byId.values());
+    }
+
+    /**
+     * Add employee to all indexes
+     */
+    public synchronized void add(Employee employee) {
+        Employee previous = addToHashIndexes(employee);
+        if (previous != null && previous != employee) {
+            bySalary.remove(previous);
+        }
+        if (previous != employee) {
+            bySalary.add(employee);
+        }
+        sortedById.add(employee);
+        textLock.lock();
+        try {
+            if (textIndexBuilt) {
+                textIndex.add(employee);
+            }
+        } finally {
+            textLock.unlock();
+        }
+    }
+
+    /**
+     * @return the employee previously indexed under the same ID, or null
+     */
+    private Employee addToHashIndexes(Employee employee) {
+        String idKey = normalize(employee.getId());
+        Employee previous = byId.put(idKey, employee);
+        if (previous != null && previous != employee) {
+            removeFromSecondary(previous, idKey);
+        }
+
+        bucket(byDepartment, employee.getDepartmentId()).put(idKey, employee);
+        bucket(byRoleType, employee.getRoleType()).put(idKey, employee);
+        trackIdNumber(employee.getId());
+        return previous;
+    }
+
+    /**
+     * Remove employee from all indexes
+     *
+     * @return removed employee, or null if the ID was not indexed
+     */
+    public synchronized Employee remove(String employeeId) {
+        String idKey = normalize(employeeId);
+        Employee removed = byId.remove(idKey);
+        if (removed != null) {
+            removeFromSecondary(removed, idKey);
+            sortedById.remove(employeeId);
+            bySalary.remove(removed);
+            textLock.lock();
+            try {
+                if (textIndexBuilt) {
+                    textIndex.remove(employeeId);
+                }
+            } finally {
+                textLock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Lookup employee by ID - O(1)
+     */
+    public Employee getById(String employeeId) {
+        if (employeeId == null) {
+            return null;
+        }
+        return byId.get(normalize(employeeId));
+    }
+
+    /**
+     * Check if an employee ID is already in use
+     */
+    public boolean containsId(String employeeId) {
+        return getById(employeeId) != null;
+    }
+
+    /**
+     * Employees in a department, in ID order - O(k)
+     */
+    public List<Employee> getByDepartment(String departmentId) {
+        return snapshot(byDepartment, departmentId);
+    }
+
+    /**
+     * Employees with a role type, in ID order - O(k)
+     */
+    public List<Employee> getByRoleType(String roleType) {
+        return snapshot(byRoleType, roleType);
+    }
+
+    /**
+     * All employees in ID order - read-only snapshot, no sorting needed
+     */
+    public List<Employee> getSortedById() {
+        return sortedById.asList();
+    }
+
+    /**
+     * Employees with fromId <= ID <= toId in ID order - O(log n + k)
+     */
+    public List<Employee> getByIdRange(String fromId, String toId) {
+        return sortedById.range(fromId, toId);
+    }
+
+    /**
+     * Employees with minSalary <= salary <= maxSalary, lowest first - O(log n + k)
+     */
+    public List<Employee> getBySalaryRange(double minSalary, double maxSalary) {
+        return bySalary.range(minSalary, maxSalary);
+    }
+
+    /**
+     * Salary index for counts, percentiles and histograms (read-only use;
+     * take getSalaryIndex().snapshot() when several queries must agree)
+     */
+    public SalaryIndex getSalaryIndex() {
+        return bySalary;
+    }
+
+    /**
+     * Employees matching every word of the query in name, email, role,
+     * specialization or certifications, best match first
+     *
+     * @param limit maximum results (0 = all)
+     */
+    public List<Employee> searchText(String query, int limit) {
+        textLock.lock();
+        try {
+            if (!textIndexBuilt) {
+                // Writers index into it once built; one racing with this build is re-added (a replace)
+                for (Employee employee : sortedById.asList()) {
+                    textIndex.add(employee);
+                }
+                textIndexBuilt = true;
+            }
+            return textIndex.search(query, limit);
+        } finally {
+            textLock.unlock();
+        }
+    }
+
+    /**
+     * Count employees in a department without copying
+     */
+    public int countByDepartment(String departmentId) {
+        Map<String, Employee> bucket = byDepartment.get(normalize(departmentId));
+        return bucket != null ? bucket.size() : 0;
+    }
+
+    /**
+     * Highest numeric suffix seen for an ID prefix (M, S, T)
+     * Used for ID generation without scanning all employees
+     */
+    public int getMaxIdNumber(char prefix) {
+        Integer max = maxIdNumberByPrefix.get(Character.toUpperCase(prefix));
+        return max != null ? max : 0;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        byDepartment.clear();
+        byRoleType.clear();
+        maxIdNumberByPrefix.clear();
+        sortedById.clear();
+        bySalary.clear();
+        textLock.lock();
+        try {
+            textIndex.clear();
+            textIndexBuilt = false;
+        } finally {
+            textLock.unlock();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private void removeFromSecondary(Employee employee, String idKey) {
+        removeFromBucket(byDepartment, employee.getDepartmentId(), idKey);
+        removeFromBucket(byRoleType, employee.getRoleType(), idKey);
+    }
+
+    private static Map<String, Employee> bucket(ConcurrentMap<String, ConcurrentSkipListMap<String, Employee>> index,
+                                                String key) {
+        // Skip lists keep the buckets in ID order and let readers iterate while writers add
+        return index.computeIfAbsent(normalize(key), k -> new ConcurrentSkipListMap<>());
+    }
+
+    private static void removeFromBucket(ConcurrentMap<String, ConcurrentSkipListMap<String, Employee>> index,
+                                         String key, String idKey) {
+        String normalized = normalize(key);
+        Map<String, Employee> bucket = index.get(normalized);
+        if (bucket != null) {
+            bucket.remove(idKey);
+            if (bucket.isEmpty()) {
+                index.remove(normalized);
+            }
+        }
+    }
+
+    private static List<Employee> snapshot(ConcurrentMap<String, ConcurrentSkipListMap<String, Employee>> index,
+                                           String key) {
+        if (key == null) {
+            return new ArrayList<>();
+        }
+        Map<String, Employee> bucket = index.get(normalize(key));
+        return bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+    }
+
+    /**
+     * Track numeric part of IDs like M001, S012, T007
+     */
+    private void trackIdNumber(String id) {
+        if (id == null || id.length() < 2) {
+            return;
+        }
+        try {
+            int num = Integer.parseInt(id.substring(1));
+            char prefix = Character.toUpperCase(id.charAt(0));
+            maxIdNumberByPrefix.merge(prefix, num, Math::max);
+        } catch (NumberFormatException e) {
+            // Skip invalid IDs
+        }
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.toUpperCase();
+    }
+}
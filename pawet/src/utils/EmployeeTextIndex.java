@@ -0,0 +1,522 @@
+package utils;
+
+import models.Employee;
+import models.Scientist;
+import models.Technician;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * EmployeeTextIndex class - inverted index for free-text employee search
+ * Indexed fields: name, email, role, Scientist specialization and Technician
+ * certifications. Text is lower-cased and split into words (terms); each
+ * term has a posting list of the employees containing it.
+ *
+ * A query word matches a term exactly, as a prefix (sorted term dictionary)
+ * or anywhere inside it (trigram index over the term dictionary, so the
+ * n-grams cost memory per distinct word, not per employee). Employees must
+ * match every query word and are ranked by how well and in which field they
+ * match - a name hit outranks an email hit, an exact word a partial one.
+ *
+ * Time Complexity: O(log T + m) per query word (T = distinct terms,
+ * m = matching postings) instead of an O(n) scan with a toLowerCase() per
+ * employee. add/remove touch only the employee's own terms.
+ */
+public class EmployeeTextIndex {
+    // Field bits stored with each posting
+    private static final int NAME = 1;
+    private static final int EMAIL = 1 << 1;
+    private static final int ROLE = 1 << 2;
+    private static final int SPECIALIZATION = 1 << 3;
+    private static final int CERTIFICATIONS = 1 << 4;
+    private static final int FIELD_BITS = 5;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int INFIX = 1;
+    private static final int GRAM = 3;
+
+    private final NavigableMap<String, Integer> termIds;
+    private final List<String> terms;
+    private final List<Postings> postings;
+    private final Map<String, IntList> termsByGram;
+
+    // Documents: internal number -> employee (removed slots are reclaimed by compactOrGrow)
+    private Employee[] documents;
+    private int[][] documentTerms;
+    private int documentCount;
+    private final Map<String, Integer> documentById;
+
+    // Search scratch space, all zero between searches (not thread-safe, like the other indexes)
+    private int[] scratch = new int[0];
+
+    /**
+     * Constructor - creates an empty index
+     */
+    public EmployeeTextIndex() {
+        termIds = new TreeMap<>();
+        terms = new ArrayList<>();
+        postings = new ArrayList<>();
+        termsByGram = new HashMap<>();
+        documents = new Employee[16];
+        documentTerms = new int[16][];
+        documentById = new HashMap<>();
+    }
+
+    /**
+     * Index an employee (replaces an employee with the same ID)
+     */
+    public void add(Employee employee) {
+        String idKey = employee.getId().toUpperCase();
+        if (documentById.containsKey(idKey)) {
+            remove(idKey);
+        }
+
+        if (documentCount == documents.length) {
+            compactOrGrow();
+        }
+        int document = documentCount++;
+
+        // Terms of this employee with the fields they occur in (a handful, so a linear list)
+        IntList ownTerms = new IntList();
+        IntList ownFields = new IntList();
+        collect(ownTerms, ownFields, employee.getName(), NAME);
+        collect(ownTerms, ownFields, employee.getEmail(), EMAIL);
+        collect(ownTerms, ownFields, employee.getRole(), ROLE);
+        if (employee instanceof Scientist) {
+            collect(ownTerms, ownFields, ((Scientist) employee).getSpecialization(), SPECIALIZATION);
+        } else if (employee instanceof Technician) {
+            collect(ownTerms, ownFields, ((Technician) employee).getCertifications(), CERTIFICATIONS);
+        }
+
+        for (int i = 0; i < ownTerms.size; i++) {
+            postings.get(ownTerms.values[i]).add(document, ownFields.values[i]);
+        }
+        documents[document] = employee;
+        documentTerms[document] = Arrays.copyOf(ownTerms.values, ownTerms.size);
+        documentById.put(idKey, document);
+    }
+
+    /**
+     * Remove an employee from the index
+     *
+     * @return true if the ID was indexed
+     */
+    public boolean remove(String employeeId) {
+        Integer document = documentById.remove(employeeId.toUpperCase());
+        if (document == null) {
+            return false;
+        }
+        for (int term : documentTerms[document]) {
+            postings.get(term).remove(document);
+        }
+        documents[document] = null;
+        documentTerms[document] = null;
+        return true;
+    }
+
+    public void clear() {
+        termIds.clear();
+        terms.clear();
+        postings.clear();
+        termsByGram.clear();
+        documents = new Employee[16];
+        documentTerms = new int[16][];
+        documentCount = 0;
+        documentById.clear();
+    }
+
+    public int size() {
+        return documentById.size();
+    }
+
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    // ==================== SEARCH ====================
+
+    /**
+     * Employees matching every word of the query, best match first
+     * Equal scores keep the order the employees were indexed in.
+     *
+     * @param limit maximum results (0 = all)
+     */
+    public List<Employee> search(String query, int limit) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Most selective word first, so later words only probe surviving documents
+        List<Map<Integer, Integer>> matchesByWord = new ArrayList<>();
+        for (String word : words) {
+            matchesByWord.add(matchingTerms(word));
+        }
+        matchesByWord.sort((a, b) -> Long.compare(postingCount(a), postingCount(b)));
+
+        Hits hits = null;
+        for (Map<Integer, Integer> matches : matchesByWord) {
+            hits = hits == null ? hits(matches) : intersect(hits, matches);
+            if (hits.size == 0) {
+                break;
+            }
+        }
+
+        // Rank on primitive keys: high score first, then document number
+        long[] ranked = new long[hits.size];
+        for (int i = 0; i < hits.size; i++) {
+            ranked[i] = (long) (Integer.MAX_VALUE - hits.scores[i]) << 32 | hits.documents[i];
+        }
+        Arrays.sort(ranked);
+
+        int count = limit > 0 ? Math.min(limit, ranked.length) : ranked.length;
+        List<Employee> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(documents[(int) ranked[i]]);
+        }
+        return results;
+    }
+
+    private long postingCount(Map<Integer, Integer> matches) {
+        long count = 0;
+        for (Integer term : matches.keySet()) {
+            count += postings.get(term).size;
+        }
+        return count;
+    }
+
+    /**
+     * Documents matching one query word with their best score, in document order
+     *
+     * @param matches terms matching the word -> match kind
+     */
+    private Hits hits(Map<Integer, Integer> matches) {
+        if (matches.size() == 1) {
+            // One term: its posting list is already in document order
+            Map.Entry<Integer, Integer> match = matches.entrySet().iterator().next();
+            Postings list = postings.get(match.getKey());
+            Hits hits = new Hits(list.size);
+            for (int i = 0; i < list.size; i++) {
+                hits.add(list.entries[i] >>> FIELD_BITS, match.getValue() * fieldWeight(list.entries[i] & FIELD_MASK));
+            }
+            return hits;
+        }
+
+        // Several terms (prefix/substring): union their postings in a dense scratch array
+        if (scratch.length < documentCount) {
+            scratch = new int[documents.length];
+        }
+        IntList touched = new IntList();
+        for (Map.Entry<Integer, Integer> match : matches.entrySet()) {
+            Postings list = postings.get(match.getKey());
+            for (int i = 0; i < list.size; i++) {
+                int document = list.entries[i] >>> FIELD_BITS;
+                int value = match.getValue() * fieldWeight(list.entries[i] & FIELD_MASK);
+                if (scratch[document] == 0) {
+                    touched.add(document);
+                }
+                if (value > scratch[document]) {
+                    scratch[document] = value;
+                }
+            }
+        }
+        Arrays.sort(touched.values, 0, touched.size);
+        Hits hits = new Hits(touched.size);
+        for (int i = 0; i < touched.size; i++) {
+            int document = touched.values[i];
+            hits.add(document, scratch[document]);
+            scratch[document] = 0;
+        }
+        return hits;
+    }
+
+    /**
+     * Keep the documents of previous that also match the word, adding the word's score
+     */
+    private Hits intersect(Hits previous, Map<Integer, Integer> matches) {
+        Hits result = new Hits(previous.size);
+        long postingCount = postingCount(matches);
+        long probeCost = (long) previous.size * matches.size() * (64 - Long.numberOfLeadingZeros(postingCount));
+        if (probeCost < postingCount) {
+            // Few survivors: binary-search each one in the postings instead of walking them
+            for (int i = 0; i < previous.size; i++) {
+                int best = 0;
+                for (Map.Entry<Integer, Integer> match : matches.entrySet()) {
+                    int fields = postings.get(match.getKey()).fieldsOf(previous.documents[i]);
+                    if (fields != 0) {
+                        best = Math.max(best, match.getValue() * fieldWeight(fields));
+                    }
+                }
+                if (best > 0) {
+                    result.add(previous.documents[i], previous.scores[i] + best);
+                }
+            }
+            return result;
+        }
+
+        // Merge two lists sorted by document
+        Hits word = hits(matches);
+        int i = 0;
+        int j = 0;
+        while (i < previous.size && j < word.size) {
+            if (previous.documents[i] < word.documents[j]) {
+                i++;
+            } else if (previous.documents[i] > word.documents[j]) {
+                j++;
+            } else {
+                result.add(previous.documents[i], previous.scores[i] + word.scores[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Terms containing the word -> best match kind (EXACT, PREFIX or INFIX)
+     */
+    private Map<Integer, Integer> matchingTerms(String word) {
+        Map<Integer, Integer> matches = new HashMap<>();
+        for (Integer term : termIds.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+            matches.put(term, terms.get(term).length() == word.length() ? EXACT : PREFIX);
+        }
+
+        if (word.length() >= GRAM) {
+            // Candidates share the word's rarest trigram, then are verified with contains()
+            IntList candidates = null;
+            for (int i = 0; i + GRAM <= word.length(); i++) {
+                IntList list = termsByGram.get(word.substring(i, i + GRAM));
+                if (list == null) {
+                    return matches;
+                }
+                if (candidates == null || list.size < candidates.size) {
+                    candidates = list;
+                }
+            }
+            for (int i = 0; i < candidates.size; i++) {
+                int term = candidates.values[i];
+                if (!matches.containsKey(term) && terms.get(term).contains(word)) {
+                    matches.put(term, INFIX);
+                }
+            }
+        } else {
+            // One or two letters: too short for trigrams, check the dictionary directly
+            for (int term = 0; term < terms.size(); term++) {
+                if (!matches.containsKey(term) && terms.get(term).contains(word)) {
+                    matches.put(term, INFIX);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static int fieldWeight(int fields) {
+        if ((fields & NAME) != 0) return 8;
+        if ((fields & (ROLE | SPECIALIZATION)) != 0) return 4;
+        if ((fields & CERTIFICATIONS) != 0) return 2;
+        return 1;
+    }
+
+    // ==================== INDEXING HELPERS ====================
+
+    private void collect(IntList ownTerms, IntList ownFields, String text, int field) {
+        forEachWord(text, word -> addField(ownTerms, ownFields, termId(word), field));
+    }
+
+    private static void addField(IntList ownTerms, IntList ownFields, int term, int field) {
+        for (int i = 0; i < ownTerms.size; i++) {
+            if (ownTerms.values[i] == term) {
+                ownFields.values[i] |= field;
+                return;
+            }
+        }
+        ownTerms.add(term);
+        ownFields.add(field);
+    }
+
+    private int termId(String word) {
+        Integer id = termIds.get(word);
+        if (id != null) {
+            return id;
+        }
+        int term = terms.size();
+        termIds.put(word, term);
+        terms.add(word);
+        postings.add(new Postings());
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            String gram = word.substring(i, i + GRAM);
+            IntList list = termsByGram.get(gram);
+            if (list == null) {
+                list = new IntList();
+                termsByGram.put(gram, list);
+            }
+            if (list.size == 0 || list.values[list.size - 1] != term) {
+                list.add(term);
+            }
+        }
+        return term;
+    }
+
+    private interface WordConsumer {
+        void accept(String word);
+    }
+
+    /**
+     * Lower-case words (distinct, in order of appearance)
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        forEachWord(text, words::add);
+        return words;
+    }
+
+    /**
+     * Split text into lower-case words of letters or digits
+     * Letter and digit runs are separate words, so "mbeki42@pawet.org" gives
+     * mbeki, 42, pawet, org and the dictionary does not get one term per email.
+     */
+    private static void forEachWord(String text, WordConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            boolean wordChar = Character.isLetterOrDigit(c);
+            if (start >= 0 && (!wordChar || Character.isDigit(c) != Character.isDigit(text.charAt(start)))) {
+                consumer.accept(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+            if (wordChar && start < 0) {
+                start = i;
+            }
+        }
+    }
+
+    /**
+     * Reuse the slots of removed employees once they are at least half of
+     * the array, otherwise grow it. Postings store document numbers, so
+     * compacting renumbers them in every posting list.
+     */
+    private void compactOrGrow() {
+        int live = documentById.size();
+        if (live > documentCount / 2) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+            documentTerms = Arrays.copyOf(documentTerms, documentTerms.length * 2);
+            return;
+        }
+
+        int[] renumber = new int[documentCount];
+        int next = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (documents[document] != null) {
+                renumber[document] = next;
+                documents[next] = documents[document];
+                documentTerms[next] = documentTerms[document];
+                documentById.put(documents[next].getId().toUpperCase(), next);
+                next++;
+            }
+        }
+        Arrays.fill(documents, next, documentCount, null);
+        Arrays.fill(documentTerms, next, documentCount, null);
+        documentCount = next;
+        // Renumbering keeps relative order, so posting lists stay sorted
+        for (Postings list : postings) {
+            for (int i = 0; i < list.size; i++) {
+                int entry = list.entries[i];
+                list.entries[i] = renumber[entry >>> FIELD_BITS] << FIELD_BITS | (entry & FIELD_MASK);
+            }
+        }
+    }
+
+    /**
+     * Posting list: (document << FIELD_BITS | field bits), sorted by document
+     * Documents are numbered in insertion order, so adds append.
+     */
+    private static final class Postings {
+        int[] entries = new int[2];
+        int size;
+
+        void add(int document, int fields) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = document << FIELD_BITS | fields;
+        }
+
+        void remove(int document) {
+            int position = find(document);
+            if (position >= 0) {
+                System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+                size--;
+            }
+        }
+
+        /**
+         * Field bits of a document, 0 if it is not in the list
+         */
+        int fieldsOf(int document) {
+            int position = find(document);
+            return position >= 0 ? entries[position] & FIELD_MASK : 0;
+        }
+
+        private int find(int document) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int current = entries[middle] >>> FIELD_BITS;
+                if (current < document) {
+                    low = middle + 1;
+                } else if (current > document) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Matching documents (ascending) with their scores
+     */
+    private static final class Hits {
+        final int[] documents;
+        final int[] scores;
+        int size;
+
+        Hits(int capacity) {
+            documents = new int[capacity];
+            scores = new int[capacity];
+        }
+
+        void add(int document, int score) {
+            documents[size] = document;
+            scores[size++] = score;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
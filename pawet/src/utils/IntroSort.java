@@ -0,0 +1,336 @@
+package utils;
+
+import models.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IntroSort class - introspective sort over an index array
+ * Quicksort with median-of-three pivots and Hoare partitioning, insertion
+ * sort for small ranges, and a heapsort fallback once recursion gets deeper
+ * than 2·log2(n). Worst case is O(n log n) (plain quicksort with a last-element
+ * pivot is O(n²) on sorted input) and the stack depth is O(log n), because
+ * only the smaller side of each partition is recursed into.
+ *
+ * Employees are not moved while sorting: sort keys are copied once into
+ * primitive/String arrays, an int[] of positions is sorted by those keys, and
+ * the result list is built from the final order. This avoids List.get/set
+ * and getter calls in the inner loop.
+ */
+public class IntroSort {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * Compares the elements at two positions of the underlying key arrays
+     */
+    public interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    // ==================== EMPLOYEE SORTS ====================
+
+    /**
+     * Sort by name, case-insensitive (same order as quickSortByName)
+     */
+    public static List<Employee> sortByName(List<Employee> employees) {
+        String[] keys = new String[employees.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = foldCase(employees.get(i).getName());
+        }
+        return reorder(employees, sortedOrder(keys.length, (a, b) -> keys[a].compareTo(keys[b])));
+    }
+
+    /**
+     * Sort by ID, case-insensitive (same order as quickSortById)
+     */
+    public static List<Employee> sortById(List<Employee> employees) {
+        String[] keys = new String[employees.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = foldCase(employees.get(i).getId());
+        }
+        return reorder(employees, sortedOrder(keys.length, (a, b) -> keys[a].compareTo(keys[b])));
+    }
+
+    /**
+     * Sort by salary
+     */
+    public static List<Employee> sortBySalary(List<Employee> employees, boolean ascending) {
+        double[] keys = new double[employees.size()];
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            double salary = employees.get(i).getSalary();
+            keys[i] = ascending ? salary : -salary;
+            order[i] = i;
+        }
+        sort(keys, order);
+        return reorder(employees, order);
+    }
+
+    /**
+     * Case folding that makes String.compareTo order like compareToIgnoreCase
+     * (which compares Character.toLowerCase(Character.toUpperCase(c)) per char)
+     */
+    static String foldCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static List<Employee> reorder(List<Employee> employees, int[] order) {
+        List<Employee> sorted = new ArrayList<>(order.length);
+        for (int index : order) {
+            sorted.add(employees.get(index));
+        }
+        return sorted;
+    }
+
+    // ==================== INDEX SORT ====================
+
+    /**
+     * Positions 0..n-1 sorted by the comparator
+     */
+    public static int[] sortedOrder(int n, IndexComparator comparator) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sort(order, comparator);
+        return order;
+    }
+
+    /**
+     * Sort an array of positions in place
+     */
+    public static void sort(int[] order, IndexComparator comparator) {
+        sort(order, 0, order.length, comparator);
+    }
+
+    /**
+     * Sort order[from..to) in place
+     */
+    public static void sort(int[] order, int from, int to, IndexComparator comparator) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(length));
+        introSort(order, from, to - 1, depthLimit, comparator);
+    }
+
+    private static void introSort(int[] order, int low, int high, int depthLimit, IndexComparator comparator) {
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(order, low, high, comparator);
+                return;
+            }
+
+            int split = partition(order, low, high, comparator);
+
+            // Recurse into the smaller side, loop on the larger one (O(log n) stack)
+            if (split - low < high - split) {
+                introSort(order, low, split, depthLimit, comparator);
+                low = split + 1;
+            } else {
+                introSort(order, split + 1, high, depthLimit, comparator);
+                high = split;
+            }
+        }
+        insertionSort(order, low, high, comparator);
+    }
+
+    /**
+     * Hoare partition around the median of first, middle and last element
+     * Equal keys are spread over both sides, so many duplicates stay O(n log n).
+     *
+     * @return split point: [low..split] <= pivot <= [split+1..high]
+     */
+    private static int partition(int[] order, int low, int high, IndexComparator comparator) {
+        int middle = low + (high - low) / 2;
+        if (comparator.compare(order[middle], order[low]) < 0) swap(order, middle, low);
+        if (comparator.compare(order[high], order[low]) < 0) swap(order, high, low);
+        if (comparator.compare(order[high], order[middle]) < 0) swap(order, high, middle);
+        int pivot = order[middle];
+
+        int i = low - 1;
+        int j = high + 1;
+        while (true) {
+            do {
+                i++;
+            } while (comparator.compare(order[i], pivot) < 0);
+            do {
+                j--;
+            } while (comparator.compare(order[j], pivot) > 0);
+            if (i >= j) {
+                return j;
+            }
+            swap(order, i, j);
+        }
+    }
+
+    private static void insertionSort(int[] order, int low, int high, IndexComparator comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            int current = order[i];
+            int j = i - 1;
+            while (j >= low && comparator.compare(order[j], current) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+
+    private static void heapSort(int[] order, int low, int high, IndexComparator comparator) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(order, low, i, n, comparator);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(order, low, low + end);
+            siftDown(order, low, 0, end, comparator);
+        }
+    }
+
+    private static void siftDown(int[] order, int offset, int root, int size, IndexComparator comparator) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && comparator.compare(order[offset + child], order[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(order[offset + root], order[offset + child]) >= 0) {
+                return;
+            }
+            swap(order, offset + root, offset + child);
+            root = child;
+        }
+    }
+
+    // ==================== PRIMITIVE KEY SORT ====================
+    // Same algorithm specialised for double keys: keys and positions are swapped
+    // together, so comparisons read one contiguous double[] instead of going
+    // through a comparator and an indirection per compare.
+
+    /**
+     * Sort keys ascending, applying the same moves to order
+     */
+    public static void sort(double[] keys, int[] order) {
+        sort(keys, order, 0, keys.length);
+    }
+
+    /**
+     * Sort keys[from..to) ascending, applying the same moves to order
+     */
+    public static void sort(double[] keys, int[] order, int from, int to) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(length));
+        introSort(keys, order, from, to - 1, depthLimit);
+    }
+
+    private static void introSort(double[] keys, int[] order, int low, int high, int depthLimit) {
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(keys, order, low, high);
+                return;
+            }
+
+            int split = partition(keys, order, low, high);
+            if (split - low < high - split) {
+                introSort(keys, order, low, split, depthLimit);
+                low = split + 1;
+            } else {
+                introSort(keys, order, split + 1, high, depthLimit);
+                high = split;
+            }
+        }
+        insertionSort(keys, order, low, high);
+    }
+
+    private static int partition(double[] keys, int[] order, int low, int high) {
+        int middle = low + (high - low) / 2;
+        if (keys[middle] < keys[low]) swap(keys, order, middle, low);
+        if (keys[high] < keys[low]) swap(keys, order, high, low);
+        if (keys[high] < keys[middle]) swap(keys, order, high, middle);
+        double pivot = keys[middle];
+
+        int i = low - 1;
+        int j = high + 1;
+        while (true) {
+            do {
+                i++;
+            } while (keys[i] < pivot);
+            do {
+                j--;
+            } while (keys[j] > pivot);
+            if (i >= j) {
+                return j;
+            }
+            swap(keys, order, i, j);
+        }
+    }
+
+    private static void insertionSort(double[] keys, int[] order, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double key = keys[i];
+            int position = order[i];
+            int j = i - 1;
+            while (j >= low && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            order[j + 1] = position;
+        }
+    }
+
+    private static void heapSort(double[] keys, int[] order, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, order, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, order, low, low + end);
+            siftDown(keys, order, low, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] keys, int[] order, int offset, int root, int size) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && keys[offset + child] < keys[offset + child + 1]) {
+                child++;
+            }
+            if (keys[offset + root] >= keys[offset + child]) {
+                return;
+            }
+            swap(keys, order, offset + root, offset + child);
+            root = child;
+        }
+    }
+
+    private static void swap(double[] keys, int[] order, int a, int b) {
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int position = order[a];
+        order[a] = order[b];
+        order[b] = position;
+    }
+
+    private static void swap(int[] order, int a, int b) {
+        int temp = order[a];
+        order[a] = order[b];
+        order[b] = temp;
+    }
+}
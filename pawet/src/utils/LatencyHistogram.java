@@ -0,0 +1,113 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram class - fixed-memory latency histogram in nanoseconds
+ * Same bucket layout as HdrHistogram with 2 significant digits: values below
+ * 128 get one bucket each, above that every power of two is split into 64
+ * linear sub-buckets, so any recorded value is reported within 1/64 (~1.6%).
+ * Values up to ~2^41 ns (about 36 minutes) fit; larger ones are clamped.
+ *
+ * Recording is lock-free (one atomic increment plus LongAdders), so hot
+ * paths on many threads can record concurrently. Reads are not a point-in-time
+ * snapshot: a percentile computed while others record may mix old and new counts.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;                    // 128 sub-buckets
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int MAX_BUCKET = 34;
+    private static final long MAX_VALUE = (1L << (MAX_BUCKET + SUB_BUCKET_BITS)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_BUCKET + 2) * SUB_BUCKET_HALF);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one value (negative values count as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded > 0 ? (double) sum.sum() / recorded : 0;
+    }
+
+    /**
+     * Value at a percentile (0-100): the upper edge of the bucket that holds it
+     *
+     * @return nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clear all recorded values (concurrent records may survive partially)
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // ==================== BUCKETS ====================
+
+    /**
+     * Bucket = how far the value must be shifted to fit in 128 sub-buckets;
+     * buckets above 0 only use their upper half (the lower half overlaps the
+     * previous bucket), hence bucket * 64 + subBucket
+     */
+    private static int indexOf(long value) {
+        int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1));
+        int subBucket = (int) (value >>> bucket);
+        return bucket * SUB_BUCKET_HALF + subBucket;
+    }
+
+    private static long highestValueAt(int index) {
+        int bucket = Math.max(0, index / SUB_BUCKET_HALF - 1);
+        long subBucket = index - (long) bucket * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
@@ -0,0 +1,109 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LruCache - bounded map that evicts the least recently used entry
+ * Used by Organization in lazy mode to keep hot entities in memory while
+ * everything else stays in the database.
+ *
+ * Keys are normalized to upper case to match the case-insensitive ID lookups
+ * used everywhere else. Thread-safe: every method locks the cache (a get
+ * reorders the LRU list, so even lookups are writes).
+ */
+public class LruCache<V> {
+    private final int capacity;
+    private final LinkedHashMap<String, V> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for LruCache
+     *
+     * @param capacity maximum number of entries kept
+     */
+    public LruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get cached value (marks it most recently used)
+     *
+     * @return value, or null on a miss
+     */
+    public synchronized V get(String key) {
+        V value = entries.get(normalize(key));
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(String key, V value) {
+        entries.put(normalize(key), value);
+    }
+
+    /**
+     * Cache value unless the key is already cached
+     * Lets threads that loaded the same entity concurrently agree on one instance.
+     *
+     * @return the value now cached under key
+     */
+    public synchronized V putIfAbsent(String key, V value) {
+        V existing = entries.get(normalize(key));
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(normalize(key), value);
+        return value;
+    }
+
+    public synchronized V remove(String key) {
+        return entries.remove(normalize(key));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.toUpperCase();
+    }
+}
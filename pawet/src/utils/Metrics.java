@@ -0,0 +1,330 @@
+package utils;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Metrics class - in-process counters, latency histograms and gauges
+ * Organization records every public operation as "org.<method>" and
+ * DatabaseManager every SQL call as "db.<operation>", each with call count,
+ * error count, latency histogram and (for SQL) rows and estimated bytes.
+ *
+ * Recording is lock-free and cheap (a map lookup, a few atomic adds), so it
+ * is on by default; -Dpawet.metrics=false turns every record into a no-op.
+ * Use toText()/toJson() for a report, or startDump() to write one to a file
+ * periodically (-Dpawet.metrics.dump=file [-Dpawet.metrics.interval=seconds]
+ * starts it from Main; a .json file name selects JSON).
+ * Thread-safe.
+ */
+public final class Metrics {
+    private static final Metrics SHARED =
+            new Metrics(!"false".equalsIgnoreCase(System.getProperty("pawet.metrics")));
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    private final Instant createdAt = Instant.now();
+    private ScheduledExecutorService dumper;
+    private String dumpFile;
+
+    /**
+     * One timed operation: calls, errors, latency, rows and bytes
+     */
+    public static final class Operation {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        private void reset() {
+            calls.reset();
+            errors.reset();
+            rows.reset();
+            bytes.reset();
+            latency.reset();
+        }
+    }
+
+    /**
+     * Constructor for Metrics
+     *
+     * @param enabled false makes every record method a no-op
+     */
+    public Metrics(boolean enabled) {
+        this.enabled = enabled;
+        gauge("jvm.heap.used.mb", () -> {
+            Runtime runtime = Runtime.getRuntime();
+            return (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0);
+        });
+    }
+
+    /**
+     * The registry used by Organization and DatabaseManager
+     */
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Start time for record()/recordError() (0 when disabled, so no clock read)
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record one call of an operation started at startNanos
+     */
+    public void record(String operation, long startNanos) {
+        record(operation, startNanos, 0, 0);
+    }
+
+    /**
+     * Record one call that read or wrote rows (bytes = estimated payload)
+     */
+    public void record(String operation, long startNanos, long rows, long bytes) {
+        if (!enabled) {
+            return;
+        }
+        Operation entry = operation(operation);
+        entry.latency.record(System.nanoTime() - startNanos);
+        entry.calls.increment();
+        if (rows != 0) {
+            entry.rows.add(rows);
+        }
+        if (bytes != 0) {
+            entry.bytes.add(bytes);
+        }
+    }
+
+    /**
+     * Record one failed call (counted and timed like a successful one)
+     */
+    public void recordError(String operation, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        operation(operation).errors.increment();
+        record(operation, startNanos);
+    }
+
+    /**
+     * Add to a plain counter
+     */
+    public void increment(String counter, long delta) {
+        if (enabled) {
+            counters.computeIfAbsent(counter, name -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Register (or replace) a gauge, read when a report is made
+     */
+    public void gauge(String name, DoubleSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    public Operation operation(String name) {
+        Operation entry = operations.get(name);
+        return entry != null ? entry : operations.computeIfAbsent(name, key -> new Operation());
+    }
+
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Zero every operation and counter (gauges are live values and stay)
+     */
+    public void reset() {
+        for (Operation entry : operations.values()) {
+            entry.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+    // ==================== REPORTS ====================
+
+    /**
+     * Operations sorted by total time spent, then counters and gauges
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-44s %10s %7s %10s %10s %10s %10s %12s %12s%n", "Operation", "Calls", "Errors",
+                "Mean(µs)", "p50(µs)", "p99(µs)", "Max(µs)", "Rows", "Bytes"));
+        operations.entrySet().stream()
+                .filter(entry -> entry.getValue().getCalls() > 0)
+                .sorted((a, b) -> Double.compare(totalNanos(b.getValue()), totalNanos(a.getValue())))
+                .forEach(entry -> {
+                    Operation op = entry.getValue();
+                    LatencyHistogram latency = op.latency;
+                    text.append(String.format("%-44s %,10d %7d %10.1f %10.1f %10.1f %10.1f %,12d %,12d%n",
+                            entry.getKey(), op.getCalls(), op.getErrors(), latency.getMean() / 1000.0,
+                            latency.getPercentile(50) / 1000.0, latency.getPercentile(99) / 1000.0,
+                            latency.getMax() / 1000.0, op.getRows(), op.getBytes()));
+                });
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            text.append(String.format("counter %-36s %,d%n", entry.getKey(), entry.getValue().sum()));
+        }
+        for (Map.Entry<String, DoubleSupplier> entry : new TreeMap<>(gauges).entrySet()) {
+            text.append(String.format("gauge   %-36s %,.2f%n", entry.getKey(), readGauge(entry.getValue())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * One JSON object: {"timestamp", "uptimeSeconds", "operations", "counters", "gauges"}
+     * Latencies are in microseconds.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        Instant now = Instant.now();
+        json.append("\"timestamp\":\"").append(now).append("\",");
+        json.append("\"uptimeSeconds\":").append(now.getEpochSecond() - createdAt.getEpochSecond()).append(',');
+        json.append("\"operations\":{");
+        boolean first = true;
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            Operation op = entry.getValue();
+            if (op.getCalls() == 0) {
+                continue;
+            }
+            LatencyHistogram latency = op.latency;
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':')
+                    .append(String.format(Locale.ROOT, "{\"calls\":%d,\"errors\":%d,\"rows\":%d,\"bytes\":%d,"
+                                    + "\"meanMicros\":%.1f,\"p50Micros\":%.1f,\"p90Micros\":%.1f,"
+                                    + "\"p99Micros\":%.1f,\"maxMicros\":%.1f}",
+                            op.getCalls(), op.getErrors(), op.getRows(), op.getBytes(), latency.getMean() / 1000.0,
+                            latency.getPercentile(50) / 1000.0, latency.getPercentile(90) / 1000.0,
+                            latency.getPercentile(99) / 1000.0, latency.getMax() / 1000.0));
+            first = false;
+        }
+        json.append("},\"counters\":{");
+        first = true;
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':').append(entry.getValue().sum());
+            first = false;
+        }
+        json.append("},\"gauges\":{");
+        first = true;
+        for (Map.Entry<String, DoubleSupplier> entry : new TreeMap<>(gauges).entrySet()) {
+            double value = readGauge(entry.getValue());
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':')
+                    .append(Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.2f", value));
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    // ==================== PERIODIC DUMP ====================
+
+    /**
+     * Append a report to file every intervalSeconds on a daemon thread
+     * (JSON lines if the file name ends in .json, text otherwise)
+     */
+    public synchronized void startDump(String file, long intervalSeconds) {
+        stopDump();
+        boolean json = file.toLowerCase().endsWith(".json");
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file, json), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        dumpFile = file;
+    }
+
+    /**
+     * Stop the periodic dump, writing one last report
+     */
+    public synchronized void stopDump() {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdownNow();
+        dump(dumpFile, dumpFile.toLowerCase().endsWith(".json"));
+        dumper = null;
+        dumpFile = null;
+    }
+
+    /**
+     * File the periodic dump writes to, or null if it is not running
+     */
+    public synchronized String getDumpFile() {
+        return dumpFile;
+    }
+
+    private void dump(String file, boolean json) {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            if (json) {
+                out.println(toJson());
+            } else {
+                out.println("=== metrics " + Instant.now() + " ===");
+                out.print(toText());
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to write metrics to " + file);
+            e.printStackTrace();
+        }
+    }
+
+    private static double totalNanos(Operation op) {
+        return op.latency.getMean() * op.getCalls();
+    }
+
+    private static double readGauge(DoubleSupplier supplier) {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,274 @@
+package utils;
+
+import models.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * ParallelSort class - fork/join merge sort for large employee lists
+ * The range is split in half until it is at most sequentialCutoff long; those
+ * pieces are sorted with IntroSort on worker threads and merged back up the
+ * tree, with both halves of each level running in parallel.
+ *
+ * Like IntroSort it sorts positions against keys copied out of the employees
+ * (case-folded strings for name/id, doubles for salary and hire date), and key
+ * extraction and the final reordering are parallel too.
+ *
+ * Each instance owns a ForkJoinPool with the configured parallelism.
+ * The shared default instance reads the system properties
+ * pawet.sort.parallelism (default: available processors) and
+ * pawet.sort.cutoff (default: 8192).
+ */
+public class ParallelSort {
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 8_192;
+    // Below this size the fork/join and buffer overhead outweighs the gain
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    private static ParallelSort defaultInstance;
+
+    private final ForkJoinPool pool;
+    private final int sequentialCutoff;
+
+    /**
+     * Constructor for ParallelSort
+     *
+     * @param parallelism worker threads
+     * @param sequentialCutoff ranges this size or smaller are sorted on one thread
+     */
+    public ParallelSort(int parallelism, int sequentialCutoff) {
+        if (parallelism <= 0 || sequentialCutoff <= 0) {
+            throw new IllegalArgumentException("Parallelism and cutoff must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.sequentialCutoff = sequentialCutoff;
+    }
+
+    /**
+     * Shared instance configured from system properties
+     */
+    public static synchronized ParallelSort getDefault() {
+        if (defaultInstance == null) {
+            int parallelism = Integer.getInteger("pawet.sort.parallelism", Runtime.getRuntime().availableProcessors());
+            int cutoff = Integer.getInteger("pawet.sort.cutoff", DEFAULT_SEQUENTIAL_CUTOFF);
+            defaultInstance = new ParallelSort(parallelism, cutoff);
+        }
+        return defaultInstance;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getSequentialCutoff() {
+        return sequentialCutoff;
+    }
+
+    /**
+     * Stop the worker threads (the instance cannot be used afterwards)
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // ==================== EMPLOYEE SORTS ====================
+
+    /**
+     * Sort by name, case-insensitive
+     */
+    public List<Employee> sortByName(List<Employee> employees) {
+        String[] keys = new String[employees.size()];
+        parallelFor(keys.length, i -> keys[i] = IntroSort.foldCase(employees.get(i).getName()));
+        return reorder(employees, sortedOrder(keys.length, (a, b) -> keys[a].compareTo(keys[b])));
+    }
+
+    /**
+     * Sort by ID, case-insensitive
+     */
+    public List<Employee> sortById(List<Employee> employees) {
+        String[] keys = new String[employees.size()];
+        parallelFor(keys.length, i -> keys[i] = IntroSort.foldCase(employees.get(i).getId()));
+        return reorder(employees, sortedOrder(keys.length, (a, b) -> keys[a].compareTo(keys[b])));
+    }
+
+    /**
+     * Sort by salary
+     */
+    public List<Employee> sortBySalary(List<Employee> employees, boolean ascending) {
+        double[] keys = new double[employees.size()];
+        parallelFor(keys.length, i -> {
+            double salary = employees.get(i).getSalary();
+            keys[i] = ascending ? salary : -salary;
+        });
+        return reorder(employees, sortedOrder(keys));
+    }
+
+    /**
+     * Sort by hire date (epoch day keys)
+     */
+    public List<Employee> sortByHireDate(List<Employee> employees, boolean ascending) {
+        double[] keys = new double[employees.size()];
+        parallelFor(keys.length, i -> {
+            double day = employees.get(i).getHireDate().toEpochDay();
+            keys[i] = ascending ? day : -day;
+        });
+        return reorder(employees, sortedOrder(keys));
+    }
+
+    private interface IndexAction {
+        void apply(int index);
+    }
+
+    private void parallelFor(int n, IndexAction action) {
+        // A parallel stream started from inside a ForkJoinPool task runs on that pool
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(action::apply)).join();
+    }
+
+    private List<Employee> reorder(List<Employee> employees, int[] order) {
+        Employee[] sorted = new Employee[order.length];
+        parallelFor(order.length, i -> sorted[i] = employees.get(order[i]));
+        return new ArrayList<>(Arrays.asList(sorted));
+    }
+
+    // ==================== INDEX SORT ====================
+
+    /**
+     * Positions 0..n-1 sorted by the comparator
+     */
+    public int[] sortedOrder(int n, IntroSort.IndexComparator comparator) {
+        int[] order = identity(n);
+        pool.invoke(new IndexSortTask(order, new int[n], 0, n, comparator));
+        return order;
+    }
+
+    /**
+     * Positions 0..n-1 sorted by key (keys are reordered along with them)
+     */
+    public int[] sortedOrder(double[] keys) {
+        int[] order = identity(keys.length);
+        pool.invoke(new KeySortTask(keys, order, new double[keys.length], new int[keys.length], 0, keys.length));
+        return order;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Merge sort of order[from..to) by comparator, buffer used for merging
+     */
+    private class IndexSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final IntroSort.IndexComparator comparator;
+
+        IndexSortTask(int[] order, int[] buffer, int from, int to, IntroSort.IndexComparator comparator) {
+            this.order = order;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sequentialCutoff) {
+                IntroSort.sort(order, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new IndexSortTask(order, buffer, from, middle, comparator),
+                    new IndexSortTask(order, buffer, middle, to, comparator));
+
+            // Already ordered across the split (e.g. sorted input) - nothing to merge
+            if (comparator.compare(order[middle - 1], order[middle]) <= 0) {
+                return;
+            }
+            System.arraycopy(order, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            int out = from;
+            while (left < middle && right < to) {
+                order[out++] = comparator.compare(buffer[right], buffer[left]) < 0 ? buffer[right++] : buffer[left++];
+            }
+            while (left < middle) {
+                order[out++] = buffer[left++];
+            }
+            while (right < to) {
+                order[out++] = buffer[right++];
+            }
+        }
+    }
+
+    /**
+     * Merge sort of keys[from..to) with positions moved alongside
+     */
+    private class KeySortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] keys;
+        private final int[] order;
+        private final double[] keyBuffer;
+        private final int[] orderBuffer;
+        private final int from;
+        private final int to;
+
+        KeySortTask(double[] keys, int[] order, double[] keyBuffer, int[] orderBuffer, int from, int to) {
+            this.keys = keys;
+            this.order = order;
+            this.keyBuffer = keyBuffer;
+            this.orderBuffer = orderBuffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sequentialCutoff) {
+                IntroSort.sort(keys, order, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new KeySortTask(keys, order, keyBuffer, orderBuffer, from, middle),
+                    new KeySortTask(keys, order, keyBuffer, orderBuffer, middle, to));
+
+            if (keys[middle - 1] <= keys[middle]) {
+                return;
+            }
+            System.arraycopy(keys, from, keyBuffer, from, to - from);
+            System.arraycopy(order, from, orderBuffer, from, to - from);
+            int left = from;
+            int right = middle;
+            int out = from;
+            while (left < middle && right < to) {
+                if (keyBuffer[right] < keyBuffer[left]) {
+                    keys[out] = keyBuffer[right];
+                    order[out++] = orderBuffer[right++];
+                } else {
+                    keys[out] = keyBuffer[left];
+                    order[out++] = orderBuffer[left++];
+                }
+            }
+            while (left < middle) {
+                keys[out] = keyBuffer[left];
+                order[out++] = orderBuffer[left++];
+            }
+            while (right < to) {
+                keys[out] = keyBuffer[right];
+                order[out++] = orderBuffer[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package utils;
+
+import models.Employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SalaryIndex class - employees kept sorted by salary
+ * Salaries live in a primitive double[] with the employees in a parallel
+ * array, so range bounds, counts and percentiles are binary searches over
+ * doubles (no boxing, no getter calls).
+ *
+ * Time Complexity: O(log n) count-in-range and percentile, O(log n + k)
+ * range query, O(b log n) histogram with b buckets, O(n) insert/remove
+ * (one array copy).
+ *
+ * Salaries are indexed when the employee is added; an employee whose salary
+ * changes must be removed and added again.
+ *
+ * Copy-on-write like SortedIdView: readers never lock and each query sees
+ * one consistent snapshot; writers must be serialized by the caller.
+ */
+public class SalaryIndex {
+    private static final Snapshot EMPTY = new Snapshot(new double[0], new Employee[0]);
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    /**
+     * Salaries in ascending order with their employees (null for a salary-only
+     * index), never modified once published
+     */
+    private static final class Snapshot {
+        final double[] salaries;
+        final Employee[] employees;
+
+        Snapshot(double[] salaries, Employee[] employees) {
+            this.salaries = salaries;
+            this.employees = employees;
+        }
+    }
+
+    /**
+     * Constructor - creates an empty index
+     */
+    public SalaryIndex() {
+    }
+
+    /**
+     * Salary-only index over already sorted salaries (e.g. streamed from the
+     * database in lazy mode): counts, percentiles and histograms work, range()
+     * does not, since there are no employee references
+     */
+    public static SalaryIndex ofSortedSalaries(double[] sortedSalaries) {
+        SalaryIndex index = new SalaryIndex();
+        index.snapshot = new Snapshot(sortedSalaries, null);
+        return index;
+    }
+
+    /**
+     * Replace the contents with the given employees (one bulk sort)
+     */
+    public void rebuild(Collection<Employee> source) {
+        List<Employee> sorted = IntroSort.sortBySalary(new ArrayList<>(source), true);
+        double[] salaries = new double[sorted.size()];
+        Employee[] employees = new Employee[sorted.size()];
+        int size = 0;
+        for (Employee employee : sorted) {
+            salaries[size] = employee.getSalary();
+            employees[size] = employee;
+            size++;
+        }
+        snapshot = new Snapshot(salaries, employees);
+    }
+
+    /**
+     * Insert employee after any employees with the same salary
+     */
+    public void add(Employee employee) {
+        Snapshot current = snapshot;
+        double salary = employee.getSalary();
+        int position = upperBound(current.salaries, salary);
+        int size = current.salaries.length;
+        double[] salaries = new double[size + 1];
+        Employee[] employees = new Employee[size + 1];
+        System.arraycopy(current.salaries, 0, salaries, 0, position);
+        System.arraycopy(current.employees, 0, employees, 0, position);
+        salaries[position] = salary;
+        employees[position] = employee;
+        System.arraycopy(current.salaries, position, salaries, position + 1, size - position);
+        System.arraycopy(current.employees, position, employees, position + 1, size - position);
+        snapshot = new Snapshot(salaries, employees);
+    }
+
+    /**
+     * Remove this employee object (looked up by its indexed salary)
+     *
+     * @return true if it was in the index
+     */
+    public boolean remove(Employee employee) {
+        Snapshot current = snapshot;
+        double[] salaries = current.salaries;
+        double salary = employee.getSalary();
+        for (int i = lowerBound(salaries, salary); i < salaries.length && salaries[i] == salary; i++) {
+            if (current.employees[i] == employee) {
+                removeAt(current, i);
+                return true;
+            }
+        }
+        // Salary changed since it was indexed: fall back to a scan
+        for (int i = 0; i < salaries.length; i++) {
+            if (current.employees[i] == employee) {
+                removeAt(current, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeAt(Snapshot current, int position) {
+        int size = current.salaries.length;
+        double[] salaries = new double[size - 1];
+        Employee[] employees = new Employee[size - 1];
+        System.arraycopy(current.salaries, 0, salaries, 0, position);
+        System.arraycopy(current.employees, 0, employees, 0, position);
+        System.arraycopy(current.salaries, position + 1, salaries, position, size - position - 1);
+        System.arraycopy(current.employees, position + 1, employees, position, size - position - 1);
+        snapshot = new Snapshot(salaries, employees);
+    }
+
+    /**
+     * Frozen copy of the current contents - O(1), shares the immutable arrays
+     * Use it when several queries must agree (e.g. size, percentiles and histogram).
+     */
+    public SalaryIndex snapshot() {
+        SalaryIndex frozen = new SalaryIndex();
+        frozen.snapshot = snapshot;
+        return frozen;
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Employees with minSalary <= salary <= maxSalary, lowest salary first - O(log n + k)
+     */
+    public List<Employee> range(double minSalary, double maxSalary) {
+        Snapshot current = snapshot;
+        if (current.employees == null) {
+            throw new IllegalStateException("Salary-only index has no employee references");
+        }
+        int from = lowerBound(current.salaries, minSalary);
+        int to = upperBound(current.salaries, maxSalary);
+        List<Employee> results = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            results.add(current.employees[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Number of employees with minSalary <= salary <= maxSalary - O(log n)
+     */
+    public int countInRange(double minSalary, double maxSalary) {
+        double[] salaries = snapshot.salaries;
+        return Math.max(0, upperBound(salaries, maxSalary) - lowerBound(salaries, minSalary));
+    }
+
+    /**
+     * Salary at a percentile (nearest-rank method) - O(1)
+     *
+     * @param percentile 0 to 100 (50 = median)
+     * @return the salary, or NaN if there are no employees
+     */
+    public double percentile(double percentile) {
+        double[] salaries = snapshot.salaries;
+        if (salaries.length == 0) {
+            return Double.NaN;
+        }
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * salaries.length);
+        return salaries[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Employee counts per bucket between consecutive boundaries
+     * Bucket i holds boundaries[i] <= salary < boundaries[i + 1]; the last
+     * bucket includes its upper boundary.
+     *
+     * @param boundaries ascending bucket edges (at least two)
+     */
+    public int[] histogram(double[] boundaries) {
+        if (boundaries.length < 2) {
+            throw new IllegalArgumentException("A histogram needs at least two boundaries");
+        }
+        double[] salaries = snapshot.salaries;
+        int[] counts = new int[boundaries.length - 1];
+        int previous = lowerBound(salaries, boundaries[0]);
+        for (int i = 1; i < boundaries.length; i++) {
+            int next = i == boundaries.length - 1 ? upperBound(salaries, boundaries[i]) : lowerBound(salaries, boundaries[i]);
+            counts[i - 1] = Math.max(0, next - previous);
+            previous = next;
+        }
+        return counts;
+    }
+
+    /**
+     * Equal-width buckets from the lowest to the highest salary
+     *
+     * @return boundaries (buckets + 1 values), empty if there are no employees
+     */
+    public double[] equalWidthBoundaries(int buckets) {
+        double[] salaries = snapshot.salaries;
+        if (salaries.length == 0) {
+            return new double[0];
+        }
+        double min = salaries[0];
+        double max = salaries[salaries.length - 1];
+        double width = (max - min) / buckets;
+        double[] boundaries = new double[buckets + 1];
+        for (int i = 0; i < buckets; i++) {
+            boundaries[i] = min + i * width;
+        }
+        boundaries[buckets] = max;
+        return boundaries;
+    }
+
+    public double getMinSalary() {
+        double[] salaries = snapshot.salaries;
+        return salaries.length > 0 ? salaries[0] : Double.NaN;
+    }
+
+    public double getMaxSalary() {
+        double[] salaries = snapshot.salaries;
+        return salaries.length > 0 ? salaries[salaries.length - 1] : Double.NaN;
+    }
+
+    public int size() {
+        return snapshot.salaries.length;
+    }
+
+    public void clear() {
+        snapshot = EMPTY;
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * First position with salary >= value
+     */
+    private static int lowerBound(double[] salaries, double value) {
+        int low = 0;
+        int high = salaries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (salaries[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First position with salary > value
+     */
+    private static int upperBound(double[] salaries, double value) {
+        int low = 0;
+        int high = salaries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (salaries[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
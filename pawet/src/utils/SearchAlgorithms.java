@@ -3,6 +3,7 @@ package utils;
 import models.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * SearchAlgorithms class implementing various search algorithms
@@ -66,6 +67,9 @@ public class SearchAlgorithms {
     /**
      * Search by Department ID
      * Time Complexity: O(n)
+     * Department IDs are pooled (StringPool), so each employee costs a reference
+     * compare against the pooled case variants of departmentId (usually one)
+     * instead of a case-insensitive string compare.
      *
      * @param employees List of employees to search
      * @param departmentId Department ID to filter by
@@ -74,9 +78,18 @@ public class SearchAlgorithms {
     public static List<Employee> searchByDepartment(List<Employee> employees, String departmentId) {
         List<Employee> results = new ArrayList<>();
 
-        for (Employee employee : employees) {
-            if (departmentId.equalsIgnoreCase(employee.getDepartmentId())) {
-                results.add(employee);
+        if (StringPool.shared().isEnabled()) {
+            String[] variants = StringPool.shared().variantsIgnoreCase(departmentId);
+            for (Employee employee : employees) {
+                if (isOneOf(employee.getDepartmentId(), variants)) {
+                    results.add(employee);
+                }
+            }
+        } else {
+            for (Employee employee : employees) {
+                if (departmentId.equalsIgnoreCase(employee.getDepartmentId())) {
+                    results.add(employee);
+                }
             }
         }
 
@@ -111,6 +124,8 @@ public class SearchAlgorithms {
     /**
      * Search by Role Type (Manager, Scientist, Technician)
      * Time Complexity: O(n)
+     * getRoleType() returns string constants, which the JVM interns, so the
+     * upper-cased, interned roleType is compared by reference.
      *
      * @param employees List of employees to search
      * @param roleType Role type to filter by
@@ -118,9 +133,10 @@ public class SearchAlgorithms {
      */
     public static List<Employee> searchByRoleType(List<Employee> employees, String roleType) {
         List<Employee> results = new ArrayList<>();
+        String target = roleType.toUpperCase(Locale.ROOT).intern();
 
         for (Employee employee : employees) {
-            if (roleType.equalsIgnoreCase(employee.getRoleType())) {
+            if (employee.getRoleType() == target) {
                 results.add(employee);
             }
         }
@@ -129,6 +145,15 @@ public class SearchAlgorithms {
         return results;
     }
 
+    private static boolean isOneOf(String value, String[] candidates) {
+        for (String candidate : candidates) {
+            if (value == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // ==================== BINARY SEARCH ====================
 
     /**
@@ -10,6 +10,23 @@ import java.util.List;
  */
 public class SortAlgorithms {
 
+    /**
+     * Implementation behind the quickSortBy... methods
+     * CLASSIC: recursive Lomuto quicksort, last element as pivot (O(n²) on sorted input)
+     * INTROSORT: IntroSort on an index array (O(n log n) worst case)
+     */
+    public enum QuickSortMode { CLASSIC, INTROSORT }
+
+    private static QuickSortMode quickSortMode = QuickSortMode.INTROSORT;
+
+    public static QuickSortMode getQuickSortMode() {
+        return quickSortMode;
+    }
+
+    public static void setQuickSortMode(QuickSortMode mode) {
+        quickSortMode = mode;
+    }
+
     // ==================== BUBBLE SORT ====================
 
     /**
@@ -160,11 +177,15 @@ public class SortAlgorithms {
         System.out.println("→ Starting Quick Sort on " + sortedList.size() + " employees...");
 
         long startTime = System.nanoTime();
-        quickSortByNameHelper(sortedList, 0, sortedList.size() - 1);
+        if (quickSortMode == QuickSortMode.INTROSORT) {
+            sortedList = IntroSort.sortByName(sortedList);
+        } else {
+            quickSortByNameHelper(sortedList, 0, sortedList.size() - 1);
+        }
         long endTime = System.nanoTime();
 
         double duration = (endTime - startTime) / 1_000_000.0; // Convert to milliseconds
-        System.out.println("→ Quick Sort completed in " + String.format("%.2f", duration) + " ms");
+        System.out.println("→ Quick Sort (" + quickSortMode + ") completed in " + String.format("%.2f", duration) + " ms");
 
         return sortedList;
     }
@@ -219,8 +240,13 @@ public class SortAlgorithms {
      * @return Sorted list (ascending by ID)
      */
     public static List<Employee> quickSortById(List<Employee> employees) {
-        List<Employee> sortedList = new ArrayList<>(employees);
-        quickSortByIdHelper(sortedList, 0, sortedList.size() - 1);
+        List<Employee> sortedList;
+        if (quickSortMode == QuickSortMode.INTROSORT) {
+            sortedList = IntroSort.sortById(employees);
+        } else {
+            sortedList = new ArrayList<>(employees);
+            quickSortByIdHelper(sortedList, 0, sortedList.size() - 1);
+        }
         System.out.println("→ Quick sorted " + sortedList.size() + " employees by ID");
         return sortedList;
     }
@@ -268,8 +294,13 @@ public class SortAlgorithms {
      * @return Sorted list
      */
     public static List<Employee> quickSortBySalary(List<Employee> employees, boolean ascending) {
-        List<Employee> sortedList = new ArrayList<>(employees);
-        quickSortBySalaryHelper(sortedList, 0, sortedList.size() - 1, ascending);
+        List<Employee> sortedList;
+        if (quickSortMode == QuickSortMode.INTROSORT) {
+            sortedList = IntroSort.sortBySalary(employees, ascending);
+        } else {
+            sortedList = new ArrayList<>(employees);
+            quickSortBySalaryHelper(sortedList, 0, sortedList.size() - 1, ascending);
+        }
         System.out.println("→ Quick sorted " + sortedList.size() + " employees by salary");
         return sortedList;
     }
@@ -353,16 +384,26 @@ public class SortAlgorithms {
 
         System.out.println();
 
-        // Quick Sort
+        // Quick Sort (classic and introsort)
+        QuickSortMode mode = quickSortMode;
+        quickSortMode = QuickSortMode.CLASSIC;
         long startQuick = System.nanoTime();
         quickSortByName(new ArrayList<>(employees));
         long endQuick = System.nanoTime();
         double quickTime = (endQuick - startQuick) / 1_000_000.0;
 
+        quickSortMode = QuickSortMode.INTROSORT;
+        long startIntro = System.nanoTime();
+        quickSortByName(new ArrayList<>(employees));
+        long endIntro = System.nanoTime();
+        double introTime = (endIntro - startIntro) / 1_000_000.0;
+        quickSortMode = mode;
+
         System.out.println("\n───────────────────────────────────────────");
         System.out.println("Results:");
         System.out.printf("  Bubble Sort: %.2f ms\n", bubbleTime);
         System.out.printf("  Quick Sort:  %.2f ms\n", quickTime);
+        System.out.printf("  Introsort:   %.2f ms\n", introTime);
         System.out.printf("  Speed Improvement: %.1fx faster\n", bubbleTime / quickTime);
         System.out.println("═══════════════════════════════════════════\n");
     }
@@ -0,0 +1,191 @@
+package utils;
+
+import models.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SortedIdView class - employees kept sorted by ID at all times
+ * A sorted array with insertion/removal at the binary-search position, so
+ * binary search and ID range scans need no sort first.
+ *
+ * Time Complexity: O(log n) lookup, O(log n + k) range scan, O(n) insert/remove
+ * (one array copy, which is a memmove and cheap next to the O(n log n) sort
+ * it replaces).
+ *
+ * Copy-on-write: every change builds new arrays and publishes them through a
+ * volatile field, so readers never lock and always see one consistent
+ * snapshot. Writers must be serialized by the caller (EmployeeIndex does).
+ *
+ * IDs are ordered case-insensitively, like SortAlgorithms.quickSortById and
+ * SearchAlgorithms.binarySearchById.
+ */
+public class SortedIdView {
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new Employee[0]);
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    /**
+     * Folded IDs and employees in ID order, never modified once published
+     */
+    private static final class Snapshot {
+        final String[] keys;
+        final Employee[] employees;
+
+        Snapshot(String[] keys, Employee[] employees) {
+            this.keys = keys;
+            this.employees = employees;
+        }
+    }
+
+    /**
+     * Replace the contents with the given employees (one bulk sort instead of n inserts)
+     */
+    public void rebuild(Collection<Employee> source) {
+        List<Employee> sorted = IntroSort.sortById(new ArrayList<>(source));
+        String[] keys = new String[sorted.size()];
+        Employee[] employees = new Employee[sorted.size()];
+        int size = 0;
+        for (Employee employee : sorted) {
+            String key = IntroSort.foldCase(employee.getId());
+            // IDs differing only in case count as the same ID (keep one)
+            if (size > 0 && keys[size - 1].equals(key)) {
+                employees[size - 1] = employee;
+                continue;
+            }
+            keys[size] = key;
+            employees[size] = employee;
+            size++;
+        }
+        snapshot = new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(employees, size));
+    }
+
+    /**
+     * Insert employee at its sorted position (replaces an employee with the same ID)
+     */
+    public void add(Employee employee) {
+        Snapshot current = snapshot;
+        String key = IntroSort.foldCase(employee.getId());
+        int position = search(current.keys, key);
+        if (position >= 0) {
+            Employee[] employees = current.employees.clone();
+            employees[position] = employee;
+            snapshot = new Snapshot(current.keys, employees);
+            return;
+        }
+
+        position = -position - 1;
+        int size = current.keys.length;
+        String[] keys = new String[size + 1];
+        Employee[] employees = new Employee[size + 1];
+        System.arraycopy(current.keys, 0, keys, 0, position);
+        System.arraycopy(current.employees, 0, employees, 0, position);
+        keys[position] = key;
+        employees[position] = employee;
+        System.arraycopy(current.keys, position, keys, position + 1, size - position);
+        System.arraycopy(current.employees, position, employees, position + 1, size - position);
+        snapshot = new Snapshot(keys, employees);
+    }
+
+    /**
+     * Remove employee by ID
+     *
+     * @return removed employee, or null if the ID was not in the view
+     */
+    public Employee remove(String employeeId) {
+        Snapshot current = snapshot;
+        int position = search(current.keys, IntroSort.foldCase(employeeId));
+        if (position < 0) {
+            return null;
+        }
+        int size = current.keys.length;
+        String[] keys = new String[size - 1];
+        Employee[] employees = new Employee[size - 1];
+        System.arraycopy(current.keys, 0, keys, 0, position);
+        System.arraycopy(current.employees, 0, employees, 0, position);
+        System.arraycopy(current.keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(current.employees, position + 1, employees, position, size - position - 1);
+        snapshot = new Snapshot(keys, employees);
+        return current.employees[position];
+    }
+
+    /**
+     * Lookup by ID - O(log n)
+     */
+    public Employee get(String employeeId) {
+        if (employeeId == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        int position = search(current.keys, IntroSort.foldCase(employeeId));
+        return position >= 0 ? current.employees[position] : null;
+    }
+
+    /**
+     * Employees with fromId <= ID <= toId in ID order - O(log n + k)
+     * A null bound leaves that side open.
+     */
+    public List<Employee> range(String fromId, String toId) {
+        Snapshot current = snapshot;
+        int start = 0;
+        if (fromId != null) {
+            start = search(current.keys, IntroSort.foldCase(fromId));
+            if (start < 0) {
+                start = -start - 1;
+            }
+        }
+        int end = current.keys.length;
+        if (toId != null) {
+            end = search(current.keys, IntroSort.foldCase(toId));
+            end = end >= 0 ? end + 1 : -end - 1;
+        }
+
+        List<Employee> results = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            results.add(current.employees[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Read-only list in ID order: a snapshot that later add/remove/rebuild calls do not change
+     * Suitable for SearchAlgorithms.binarySearchById, which needs random access.
+     */
+    public List<Employee> asList() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot.employees));
+    }
+
+    public int size() {
+        return snapshot.keys.length;
+    }
+
+    public void clear() {
+        snapshot = EMPTY;
+    }
+
+    /**
+     * Binary search over the folded keys
+     *
+     * @return position of the key, or -(insertion point) - 1
+     */
+    private static int search(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys[middle].compareTo(key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,458 @@
+package utils;
+
+import models.ChangeListener;
+import models.Department;
+import models.Employee;
+import models.Equipment;
+import models.Project;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * StatisticsEngine class - organization-wide aggregates kept up to date incrementally
+ * Headcounts per role, payroll, department budgets, per-department headcount
+ * and payroll, project counts per status and equipment counts per status are
+ * adjusted on every add/remove and on every status or budget change (as a
+ * ChangeListener on departments, projects and equipment), so reading them
+ * is O(1) instead of a scan over every entity.
+ *
+ * Money is summed in whole cents (long), so adding and later subtracting the
+ * same amount always returns to the same total.
+ *
+ * Until the engine is loaded (rebuild(), or a database load followed by
+ * markLoaded()) change events are ignored: the load reads the current state.
+ * A change whose event and database write straddle such a load would be
+ * counted twice or not at all, so callers bracket each change with
+ * beginChange / endChange, and a load runs between pauseChanges and
+ * resumeChanges, when no change is under way.
+ * Keys (role types, statuses, department IDs) are upper-cased. Thread-safe:
+ * every method locks the engine (each update is a few additions), and the
+ * department totals handed out are copies.
+ */
+public class StatisticsEngine implements ChangeListener {
+    private boolean loaded;
+
+    // Gate between changes and a load (its own monitor, so events never wait on it)
+    private final Object changeGate = new Object();
+    // Guarded by changeGate
+    private int changesInFlight;
+    private boolean changesPaused;
+
+    private int employeeCount;
+    private long payrollCents;
+    private final Map<String, Integer> employeesByRole = new HashMap<>();
+
+    private int departmentCount;
+    private long budgetCents;
+    private final Map<String, DepartmentTotals> departments = new TreeMap<>();
+
+    private int projectCount;
+    private long projectBudgetCents;
+    private final Map<String, Integer> projectsByStatus = new HashMap<>();
+
+    private int equipmentCount;
+    private final Map<String, Integer> equipmentByStatus = new HashMap<>();
+
+    /**
+     * Per-department aggregates (the department may be unknown if employees
+     * reference an ID with no department row)
+     */
+    public static final class DepartmentTotals {
+        private final String departmentId;
+        private boolean registered;
+        private int employees;
+        private long payrollCents;
+        private long budgetCents;
+
+        private DepartmentTotals(String departmentId) {
+            this.departmentId = departmentId;
+        }
+
+        private DepartmentTotals copy() {
+            DepartmentTotals copy = new DepartmentTotals(departmentId);
+            copy.registered = registered;
+            copy.employees = employees;
+            copy.payrollCents = payrollCents;
+            copy.budgetCents = budgetCents;
+            return copy;
+        }
+
+        public String getDepartmentId() {
+            return departmentId;
+        }
+
+        public boolean isRegistered() {
+            return registered;
+        }
+
+        public int getEmployeeCount() {
+            return employees;
+        }
+
+        public double getPayroll() {
+            return payrollCents / 100.0;
+        }
+
+        public double getBudget() {
+            return budgetCents / 100.0;
+        }
+    }
+
+    // ==================== LOADING ====================
+
+    /**
+     * Recompute everything from full scans of the given sources - O(n)
+     */
+    public synchronized void rebuild(Iterable<? extends Employee> employees, Iterable<Department> departmentSource,
+                        Iterable<Project> projects, Iterable<Equipment> equipmentList) {
+        clear();
+        for (Employee employee : employees) {
+            countEmployees(employee.getRoleType(), employee.getDepartmentId(), 1, cents(employee.getSalary()));
+        }
+        for (Department department : departmentSource) {
+            countDepartment(department.getId(), 1, cents(department.getBudget()));
+        }
+        for (Project project : projects) {
+            countProjects(project.getStatus(), 1, cents(project.getBudget()));
+        }
+        for (Equipment equipment : equipmentList) {
+            countEquipment(equipment.getStatus(), 1);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Reset to empty and stop tracking changes until loaded again
+     */
+    public synchronized void clear() {
+        loaded = false;
+        employeeCount = 0;
+        payrollCents = 0;
+        employeesByRole.clear();
+        departmentCount = 0;
+        budgetCents = 0;
+        departments.clear();
+        projectCount = 0;
+        projectBudgetCents = 0;
+        projectsByStatus.clear();
+        equipmentCount = 0;
+        equipmentByStatus.clear();
+    }
+
+    /**
+     * Start tracking changes after the totals were filled in with the count methods
+     */
+    public synchronized void markLoaded() {
+        loaded = true;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    // ==================== LOAD CONSISTENCY ====================
+
+    /**
+     * A change that reports an event here and writes to the database is starting
+     * Waits while a load has paused changes. Not nested, and never called
+     * holding a lock another change may wait for, or a load could wait forever.
+     */
+    public void beginChange() {
+        synchronized (changeGate) {
+            boolean interrupted = false;
+            while (changesPaused) {
+                try {
+                    changeGate.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            changesInFlight++;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The change's event and database write are both done
+     */
+    public void endChange() {
+        synchronized (changeGate) {
+            if (--changesInFlight == 0 && changesPaused) {
+                changeGate.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Hold new changes back and wait for those under way to end, before a load
+     */
+    public void pauseChanges() {
+        synchronized (changeGate) {
+            changesPaused = true;
+            boolean interrupted = false;
+            while (changesInFlight > 0) {
+                try {
+                    changeGate.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void resumeChanges() {
+        synchronized (changeGate) {
+            changesPaused = false;
+            changeGate.notifyAll();
+        }
+    }
+
+    // ==================== RAW COUNTERS ====================
+    // Used by rebuild(), by aggregate queries and by the change events below.
+
+    /**
+     * Add count employees (negative to remove) with their payroll in cents
+     */
+    public synchronized void countEmployees(String roleType, String departmentId, int count, long payroll) {
+        employeeCount += count;
+        payrollCents += payroll;
+        employeesByRole.merge(key(roleType), count, Integer::sum);
+        DepartmentTotals totals = totals(departmentId);
+        totals.employees += count;
+        totals.payrollCents += payroll;
+    }
+
+    /**
+     * Add (count 1) or remove (count -1) a department with its budget in cents
+     */
+    public synchronized void countDepartment(String departmentId, int count, long budget) {
+        departmentCount += count;
+        budgetCents += budget;
+        DepartmentTotals totals = totals(departmentId);
+        if (count != 0) {
+            totals.registered = count > 0;
+        }
+        totals.budgetCents += budget;
+    }
+
+    /**
+     * Add count projects (negative to remove) with their budget in cents
+     */
+    public synchronized void countProjects(String status, int count, long budget) {
+        projectCount += count;
+        projectBudgetCents += budget;
+        projectsByStatus.merge(key(status), count, Integer::sum);
+    }
+
+    /**
+     * Add count pieces of equipment (negative to remove)
+     */
+    public synchronized void countEquipment(String status, int count) {
+        equipmentCount += count;
+        equipmentByStatus.merge(key(status), count, Integer::sum);
+    }
+
+    // ==================== CHANGE EVENTS ====================
+
+    public synchronized void employeeAdded(Employee employee) {
+        if (loaded) {
+            countEmployees(employee.getRoleType(), employee.getDepartmentId(), 1, cents(employee.getSalary()));
+        }
+    }
+
+    public synchronized void employeeRemoved(Employee employee) {
+        if (loaded) {
+            countEmployees(employee.getRoleType(), employee.getDepartmentId(), -1, -cents(employee.getSalary()));
+        }
+    }
+
+    public synchronized void departmentAdded(Department department) {
+        if (loaded) {
+            countDepartment(department.getId(), 1, cents(department.getBudget()));
+        }
+    }
+
+    public synchronized void projectAdded(Project project) {
+        if (loaded) {
+            countProjects(project.getStatus(), 1, cents(project.getBudget()));
+        }
+    }
+
+    public synchronized void equipmentAdded(Equipment equipment) {
+        if (loaded) {
+            countEquipment(equipment.getStatus(), 1);
+        }
+    }
+
+    @Override
+    public synchronized void departmentBudgetChanged(Department department, double oldBudget) {
+        if (loaded) {
+            countDepartment(department.getId(), 0, cents(department.getBudget()) - cents(oldBudget));
+        }
+    }
+
+    @Override
+    public synchronized void projectStatusChanged(Project project, String oldStatus) {
+        if (loaded) {
+            countProjects(oldStatus, -1, 0);
+            countProjects(project.getStatus(), 1, 0);
+        }
+    }
+
+    @Override
+    public synchronized void projectBudgetChanged(Project project, double oldBudget) {
+        if (loaded) {
+            countProjects(project.getStatus(), 0, cents(project.getBudget()) - cents(oldBudget));
+        }
+    }
+
+    @Override
+    public synchronized void equipmentStatusChanged(Equipment equipment, String oldStatus, String newStatus) {
+        if (loaded) {
+            countEquipment(oldStatus, -1);
+            countEquipment(newStatus, 1);
+        }
+    }
+
+    // ==================== QUERIES (all O(1)) ====================
+
+    public synchronized int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public synchronized int getEmployeeCount(String roleType) {
+        return employeesByRole.getOrDefault(key(roleType), 0);
+    }
+
+    public synchronized double getTotalPayroll() {
+        return payrollCents / 100.0;
+    }
+
+    public synchronized double getAverageSalary() {
+        return employeeCount > 0 ? payrollCents / 100.0 / employeeCount : 0;
+    }
+
+    public synchronized int getDepartmentCount() {
+        return departmentCount;
+    }
+
+    public synchronized double getTotalBudget() {
+        return budgetCents / 100.0;
+    }
+
+    /**
+     * Totals for one department, or null if nothing references it
+     */
+    public synchronized DepartmentTotals getDepartmentTotals(String departmentId) {
+        DepartmentTotals totals = departments.get(key(departmentId));
+        return totals != null ? totals.copy() : null;
+    }
+
+    /**
+     * Totals for every department, in department ID order
+     */
+    public synchronized Collection<DepartmentTotals> getAllDepartmentTotals() {
+        List<DepartmentTotals> totals = new ArrayList<>(departments.size());
+        for (DepartmentTotals department : departments.values()) {
+            totals.add(department.copy());
+        }
+        return Collections.unmodifiableList(totals);
+    }
+
+    public synchronized int getProjectCount() {
+        return projectCount;
+    }
+
+    public synchronized int getProjectCount(String status) {
+        return projectsByStatus.getOrDefault(key(status), 0);
+    }
+
+    public synchronized double getTotalProjectBudget() {
+        return projectBudgetCents / 100.0;
+    }
+
+    public synchronized int getEquipmentCount() {
+        return equipmentCount;
+    }
+
+    public synchronized int getEquipmentCount(String status) {
+        return equipmentByStatus.getOrDefault(key(status), 0);
+    }
+
+    // ==================== VERIFICATION ====================
+
+    /**
+     * Compare with another engine (e.g. a full recompute)
+     *
+     * @return one line per aggregate that differs, empty if they all match
+     */
+    public synchronized List<String> differences(StatisticsEngine expected) {
+        List<String> differences = new ArrayList<>();
+        compare(differences, "employees", employeeCount, expected.employeeCount);
+        compare(differences, "payroll (cents)", payrollCents, expected.payrollCents);
+        compareCounts(differences, "employees with role ", employeesByRole, expected.employeesByRole);
+        compare(differences, "departments", departmentCount, expected.departmentCount);
+        compare(differences, "budget (cents)", budgetCents, expected.budgetCents);
+        compare(differences, "projects", projectCount, expected.projectCount);
+        compare(differences, "project budget (cents)", projectBudgetCents, expected.projectBudgetCents);
+        compareCounts(differences, "projects with status ", projectsByStatus, expected.projectsByStatus);
+        compare(differences, "equipment", equipmentCount, expected.equipmentCount);
+        compareCounts(differences, "equipment with status ", equipmentByStatus, expected.equipmentByStatus);
+
+        TreeSet<String> departmentIds = new TreeSet<>(departments.keySet());
+        departmentIds.addAll(expected.departments.keySet());
+        DepartmentTotals none = new DepartmentTotals("");
+        for (String id : departmentIds) {
+            DepartmentTotals actual = departments.getOrDefault(id, none);
+            DepartmentTotals wanted = expected.departments.getOrDefault(id, none);
+            compare(differences, id + " employees", actual.employees, wanted.employees);
+            compare(differences, id + " payroll (cents)", actual.payrollCents, wanted.payrollCents);
+            compare(differences, id + " budget (cents)", actual.budgetCents, wanted.budgetCents);
+        }
+        return differences;
+    }
+
+    private static void compare(List<String> differences, String label, long actual, long expected) {
+        if (actual != expected) {
+            differences.add(String.format("%s: incremental %,d, recomputed %,d", label, actual, expected));
+        }
+    }
+
+    private static void compareCounts(List<String> differences, String label,
+                                      Map<String, Integer> actual, Map<String, Integer> expected) {
+        TreeSet<String> keys = new TreeSet<>(actual.keySet());
+        keys.addAll(expected.keySet());
+        for (String key : keys) {
+            compare(differences, label + key, actual.getOrDefault(key, 0), expected.getOrDefault(key, 0));
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private DepartmentTotals totals(String departmentId) {
+        return departments.computeIfAbsent(key(departmentId), DepartmentTotals::new);
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toUpperCase();
+    }
+
+    /**
+     * Amount in whole cents
+     */
+    public static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+}
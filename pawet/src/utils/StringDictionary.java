@@ -0,0 +1,62 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StringDictionary class - assigns dense int codes to distinct strings
+ * Used to dictionary-encode low-cardinality columns (department IDs, role
+ * types): a column stores one int per row and each distinct string once.
+ *
+ * Codes are assigned in first-seen order starting at 0. null is stored as
+ * the empty string. Not thread-safe.
+ */
+public class StringDictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    private int size;
+
+    /**
+     * Code for the value, adding it if it is new
+     */
+    public int encode(String value) {
+        String key = value == null ? "" : value;
+        Integer code = codes.get(key);
+        if (code == null) {
+            code = size;
+            codes.put(key, code);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = key;
+        }
+        return code;
+    }
+
+    /**
+     * Code for the value, or -1 if it is not in the dictionary
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value == null ? "" : value);
+        return code != null ? code : -1;
+    }
+
+    public String decode(int code) {
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("No dictionary entry for code " + code);
+        }
+        return values[code];
+    }
+
+    /**
+     * All values, indexed by code
+     */
+    public String[] values() {
+        return Arrays.copyOf(values, size);
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,93 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringPool class - one shared String instance per distinct value
+ * Department IDs, roles, statuses and equipment types repeat across huge
+ * numbers of rows, and every JDBC getString returns a fresh copy. The model
+ * constructors and setters pass those fields through canonical(), so a
+ * million employees in 50 departments hold 50 department ID Strings, and
+ * equality on them can be a reference compare.
+ *
+ * Unlike String.intern() the pool also tracks the case variants of each
+ * value, so case-insensitive matches stay identity compares.
+ *
+ * Only use it for low-cardinality fields: entries are never evicted.
+ * Disable with -Dpawet.strings.pool=false (e.g. to measure the saving).
+ * Thread-safe.
+ */
+public final class StringPool {
+    private static final String[] NONE = new String[0];
+    private static final StringPool SHARED =
+            new StringPool(!"false".equalsIgnoreCase(System.getProperty("pawet.strings.pool")));
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    // Upper-cased value -> canonical instances of every case variant
+    private final ConcurrentHashMap<String, String[]> variants = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for StringPool
+     *
+     * @param enabled false makes canonical() return its argument unchanged
+     */
+    public StringPool(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The pool used by the models
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * The canonical instance equal to value (value itself the first time it is seen)
+     */
+    public String canonical(String value) {
+        if (value == null || !enabled) {
+            return value;
+        }
+        String existing = values.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        existing = values.putIfAbsent(value, value);
+        if (existing != null) {
+            return existing;
+        }
+        variants.merge(value.toUpperCase(), new String[] {value}, StringPool::concat);
+        return value;
+    }
+
+    /**
+     * Canonical instances of every pooled value equal to value ignoring case
+     * (usually one; empty if no such value was ever pooled)
+     */
+    public String[] variantsIgnoreCase(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        return variants.getOrDefault(value.toUpperCase(), NONE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Number of distinct values held
+     */
+    public int size() {
+        return values.size();
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] merged = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, merged, first.length, second.length);
+        return merged;
+    }
+}
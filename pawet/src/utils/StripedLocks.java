@@ -0,0 +1,66 @@
+package utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * StripedLocks class - a fixed array of locks shared out by key hash
+ * Organization locks department and employee IDs with it, so updates to
+ * different entities run in parallel while two updates of the same entity
+ * are serialized, without keeping a lock object per entity.
+ *
+ * Keys are case-insensitive, like the ID indexes. Two keys may share a stripe;
+ * that only costs some parallelism. Callers hold one stripe at a time, so they
+ * cannot deadlock on each other.
+ */
+public final class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Constructor for StripedLocks
+     *
+     * @param stripes number of locks (rounded up to a power of two)
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Run action holding the stripe of key
+     */
+    public <T> T withLock(String key, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Spread the hash so IDs differing only in their last digits land on different stripes
+     */
+    private int stripe(String key) {
+        int hash = key == null ? 0 : key.toUpperCase().hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x9E3779B9;
+        return (hash >>> 16) & mask;
+    }
+}
@@ -0,0 +1,405 @@
+package utils;
+
+import models.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SyntheticDataGenerator class - reproducible organization data at any scale
+ * Scale factor 1 is 10,000 employees; departments grow with the square root
+ * of the scale, projects and equipment linearly. The same seed and scale
+ * always produce the same rows, so scaling problems can be reproduced.
+ *
+ * Distributions:
+ * - Department sizes are Zipf-like (a few large departments, a long tail)
+ * - 8% managers, 27% scientists, 65% technicians; salaries log-normal per role
+ * - Hire dates over 20 years, weighted towards recent hires
+ * - Projects: 60% active, 30% completed, 10% suspended, log-normal budgets,
+ *   led by a scientist of the same department
+ * - Equipment: weighted types; 55% available, 30% in use (assigned to a
+ *   technician of the same department), 10% maintenance, 5% retired
+ * - Every non-manager is on the team of a manager of their department; the
+ *   first manager generated for a department becomes its head
+ *
+ * Rows are produced in chunks of CHUNK_SIZE employees together with their
+ * projects and equipment, so relationship lists are complete when a chunk
+ * is handed to the Sink and memory stays bounded at millions of rows.
+ */
+public class SyntheticDataGenerator {
+    public static final long DEFAULT_SEED = 42;
+    public static final int EMPLOYEES_PER_SCALE = 10_000;
+    public static final int CHUNK_SIZE = 50_000;
+
+    // Everything is dated relative to a fixed day so runs are reproducible
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final String[] FIRST_NAMES = {
+            "Amara", "Kofi", "Thandiwe", "Omar", "Grace", "Ibrahim", "Amina", "Chinwe", "Makena", "Zuri",
+            "Kwame", "Lesedi", "Jabari", "Nia", "Sekou", "Asha", "Alice", "Joseph", "Fatima", "David",
+            "Sarah", "Tendai", "Wanjiru", "Abebe", "Mariam", "Sipho", "Esi", "Baraka", "Halima", "Tariq"};
+    private static final String[] LAST_NAMES = {
+            "Mbeki", "Osei", "Hassan", "Ndlovu", "Kamau", "Moyo", "Ali", "Mwangi", "Diop", "Yusuf",
+            "Okeke", "Odhiambo", "Banda", "Asante", "Nkosi", "Traore", "Okafor", "Mensah", "Adeyemi", "Dlamini",
+            "Kariuki", "Achieng", "Tesfaye", "Diallo", "Keita", "Otieno", "Boateng", "Sithole", "Mutua", "Phiri"};
+    private static final String[] DEPARTMENT_AREAS = {
+            "Marine Conservation", "Wildlife Research", "Forestry Management", "Tourism Development",
+            "Data Analytics", "Anti-Poaching Operations", "Wetlands Protection", "Community Outreach",
+            "Climate Monitoring", "Veterinary Services"};
+    private static final String[] REGIONS = {
+            "Coastal Region", "Savannah Region", "Forest Region", "Central HQ", "Highlands", "Lake Region",
+            "Desert Region", "Delta Region"};
+    private static final String[] MANAGER_ROLES = {"Department Head", "Program Manager", "Operations Manager"};
+    private static final String[] SCIENTIST_ROLES = {
+            "Research Scientist", "Senior Ecologist", "Marine Biologist", "Data Scientist", "Veterinarian"};
+    private static final String[] TECHNICIAN_ROLES = {
+            "Field Technician", "Ranger Technician", "GIS Technician", "Lab Technician", "Maintenance Technician"};
+    private static final String[] SPECIALIZATIONS = {
+            "Coral Reef Ecology", "Large Mammal Behaviour", "Ornithology", "Hydrology", "Botany",
+            "Epidemiology", "Remote Sensing", "Entomology", "Climate Science"};
+    private static final String[] CERTIFICATIONS = {
+            "First Aid", "GPS Operation", "Drone Pilot", "Wildlife Handling", "Firearms Safety",
+            "4x4 Driving", "Scuba Diving", "Radio Operation"};
+    private static final String[] EQUIPMENT_TYPES = {
+            "GPS Tracker", "Camera Trap", "Radio", "Vehicle", "Drone", "Boat", "Microscope"};
+    private static final double[] EQUIPMENT_TYPE_WEIGHTS = {30, 25, 17, 10, 8, 5, 5};
+    private static final String[] PROJECT_TOPICS = {
+            "Population Survey", "Habitat Restoration", "Migration Tracking", "Water Quality Study",
+            "Anti-Poaching Patrols", "Reforestation", "Community Education", "Disease Surveillance"};
+
+    /**
+     * Receives generated rows (e.g. a DatabaseManager bulk writer)
+     * departments() is called once, before any chunk; departmentsUpdated()
+     * once at the end with the final employee counts and department heads.
+     */
+    public interface Sink {
+        void departments(List<Department> departments);
+
+        void chunk(List<Employee> employees, List<Project> projects, List<Equipment> equipment);
+
+        default void departmentsUpdated(List<Department> departments) {
+        }
+    }
+
+    /**
+     * Sink that keeps every row in memory (for benchmarks and small scales)
+     */
+    public static class Collector implements Sink {
+        public final List<Department> departments = new ArrayList<>();
+        public final List<Employee> employees = new ArrayList<>();
+        public final List<Project> projects = new ArrayList<>();
+        public final List<Equipment> equipment = new ArrayList<>();
+
+        @Override
+        public void departments(List<Department> generated) {
+            departments.addAll(generated);
+        }
+
+        @Override
+        public void chunk(List<Employee> chunkEmployees, List<Project> chunkProjects, List<Equipment> chunkEquipment) {
+            employees.addAll(chunkEmployees);
+            projects.addAll(chunkProjects);
+            equipment.addAll(chunkEquipment);
+        }
+    }
+
+    private final long seed;
+    private final double scaleFactor;
+
+    /**
+     * Constructor for SyntheticDataGenerator
+     *
+     * @param seed random seed (same seed and scale = same data)
+     * @param scaleFactor 1 = 10,000 employees, 100 = 1,000,000
+     */
+    public SyntheticDataGenerator(long seed, double scaleFactor) {
+        if (scaleFactor <= 0) {
+            throw new IllegalArgumentException("Scale factor must be positive: " + scaleFactor);
+        }
+        this.seed = seed;
+        this.scaleFactor = scaleFactor;
+    }
+
+    public int getEmployeeCount() {
+        return (int) Math.round(EMPLOYEES_PER_SCALE * scaleFactor);
+    }
+
+    public int getDepartmentCount() {
+        return (int) Math.min(999, Math.max(5, Math.round(10 * Math.sqrt(scaleFactor))));
+    }
+
+    public int getProjectCount() {
+        return getEmployeeCount() / 50;
+    }
+
+    public int getEquipmentCount() {
+        return getEmployeeCount() / 4;
+    }
+
+    /**
+     * Generate everything into the sink
+     */
+    public void generate(Sink sink) {
+        Random random = new Random(seed);
+        int employeeCount = getEmployeeCount();
+
+        List<Department> departments = generateDepartments(random);
+        sink.departments(departments);
+        double[] departmentWeights = zipfCumulative(departments.size(), 0.8);
+        double[] typeWeights = cumulative(EQUIPMENT_TYPE_WEIGHTS);
+        int[] headcount = new int[departments.size()];
+
+        int nextEmployee = 1;
+        int nextProject = 1;
+        int nextEquipment = 1;
+        while (nextEmployee <= employeeCount) {
+            int chunkSize = Math.min(CHUNK_SIZE, employeeCount - nextEmployee + 1);
+            // Projects and equipment in proportion to the employees generated so far
+            int projectsUpTo = (int) ((long) getProjectCount() * (nextEmployee - 1 + chunkSize) / employeeCount);
+            int equipmentUpTo = (int) ((long) getEquipmentCount() * (nextEmployee - 1 + chunkSize) / employeeCount);
+
+            Chunk chunk = new Chunk(departments.size());
+            for (int i = 0; i < chunkSize; i++) {
+                int department = pick(random, departmentWeights);
+                Employee employee = generateEmployee(random, nextEmployee++, departments.get(department).getId());
+                if (employee instanceof Manager && departments.get(department).getManagerId() == null) {
+                    departments.get(department).setManagerId(employee.getId());
+                }
+                chunk.add(department, employee);
+                headcount[department]++;
+            }
+            chunk.buildTeams(random);
+
+            List<Project> projects = new ArrayList<>();
+            for (; nextProject <= projectsUpTo; nextProject++) {
+                projects.add(generateProject(random, nextProject, departments, departmentWeights, chunk));
+            }
+            List<Equipment> equipment = new ArrayList<>();
+            for (; nextEquipment <= equipmentUpTo; nextEquipment++) {
+                equipment.add(generateEquipment(random, nextEquipment, departments, departmentWeights,
+                        typeWeights, chunk));
+            }
+            sink.chunk(chunk.employees, projects, equipment);
+        }
+
+        for (int i = 0; i < departments.size(); i++) {
+            departments.get(i).setEmployeeCount(headcount[i]);
+        }
+        sink.departmentsUpdated(departments);
+    }
+
+    /**
+     * Employees only, spread evenly over existing departments, with the same
+     * role mix, names, salaries and hire dates as generate(). Numbered from
+     * firstNumber; no teams, projects or equipment, and the scale factor is
+     * not used. For imports into an existing database and for benchmarks
+     * that only need employees.
+     */
+    public List<Employee> generateEmployees(List<String> departmentIds, int firstNumber, int count) {
+        Random random = new Random(seed);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String departmentId = departmentIds.get(random.nextInt(departmentIds.size()));
+            employees.add(generateEmployee(random, firstNumber + i, departmentId));
+        }
+        return employees;
+    }
+
+    // ==================== ENTITIES ====================
+
+    private List<Department> generateDepartments(Random random) {
+        int count = getDepartmentCount();
+        List<Department> departments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String area = DEPARTMENT_AREAS[(i - 1) % DEPARTMENT_AREAS.length];
+            String name = i <= DEPARTMENT_AREAS.length ? area : area + " " + ((i - 1) / DEPARTMENT_AREAS.length + 1);
+            double budget = roundTo(logNormal(random, 1_000_000, 0.5), 10_000);
+            departments.add(new Department(String.format("D%03d", i), name,
+                    REGIONS[random.nextInt(REGIONS.length)], budget, null, 0));
+        }
+        return departments;
+    }
+
+    private Employee generateEmployee(Random random, int number, String departmentId) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String name = first + " " + last;
+        String email = (first + "." + last).toLowerCase() + number + "@pawet.org";
+        String phone = String.format("+254-7%02d-%06d", random.nextInt(100), random.nextInt(1_000_000));
+        // sqrt skews towards 1, so recent hire dates are more common
+        LocalDate hireDate = REFERENCE_DATE.minusDays((long) (20 * 365 * (1 - Math.sqrt(random.nextDouble()))));
+
+        int roll = random.nextInt(100);
+        if (roll < 8) {
+            return new Manager(String.format("M%07d", number), name, email, phone, departmentId,
+                    MANAGER_ROLES[random.nextInt(MANAGER_ROLES.length)],
+                    roundTo(logNormal(random, 95_000, 0.25), 100), hireDate,
+                    roundTo(logNormal(random, 400_000, 0.5), 1_000));
+        } else if (roll < 35) {
+            return new Scientist(String.format("S%07d", number), name, email, phone, departmentId,
+                    SCIENTIST_ROLES[random.nextInt(SCIENTIST_ROLES.length)],
+                    roundTo(logNormal(random, 68_000, 0.2), 100), hireDate,
+                    SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)]);
+        }
+        String certifications = CERTIFICATIONS[random.nextInt(CERTIFICATIONS.length)];
+        if (random.nextBoolean()) {
+            certifications += ", " + CERTIFICATIONS[random.nextInt(CERTIFICATIONS.length)];
+        }
+        return new Technician(String.format("T%07d", number), name, email, phone, departmentId,
+                TECHNICIAN_ROLES[random.nextInt(TECHNICIAN_ROLES.length)],
+                roundTo(logNormal(random, 42_000, 0.18), 100), hireDate, certifications);
+    }
+
+    private Project generateProject(Random random, int number, List<Department> departments,
+                                    double[] departmentWeights, Chunk chunk) {
+        int department = pick(random, departmentWeights);
+        Scientist lead = chunk.randomScientist(random, department);
+        LocalDate start = REFERENCE_DATE.minusDays(random.nextInt(5 * 365));
+        LocalDate end = start.plusMonths(6 + random.nextInt(43));
+        int roll = random.nextInt(10);
+        String status = roll < 6 ? "ACTIVE" : roll < 9 ? "COMPLETED" : "SUSPENDED";
+        String id = String.format("P%06d", number);
+        if (lead != null) {
+            lead.addProject(id);
+        }
+        return new Project(id, PROJECT_TOPICS[random.nextInt(PROJECT_TOPICS.length)] + " " + number,
+                "Synthetic project", departments.get(department).getId(), lead != null ? lead.getId() : null,
+                roundTo(logNormal(random, 250_000, 0.7), 1_000), start, end, status);
+    }
+
+    private Equipment generateEquipment(Random random, int number, List<Department> departments,
+                                        double[] departmentWeights, double[] typeWeights, Chunk chunk) {
+        int department = pick(random, departmentWeights);
+        String type = EQUIPMENT_TYPES[pick(random, typeWeights)];
+        String id = String.format("E%07d", number);
+        LocalDate purchased = REFERENCE_DATE.minusDays(random.nextInt(10 * 365));
+
+        int roll = random.nextInt(100);
+        String status = roll < 55 ? "AVAILABLE" : roll < 85 ? "IN_USE" : roll < 95 ? "MAINTENANCE" : "RETIRED";
+        String assignedTo = null;
+        if ("IN_USE".equals(status)) {
+            Technician technician = chunk.randomTechnician(random, department);
+            if (technician != null) {
+                technician.addEquipment(id);
+                assignedTo = technician.getId();
+            } else {
+                status = "AVAILABLE";
+            }
+        }
+        return new Equipment(id, type + " " + number, type, String.format("SN-%08d", number),
+                departments.get(department).getId(), assignedTo, purchased, status);
+    }
+
+    /**
+     * Employees of one chunk, grouped by department for relationship picks
+     */
+    private static class Chunk {
+        final List<Employee> employees = new ArrayList<>();
+        final List<List<Manager>> managers = new ArrayList<>();
+        final List<List<Scientist>> scientists = new ArrayList<>();
+        final List<List<Technician>> technicians = new ArrayList<>();
+        final List<List<Employee>> staff = new ArrayList<>();
+
+        Chunk(int departments) {
+            for (int i = 0; i < departments; i++) {
+                managers.add(new ArrayList<>());
+                scientists.add(new ArrayList<>());
+                technicians.add(new ArrayList<>());
+                staff.add(new ArrayList<>());
+            }
+        }
+
+        void add(int department, Employee employee) {
+            employees.add(employee);
+            if (employee instanceof Manager) {
+                managers.get(department).add((Manager) employee);
+                return;
+            }
+            staff.get(department).add(employee);
+            if (employee instanceof Scientist) {
+                scientists.get(department).add((Scientist) employee);
+            } else {
+                technicians.get(department).add((Technician) employee);
+            }
+        }
+
+        /**
+         * Put every non-manager on the team of a random manager of their department
+         */
+        void buildTeams(Random random) {
+            for (int department = 0; department < staff.size(); department++) {
+                List<Manager> departmentManagers = managers.get(department);
+                if (departmentManagers.isEmpty()) {
+                    continue;
+                }
+                for (Employee employee : staff.get(department)) {
+                    departmentManagers.get(random.nextInt(departmentManagers.size())).addTeamMember(employee.getId());
+                }
+            }
+        }
+
+        Scientist randomScientist(Random random, int department) {
+            List<Scientist> candidates = scientists.get(department);
+            return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+        }
+
+        Technician randomTechnician(Random random, int department) {
+            List<Technician> candidates = technicians.get(department);
+            return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+        }
+    }
+
+    // ==================== DISTRIBUTIONS ====================
+
+    private static double logNormal(Random random, double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    private static double roundTo(double value, double step) {
+        return Math.max(step, Math.round(value / step) * step);
+    }
+
+    /**
+     * Cumulative Zipf weights 1/rank^exponent, normalized to end at 1
+     */
+    private static double[] zipfCumulative(int count, double exponent) {
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Index drawn with the given cumulative weights (binary search)
+     */
+    private static int pick(Random random, double[] cumulative) {
+        double target = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}